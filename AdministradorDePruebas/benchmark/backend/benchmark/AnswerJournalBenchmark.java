@@ -0,0 +1,142 @@
+// backend/benchmark/AnswerJournalBenchmark.java
+package backend.benchmark;
+
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.Test;
+import backend.session.AnswerJournal;
+import backend.session.SessionRegistry;
+import backend.session.TestSession;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide el diario de respuestas: muchas sesiones respondiendo a la vez con confirmación en grupo,
+ * una sola sesión con cada durabilidad (una sincronización por operación, o en segundo plano) y la
+ * recuperación de todas las sesiones al abrir de nuevo el diario.
+ * Uso: java backend.benchmark.AnswerJournalBenchmark [sesiones] [hilos] [operaciones por sesión]
+ */
+public class AnswerJournalBenchmark {
+    // Huella de ejemplo: el banco sintético no viene de un archivo
+    private static final String BANK_HASH = "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int operations = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        Test test = SyntheticTests.create(100);
+        File file = File.createTempFile("respuestas", ".journal");
+        file.deleteOnExit();
+
+        // Una sola sesión: cada operación espera su propia sincronización, o la hace el hilo del diario
+        for (AnswerJournal.Durability durability : AnswerJournal.Durability.values()) {
+            File single = File.createTempFile("respuestas-una", ".journal");
+            single.deleteOnExit();
+            try (AnswerJournal journal = AnswerJournal.open(single, t -> BANK_HASH, durability)) {
+                TestSession session = new SessionRegistry(1, journal).openSession("única", test);
+                session.start();
+                int singleOperations = 2000;
+                long start = System.nanoTime();
+                runOperations(session, new Random(1), singleOperations);
+                long nanos = System.nanoTime() - start;
+                System.out.printf("Una sesión, %s: %d operaciones en %.1f ms (%.0f por segundo), %d sincronizaciones%n",
+                        durability, singleOperations, nanos / 1e6, singleOperations / (nanos / 1e9),
+                        journal.getCommitCount());
+            }
+        }
+
+        List<TestSession> sessions = new ArrayList<>(sessionCount);
+        long operationsDone;
+        try (AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH)) {
+            SessionRegistry registry = new SessionRegistry(sessionCount, journal);
+            for (int i = 0; i < sessionCount; i++) {
+                TestSession session = registry.openSession("candidato-" + i, test, i);
+                session.start();
+                sessions.add(session);
+            }
+            Thread[] threads = new Thread[threadCount];
+            long start = System.nanoTime();
+            for (int t = 0; t < threadCount; t++) {
+                int first = t;
+                threads[t] = new Thread(() -> {
+                    Random random = new Random(first);
+                    for (int i = first; i < sessionCount; i += threadCount) {
+                        runOperations(sessions.get(i), random, operations);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long nanos = System.nanoTime() - start;
+            operationsDone = (long) sessionCount * operations;
+            System.out.printf("%d sesiones en %d hilos: %d operaciones en %.1f ms (%.0f por segundo)%n",
+                    sessionCount, threadCount, operationsDone, nanos / 1e6, operationsDone / (nanos / 1e9));
+            System.out.printf("  %d registros en %d sincronizaciones (%.1f registros por sincronización), %.1f MB%n",
+                    journal.getRecordCount(), journal.getCommitCount(),
+                    (double) journal.getRecordCount() / journal.getCommitCount(), file.length() / 1e6);
+        }
+
+        // Recuperación tras reiniciar: leer el diario completo y reanudar todas las sesiones
+        long start = System.nanoTime();
+        int mismatches = 0;
+        try (AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH)) {
+            long openNanos = System.nanoTime() - start;
+            for (TestSession before : sessions) {
+                TestSession after = journal.resume(before.getSessionId(), test);
+                if (after == null || !sameState(before, after)) {
+                    mismatches++;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            System.out.printf("Recuperación: %d registros leídos en %.1f ms, %d sesiones reanudadas en %.1f ms, %d diferencias%n",
+                    journal.getRecoveredRecordCount(), openNanos / 1e6, sessions.size(), nanos / 1e6, mismatches);
+        }
+    }
+
+    /**
+     * Responde, marca y navega como lo haría un candidato.
+     */
+    private static void runOperations(TestSession session, Random random, int operations) {
+        int items = session.getNumberOfItems();
+        for (int i = 0; i < operations; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 5) {
+                Question question = session.getCurrentQuestion();
+                String answer = question instanceof MultipleChoiceQuestion
+                        ? ((MultipleChoiceQuestion) question).getOptions().get(random.nextInt(4))
+                        : (random.nextBoolean() ? "Verdadero" : "Falso");
+                session.saveUserAnswer(answer);
+            } else if (kind < 8) {
+                if (!session.goToNextQuestion()) {
+                    session.goToQuestion(0);
+                }
+            } else if (kind < 9) {
+                session.goToQuestion(random.nextInt(items));
+            } else {
+                int position = random.nextInt(items);
+                session.setFlagged(position, !session.isFlagged(position));
+            }
+        }
+    }
+
+    private static boolean sameState(TestSession before, TestSession after) {
+        if (before.getCurrentQuestionIndex() != after.getCurrentQuestionIndex()
+                || before.getOrder().getSeed() != after.getOrder().getSeed()) {
+            return false;
+        }
+        for (int position = 0; position < before.getNumberOfItems(); position++) {
+            if (before.getAnswerCode(position) != after.getAnswerCode(position)
+                    || before.isFlagged(position) != after.isFlagged(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
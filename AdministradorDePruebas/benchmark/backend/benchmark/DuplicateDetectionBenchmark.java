@@ -0,0 +1,141 @@
+// backend/benchmark/DuplicateDetectionBenchmark.java
+package backend.benchmark;
+
+import backend.bank.DuplicateDetector;
+import backend.file.CSVLoader;
+import backend.file.LoadProgress;
+import backend.model.Question;
+import backend.model.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Mide la detección de casi duplicados durante la carga de un banco CSV sintético en el que una de
+ * cada cien preguntas es una copia retocada de otra: otra puntuación, sin tildes, una palabra cambiada
+ * o las opciones en otro orden. Informa cuántas de esas copias quedan en el grupo de su original.
+ * Uso: java backend.benchmark.DuplicateDetectionBenchmark [preguntas]
+ */
+public class DuplicateDetectionBenchmark {
+    private static final int DUPLICATE_EVERY = 100;
+
+    public static void main(String[] args) throws IOException {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        File file = File.createTempFile("duplicados", ".csv");
+        file.deleteOnExit();
+        int[] originalOf = writeBank(file, items);
+        CSVLoader loader = new CSVLoader();
+
+        long start = System.nanoTime();
+        loader.loadTest(file);
+        long plainNanos = System.nanoTime() - start;
+
+        DuplicateDetector detector = new DuplicateDetector();
+        start = System.nanoTime();
+        Test test = loader.loadTest(file, detector.watch(LoadProgress.NONE));
+        long loadNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        List<List<Question>> clusters = detector.findClusters();
+        long clusterNanos = System.nanoTime() - start;
+
+        List<Question> questions = test.getQuestions();
+        Map<Question, Integer> clusterOf = new IdentityHashMap<>();
+        int clustered = 0;
+        for (int c = 0; c < clusters.size(); c++) {
+            for (Question question : clusters.get(c)) {
+                clusterOf.put(question, c);
+            }
+            clustered += clusters.get(c).size();
+        }
+        int injected = 0;
+        int found = 0;
+        int similar = 0; // Copias cuya similitud exacta alcanza el umbral
+        int similarFound = 0;
+        for (int row = 0; row < originalOf.length; row++) {
+            if (originalOf[row] >= 0) {
+                Question copy = questions.get(row);
+                Question original = questions.get(originalOf[row]);
+                Integer cluster = clusterOf.get(copy);
+                boolean joined = cluster != null && cluster.equals(clusterOf.get(original));
+                injected++;
+                found += joined ? 1 : 0;
+                if (DuplicateDetector.similarity(copy, original) >= detector.getThreshold()) {
+                    similar++;
+                    similarFound += joined ? 1 : 0;
+                }
+            }
+        }
+
+        System.out.printf("Carga de %d preguntas: %.1f ms sin detector, %.1f ms calculando firmas%n",
+                items, plainNanos / 1e6, loadNanos / 1e6);
+        System.out.printf("Agrupación: %.1f ms, %d grupos con %d preguntas%n", clusterNanos / 1e6, clusters.size(), clustered);
+        System.out.printf("Copias retocadas encontradas: %d de %d (%.1f %%); con similitud de al menos %.2f: %d de %d (%.1f %%)%n",
+                found, injected, 100.0 * found / injected, detector.getThreshold(), similarFound, similar, 100.0 * similarFound / similar);
+        if (!clusters.isEmpty()) {
+            List<Question> example = clusters.get(0);
+            System.out.printf("Ejemplo (similitud %.2f):%n  %s%n  %s%n",
+                    DuplicateDetector.similarity(example.get(0), example.get(1)),
+                    example.get(0).getStatement(), example.get(1).getStatement());
+        }
+    }
+
+    /**
+     * Escribe el banco y devuelve, para cada fila, la fila de la que es copia o -1.
+     */
+    private static int[] writeBank(File file, int items) throws IOException {
+        Random random = new Random(42);
+        String[] statements = new String[items];
+        List<List<String>> options = new ArrayList<>(items);
+        int[] originalOf = new int[items];
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), Charset.defaultCharset())) {
+            for (int row = 0; row < items; row++) {
+                List<String> rowOptions;
+                if (row > 0 && row % DUPLICATE_EVERY == 0) {
+                    int original = random.nextInt(row);
+                    originalOf[row] = original;
+                    statements[row] = retouch(statements[original], random);
+                    rowOptions = new ArrayList<>(options.get(original));
+                    Collections.shuffle(rowOptions, random);
+                } else {
+                    originalOf[row] = -1;
+                    statements[row] = SyntheticTests.statement(random);
+                    rowOptions = new ArrayList<>(4);
+                    for (int o = 0; o < 4; o++) {
+                        rowOptions.add(SyntheticTests.word(random) + " " + SyntheticTests.word(random));
+                    }
+                }
+                options.add(rowOptions);
+                writer.write("Selección Múltiple;" + statements[row] + ";" + String.join(", ", rowOptions)
+                        + ";" + rowOptions.get(0) + ";Aplicar;" + (30 + row % 90));
+                writer.newLine();
+            }
+        }
+        return originalOf;
+    }
+
+    /**
+     * Retoca un enunciado como lo haría otro autor.
+     */
+    private static String retouch(String statement, Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return statement.replace("¿", "").replace("?", ".").toUpperCase();
+            case 1:
+                return statement.replace('á', 'a').replace('é', 'e').replace('í', 'i').replace('ó', 'o').replace('ú', 'u');
+            default:
+                String[] words = statement.split(" ");
+                words[random.nextInt(words.length)] = SyntheticTests.word(random);
+                return String.join(" ", words);
+        }
+    }
+}
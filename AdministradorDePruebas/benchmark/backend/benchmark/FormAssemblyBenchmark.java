@@ -0,0 +1,80 @@
+// backend/benchmark/FormAssemblyBenchmark.java
+package backend.benchmark;
+
+import backend.bank.Blueprint;
+import backend.bank.FormAssembler;
+import backend.bank.QuestionBank;
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.QuestionType;
+import backend.model.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mide el armado de formas paralelas disjuntas a partir de un banco sintético grande y verifica que
+ * cada forma cumpla el plan.
+ * Uso: java backend.benchmark.FormAssemblyBenchmark [preguntas del banco] [formas]
+ */
+public class FormAssemblyBenchmark {
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int formCount = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+
+        Test source = SyntheticTests.create(items);
+        long start = System.nanoTime();
+        QuestionBank bank = QuestionBank.of(source);
+        FormAssembler assembler = new FormAssembler(bank);
+        long prepareNanos = System.nanoTime() - start;
+
+        // 60 preguntas, 10 por nivel, mitad de cada tipo, con un tiempo medio de 45 s como máximo
+        Blueprint blueprint = Blueprint.named("Parcial");
+        for (BloomLevel level : BloomLevel.values()) {
+            blueprint = blueprint.withBloomCount(level, 10);
+        }
+        blueprint = blueprint.withTypeCount(QuestionType.MULTIPLE_CHOICE, 30)
+                .withTypeCount(QuestionType.TRUE_FALSE, 30)
+                .withMaxTotalTime(60 * 45)
+                .withForms(formCount, true);
+
+        start = System.nanoTime();
+        List<Test> forms = assembler.assemble(blueprint, 42);
+        long assembleNanos = System.nanoTime() - start;
+
+        Set<Question> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Test form : forms) {
+            for (BloomLevel level : BloomLevel.values()) {
+                check(form.getTotalByBloom(level) == blueprint.getBloomCount(level), form, "nivel " + level.getName());
+            }
+            for (QuestionType type : QuestionType.values()) {
+                check(form.getTotalByType(type) == blueprint.getTypeCount(type), form, "tipo " + type.getName());
+            }
+            check(form.getTotalEstimatedTime() <= blueprint.getMaxTotalTime(), form, "tiempo total");
+            for (Question question : form.getQuestions()) {
+                check(seen.add(question), form, "pregunta repetida");
+            }
+        }
+
+        System.out.printf("Banco: %d preguntas, índices y celdas en %.1f ms%n", items, prepareNanos / 1e6);
+        System.out.printf("%d formas disjuntas de %d preguntas en %.1f ms (%.2f ms por forma)%n", forms.size(),
+                blueprint.getNumberOfItems(), assembleNanos / 1e6, assembleNanos / 1e6 / forms.size());
+        System.out.printf("Tiempo total de la primera forma: %d s (máximo %d s)%n",
+                forms.get(0).getTotalEstimatedTime(), blueprint.getMaxTotalTime());
+
+        try {
+            assembler.assemble(blueprint.withMaxTotalTime(60 * 20));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Plan imposible: " + e.getMessage());
+        }
+    }
+
+    private static void check(boolean condition, Test form, String constraint) {
+        if (!condition) {
+            throw new IllegalStateException(form.getName() + " no cumple el plan: " + constraint);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+// backend/benchmark/QuestionBankBenchmark.java
+package backend.benchmark;
+
+import backend.bank.QuestionBank;
+import backend.bank.QuestionQuery;
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.QuestionType;
+import backend.model.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compara consultas multicriterio recorriendo todas las preguntas con las mismas consultas
+ * resueltas por los índices de {@link QuestionBank}.
+ * Uso: java backend.benchmark.QuestionBankBenchmark [preguntas] [repeticiones]
+ */
+public class QuestionBankBenchmark {
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        Test test = SyntheticTests.create(items);
+        long start = System.nanoTime();
+        QuestionBank bank = QuestionBank.of(test);
+        long buildNanos = System.nanoTime() - start;
+        System.out.printf("Preguntas: %d, índices construidos en %.1f ms%n", items, buildNanos / 1e6);
+
+        QuestionQuery[] queries = {
+                QuestionQuery.all().withBloom(BloomLevel.APLICAR).withType(QuestionType.MULTIPLE_CHOICE).withMaxTime(59),
+                QuestionQuery.all().withBloom(BloomLevel.CREAR).withTimeBetween(100, 101),
+                QuestionQuery.all().withBloom(BloomLevel.ANALIZAR, BloomLevel.EVALUAR).withType(QuestionType.TRUE_FALSE),
+                QuestionQuery.all().withMinTime(115),
+        };
+        List<Question> questions = test.getQuestions();
+        for (QuestionQuery query : queries) {
+            int[] expected = linearScan(questions, query);
+            if (!Arrays.equals(expected, bank.select(query)) || expected.length != bank.count(query)) {
+                throw new IllegalStateException("Los índices no coinciden con el recorrido completo: " + query);
+            }
+
+            // Calentamiento para que el JIT compile ambos caminos
+            long checksum = 0;
+            for (int i = 0; i < 10; i++) {
+                checksum += linearScan(questions, query).length + bank.select(query).length + bank.count(query);
+            }
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += linearScan(questions, query).length;
+            }
+            long scanNanos = (System.nanoTime() - start) / repetitions;
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += bank.select(query).length;
+            }
+            long selectNanos = (System.nanoTime() - start) / repetitions;
+
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += bank.count(query);
+            }
+            long countNanos = (System.nanoTime() - start) / repetitions;
+
+            System.out.printf("%s -> %d preguntas (control %d)%n", query, expected.length, checksum);
+            System.out.printf("  Recorrido completo: %.1f µs, select: %.1f µs, count: %.1f µs%n",
+                    scanNanos / 1e3, selectNanos / 1e3, countNanos / 1e3);
+        }
+    }
+
+    private static int[] linearScan(List<Question> questions, QuestionQuery query) {
+        int[] result = new int[questions.size()];
+        int count = 0;
+        for (int id = 0; id < questions.size(); id++) {
+            Question question = questions.get(id);
+            if (query.matches(question.getBloomLevel(), question.getQuestionType(), question.getEstimatedTime())) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,129 @@
+// backend/benchmark/ResultExportBenchmark.java
+package backend.benchmark;
+
+import backend.grading.BatchGrader;
+import backend.grading.ResultExporter;
+import backend.model.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mide la exportación de resultados: califica millones de hojas sintéticas con {@link BatchGrader}
+ * y escribe cada candidato en CSV y en JSON Lines, sin comprimir y con gzip. Compara también con un
+ * GZIPOutputStream de nivel por defecto, y relee cada archivo para contar sus líneas.
+ * El heap ocupado al terminar no depende de la cantidad de candidatos; puede comprobarse con -Xmx64m.
+ * Uso: java backend.benchmark.ResultExportBenchmark [candidatos] [preguntas]
+ */
+public class ResultExportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int candidates = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        Test test = SyntheticTests.create(items);
+        BatchGrader grader = new BatchGrader(test);
+        long baseHeap = SyntheticTests.usedHeap();
+
+        long start = System.nanoTime();
+        grader.grade(sheets(candidates, items), score -> { });
+        System.out.printf("%d candidatos de %d preguntas: calificación sin exportar en %.1f ms%n",
+                candidates, items, (System.nanoTime() - start) / 1e6);
+
+        for (ResultExporter.Format format : ResultExporter.Format.values()) {
+            String extension = format == ResultExporter.Format.CSV ? ".csv" : ".jsonl";
+            run("sin comprimir", format, extension, false, grader, candidates, items);
+            run("gzip", format, extension + ".gz", true, grader, candidates, items);
+        }
+
+        // Referencia: el mismo exportador sobre un GZIPOutputStream con el nivel de compresión por defecto
+        File file = File.createTempFile("resultados", ".jsonl.gz");
+        file.deleteOnExit();
+        start = System.nanoTime();
+        try (ResultExporter exporter = new ResultExporter(Channels.newChannel(
+                new GZIPOutputStream(Files.newOutputStream(file.toPath()), 1 << 16)),
+                ResultExporter.Format.JSON_LINES, items)) {
+            export(grader, exporter, candidates, items);
+        }
+        report("JSON_LINES, GZIPOutputStream", file, System.nanoTime() - start, true, candidates);
+
+        System.out.printf("Heap ocupado: %.1f MB antes de exportar, %.1f MB al terminar%n",
+                baseHeap / 1e6, SyntheticTests.usedHeap() / 1e6);
+    }
+
+    private static void run(String label, ResultExporter.Format format, String extension, boolean gzip,
+                            BatchGrader grader, int candidates, int items) throws IOException {
+        File file = File.createTempFile("resultados", extension);
+        file.deleteOnExit();
+        long start = System.nanoTime();
+        try (ResultExporter exporter = ResultExporter.open(file, format, gzip, items)) {
+            export(grader, exporter, candidates, items);
+        }
+        report(format + ", " + label, file, System.nanoTime() - start, gzip, candidates);
+    }
+
+    private static void export(BatchGrader grader, ResultExporter exporter, int candidates, int items) {
+        grader.grade(sheets(candidates, items), score -> {
+            try {
+                exporter.write(score);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void report(String label, File file, long nanos, boolean gzip, int candidates) throws IOException {
+        long lines = 0;
+        long textBytes = 0;
+        try (InputStream in = gzip ? new GZIPInputStream(new FileInputStream(file), 1 << 16) : new FileInputStream(file);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                textBytes += line.length() + 1;
+            }
+        }
+        System.out.printf("%-30s %8.1f ms  %7.1f MB en disco  %6.1f MB/s de texto  %.0f candidatos/s  %d líneas%n",
+                label, nanos / 1e6, file.length() / 1e6, textBytes / (nanos / 1e3), candidates / (nanos / 1e9), lines);
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Genera hojas de respuestas pseudoaleatorias: cerca de la mitad correctas y algunas sin responder.
+     */
+    private static Iterator<byte[]> sheets(int candidates, int items) {
+        Random random = new Random(42);
+        return new Iterator<byte[]>() {
+            private int produced;
+
+            @Override
+            public boolean hasNext() {
+                return produced < candidates;
+            }
+
+            @Override
+            public byte[] next() {
+                produced++;
+                byte[] sheet = new byte[items];
+                for (int i = 0; i < items; i++) {
+                    sheet[i] = (byte) random.nextInt(i % 2 == 0 ? 5 : 3); // Opciones 1 a 4, o Verdadero/Falso
+                }
+                return sheet;
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+// backend/benchmark/ScoringBenchmark.java
+package backend.benchmark;
+
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.Test;
+import backend.session.TestSession;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compara el cálculo de resultados recorriendo todas las preguntas (como lo hacía finishTest)
+ * con el cálculo a partir de los contadores incrementales de la hoja de respuestas.
+ * Uso: java backend.benchmark.ScoringBenchmark [preguntas] [repeticiones]
+ */
+public class ScoringBenchmark {
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        Test test = SyntheticTests.create(items);
+        TestSession session = new TestSession("benchmark", test);
+        session.start();
+        do {
+            session.saveUserAnswer(session.getCurrentQuestionIndex() % 3 == 0 ? "Verdadero" : "1");
+        } while (session.goToNextQuestion());
+
+        // Calentamiento para que el JIT compile ambos caminos
+        double checksum = 0;
+        for (int i = 0; i < 20; i++) {
+            checksum += fullScan(session).size() + session.finish().getResult().getCorrectCount();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            checksum += fullScan(session).get(BloomLevel.RECORDAR);
+        }
+        long fullScanNanos = (System.nanoTime() - start) / repetitions;
+
+        start = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            checksum += session.finish().getResult().getBloomPercentage(BloomLevel.RECORDAR);
+        }
+        long incrementalNanos = (System.nanoTime() - start) / repetitions;
+
+        System.out.printf("Preguntas: %d (control %.1f)%n", items, checksum);
+        System.out.printf("Recorrido completo: %.3f ms por resultado%n", fullScanNanos / 1e6);
+        System.out.printf("Contadores incrementales: %.3f ms por resultado%n", incrementalNanos / 1e6);
+    }
+
+    /**
+     * Cálculo por nivel de Bloom recorriendo la prueba completa, como lo hacía TestManager.finishTest.
+     */
+    private static Map<BloomLevel, Double> fullScan(TestSession session) {
+        List<Question> questions = session.getTest().getQuestions();
+        Map<BloomLevel, Integer> correctByBloom = new HashMap<>();
+        Map<BloomLevel, Integer> totalByBloom = new HashMap<>();
+        Map<String, Integer> correctByType = new HashMap<>();
+        Map<String, Integer> totalByType = new HashMap<>();
+        for (int i = 0; i < questions.size(); i++) {
+            Question q = questions.get(i);
+            boolean correct = q.isCorrect(session.getAnswerCode(i));
+            totalByBloom.put(q.getBloomLevel(), totalByBloom.getOrDefault(q.getBloomLevel(), 0) + 1);
+            if (correct) {
+                correctByBloom.put(q.getBloomLevel(), correctByBloom.getOrDefault(q.getBloomLevel(), 0) + 1);
+            }
+            totalByType.put(q.getType(), totalByType.getOrDefault(q.getType(), 0) + 1);
+            if (correct) {
+                correctByType.put(q.getType(), correctByType.getOrDefault(q.getType(), 0) + 1);
+            }
+        }
+        Map<BloomLevel, Double> bloomPercentages = new HashMap<>();
+        for (Map.Entry<BloomLevel, Integer> entry : totalByBloom.entrySet()) {
+            int correct = correctByBloom.getOrDefault(entry.getKey(), 0);
+            bloomPercentages.put(entry.getKey(), (double) correct * 100 / entry.getValue());
+        }
+        return bloomPercentages;
+    }
+}
@@ -0,0 +1,63 @@
+// backend/benchmark/SessionRegistryBenchmark.java
+package backend.benchmark;
+
+import backend.model.Test;
+import backend.session.SessionRegistry;
+import backend.session.TestSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Benchmark de sesiones concurrentes: muchos candidatos comparten una misma prueba en una sola JVM.
+ * Uso: java backend.benchmark.SessionRegistryBenchmark [sesiones] [preguntas] [hilos]
+ */
+public class SessionRegistryBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Test test = SyntheticTests.create(items);
+        SessionRegistry registry = new SessionRegistry(sessions);
+        long heapBefore = SyntheticTests.usedHeap();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int worker = t;
+            results.add(executor.submit(() -> {
+                int operations = 0;
+                for (int s = worker; s < sessions; s += threads) {
+                    TestSession session = registry.openSession("candidato-" + s, test);
+                    session.start();
+                    do {
+                        // Cada candidato responde y vuelve a buscar su sesión, como lo haría una petición remota
+                        registry.requireSession(session.getSessionId()).saveUserAnswer(String.valueOf(s % 4));
+                        operations += 2;
+                    } while (session.goToNextQuestion());
+                    session.finish();
+                    operations++;
+                }
+                return operations;
+            }));
+        }
+        long operations = 0;
+        for (Future<Integer> result : results) {
+            operations += result.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long heapAfter = SyntheticTests.usedHeap();
+        System.out.printf("Sesiones abiertas: %d (preguntas por prueba: %d, hilos: %d)%n", registry.size(), items, threads);
+        System.out.printf("Tiempo total: %.1f ms, operaciones: %d, %.0f ops/s%n",
+                elapsed / 1e6, operations, operations / (elapsed / 1e9));
+        System.out.printf("Heap por sesión: %d bytes%n", (heapAfter - heapBefore) / Math.max(1, registry.size()));
+    }
+}
@@ -0,0 +1,108 @@
+// backend/benchmark/SessionSnapshotBenchmark.java
+package backend.benchmark;
+
+import backend.model.Test;
+import backend.session.SessionRegistry;
+import backend.session.SessionSnapshot;
+import backend.session.TestSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide las instantáneas de sesión: tomar las de miles de sesiones en paralelo, su tamaño, y leerlas
+ * y restaurarlas de nuevo, verificando que cada sesión quede igual.
+ * Uso: java backend.benchmark.SessionSnapshotBenchmark [sesiones] [preguntas] [repeticiones]
+ */
+public class SessionSnapshotBenchmark {
+    // Huella de ejemplo: el banco sintético no viene de un archivo
+    private static final String BANK_HASH = "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae";
+
+    public static void main(String[] args) {
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int items = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Test test = SyntheticTests.create(items);
+        SessionRegistry registry = new SessionRegistry(sessionCount);
+        Random random = new Random(42);
+        for (int i = 0; i < sessionCount; i++) {
+            TestSession session = registry.openSession("candidato-" + i, test, random.nextLong());
+            session.start();
+            int progress = random.nextInt(items); // Cada candidato va por una pregunta distinta
+            for (int position = 0; position < progress; position++) {
+                session.goToQuestion(position);
+                session.saveAnswerCode((byte) (1 + random.nextInt(2))); // Verdadero/falso o una de las dos primeras opciones
+                if (random.nextInt(10) == 0) {
+                    session.setFlagged(position, true);
+                }
+            }
+        }
+
+        List<SessionSnapshot> snapshots = null;
+        long start = System.nanoTime();
+        for (int r = 0; r < repetitions; r++) {
+            snapshots = registry.snapshotAll(session -> BANK_HASH);
+        }
+        long parallelNanos = (System.nanoTime() - start) / repetitions;
+
+        List<byte[]> encoded = new ArrayList<>(sessionCount);
+        long totalBytes = 0;
+        start = System.nanoTime();
+        for (SessionSnapshot snapshot : snapshots) {
+            byte[] data = snapshot.toByteArray();
+            encoded.add(data);
+            totalBytes += data.length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        System.out.printf("%d sesiones de %d preguntas: instantáneas en paralelo en %.2f ms (%.2f µs por sesión, %d núcleos)%n",
+                sessionCount, items, parallelNanos / 1e6, parallelNanos / 1e3 / sessionCount,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("Codificadas en %.2f ms: %.1f bytes por sesión en promedio%n",
+                encodeNanos / 1e6, (double) totalBytes / sessionCount);
+
+        int mismatches = 0;
+        List<TestSession> restored = new ArrayList<>(sessionCount);
+        for (int r = 0; r < 3; r++) { // Calentamiento
+            restored.clear();
+            for (byte[] data : encoded) {
+                restored.add(SessionSnapshot.fromByteArray(data).restore(test));
+            }
+        }
+        start = System.nanoTime();
+        for (int r = 0; r < repetitions; r++) {
+            restored.clear();
+            for (byte[] data : encoded) {
+                restored.add(SessionSnapshot.fromByteArray(data).restore(test));
+            }
+        }
+        long restoreNanos = (System.nanoTime() - start) / repetitions;
+        for (TestSession after : restored) {
+            TestSession before = registry.getSession(after.getSessionId());
+            if (!sameState(before, after)) {
+                mismatches++;
+            }
+        }
+        System.out.printf("Leídas y restauradas en %.2f ms (%.2f µs por sesión), %d diferencias%n",
+                restoreNanos / 1e6, restoreNanos / 1e3 / sessionCount, mismatches);
+    }
+
+    private static boolean sameState(TestSession before, TestSession after) {
+        if (before.getCurrentQuestionIndex() != after.getCurrentQuestionIndex()
+                || before.getOrder().getSeed() != after.getOrder().getSeed()
+                || before.getAnsweredCount() != after.getAnsweredCount()
+                || before.getFlaggedCount() != after.getFlaggedCount()) {
+            return false;
+        }
+        for (int position = 0; position < before.getNumberOfItems(); position++) {
+            if (before.getAnswerCode(position) != after.getAnswerCode(position)
+                    || before.isFlagged(position) != after.isFlagged(position)
+                    || before.getOrder().getQuestionIndex(position) != after.getOrder().getQuestionIndex(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
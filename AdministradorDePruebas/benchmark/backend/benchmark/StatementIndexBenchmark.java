@@ -0,0 +1,90 @@
+// backend/benchmark/StatementIndexBenchmark.java
+package backend.benchmark;
+
+import backend.bank.StatementIndex;
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.Test;
+import backend.model.TrueFalseQuestion;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compara búsquedas por enunciado con {@link StatementIndex} contra un recorrido de todos los
+ * enunciados, y mide el costo de mantener el índice al editar la prueba.
+ * Uso: java backend.benchmark.StatementIndexBenchmark [preguntas] [repeticiones]
+ */
+public class StatementIndexBenchmark {
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        Test test = createTest(items);
+        long start = System.nanoTime();
+        StatementIndex index = StatementIndex.of(test);
+        long buildNanos = System.nanoTime() - start;
+        System.out.printf("Preguntas: %d, índice de %d términos construido en %.1f ms%n",
+                items, index.getTermCount(), buildNanos / 1e6);
+
+        String[] queries = {"fotosíntesis", "fotos*", "\"ciclo del agua\"", "célula energía", "revolución independencia económ*"};
+        List<Question> questions = test.getQuestions();
+        for (String query : queries) {
+            long checksum = 0;
+            for (int i = 0; i < 5; i++) { // Calentamiento
+                checksum += index.search(query, 20).size() + index.count(query);
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += index.search(query, 20).size();
+            }
+            long searchNanos = (System.nanoTime() - start) / repetitions;
+            start = System.nanoTime();
+            for (int i = 0; i < repetitions; i++) {
+                checksum += index.count(query);
+            }
+            long countNanos = (System.nanoTime() - start) / repetitions;
+            System.out.printf("%s -> %d preguntas (control %d)%n", query, index.count(query), checksum);
+            System.out.printf("  Las 20 mejores: %.2f ms, conteo: %.2f ms%n", searchNanos / 1e6, countNanos / 1e6);
+        }
+
+        // Recorrido ingenuo de referencia: solo una subcadena, sin acentos ni frases
+        start = System.nanoTime();
+        int scanned = 0;
+        for (Question question : questions) {
+            if (question.getStatement().toLowerCase(Locale.ROOT).contains("fotosíntesis")) {
+                scanned++;
+            }
+        }
+        System.out.printf("Recorrido con toLowerCase().contains(\"fotosíntesis\"): %d preguntas en %.1f ms%n",
+                scanned, (System.nanoTime() - start) / 1e6);
+
+        // Mantenimiento incremental
+        Random random = new Random(7);
+        int edits = 10_000;
+        start = System.nanoTime();
+        for (int i = 0; i < edits; i++) {
+            questions.get(random.nextInt(questions.size())).setStatement(SyntheticTests.statement(random));
+        }
+        long editNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < edits; i++) {
+            test.addQuestion(new TrueFalseQuestion(SyntheticTests.statement(random), BloomLevel.RECORDAR, 30, true));
+        }
+        long addNanos = System.nanoTime() - start;
+        System.out.printf("%d enunciados editados en %.1f ms (%.1f µs cada uno), %d preguntas agregadas en %.1f ms%n",
+                edits, editNanos / 1e6, editNanos / 1e3 / edits, edits, addNanos / 1e6);
+        System.out.printf("Tras las ediciones: fotosíntesis -> %d preguntas%n", index.count("fotosíntesis"));
+    }
+
+    private static Test createTest(int items) {
+        Random random = new Random(42);
+        Test test = new Test("Índice " + items);
+        BloomLevel[] levels = BloomLevel.values();
+        for (int i = 0; i < items; i++) {
+            test.addQuestion(new TrueFalseQuestion(SyntheticTests.statement(random), levels[i % levels.length], 30 + i % 90, i % 3 == 0));
+        }
+        return test;
+    }
+}
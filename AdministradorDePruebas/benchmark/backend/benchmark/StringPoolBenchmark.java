@@ -0,0 +1,61 @@
+// backend/benchmark/StringPoolBenchmark.java
+package backend.benchmark;
+
+import backend.file.CSVLoader;
+import backend.file.TestLoader;
+import backend.file.XMLLoader;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Informa cuánta memoria ocupa un banco real cargado con y sin el diccionario de textos de los
+ * cargadores, y cuántas cadenas y listas de opciones distintas retiene cada carga.
+ * Uso: java backend.benchmark.StringPoolBenchmark banco.csv|banco.xml
+ */
+public class StringPoolBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: java backend.benchmark.StringPoolBenchmark <banco.csv|banco.xml>");
+            System.exit(1);
+        }
+        File file = new File(args[0]);
+        boolean xml = file.getName().toLowerCase().endsWith(".xml");
+        report("Sin diccionario", xml ? new XMLLoader(false) : new CSVLoader(4L * 1024 * 1024, false), file);
+        report("Con diccionario", xml ? new XMLLoader(true) : new CSVLoader(4L * 1024 * 1024, true), file);
+    }
+
+    private static void report(String label, TestLoader loader, File file) throws IOException {
+        long before = SyntheticTests.usedHeap();
+        long start = System.nanoTime();
+        Test test = loader.loadTest(file);
+        long loadNanos = System.nanoTime() - start;
+        long retained = SyntheticTests.usedHeap() - before;
+
+        Set<Object> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Object> optionLists = Collections.newSetFromMap(new IdentityHashMap<>());
+        long optionReferences = 0;
+        for (Question question : test.getQuestions()) {
+            if (question instanceof MultipleChoiceQuestion) {
+                MultipleChoiceQuestion mcq = (MultipleChoiceQuestion) question;
+                optionLists.add(mcq.getOptions());
+                strings.addAll(mcq.getOptions());
+                strings.add(mcq.getCorrectAnswerText());
+                optionReferences += mcq.getOptions().size();
+            }
+        }
+        System.out.printf("%s: %d preguntas cargadas en %.1f ms, heap retenido %.1f MB (%.1f bytes por pregunta)%n",
+                label, test.getNumberOfItems(), loadNanos / 1e6, retained / 1048576.0,
+                retained / (double) test.getNumberOfItems());
+        System.out.printf("  Opciones: %d referencias, %d cadenas distintas, %d listas distintas%n",
+                optionReferences, strings.size(), optionLists.size());
+        test = null; // Liberar antes de la siguiente medición
+    }
+}
@@ -0,0 +1,114 @@
+// backend/benchmark/SyntheticTests.java
+package backend.benchmark;
+
+import backend.model.BloomLevel;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Test;
+import backend.model.TrueFalseQuestion;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Genera pruebas sintéticas para los benchmarks. Los benchmarks están en su propia raíz de fuentes,
+ * {@code benchmark/}, que se compila sobre las clases de {@code src/} y no forma parte de la aplicación.
+ */
+final class SyntheticTests {
+
+    private static final List<String> OPTIONS = Arrays.asList("Opción A", "Opción B", "Opción C", "Opción D");
+    private static final String[] WORDS = {
+            "fotosíntesis", "célula", "energía", "núcleo", "mitocondria", "cloroplasto", "proceso", "planta",
+            "agua", "ciclo", "luz", "función", "membrana", "proteína", "ADN", "organismo", "tejido", "órgano",
+            "ecosistema", "cadena", "alimenticia", "respiración", "glucosa", "oxígeno", "dióxido", "carbono",
+            "molécula", "átomo", "reacción", "química", "física", "fuerza", "velocidad", "aceleración", "masa",
+            "gravedad", "historia", "revolución", "independencia", "economía", "población", "territorio",
+            "ecuación", "función", "derivada", "integral", "triángulo", "ángulo", "número", "fracción"};
+    private static final String[] FILLERS = {"de", "la", "el", "en", "y", "los", "del", "que", "es", "una"};
+    private static final String[] SYLLABLES = {"ba", "ce", "di", "fo", "gu", "la", "me", "ni", "po", "ru", "sa", "te", "vi", "zo", "ción", "más", "tró"};
+    private static final int VOCABULARY_SIZE = 50_000;
+    private static final String[] VOCABULARY = buildVocabulary();
+
+    private SyntheticTests() {
+    }
+
+    /**
+     * Crea una prueba con preguntas alternadas de selección múltiple y verdadero/falso.
+     * @param numberOfItems La cantidad de preguntas.
+     * @return La prueba generada.
+     */
+    static Test create(int numberOfItems) {
+        Test test = new Test("Benchmark " + numberOfItems);
+        BloomLevel[] levels = BloomLevel.values();
+        for (int i = 0; i < numberOfItems; i++) {
+            BloomLevel level = levels[i % levels.length];
+            if (i % 2 == 0) {
+                test.addQuestion(new MultipleChoiceQuestion("Pregunta " + i, level, 30 + i % 90, OPTIONS, i % OPTIONS.size()));
+            } else {
+                test.addQuestion(new TrueFalseQuestion("Pregunta " + i, level, 30 + i % 90, i % 3 == 0));
+            }
+        }
+        return test;
+    }
+
+    /**
+     * Obtiene la memoria ocupada del heap tras sugerir una recolección de basura.
+     * @return Los bytes ocupados.
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Arma un vocabulario de palabras reales seguidas de palabras inventadas con sílabas en español.
+     */
+    private static String[] buildVocabulary() {
+        String[] vocabulary = new String[VOCABULARY_SIZE];
+        System.arraycopy(WORDS, 0, vocabulary, 0, WORDS.length);
+        Random random = new Random(1);
+        for (int i = WORDS.length; i < VOCABULARY_SIZE; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            vocabulary[i] = word.toString();
+        }
+        return vocabulary;
+    }
+
+    /**
+     * Genera un enunciado de 6 a 14 palabras, con palabras vacías intercaladas como en un texto real.
+     * @param random El generador.
+     * @return El enunciado, entre signos de interrogación.
+     */
+    static String statement(Random random) {
+        int words = 6 + random.nextInt(9);
+        StringBuilder sentence = new StringBuilder("¿");
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                sentence.append(' ');
+            }
+            if (random.nextInt(3) == 0) {
+                sentence.append(FILLERS[random.nextInt(FILLERS.length)]);
+            } else {
+                sentence.append(word(random));
+            }
+        }
+        return sentence.append('?').toString();
+    }
+
+    /**
+     * Elige una palabra del vocabulario sintético.
+     * @param random El generador.
+     * @return La palabra.
+     */
+    static String word(Random random) {
+        // Distribución de Zipf aproximada: el rango es log-uniforme, como en un texto real
+        int rank = (int) Math.pow(VOCABULARY.length, random.nextDouble()) - 1;
+        return VOCABULARY[rank];
+    }
+}
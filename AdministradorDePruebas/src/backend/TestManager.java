@@ -4,34 +4,81 @@ package backend;
 import backend.event.*;
 import backend.model.*;
 import backend.observer.BackendObserver;
+import backend.observer.EventBus;
+import backend.observer.EventHandler;
+import backend.file.BinaryTestLoader;
 import backend.file.CSVLoader; // Todavía no creada, pero la referencia
+import backend.file.LoadProgress;
+import backend.file.TestCache;
+import backend.file.TestLoader;
 import backend.file.XMLLoader; // Todavía no creada, pero la referencia
+import backend.session.AnswerJournal;
+import backend.session.SessionSnapshot;
+import backend.session.TestSession;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList; // Para manejo seguro de observadores en multithreading
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class TestManager {
-    private Test currentTest;
-    private int currentQuestionIndex;
-    private final List<BackendObserver> observers;
+    private static final String LOCAL_SESSION_ID = "local"; // Sesión única de la interfaz de escritorio
+    private static final long DEFAULT_CACHE_BYTES = 128L * 1024 * 1024; // Presupuesto por defecto de la caché de pruebas
+
+    // Prueba, sesión y caché de eventos actuales, publicadas juntas: las cargas asíncronas las instalan
+    // desde otro hilo, y leerlas por separado podría mezclar la sesión nueva con los eventos de la anterior
+    private final AtomicReference<LoadedTest> current = new AtomicReference<>();
+    private volatile AnswerJournal answerJournal; // Registro de las operaciones de la sesión, o null
+    private volatile boolean sessionRecovered; // La sesión actual se reanudó del diario y aún no se continuó
+    private final EventBus eventBus; // Entrega asíncrona de eventos, una cola por observador
+    private final TestCache testCache; // Pruebas ya analizadas, para recargas del mismo archivo
+    private final ExecutorService loadExecutor; // Hilo para las cargas asíncronas, una a la vez
 
     /**
      * Constructor para TestManager.
      */
     public TestManager() {
-        this.observers = new CopyOnWriteArrayList<>(); // Permite iteración segura mientras se modifican
-        this.currentTest = null;
-        this.currentQuestionIndex = -1; // No hay prueba cargada inicialmente
+        this(new TestCache(DEFAULT_CACHE_BYTES));
     }
 
-    public void addObserver(BackendObserver observer) {
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
+    /**
+     * Constructor para TestManager con una caché de pruebas propia.
+     * @param testCache La caché a usar al cargar archivos.
+     */
+    public TestManager(TestCache testCache) {
+        this(testCache, new EventBus());
+    }
+
+    /**
+     * Constructor para TestManager con una caché de pruebas y un bus de eventos propios.
+     * @param testCache La caché a usar al cargar archivos.
+     * @param eventBus El bus que entrega los eventos a los observadores.
+     */
+    public TestManager(TestCache testCache, EventBus eventBus) {
+        if (testCache == null) {
+            throw new IllegalArgumentException("La caché de pruebas no puede ser nula.");
         }
+        if (eventBus == null) {
+            throw new IllegalArgumentException("El bus de eventos no puede ser nulo.");
+        }
+        this.testCache = testCache;
+        this.eventBus = eventBus;
+        this.loadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Carga de pruebas");
+            thread.setDaemon(true); // No impedir que la aplicación termine
+            return thread;
+        });
+    }
+
+    /**
+     * Registra un observador. Sus eventos se entregan en un hilo propio, nunca en el del llamador.
+     * @param observer El observador a registrar.
+     */
+    public void addObserver(BackendObserver observer) {
+        eventBus.subscribe(observer);
     }
 
     /**
@@ -39,163 +86,417 @@ public class TestManager {
      * @param observer El observador a eliminar.
      */
     public void removeObserver(BackendObserver observer) {
-        observers.remove(observer);
+        eventBus.unsubscribe(observer);
+    }
+
+    /**
+     * Registra un receptor solo para un tipo de evento y sus subtipos. Los receptores de un mismo
+     * suscriptor comparten hilo y reciben los eventos en orden de publicación.
+     * @param subscriber El dueño del receptor, usado para darlo de baja con {@link #unsubscribe(Object)}.
+     * @param eventType La clase de los eventos a recibir.
+     * @param handler El receptor.
+     * @param <E> El tipo de evento.
+     */
+    public <E extends BackendEvent> void subscribe(Object subscriber, Class<E> eventType, EventHandler<? super E> handler) {
+        eventBus.subscribe(subscriber, eventType, handler);
+    }
+
+    /**
+     * Quita todos los receptores de un suscriptor.
+     * @param subscriber El suscriptor.
+     */
+    public void unsubscribe(Object subscriber) {
+        eventBus.unsubscribe(subscriber);
     }
 
     /**
-     * Notifica a todos los observadores registrados sobre un evento.
+     * Notifica a todos los observadores registrados sobre un evento, sin esperar a que lo procesen.
      * @param event El evento a notificar.
      */
     private void notifyObservers(BackendEvent event) {
-        for (BackendObserver observer : observers) {
-            observer.onBackendEvent(event);
-        }
+        eventBus.publish(event);
+    }
+
+    /**
+     * Obtiene el bus de eventos, con las métricas de cola y latencia de cada observador.
+     * @return El bus de eventos.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Registra las sesiones en un diario de respuestas, para recuperarlas si la aplicación se cae.
+     * Al cargar una prueba, si el diario tiene una sesión sin terminar sobre la misma prueba, se
+     * reanuda en lugar de crear una nueva; ver {@link #hasRecoveredSession()}.
+     * Debe asignarse antes de cargar una prueba.
+     * @param journal El diario, o null para no registrar las sesiones.
+     */
+    public void setAnswerJournal(AnswerJournal journal) {
+        this.answerJournal = journal;
+    }
+
+    public AnswerJournal getAnswerJournal() {
+        return answerJournal;
     }
 
     public void loadTestFromFile(File file) throws IOException, IllegalArgumentException {
+        installTest(readTest(file, LoadProgress.NONE));
+    }
+
+    /**
+     * Carga una prueba en segundo plano, sin bloquear al hilo que llama.
+     * Mientras se analiza el archivo se notifican eventos {@link TestLoadProgressEvent} y, al terminar,
+     * el mismo TestLoadedEvent que en la carga síncrona. Los eventos llegan desde el hilo de carga.
+     * Cancelar el futuro detiene el análisis en el siguiente aviso de avance y deja la prueba anterior.
+     * @param file El archivo de la prueba.
+     * @return Un futuro con la prueba cargada; falla con la misma excepción que {@link #loadTestFromFile(File)}.
+     */
+    public CompletableFuture<Test> loadTestFromFileAsync(File file) {
+        LoadFuture future = new LoadFuture();
+        loadExecutor.execute(() -> {
+            if (future.isDone()) {
+                return; // Cancelada antes de empezar
+            }
+            try {
+                Test test = readTest(file, (bytesRead, totalBytes, questionsParsed) -> {
+                    if (future.isCancelled()) {
+                        throw new CancellationException("Carga cancelada.");
+                    }
+                    notifyObservers(new TestLoadProgressEvent(file, bytesRead, totalBytes, questionsParsed));
+                });
+                synchronized (future) { // Instalar y completar sin que una cancelación se intercale
+                    if (!future.isCancelled()) {
+                        installTest(test);
+                        future.complete(test);
+                    }
+                }
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Futuro de una carga asíncrona: la cancelación se sincroniza con la instalación de la prueba,
+     * así que una carga cancelada nunca reemplaza la prueba actual.
+     */
+    private static class LoadFuture extends CompletableFuture<Test> {
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private Test readTest(File file, LoadProgress progress) throws IOException, IllegalArgumentException {
         if (file == null || !file.exists()) {
             throw new IllegalArgumentException("El archivo no existe o es nulo.");
         }
 
         String fileName = file.getName();
-        Test loadedTest;
+        TestLoader loader;
 
         if (fileName.toLowerCase().endsWith(".csv")) {
-            loadedTest = new CSVLoader().loadTest(file);
+            loader = new CSVLoader();
         } else if (fileName.toLowerCase().endsWith(".xml")) {
-            loadedTest = new XMLLoader().loadTest(file);
+            loader = new XMLLoader();
+        } else if (fileName.toLowerCase().endsWith(".tbank")) {
+            loader = new BinaryTestLoader();
         } else {
-            throw new IllegalArgumentException("Formato de archivo no soportado. Por favor, use .csv o .xml");
+            throw new IllegalArgumentException("Formato de archivo no soportado. Por favor, use .csv, .xml o .tbank");
         }
+        Test loadedTest = testCache.load(file, source -> loader.loadTest(source, progress));
 
         if (loadedTest.getNumberOfItems() == 0) {
             throw new IllegalArgumentException("El archivo no contiene ítems válidos para la prueba.");
         }
+        return loadedTest;
+    }
+
+    /**
+     * Suspende la sesión actual: toma una instantánea que se puede continuar en otro equipo con
+     * {@link #restoreSnapshot(SessionSnapshot, File)}. La sesión local no cambia.
+     * @return La instantánea, que se refiere al banco por la huella de su archivo.
+     * @throws IllegalStateException si no hay una prueba cargada desde un archivo.
+     */
+    public SessionSnapshot exportSnapshot() throws IllegalStateException {
+        TestSession session = getCurrentSession();
+        if (session == null) {
+            throw new IllegalStateException("No hay una prueba cargada.");
+        }
+        String bankHash = testCache.hashOf(session.getTest());
+        if (bankHash == null) {
+            throw new IllegalStateException("No se conoce la huella del banco de la prueba actual.");
+        }
+        return SessionSnapshot.of(session, bankHash);
+    }
+
+    /**
+     * Continúa una sesión suspendida en otro equipo. Se carga el banco (o se toma de la caché) y se
+     * verifica que su huella sea la de la instantánea; si la sesión había comenzado, se notifica su
+     * pregunta actual como al iniciar la prueba.
+     * @param snapshot La instantánea de la sesión.
+     * @param bankFile El archivo del banco de la sesión.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el archivo no es el banco de la instantánea.
+     */
+    public void restoreSnapshot(SessionSnapshot snapshot, File bankFile) throws IOException, IllegalArgumentException {
+        Test test = readTest(bankFile, LoadProgress.NONE);
+        if (!snapshot.getBankHash().equals(testCache.hashOf(test))) {
+            throw new IllegalArgumentException("El archivo no es el banco de la sesión suspendida.");
+        }
+        installTest(test, snapshot.restore(test));
+        notifyCurrentQuestionUpdate();
+    }
+
+    private void installTest(Test loadedTest) {
+        installTest(loadedTest, null);
+    }
 
-        this.currentTest = loadedTest;
-        this.currentQuestionIndex = -1; // Resetear índice al cargar nueva prueba
+    /**
+     * Instala una prueba con una sesión ya restaurada, o con una sesión nueva si es null.
+     */
+    private void installTest(Test loadedTest, TestSession restoredSession) {
+        AnswerJournal journal = answerJournal;
+        TestSession previous = getCurrentSession();
+        if (journal != null && previous != null) {
+            journal.detach(previous); // La sesión de la prueba anterior ya no se reanudará
+        }
+        TestSession session = restoredSession;
+        if (session == null && journal != null) {
+            session = journal.resume(LOCAL_SESSION_ID, loadedTest); // Ya queda registrada en el diario
+        }
+        this.sessionRecovered = restoredSession == null && session != null;
+        if (session == null) {
+            session = new TestSession(LOCAL_SESSION_ID, loadedTest); // Nueva sesión al cargar nueva prueba
+        }
+        if (journal != null && !sessionRecovered) {
+            journal.attach(session);
+        }
+        current.set(new LoadedTest(loadedTest, session));
         // Notificar al frontend que la prueba ha sido cargada
-        notifyObservers(new TestLoadedEvent(currentTest, currentTest.getNumberOfItems(), currentTest.getTotalEstimatedTime()));
+        notifyObservers(new TestLoadedEvent(loadedTest, loadedTest.getNumberOfItems(), loadedTest.getTotalEstimatedTime()));
     }
+
+    /**
+     * Inicia la prueba con las preguntas y las opciones en el orden del autor.
+     */
     public void startTest() throws IllegalStateException {
-        if (currentTest == null || currentTest.getNumberOfItems() == 0) {
-            throw new IllegalStateException("No hay una prueba cargada para iniciar.");
+        LoadedTest loaded = requireLoaded("No hay una prueba cargada para iniciar.");
+        sessionRecovered = false;
+        boolean wasShuffled = loaded.session.getOrder().isShuffled();
+        loaded.session.startInOriginalOrder(); // Asegurarse de que las respuestas anteriores se borren
+        if (wasShuffled) {
+            current.compareAndSet(loaded, new LoadedTest(loaded.test, loaded.session)); // Eventos del orden anterior
         }
-        currentTest.resetUserAnswers(); // Asegurarse de que las respuestas anteriores se borren
-        currentQuestionIndex = 0;
         notifyCurrentQuestionUpdate();
     }
 
-    public void goToNextQuestion() throws IllegalStateException {
-        if (currentTest == null) {
-            throw new IllegalStateException("No hay una prueba cargada.");
+    /**
+     * Indica si la prueba cargada tiene una sesión sin terminar recuperada del diario de respuestas,
+     * que se puede continuar con {@link #resumeTest()}.
+     * @return true si hay una sesión recuperada.
+     */
+    public boolean hasRecoveredSession() {
+        return sessionRecovered;
+    }
+
+    /**
+     * Continúa la sesión recuperada del diario en la pregunta donde quedó, con sus respuestas y marcas.
+     */
+    public void resumeTest() throws IllegalStateException {
+        TestSession session = getCurrentSession();
+        if (!sessionRecovered || session == null) {
+            throw new IllegalStateException("No hay una sesión recuperada para continuar.");
         }
-        if (currentQuestionIndex < currentTest.getNumberOfItems() - 1) {
-            currentQuestionIndex++;
+        sessionRecovered = false;
+        if (session.getCurrentQuestionIndex() < 0) {
+            session.start(); // Se había cargado pero no iniciado
+        }
+        notifyCurrentQuestionUpdate();
+    }
+
+    /**
+     * Inicia la prueba con las preguntas y las opciones barajadas para este candidato.
+     * @param orderSeed La semilla del orden; la misma semilla reproduce el mismo orden.
+     */
+    public void startTest(long orderSeed) throws IllegalStateException {
+        LoadedTest loaded = requireLoaded("No hay una prueba cargada para iniciar.");
+        sessionRecovered = false;
+        loaded.session.start(orderSeed);
+        // Los eventos guardan la pregunta de cada posición, que cambia con el orden. Si mientras tanto
+        // se instaló otra prueba, esa ya trae su propia caché vacía
+        current.compareAndSet(loaded, new LoadedTest(loaded.test, loaded.session));
+        notifyCurrentQuestionUpdate();
+    }
+
+    public void goToNextQuestion() throws IllegalStateException {
+        TestSession session = requireLoaded("No hay una prueba cargada.").session;
+        if (session.goToNextQuestion()) {
             notifyCurrentQuestionUpdate();
-        } else if (currentQuestionIndex == currentTest.getNumberOfItems() - 1) {
+        } else if (session.isOnLastQuestion()) {
             // Ya es la última pregunta, significa que se envió la prueba
             finishTest();
         }
     }
 
     public void goToPreviousQuestion() throws IllegalStateException {
-        if (currentTest == null) {
-            throw new IllegalStateException("No hay una prueba cargada.");
-        }
-        if (currentQuestionIndex > 0) {
-            currentQuestionIndex--;
-            notifyCurrentQuestionUpdate();
-        } else {
-            throw new IllegalStateException("Ya estás en la primera pregunta.");
-        }
+        requireLoaded("No hay una prueba cargada.").session.goToPreviousQuestion();
+        notifyCurrentQuestionUpdate();
+    }
+
+    /**
+     * Salta directamente a una pregunta de la prueba en curso, con un solo evento de navegación.
+     * @param questionIndex La posición de la pregunta en el orden del candidato.
+     */
+    public void goToQuestion(int questionIndex) throws IllegalStateException {
+        requireLoaded("No hay una prueba cargada.").session.goToQuestion(questionIndex);
+        notifyCurrentQuestionUpdate();
     }
 
     public void saveUserAnswer(String answer) {
-        if (currentTest != null && currentQuestionIndex >= 0 && currentQuestionIndex < currentTest.getNumberOfItems()) {
-            currentTest.getQuestions().get(currentQuestionIndex).setUserAnswer(answer);
+        TestSession session = getCurrentSession();
+        if (session != null && session.saveUserAnswer(answer)) {
+            notifyObservers(session.getAnswerState(session.getCurrentQuestionIndex()));
         }
     }
 
-    public Question getCurrentQuestion() {
-        if (currentTest != null && currentQuestionIndex >= 0 && currentQuestionIndex < currentTest.getNumberOfItems()) {
-            return currentTest.getQuestions().get(currentQuestionIndex);
+    /**
+     * Marca o desmarca una pregunta para revisarla antes de enviar la prueba.
+     * @param questionIndex La posición de la pregunta en el orden del candidato.
+     * @param flagged true para marcarla, false para desmarcarla.
+     */
+    public void setQuestionFlagged(int questionIndex, boolean flagged) {
+        TestSession session = requireLoaded("No hay una prueba cargada.").session;
+        if (session.setFlagged(questionIndex, flagged)) {
+            notifyObservers(session.getAnswerState(questionIndex));
         }
-        return null;
     }
 
-    private void notifyCurrentQuestionUpdate() {
-        if (currentTest != null && currentQuestionIndex != -1) {
-            Question question = currentTest.getQuestions().get(currentQuestionIndex);
-            boolean canGoBack = currentQuestionIndex > 0;
-            boolean isLastQuestion = (currentQuestionIndex == currentTest.getNumberOfItems() - 1);
-            notifyObservers(new QuestionUpdatedEvent(question, currentQuestionIndex,
-                    currentTest.getNumberOfItems(), canGoBack, isLastQuestion));
-        }
+    public boolean isAnswered(int questionIndex) {
+        return requireLoaded("No hay una prueba cargada.").session.isAnswered(questionIndex);
+    }
+
+    public boolean isFlagged(int questionIndex) {
+        return requireLoaded("No hay una prueba cargada.").session.isFlagged(questionIndex);
+    }
+
+    public Question getCurrentQuestion() {
+        TestSession session = getCurrentSession();
+        return session != null ? session.getCurrentQuestion() : null;
     }
 
     /**
-     * Finaliza la prueba, calcula los resultados y los notifica.
+     * Obtiene el código de respuesta del candidato para una pregunta de la prueba actual.
+     * @param questionIndex La posición de la pregunta en el orden del candidato.
+     * @return El código de respuesta, según la codificación de {@link AnswerSheet}, con el índice original de la opción.
      */
-    public void finishTest() {
-        if (currentTest == null) {
-            throw new IllegalStateException("No hay una prueba para finalizar.");
-        }
+    public byte getAnswerCode(int questionIndex) {
+        return requireLoaded("No hay una prueba cargada.").session.getAnswerCode(questionIndex);
+    }
 
-        Map<BloomLevel, Integer> correctByBloom = new HashMap<>();
-        Map<BloomLevel, Integer> totalByBloom = new HashMap<>();
-        Map<String, Integer> correctByType = new HashMap<>();
-        Map<String, Integer> totalByType = new HashMap<>();
+    /**
+     * Verifica si la respuesta del candidato para una pregunta es correcta.
+     * @param questionIndex La posición de la pregunta en el orden del candidato.
+     * @return true si la respuesta es correcta, false en caso contrario.
+     */
+    public boolean isAnswerCorrect(int questionIndex) {
+        return requireLoaded("No hay una prueba cargada.").session.isAnswerCorrect(questionIndex);
+    }
 
-        for (Question q : currentTest.getQuestions()) {
-            // Cálculos por nivel de Bloom
-            totalByBloom.put(q.getBloomLevel(), totalByBloom.getOrDefault(q.getBloomLevel(), 0) + 1);
-            if (q.isCorrect()) {
-                correctByBloom.put(q.getBloomLevel(), correctByBloom.getOrDefault(q.getBloomLevel(), 0) + 1);
-            }
+    /**
+     * Obtiene la caché de pruebas, con sus contadores de aciertos, fallos y desalojos.
+     * @return La caché de pruebas.
+     */
+    public TestCache getTestCache() {
+        return testCache;
+    }
 
-            // Cálculos por tipo de ítem
-            totalByType.put(q.getType(), totalByType.getOrDefault(q.getType(), 0) + 1);
-            if (q.isCorrect()) {
-                correctByType.put(q.getType(), correctByType.getOrDefault(q.getType(), 0) + 1);
-            }
-        }
+    /**
+     * Obtiene la sesión del candidato actual.
+     * @return La sesión, o null si no hay una prueba cargada.
+     */
+    public TestSession getCurrentSession() {
+        LoadedTest loaded = current.get();
+        return loaded != null ? loaded.session : null;
+    }
 
-        Map<BloomLevel, Double> bloomPercentages = new HashMap<>();
-        for (Map.Entry<BloomLevel, Integer> entry : totalByBloom.entrySet()) {
-            BloomLevel level = entry.getKey();
-            int total = entry.getValue();
-            int correct = correctByBloom.getOrDefault(level, 0);
-            bloomPercentages.put(level, (total > 0) ? (double) correct * 100 / total : 0.0);
+    private LoadedTest requireLoaded(String message) {
+        LoadedTest loaded = current.get();
+        if (loaded == null) {
+            throw new IllegalStateException(message);
         }
+        return loaded;
+    }
 
-        Map<String, Double> itemTypePercentages = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : totalByType.entrySet()) {
-            String type = entry.getKey();
-            int total = entry.getValue();
-            int correct = correctByType.getOrDefault(type, 0);
-            itemTypePercentages.put(type, (total > 0) ? (double) correct * 100 / total : 0.0);
+    /**
+     * Notifica la pregunta actual. Los eventos de navegación dependen solo del índice, así que se
+     * crean una vez por pregunta y se reutilizan: recorrer la prueba no genera basura.
+     */
+    private void notifyCurrentQuestionUpdate() {
+        LoadedTest loaded = current.get();
+        TestSession session = loaded != null ? loaded.session : null;
+        QuestionUpdatedEvent[] events = loaded != null ? loaded.questionEvents : null;
+        int currentQuestionIndex = session != null ? session.getCurrentQuestionIndex() : -1;
+        if (currentQuestionIndex != -1) {
+            QuestionUpdatedEvent event = events[currentQuestionIndex];
+            if (event == null) {
+                int totalQuestions = session.getNumberOfItems();
+                boolean canGoBack = currentQuestionIndex > 0;
+                boolean isLastQuestion = (currentQuestionIndex == totalQuestions - 1);
+                event = new QuestionUpdatedEvent(session.getCurrentQuestion(), currentQuestionIndex,
+                        totalQuestions, canGoBack, isLastQuestion);
+                events[currentQuestionIndex] = event;
+            }
+            notifyObservers(event);
         }
+    }
+
+    /**
+     * Finaliza la prueba, calcula los resultados y los notifica.
+     */
+    public void finishTest() {
+        TestSession session = requireLoaded("No hay una prueba para finalizar.").session;
 
         // Notificar los resultados al frontend
-        notifyObservers(new TestFinishedEvent(bloomPercentages, itemTypePercentages, currentTest.getQuestions()));
+        notifyObservers(session.finish());
     }
 
     public void startReview() {
-        if (currentTest == null) {
-            throw new IllegalStateException("No hay una prueba para revisar.");
-        }
-        currentQuestionIndex = 0; // Ponerse en la primera pregunta para revisión
+        requireLoaded("No hay una prueba para revisar.").session.startReview(); // Ponerse en la primera pregunta para revisión
         notifyCurrentQuestionUpdate(); // Notificar para mostrar la primera pregunta en modo revisión
     }
 
+    /**
+     * Muestra una pregunta concreta en modo revisión.
+     * @param questionIndex La posición de la pregunta a revisar en el orden del candidato.
+     */
+    public void startReview(int questionIndex) {
+        requireLoaded("No hay una prueba para revisar.").session.startReview(questionIndex);
+        notifyCurrentQuestionUpdate();
+    }
+
     /**
      * Vuelve al resumen de la prueba después de la revisión.
      */
     public void returnToSummary() {
-        if (currentTest == null) {
-            throw new IllegalStateException("No hay una prueba cargada.");
-        }
+        requireLoaded("No hay una prueba cargada.");
         finishTest(); // Esto recalcula y notifica los resultados, mostrando el resumen
     }
+
+    /**
+     * Prueba instalada con su sesión y los eventos de navegación ya creados para su orden actual.
+     */
+    private static final class LoadedTest {
+        final Test test;
+        final TestSession session;
+        final QuestionUpdatedEvent[] questionEvents; // Un evento inmutable por pregunta, creado al visitarla
+
+        LoadedTest(Test test, TestSession session) {
+            this.test = test;
+            this.session = session;
+            this.questionEvents = new QuestionUpdatedEvent[test.getNumberOfItems()];
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,178 @@
+// backend/bank/Blueprint.java
+package backend.bank;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionType;
+
+import java.util.Arrays;
+
+/**
+ * Plan de una forma de prueba para {@link FormAssembler}: cuántas preguntas de cada nivel de Bloom
+ * y de cada tipo debe tener, el tiempo estimado total máximo y cuántas formas paralelas se quieren.
+ * Si se indican cantidades por nivel y por tipo, ambas deben sumar lo mismo; un criterio sin
+ * cantidades no se restringe. Los planes son inmutables: cada método devuelve un plan nuevo.
+ */
+public final class Blueprint {
+    private static final int UNSPECIFIED = -1;
+
+    private final String name;
+    private final int[] bloomCounts; // Por ordinal; UNSPECIFIED si el nivel no se restringe
+    private final int[] typeCounts; // Por ordinal; UNSPECIFIED si el tipo no se restringe
+    private final int maxTotalTime;
+    private final int forms;
+    private final boolean disjoint;
+
+    private Blueprint(String name, int[] bloomCounts, int[] typeCounts, int maxTotalTime, int forms, boolean disjoint) {
+        this.name = name;
+        this.bloomCounts = bloomCounts;
+        this.typeCounts = typeCounts;
+        this.maxTotalTime = maxTotalTime;
+        this.forms = forms;
+        this.disjoint = disjoint;
+    }
+
+    /**
+     * Crea un plan vacío, de una sola forma y sin límite de tiempo.
+     * @param name El nombre base de las pruebas generadas.
+     * @return El plan.
+     */
+    public static Blueprint named(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("El nombre del plan no puede estar vacío.");
+        }
+        int[] bloomCounts = new int[BloomLevel.values().length];
+        int[] typeCounts = new int[QuestionType.values().length];
+        Arrays.fill(bloomCounts, UNSPECIFIED);
+        Arrays.fill(typeCounts, UNSPECIFIED);
+        return new Blueprint(name, bloomCounts, typeCounts, Integer.MAX_VALUE, 1, false);
+    }
+
+    /**
+     * Fija la cantidad de preguntas de un nivel de Bloom. Al fijar algún nivel, los no fijados valen 0.
+     * @param level El nivel de Bloom.
+     * @param count La cantidad de preguntas.
+     * @return El plan resultante.
+     */
+    public Blueprint withBloomCount(BloomLevel level, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("La cantidad de preguntas no puede ser negativa.");
+        }
+        int[] counts = bloomCounts.clone();
+        counts[level.ordinal()] = count;
+        return new Blueprint(name, counts, typeCounts, maxTotalTime, forms, disjoint);
+    }
+
+    /**
+     * Fija la cantidad de preguntas de un tipo. Al fijar algún tipo, los no fijados valen 0.
+     * @param type El tipo de pregunta.
+     * @param count La cantidad de preguntas.
+     * @return El plan resultante.
+     */
+    public Blueprint withTypeCount(QuestionType type, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("La cantidad de preguntas no puede ser negativa.");
+        }
+        int[] counts = typeCounts.clone();
+        counts[type.ordinal()] = count;
+        return new Blueprint(name, bloomCounts, counts, maxTotalTime, forms, disjoint);
+    }
+
+    /**
+     * Limita la suma de los tiempos estimados de cada forma, como {@code Test.getTotalEstimatedTime()}.
+     * @param seconds El tiempo total máximo en segundos.
+     * @return El plan resultante.
+     */
+    public Blueprint withMaxTotalTime(int seconds) {
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("El tiempo total máximo debe ser un valor positivo.");
+        }
+        return new Blueprint(name, bloomCounts, typeCounts, seconds, forms, disjoint);
+    }
+
+    /**
+     * Pide varias formas paralelas del mismo plan.
+     * @param forms La cantidad de formas.
+     * @param disjoint true si ninguna pregunta puede repetirse entre formas.
+     * @return El plan resultante.
+     */
+    public Blueprint withForms(int forms, boolean disjoint) {
+        if (forms <= 0) {
+            throw new IllegalArgumentException("La cantidad de formas debe ser un valor positivo.");
+        }
+        return new Blueprint(name, bloomCounts, typeCounts, maxTotalTime, forms, disjoint);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas de cada forma.
+     * @return La suma de las cantidades por nivel o, si no hay, por tipo.
+     * @throws IllegalArgumentException si el plan no fija cantidades o las sumas por nivel y por tipo no coinciden.
+     */
+    public int getNumberOfItems() {
+        int byBloom = sum(bloomCounts);
+        int byType = sum(typeCounts);
+        if (byBloom == UNSPECIFIED && byType == UNSPECIFIED) {
+            throw new IllegalArgumentException("El plan no indica cuántas preguntas debe tener cada forma.");
+        }
+        if (byBloom != UNSPECIFIED && byType != UNSPECIFIED && byBloom != byType) {
+            throw new IllegalArgumentException("El plan pide " + byBloom + " preguntas por nivel de Bloom pero "
+                    + byType + " por tipo.");
+        }
+        return byBloom != UNSPECIFIED ? byBloom : byType;
+    }
+
+    /**
+     * Obtiene la cantidad pedida de un nivel de Bloom.
+     * @param level El nivel de Bloom.
+     * @return La cantidad, o -1 si el plan no restringe los niveles.
+     */
+    public int getBloomCount(BloomLevel level) {
+        return isBloomConstrained() ? Math.max(0, bloomCounts[level.ordinal()]) : UNSPECIFIED;
+    }
+
+    /**
+     * Obtiene la cantidad pedida de un tipo de pregunta.
+     * @param type El tipo de pregunta.
+     * @return La cantidad, o -1 si el plan no restringe los tipos.
+     */
+    public int getTypeCount(QuestionType type) {
+        return isTypeConstrained() ? Math.max(0, typeCounts[type.ordinal()]) : UNSPECIFIED;
+    }
+
+    public boolean isBloomConstrained() {
+        return sum(bloomCounts) != UNSPECIFIED;
+    }
+
+    public boolean isTypeConstrained() {
+        return sum(typeCounts) != UNSPECIFIED;
+    }
+
+    public int getMaxTotalTime() {
+        return maxTotalTime;
+    }
+
+    public int getForms() {
+        return forms;
+    }
+
+    public boolean isDisjoint() {
+        return disjoint;
+    }
+
+    /**
+     * Suma las cantidades fijadas.
+     * @return La suma, o UNSPECIFIED si no hay ninguna fijada.
+     */
+    private static int sum(int[] counts) {
+        int total = UNSPECIFIED;
+        for (int count : counts) {
+            if (count != UNSPECIFIED) {
+                total = Math.max(total, 0) + count;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,348 @@
+// backend/bank/DuplicateDetector.java
+package backend.bank;
+
+import backend.file.LoadProgress;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detecta preguntas casi duplicadas en un banco armado con preguntas de varios autores.
+ * Cada pregunta se describe con un conjunto de fragmentos: las palabras del enunciado y los pares de
+ * palabras consecutivas, normalizadas como en {@link StatementIndex} y sin palabras vacías, y el texto
+ * de cada opción. Sin las palabras vacías, dos preguntas sin relación casi no comparten fragmentos.
+ * Dos preguntas son casi duplicadas si la similitud de Jaccard de sus conjuntos alcanza el umbral.
+ * Para no comparar todos los pares, cada pregunta recibe una firma MinHash de 64 valores que se divide
+ * en 16 bandas de 4; solo se comparan las preguntas que coinciden en alguna banda (hashing sensible a
+ * la localidad), y la similitud de esos candidatos se calcula de forma exacta antes de agruparlos.
+ * Con estos parámetros un par con similitud 0.7 coincide en alguna banda con probabilidad de 0.99,
+ * así que el detector está pensado para umbrales de 0.7 o más.
+ * Las firmas se calculan a medida que llegan las preguntas, incluso durante la carga:
+ * <pre>
+ * DuplicateDetector detector = new DuplicateDetector();
+ * Test test = loader.loadTest(file, detector.watch(progress));
+ * List&lt;List&lt;Question&gt;&gt; clusters = detector.findClusters();
+ * </pre>
+ */
+public final class DuplicateDetector {
+    public static final double DEFAULT_THRESHOLD = 0.7;
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4; // Valores de la firma por banda
+    private static final int SIGNATURE_SIZE = BANDS * ROWS;
+    private static final int MAX_REPRESENTATIVES = 8; // Comparaciones por pregunta en un mismo grupo de una banda
+    private static final long WORD_SALT = 0x5DEECE66DL;
+    private static final long PAIR_SALT = 0x2545F4914F6CDD1DL;
+    private static final long OPTION_SALT = 0x9E3779B97F4A7C15L;
+    private static final long[] MULTIPLIERS = new long[SIGNATURE_SIZE];
+    private static final long[] INCREMENTS = new long[SIGNATURE_SIZE];
+
+    static {
+        // Una función de hash multiplicativa por valor de la firma, con constantes fijas para que
+        // las firmas no cambien entre ejecuciones
+        long state = 0x853C49E6748FEA9BL;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            state += OPTION_SALT;
+            MULTIPLIERS[i] = mix(state) | 1;
+            state += OPTION_SALT;
+            INCREMENTS[i] = mix(state);
+        }
+    }
+
+    private final double threshold;
+    private Question[] questions = new Question[1024];
+    private int[] bandHashes = new int[1024 * BANDS];
+    private int size;
+
+    /**
+     * Crea un detector con el umbral por defecto.
+     */
+    public DuplicateDetector() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Crea un detector.
+     * @param threshold La similitud mínima, entre 0 y 1, para considerar dos preguntas casi duplicadas.
+     */
+    public DuplicateDetector(double threshold) {
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("El umbral de similitud debe estar entre 0 y 1.");
+        }
+        this.threshold = threshold;
+    }
+
+    /**
+     * Crea un detector con las preguntas de una prueba.
+     * @param test La prueba.
+     * @return El detector con el umbral por defecto.
+     */
+    public static DuplicateDetector of(Test test) {
+        DuplicateDetector detector = new DuplicateDetector();
+        for (Question question : test.getQuestions()) {
+            detector.add(question);
+        }
+        return detector;
+    }
+
+    /**
+     * Agrega una pregunta. Puede invocarse desde varios hilos a la vez.
+     * @param question La pregunta.
+     */
+    public void add(Question question) {
+        int[] bands = bandHashes(question); // Fuera del candado: es lo costoso
+        synchronized (this) {
+            if (size == questions.length) {
+                questions = Arrays.copyOf(questions, size * 2);
+                bandHashes = Arrays.copyOf(bandHashes, size * 2 * BANDS);
+            }
+            questions[size] = question;
+            System.arraycopy(bands, 0, bandHashes, size * BANDS, BANDS);
+            size++;
+        }
+    }
+
+    /**
+     * Obtiene un receptor de avance que agrega al detector cada pregunta leída por un cargador.
+     * @param progress El receptor al que se reenvía el avance.
+     * @return El receptor para pasar a {@link backend.file.TestLoader#loadTest(java.io.File, LoadProgress)}.
+     */
+    public LoadProgress watch(LoadProgress progress) {
+        return new LoadProgress() {
+            @Override
+            public void update(long bytesRead, long totalBytes, int questionsParsed) {
+                progress.update(bytesRead, totalBytes, questionsParsed);
+            }
+
+            @Override
+            public void questionParsed(Question question) {
+                add(question);
+                progress.questionParsed(question);
+            }
+        };
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Agrupa las preguntas casi duplicadas. Dos preguntas quedan en el mismo grupo si están unidas
+     * por una cadena de pares con similitud mayor o igual al umbral.
+     * @return Los grupos de dos o más preguntas, con las preguntas en el orden en que se agregaron;
+     * los grupos se ordenan por su primera pregunta.
+     */
+    public synchronized List<List<Question>> findClusters() {
+        int[] parent = new int[size];
+        for (int id = 0; id < size; id++) {
+            parent[id] = id;
+        }
+        long[] keys = new long[size];
+        int[] representatives = new int[MAX_REPRESENTATIVES];
+        long[][] representativeShingles = new long[MAX_REPRESENTATIVES][];
+        for (int band = 0; band < BANDS; band++) {
+            for (int id = 0; id < size; id++) {
+                keys[id] = (long) bandHashes[id * BANDS + band] << 32 | id;
+            }
+            Arrays.sort(keys); // Las preguntas con el mismo hash de banda quedan contiguas
+            int from = 0;
+            while (from < size) {
+                int to = from + 1;
+                while (to < size && keys[to] >>> 32 == keys[from] >>> 32) {
+                    to++;
+                }
+                if (to - from > 1) {
+                    joinCandidates(keys, from, to, parent, representatives, representativeShingles);
+                }
+                from = to;
+            }
+        }
+
+        List<List<Question>> clusters = new ArrayList<>();
+        int[] clusterOf = new int[size];
+        Arrays.fill(clusterOf, -1);
+        int[] clusterSize = new int[size];
+        for (int id = 0; id < size; id++) {
+            clusterSize[find(parent, id)]++;
+        }
+        for (int id = 0; id < size; id++) {
+            int root = find(parent, id);
+            if (clusterSize[root] > 1) {
+                if (clusterOf[root] < 0) {
+                    clusterOf[root] = clusters.size();
+                    clusters.add(new ArrayList<>(clusterSize[root]));
+                }
+                clusters.get(clusterOf[root]).add(questions[id]);
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * Calcula la similitud de Jaccard entre los fragmentos de dos preguntas.
+     * @param first Una pregunta.
+     * @param second La otra pregunta.
+     * @return La similitud, entre 0 y 1; 0 si ninguna tiene texto.
+     */
+    public static double similarity(Question first, Question second) {
+        return jaccard(shingleSet(first), shingleSet(second));
+    }
+
+    /**
+     * Compara las preguntas de un grupo de una banda. Cada pregunta se compara con unos pocos
+     * representantes del grupo, de modo que un grupo grande no cuesta una cantidad cuadrática de comparaciones.
+     */
+    private void joinCandidates(long[] keys, int from, int to, int[] parent,
+                                int[] representatives, long[][] representativeShingles) {
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            int id = (int) keys[k];
+            int root = find(parent, id);
+            boolean joined = false;
+            for (int r = 0; r < count && !joined; r++) {
+                joined = find(parent, representatives[r]) == root;
+            }
+            if (joined) {
+                continue;
+            }
+            long[] shingles = shingleSet(questions[id]);
+            for (int r = 0; r < count && !joined; r++) {
+                if (jaccard(shingles, representativeShingles[r]) >= threshold) {
+                    parent[root] = find(parent, representatives[r]);
+                    joined = true;
+                }
+            }
+            if (!joined && count < MAX_REPRESENTATIVES) {
+                representatives[count] = id;
+                representativeShingles[count] = shingles;
+                count++;
+            }
+        }
+    }
+
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]]; // Compresión de caminos a la mitad
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Calcula los hashes de banda de la firma MinHash de una pregunta.
+     */
+    private static int[] bandHashes(Question question) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        forEachShingle(question, shingle -> {
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) ((shingle * MULTIPLIERS[i] + INCREMENTS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        });
+        int[] bands = new int[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long hash = band;
+            for (int row = 0; row < ROWS; row++) {
+                hash = hash * OPTION_SALT + signature[band * ROWS + row];
+            }
+            bands[band] = (int) mix(hash);
+        }
+        return bands;
+    }
+
+    /**
+     * Obtiene los fragmentos distintos de una pregunta, ordenados.
+     */
+    private static long[] shingleSet(Question question) {
+        long[][] buffer = {new long[32]};
+        int[] count = {0};
+        forEachShingle(question, shingle -> {
+            if (count[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], count[0] * 2);
+            }
+            buffer[0][count[0]++] = shingle;
+        });
+        long[] shingles = buffer[0];
+        Arrays.sort(shingles, 0, count[0]);
+        int distinct = 0;
+        for (int i = 0; i < count[0]; i++) {
+            if (distinct == 0 || shingles[i] != shingles[distinct - 1]) {
+                shingles[distinct++] = shingles[i];
+            }
+        }
+        return Arrays.copyOf(shingles, distinct);
+    }
+
+    private static double jaccard(long[] first, long[] second) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] == second[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (first[i] < second[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        int union = first.length + second.length - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private interface ShingleSink {
+        void shingle(long hash);
+    }
+
+    /**
+     * Recorre los fragmentos de una pregunta como hashes de 64 bits. Un fragmento puede repetirse.
+     */
+    private static void forEachShingle(Question question, ShingleSink sink) {
+        long[] previous = {0};
+        boolean[] first = {true};
+        StatementTokenizer.tokenize(question.getStatement(), (chars, length, hash, position) -> {
+            if (StatementTokenizer.isStopword(chars, length, hash)) {
+                return;
+            }
+            sink.shingle(mix(WORD_SALT ^ hash));
+            if (!first[0]) {
+                sink.shingle(mix(PAIR_SALT ^ (previous[0] << 32 | (hash & 0xFFFFFFFFL))));
+            }
+            previous[0] = hash;
+            first[0] = false;
+        });
+        if (question instanceof MultipleChoiceQuestion) {
+            // Cada opción es un fragmento, sin importar su posición en la lista
+            for (String option : ((MultipleChoiceQuestion) question).getOptions()) {
+                long[] optionHash = {OPTION_SALT};
+                int terms = StatementTokenizer.tokenize(option,
+                        (chars, length, hash, position) -> optionHash[0] = optionHash[0] * 31 + hash);
+                if (terms > 0) {
+                    sink.shingle(mix(optionHash[0]));
+                }
+            }
+        }
+    }
+
+    /**
+     * Mezcla de SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
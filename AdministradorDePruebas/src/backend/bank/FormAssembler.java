@@ -0,0 +1,353 @@
+// backend/bank/FormAssembler.java
+package backend.bank;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionType;
+import backend.model.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Arma formas de prueba a partir de un {@link QuestionBank} según un {@link Blueprint}.
+ * Las preguntas se agrupan en celdas por nivel de Bloom y tipo, cada una ordenada por tiempo estimado.
+ * Para cada forma:
+ * 1. Se reparte la cantidad de cada nivel entre los tipos con un flujo de costo mínimo pequeño
+ *    (un nodo por nivel y por tipo), donde el costo de tomar otra pregunta de una celda es el tiempo
+ *    de la siguiente más corta. Así se obtiene el menor tiempo total posible; si supera el
+ *    presupuesto, o no hay preguntas suficientes, el plan no se puede cumplir.
+ * 2. Se eligen preguntas al azar dentro de cada celda y, mientras el tiempo total supere el
+ *    presupuesto, la pregunta elegida más larga se cambia por la más corta libre de su celda.
+ * Con formas disjuntas, las preguntas usadas se quitan de las celdas antes de la forma siguiente.
+ * El costo de cada forma depende del tamaño de las celdas y de la forma, no de consultas repetidas al banco.
+ */
+public class FormAssembler {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+    private static final int LEVELS = BLOOM_LEVELS.length;
+    private static final int TYPES = QUESTION_TYPES.length;
+
+    private final QuestionBank bank;
+    private final int[][] cells; // Por celda (nivel * TYPES + tipo): identificadores ordenados por tiempo
+
+    /**
+     * Prepara el armado sobre un banco.
+     * @param bank El banco de preguntas.
+     */
+    public FormAssembler(QuestionBank bank) {
+        this.bank = bank;
+        int[] sizes = new int[LEVELS * TYPES];
+        for (int id = 0; id < bank.size(); id++) {
+            sizes[cell(bank.getBloomLevel(id), bank.getQuestionType(id))]++;
+        }
+        this.cells = new int[sizes.length][];
+        for (int cell = 0; cell < sizes.length; cell++) {
+            cells[cell] = new int[sizes[cell]];
+        }
+        int[] filled = new int[sizes.length];
+        for (int position = 0; position < bank.size(); position++) {
+            int id = bank.getIdByTime(position); // Recorrer en orden de tiempo deja cada celda ordenada
+            int cell = cell(bank.getBloomLevel(id), bank.getQuestionType(id));
+            cells[cell][filled[cell]++] = id;
+        }
+    }
+
+    /**
+     * Arma las formas de un plan con elecciones al azar.
+     * @param blueprint El plan.
+     * @return Las formas, en orden.
+     * @throws IllegalArgumentException si el plan no se puede cumplir con el banco.
+     */
+    public List<Test> assemble(Blueprint blueprint) {
+        return assemble(blueprint, new Random());
+    }
+
+    /**
+     * Arma las formas de un plan de forma reproducible.
+     * @param blueprint El plan.
+     * @param seed La semilla de las elecciones al azar.
+     * @return Las formas, en orden.
+     * @throws IllegalArgumentException si el plan no se puede cumplir con el banco.
+     */
+    public List<Test> assemble(Blueprint blueprint, long seed) {
+        return assemble(blueprint, new Random(seed));
+    }
+
+    private List<Test> assemble(Blueprint blueprint, Random random) {
+        int numberOfItems = blueprint.getNumberOfItems();
+        if (numberOfItems == 0) {
+            throw new IllegalArgumentException("El plan no pide ninguna pregunta.");
+        }
+        int[][] available = cells.clone(); // Con formas disjuntas se reemplazan celdas, nunca se modifican
+        List<Test> forms = new ArrayList<>(blueprint.getForms());
+        for (int form = 0; form < blueprint.getForms(); form++) {
+            int[] counts = allocate(blueprint, available, numberOfItems, form);
+            int[] ids = pick(blueprint, available, counts, random, form);
+            Arrays.sort(ids);
+            String name = blueprint.getForms() == 1 ? blueprint.getName() : blueprint.getName() + " - Forma " + (form + 1);
+            Test test = new Test(name);
+            for (int id : ids) {
+                test.addQuestion(bank.getQuestion(id));
+            }
+            forms.add(test);
+        }
+        return forms;
+    }
+
+    /**
+     * Reparte las preguntas de la forma entre las celdas con el menor tiempo total posible,
+     * con caminos más cortos sucesivos (Bellman-Ford) sobre el grafo origen, niveles, tipos, destino.
+     * Los costos de cada celda son crecientes, así que tomar una pregunta por camino da el óptimo.
+     * @return La cantidad de preguntas de cada celda.
+     */
+    private int[] allocate(Blueprint blueprint, int[][] available, int numberOfItems, int form) {
+        int[] levelCapacity = new int[LEVELS];
+        int[] typeCapacity = new int[TYPES];
+        for (BloomLevel level : BLOOM_LEVELS) {
+            levelCapacity[level.ordinal()] = blueprint.isBloomConstrained() ? blueprint.getBloomCount(level) : numberOfItems;
+        }
+        for (QuestionType type : QUESTION_TYPES) {
+            typeCapacity[type.ordinal()] = blueprint.isTypeConstrained() ? blueprint.getTypeCount(type) : numberOfItems;
+        }
+
+        // Nodos: 0 origen, 1..LEVELS niveles, luego TYPES tipos y el destino
+        int sink = 1 + LEVELS + TYPES;
+        int[] levelFlow = new int[LEVELS];
+        int[] typeFlow = new int[TYPES];
+        int[] counts = new int[LEVELS * TYPES];
+        long[] distance = new long[sink + 1];
+        int[] previous = new int[sink + 1];
+        long totalTime = 0;
+
+        for (int unit = 0; unit < numberOfItems; unit++) {
+            Arrays.fill(distance, Long.MAX_VALUE);
+            Arrays.fill(previous, -1);
+            distance[0] = 0;
+            for (int round = 0; round < sink; round++) {
+                boolean changed = false;
+                for (int level = 0; level < LEVELS; level++) {
+                    int levelNode = 1 + level;
+                    if (distance[0] != Long.MAX_VALUE && levelFlow[level] < levelCapacity[level]) {
+                        changed |= relax(distance, previous, 0, levelNode, 0);
+                    }
+                    for (int type = 0; type < TYPES; type++) {
+                        int typeNode = 1 + LEVELS + type;
+                        int cell = level * TYPES + type;
+                        if (distance[levelNode] != Long.MAX_VALUE && counts[cell] < available[cell].length) {
+                            changed |= relax(distance, previous, levelNode, typeNode,
+                                    bank.getEstimatedTime(available[cell][counts[cell]]));
+                        }
+                        if (distance[typeNode] != Long.MAX_VALUE && counts[cell] > 0) {
+                            changed |= relax(distance, previous, typeNode, levelNode,
+                                    -bank.getEstimatedTime(available[cell][counts[cell] - 1]));
+                        }
+                    }
+                }
+                for (int type = 0; type < TYPES; type++) {
+                    int typeNode = 1 + LEVELS + type;
+                    if (distance[typeNode] != Long.MAX_VALUE && typeFlow[type] < typeCapacity[type]) {
+                        changed |= relax(distance, previous, typeNode, sink, 0);
+                    }
+                }
+                if (!changed) {
+                    break;
+                }
+            }
+            if (distance[sink] == Long.MAX_VALUE) {
+                throw new IllegalArgumentException(shortageMessage(blueprint, available, form));
+            }
+
+            // Aplicar el camino: una pregunta más en las celdas recorridas hacia adelante, una menos hacia atrás
+            for (int node = sink; node != 0; node = previous[node]) {
+                int from = previous[node];
+                if (node == sink) {
+                    typeFlow[from - 1 - LEVELS]++;
+                } else if (from == 0) {
+                    levelFlow[node - 1]++;
+                } else if (from <= LEVELS) {
+                    counts[(from - 1) * TYPES + (node - 1 - LEVELS)]++;
+                } else {
+                    counts[(node - 1) * TYPES + (from - 1 - LEVELS)]--;
+                }
+            }
+            totalTime += distance[sink];
+        }
+
+        if (totalTime > blueprint.getMaxTotalTime()) {
+            throw new IllegalArgumentException("El tiempo total mínimo posible" + formSuffix(blueprint, form)
+                    + " es " + totalTime + " s y el plan permite " + blueprint.getMaxTotalTime() + " s.");
+        }
+        return counts;
+    }
+
+    private static boolean relax(long[] distance, int[] previous, int from, int to, long cost) {
+        if (distance[from] + cost < distance[to]) {
+            distance[to] = distance[from] + cost;
+            previous[to] = from;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Elige las preguntas de cada celda al azar y luego cambia las más largas por las más cortas
+     * libres hasta cumplir el presupuesto. Con formas disjuntas, quita las elegidas de las celdas.
+     * @return Los identificadores elegidos.
+     */
+    private int[] pick(Blueprint blueprint, int[][] available, int[] counts, Random random, int form) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        int[] chosenCell = new int[total];
+        int[] chosenPosition = new int[total];
+        boolean[][] marks = new boolean[counts.length][];
+        long totalTime = 0;
+        int chosen = 0;
+        for (int cell = 0; cell < counts.length; cell++) {
+            if (counts[cell] == 0) {
+                continue;
+            }
+            int size = available[cell].length;
+            boolean[] marked = new boolean[size];
+            sample(marked, counts[cell], random);
+            marks[cell] = marked;
+            for (int position = 0; position < size; position++) {
+                if (marked[position]) {
+                    chosenCell[chosen] = cell;
+                    chosenPosition[chosen++] = position;
+                    totalTime += bank.getEstimatedTime(available[cell][position]);
+                }
+            }
+        }
+
+        // Cambiar la elegida más larga por la libre más corta de su celda, mientras haga falta
+        if (totalTime > blueprint.getMaxTotalTime()) {
+            int[] nextFree = new int[counts.length];
+            for (int cell = 0; cell < counts.length; cell++) {
+                nextFree[cell] = marks[cell] == null ? 0 : firstFree(marks[cell], 0);
+            }
+            PriorityQueue<Integer> longest = new PriorityQueue<>(Math.max(1, total), (a, b) -> Integer.compare(
+                    bank.getEstimatedTime(available[chosenCell[b]][chosenPosition[b]]),
+                    bank.getEstimatedTime(available[chosenCell[a]][chosenPosition[a]])));
+            for (int i = 0; i < total; i++) {
+                longest.add(i);
+            }
+            while (totalTime > blueprint.getMaxTotalTime() && !longest.isEmpty()) {
+                int i = longest.poll();
+                int cell = chosenCell[i];
+                int position = chosenPosition[i];
+                int free = nextFree[cell];
+                if (free < position) { // Hay una pregunta libre más corta en la celda
+                    marks[cell][position] = false;
+                    marks[cell][free] = true;
+                    totalTime -= bank.getEstimatedTime(available[cell][position]) - bank.getEstimatedTime(available[cell][free]);
+                    chosenPosition[i] = free;
+                    nextFree[cell] = firstFree(marks[cell], free + 1);
+                }
+            }
+            if (totalTime > blueprint.getMaxTotalTime()) {
+                // No debería ocurrir: el reparto ya garantiza que el mínimo cabe en el presupuesto
+                throw new IllegalStateException("No se pudo ajustar la forma " + (form + 1) + " al tiempo máximo.");
+            }
+        }
+
+        int[] ids = new int[total];
+        for (int i = 0; i < total; i++) {
+            ids[i] = available[chosenCell[i]][chosenPosition[i]];
+        }
+        if (blueprint.isDisjoint()) {
+            for (int cell = 0; cell < counts.length; cell++) {
+                if (marks[cell] != null) {
+                    available[cell] = withoutMarked(available[cell], marks[cell], counts[cell]);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Marca al azar una cantidad de posiciones distintas.
+     */
+    private static void sample(boolean[] marked, int count, Random random) {
+        int size = marked.length;
+        boolean complement = count > size / 2; // Si hay que elegir casi todas, se eligen las que quedan fuera
+        if (complement) {
+            Arrays.fill(marked, true);
+        }
+        int remaining = complement ? size - count : count;
+        while (remaining > 0) {
+            int position = random.nextInt(size);
+            if (marked[position] == complement) {
+                marked[position] = !complement;
+                remaining--;
+            }
+        }
+    }
+
+    private static int firstFree(boolean[] marked, int from) {
+        while (from < marked.length && marked[from]) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int[] withoutMarked(int[] ids, boolean[] marked, int markedCount) {
+        int[] remaining = new int[ids.length - markedCount];
+        int count = 0;
+        for (int position = 0; position < ids.length; position++) {
+            if (!marked[position]) {
+                remaining[count++] = ids[position];
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Explica por qué no hay preguntas suficientes: un nivel, un tipo o la combinación de ambos.
+     */
+    private String shortageMessage(Blueprint blueprint, int[][] available, int form) {
+        String suffix = formSuffix(blueprint, form);
+        if (blueprint.isBloomConstrained()) {
+            for (BloomLevel level : BLOOM_LEVELS) {
+                int count = 0;
+                for (int type = 0; type < TYPES; type++) {
+                    count += available[level.ordinal() * TYPES + type].length;
+                }
+                if (count < blueprint.getBloomCount(level)) {
+                    return "El banco tiene " + count + " preguntas de nivel " + level.getName() + " disponibles"
+                            + suffix + " y el plan pide " + blueprint.getBloomCount(level) + ".";
+                }
+            }
+        }
+        if (blueprint.isTypeConstrained()) {
+            for (QuestionType type : QUESTION_TYPES) {
+                int count = 0;
+                for (int level = 0; level < LEVELS; level++) {
+                    count += available[level * TYPES + type.ordinal()].length;
+                }
+                if (count < blueprint.getTypeCount(type)) {
+                    return "El banco tiene " + count + " preguntas de tipo " + type.getName() + " disponibles"
+                            + suffix + " y el plan pide " + blueprint.getTypeCount(type) + ".";
+                }
+            }
+        }
+        return "El banco no tiene preguntas suficientes que combinen los niveles y tipos pedidos" + suffix + ".";
+    }
+
+    private static String formSuffix(Blueprint blueprint, int form) {
+        if (blueprint.getForms() == 1) {
+            return "";
+        }
+        return blueprint.isDisjoint() && form > 0
+                ? " para la forma " + (form + 1) + " sin repetir preguntas de las anteriores"
+                : " para la forma " + (form + 1);
+    }
+
+    private static int cell(BloomLevel level, QuestionType type) {
+        return level.ordinal() * TYPES + type.ordinal();
+    }
+}
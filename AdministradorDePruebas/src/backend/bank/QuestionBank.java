@@ -0,0 +1,479 @@
+// backend/bank/QuestionBank.java
+package backend.bank;
+
+import backend.file.MappedTestBank;
+import backend.file.TestLoader;
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.QuestionType;
+import backend.model.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Banco de preguntas con índices secundarios, para consultas por nivel de Bloom, tipo de pregunta
+ * y rango de tiempo estimado sin recorrer todas las preguntas.
+ * Índices:
+ * - Un mapa de bits por nivel de Bloom y otro por tipo (un bit por pregunta).
+ * - Los identificadores ordenados por tiempo estimado, de modo que un rango de tiempo es un
+ *   tramo contiguo que se ubica con dos búsquedas binarias.
+ * - Mapas de bits acumulados sobre ese orden, cortado en {@value #TIME_BUCKETS} tramos: el tramo
+ *   k tiene las preguntas de los k primeros tramos. Un rango de tiempo amplio es la diferencia de
+ *   dos de ellos más los bordes. Ocupan unos 4 bytes por pregunta.
+ * Una consulta une los mapas de bits de cada criterio, los intersecta palabra a palabra y aplica
+ * el rango de tiempo por el camino más barato: recorrer el tramo de tiempo, recorrer los
+ * candidatos, o intersectar con los mapas acumulados.
+ * El identificador de una pregunta es su posición en la prueba. El banco es inmutable una vez
+ * creado y puede consultarse desde varios hilos; las preguntas no deben modificarse después.
+ */
+public class QuestionBank {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+    private static final int TIME_BUCKETS = 32;
+
+    private final List<Question> questions;
+    private final int size;
+    private final long[][] bloomBits; // Por ordinal de BloomLevel
+    private final long[][] typeBits; // Por ordinal de QuestionType
+    private final int[] bloomCounts;
+    private final int[] typeCounts;
+    private final byte[] levels; // Ordinal de BloomLevel por identificador
+    private final byte[] types; // Ordinal de QuestionType por identificador
+    private final int[] times; // Tiempo estimado por identificador
+    private final int[] idsByTime; // Identificadores ordenados por tiempo y luego por identificador
+    private final int[] sortedTimes; // sortedTimes[k] == times[idsByTime[k]]
+    private final int words;
+    private final long[][] timePrefixBits; // timePrefixBits[b]: identificadores de idsByTime[0, boundary(b)), b >= 1
+
+    private QuestionBank(List<Question> questions, byte[] levels, byte[] types, int[] times) {
+        this.questions = questions;
+        this.size = times.length;
+        this.levels = levels;
+        this.types = types;
+        this.times = times;
+        this.words = (size + 63) >>> 6;
+        this.bloomBits = new long[BLOOM_LEVELS.length][words];
+        this.typeBits = new long[QUESTION_TYPES.length][words];
+        this.bloomCounts = new int[BLOOM_LEVELS.length];
+        this.typeCounts = new int[QUESTION_TYPES.length];
+        for (int id = 0; id < size; id++) {
+            bloomBits[levels[id]][id >>> 6] |= 1L << id;
+            typeBits[types[id]][id >>> 6] |= 1L << id;
+            bloomCounts[levels[id]]++;
+            typeCounts[types[id]]++;
+        }
+
+        // Orden por (tiempo, identificador) empaquetado en un long: un solo sort de primitivos
+        long[] keys = new long[size];
+        for (int id = 0; id < size; id++) {
+            keys[id] = ((long) times[id] << 32) | id;
+        }
+        Arrays.sort(keys);
+        this.idsByTime = new int[size];
+        this.sortedTimes = new int[size];
+        for (int k = 0; k < size; k++) {
+            idsByTime[k] = (int) keys[k];
+            sortedTimes[k] = (int) (keys[k] >> 32);
+        }
+
+        this.timePrefixBits = new long[TIME_BUCKETS + 1][];
+        long[] prefix = new long[words];
+        for (int b = 1; b <= TIME_BUCKETS; b++) {
+            for (int k = boundary(b - 1); k < boundary(b); k++) {
+                int id = idsByTime[k];
+                prefix[id >>> 6] |= 1L << id;
+            }
+            timePrefixBits[b] = prefix.clone();
+        }
+    }
+
+    /**
+     * Indexa las preguntas de una prueba.
+     * @param test La prueba.
+     * @return El banco indexado.
+     */
+    public static QuestionBank of(Test test) {
+        return of(test.getQuestions());
+    }
+
+    /**
+     * Indexa una lista de preguntas.
+     * @param questions Las preguntas; la lista no debe cambiar después.
+     * @return El banco indexado.
+     */
+    public static QuestionBank of(List<Question> questions) {
+        int size = questions.size();
+        byte[] levels = new byte[size];
+        byte[] types = new byte[size];
+        int[] times = new int[size];
+        for (int id = 0; id < size; id++) {
+            Question question = questions.get(id);
+            levels[id] = (byte) question.getBloomLevel().ordinal();
+            types[id] = (byte) question.getQuestionType().ordinal();
+            times[id] = question.getEstimatedTime();
+        }
+        return new QuestionBank(questions, levels, types, times);
+    }
+
+    /**
+     * Indexa un banco binario leyendo solo los registros de cada pregunta: los textos no se
+     * decodifican hasta que se pide una pregunta.
+     * @param bank El banco binario.
+     * @return El banco indexado.
+     */
+    public static QuestionBank of(MappedTestBank bank) {
+        int size = bank.size();
+        byte[] levels = new byte[size];
+        byte[] types = new byte[size];
+        int[] times = new int[size];
+        for (int id = 0; id < size; id++) {
+            levels[id] = (byte) bank.getBloomLevel(id).ordinal();
+            types[id] = (byte) bank.getQuestionType(id).ordinal();
+            times[id] = bank.getEstimatedTime(id);
+        }
+        return new QuestionBank(bank.asList(), levels, types, times);
+    }
+
+    /**
+     * Carga un archivo con cualquier cargador e indexa sus preguntas.
+     * @param file El archivo.
+     * @param loader El cargador adecuado para el formato del archivo.
+     * @return El banco indexado.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el contenido del archivo no es válido.
+     */
+    public static QuestionBank load(File file, TestLoader loader) throws IOException, IllegalArgumentException {
+        return of(loader.loadTest(file));
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas del banco.
+     * @return La cantidad de preguntas.
+     */
+    public int size() {
+        return size;
+    }
+
+    public Question getQuestion(int id) {
+        return questions.get(id);
+    }
+
+    public BloomLevel getBloomLevel(int id) {
+        return BLOOM_LEVELS[levels[id]];
+    }
+
+    public QuestionType getQuestionType(int id) {
+        return QUESTION_TYPES[types[id]];
+    }
+
+    public int getEstimatedTime(int id) {
+        return times[id];
+    }
+
+    /**
+     * Obtiene el identificador en una posición del orden por tiempo estimado.
+     * @param position La posición, de 0 a size() - 1.
+     * @return El identificador de la pregunta.
+     */
+    int getIdByTime(int position) {
+        return idsByTime[position];
+    }
+
+    public int getCountByBloom(BloomLevel level) {
+        return bloomCounts[level.ordinal()];
+    }
+
+    public int getCountByType(QuestionType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Busca las preguntas que cumplen una consulta.
+     * @param query La consulta.
+     * @return Los identificadores de las preguntas, en orden ascendente.
+     */
+    public int[] select(QuestionQuery query) {
+        long[] candidates = candidates(query);
+        int from = lowerBound(query.getMinTime());
+        int to = upperBound(query.getMaxTime());
+        if (from == 0 && to == size) { // Sin filtro de tiempo efectivo
+            return candidates == null ? allIds() : toIds(candidates, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+        switch (plan(candidates, from, to)) {
+            case SLICE:
+                // Recorrer el tramo de tiempo y consultar el bit de cada pregunta
+                int[] result = new int[to - from];
+                int count = 0;
+                for (int k = from; k < to; k++) {
+                    int id = idsByTime[k];
+                    if (candidates == null || (candidates[id >>> 6] & (1L << id)) != 0) {
+                        result[count++] = id;
+                    }
+                }
+                result = Arrays.copyOf(result, count);
+                Arrays.sort(result);
+                return result;
+            case CANDIDATES:
+                return toIds(candidates, query.getMinTime(), query.getMaxTime());
+            default:
+                return toIds(timeBitmap(from, to, candidates), Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Cuenta las preguntas que cumplen una consulta, sin crear la lista de resultados.
+     * @param query La consulta.
+     * @return La cantidad de preguntas.
+     */
+    public int count(QuestionQuery query) {
+        long[] candidates = candidates(query);
+        int from = lowerBound(query.getMinTime());
+        int to = upperBound(query.getMaxTime());
+        if (candidates == null) {
+            return to - from;
+        }
+        if (from == 0 && to == size) {
+            return cardinality(candidates);
+        }
+        int count = 0;
+        switch (plan(candidates, from, to)) {
+            case SLICE:
+                for (int k = from; k < to; k++) {
+                    int id = idsByTime[k];
+                    if ((candidates[id >>> 6] & (1L << id)) != 0) {
+                        count++;
+                    }
+                }
+                return count;
+            case CANDIDATES:
+                int minTime = query.getMinTime();
+                int maxTime = query.getMaxTime();
+                for (int word = 0; word < candidates.length; word++) {
+                    for (long bits = candidates[word]; bits != 0; bits &= bits - 1) {
+                        int time = times[(word << 6) + Long.numberOfTrailingZeros(bits)];
+                        if (time >= minTime && time <= maxTime) {
+                            count++;
+                        }
+                    }
+                }
+                return count;
+            default:
+                return cardinality(timeBitmap(from, to, candidates));
+        }
+    }
+
+    private enum Plan {
+        SLICE, CANDIDATES, BITMAP
+    }
+
+    /**
+     * Elige cómo aplicar un rango de tiempo, comparando la cantidad de elementos que recorre cada camino.
+     */
+    private Plan plan(long[] candidates, int from, int to) {
+        long sliceCost = to - from;
+        long candidateCost = candidates == null ? Long.MAX_VALUE : cardinality(candidates);
+        int firstBucket = firstBucketFrom(from);
+        int lastBucket = lastBucketTo(to);
+        long bitmapCost = firstBucket < lastBucket
+                ? 2L * words + (boundary(firstBucket) - from) + (to - boundary(lastBucket))
+                : Long.MAX_VALUE;
+        if (sliceCost <= candidateCost && sliceCost <= bitmapCost) {
+            return Plan.SLICE;
+        }
+        return candidateCost <= bitmapCost ? Plan.CANDIDATES : Plan.BITMAP;
+    }
+
+    /**
+     * Construye el mapa de bits del tramo [from, to) de idsByTime, intersectado con los candidatos:
+     * la diferencia de dos mapas acumulados más los bordes que no cubren tramos completos.
+     */
+    private long[] timeBitmap(int from, int to, long[] candidates) {
+        int firstBucket = firstBucketFrom(from);
+        int lastBucket = lastBucketTo(to);
+        long[] high = timePrefixBits[lastBucket];
+        long[] low = firstBucket == 0 ? null : timePrefixBits[firstBucket];
+        long[] result = new long[words];
+        for (int word = 0; word < words; word++) {
+            result[word] = low == null ? high[word] : high[word] & ~low[word];
+        }
+        for (int k = from; k < boundary(firstBucket); k++) {
+            int id = idsByTime[k];
+            result[id >>> 6] |= 1L << id;
+        }
+        for (int k = boundary(lastBucket); k < to; k++) {
+            int id = idsByTime[k];
+            result[id >>> 6] |= 1L << id;
+        }
+        if (candidates != null) {
+            for (int word = 0; word < words; word++) {
+                result[word] &= candidates[word];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Posición en idsByTime donde empieza el tramo acumulado b.
+     */
+    private int boundary(int bucket) {
+        return (int) ((long) bucket * size / TIME_BUCKETS);
+    }
+
+    /**
+     * Primer tramo cuyo inicio está en o después de la posición indicada.
+     */
+    private int firstBucketFrom(int position) {
+        int bucket = (int) ((long) position * TIME_BUCKETS / Math.max(size, 1));
+        while (bucket < TIME_BUCKETS && boundary(bucket) < position) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Último tramo cuyo inicio está en o antes de la posición indicada.
+     */
+    private int lastBucketTo(int position) {
+        int bucket = Math.min(TIME_BUCKETS, (int) ((long) position * TIME_BUCKETS / Math.max(size, 1)) + 1);
+        while (bucket > 0 && boundary(bucket) > position) {
+            bucket--;
+        }
+        return bucket;
+    }
+
+    /**
+     * Obtiene las preguntas de una lista de identificadores, como vista sin copia.
+     * @param ids Los identificadores, por ejemplo el resultado de {@link #select(QuestionQuery)}.
+     * @return Las preguntas, en el orden de los identificadores.
+     */
+    public List<Question> getQuestions(int[] ids) {
+        return new IdList(ids);
+    }
+
+    /**
+     * Construye el mapa de bits de candidatos según los criterios de nivel y tipo.
+     * @return El mapa de bits, o null si la consulta no filtra por nivel ni por tipo.
+     */
+    private long[] candidates(QuestionQuery query) {
+        long[] bloom = union(bloomBits, query.getBloomMask());
+        long[] type = union(typeBits, query.getTypeMask());
+        if (bloom == null || type == null) {
+            return bloom == null ? type : bloom;
+        }
+        for (int word = 0; word < bloom.length; word++) {
+            bloom[word] &= type[word];
+        }
+        return bloom;
+    }
+
+    private static long[] union(long[][] bitmaps, int mask) {
+        if (mask == 0) {
+            return null;
+        }
+        long[] result = null;
+        for (int value = 0; value < bitmaps.length; value++) {
+            if ((mask & (1 << value)) == 0) {
+                continue;
+            }
+            if (result == null) {
+                result = bitmaps[value].clone();
+            } else {
+                long[] bitmap = bitmaps[value];
+                for (int word = 0; word < result.length; word++) {
+                    result[word] |= bitmap[word];
+                }
+            }
+        }
+        return result;
+    }
+
+    private int[] toIds(long[] candidates, int minTime, int maxTime) {
+        int[] result = new int[cardinality(candidates)];
+        int count = 0;
+        for (int word = 0; word < candidates.length; word++) {
+            for (long bits = candidates[word]; bits != 0; bits &= bits - 1) {
+                int id = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (times[id] >= minTime && times[id] <= maxTime) {
+                    result[count++] = id;
+                }
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private int[] allIds() {
+        int[] ids = new int[size];
+        for (int id = 0; id < size; id++) {
+            ids[id] = id;
+        }
+        return ids;
+    }
+
+    private static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long bits : bitmap) {
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    /**
+     * Primera posición de idsByTime con tiempo mayor o igual al indicado.
+     */
+    private int lowerBound(int time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedTimes[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Primera posición de idsByTime con tiempo mayor al indicado.
+     */
+    private int upperBound(int time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedTimes[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Vista de las preguntas de una lista de identificadores.
+     */
+    private class IdList extends AbstractList<Question> implements RandomAccess {
+        private final int[] ids;
+
+        IdList(int[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public Question get(int index) {
+            return questions.get(ids[index]);
+        }
+
+        @Override
+        public int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+// backend/bank/QuestionQuery.java
+package backend.bank;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionType;
+
+/**
+ * Consulta sobre un {@link QuestionBank}: niveles de Bloom, tipos de pregunta y un rango de tiempo
+ * estimado. Dentro de un mismo criterio los valores se combinan con O (cualquier nivel elegido) y
+ * entre criterios con Y. Un criterio sin valores no filtra.
+ * Las consultas son inmutables: cada método devuelve una consulta nueva.
+ * Ejemplo: {@code QuestionQuery.all().withBloom(BloomLevel.APLICAR).withType(QuestionType.MULTIPLE_CHOICE).withMaxTime(59)}
+ */
+public final class QuestionQuery {
+    private static final QuestionQuery ALL = new QuestionQuery(0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    private final int bloomMask; // Un bit por ordinal de BloomLevel
+    private final int typeMask; // Un bit por ordinal de QuestionType
+    private final int minTime; // Inclusive
+    private final int maxTime; // Inclusive
+
+    private QuestionQuery(int bloomMask, int typeMask, int minTime, int maxTime) {
+        this.bloomMask = bloomMask;
+        this.typeMask = typeMask;
+        this.minTime = minTime;
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * Obtiene la consulta que acepta todas las preguntas.
+     * @return La consulta sin filtros.
+     */
+    public static QuestionQuery all() {
+        return ALL;
+    }
+
+    /**
+     * Agrega niveles de Bloom aceptados.
+     * @param levels Los niveles.
+     * @return La consulta resultante.
+     */
+    public QuestionQuery withBloom(BloomLevel... levels) {
+        int mask = bloomMask;
+        for (BloomLevel level : levels) {
+            if (level == null) {
+                throw new IllegalArgumentException("El nivel de Bloom no puede ser nulo.");
+            }
+            mask |= 1 << level.ordinal();
+        }
+        return new QuestionQuery(mask, typeMask, minTime, maxTime);
+    }
+
+    /**
+     * Agrega tipos de pregunta aceptados.
+     * @param types Los tipos.
+     * @return La consulta resultante.
+     */
+    public QuestionQuery withType(QuestionType... types) {
+        int mask = typeMask;
+        for (QuestionType type : types) {
+            if (type == null) {
+                throw new IllegalArgumentException("El tipo de pregunta no puede ser nulo.");
+            }
+            mask |= 1 << type.ordinal();
+        }
+        return new QuestionQuery(bloomMask, mask, minTime, maxTime);
+    }
+
+    /**
+     * Restringe el tiempo estimado a un rango.
+     * @param minTime El tiempo mínimo en segundos, inclusive.
+     * @param maxTime El tiempo máximo en segundos, inclusive.
+     * @return La consulta resultante.
+     */
+    public QuestionQuery withTimeBetween(int minTime, int maxTime) {
+        if (minTime > maxTime) {
+            throw new IllegalArgumentException("El tiempo mínimo no puede ser mayor que el máximo.");
+        }
+        return new QuestionQuery(bloomMask, typeMask, minTime, maxTime);
+    }
+
+    public QuestionQuery withMinTime(int minTime) {
+        return withTimeBetween(minTime, maxTime);
+    }
+
+    public QuestionQuery withMaxTime(int maxTime) {
+        return withTimeBetween(minTime, maxTime);
+    }
+
+    /**
+     * Evalúa la consulta sobre una pregunta, sin índices.
+     * @param level El nivel de Bloom de la pregunta.
+     * @param type El tipo de la pregunta.
+     * @param estimatedTime El tiempo estimado de la pregunta.
+     * @return true si la pregunta cumple la consulta.
+     */
+    public boolean matches(BloomLevel level, QuestionType type, int estimatedTime) {
+        return (bloomMask == 0 || (bloomMask & (1 << level.ordinal())) != 0)
+                && (typeMask == 0 || (typeMask & (1 << type.ordinal())) != 0)
+                && estimatedTime >= minTime && estimatedTime <= maxTime;
+    }
+
+    int getBloomMask() {
+        return bloomMask;
+    }
+
+    int getTypeMask() {
+        return typeMask;
+    }
+
+    int getMinTime() {
+        return minTime;
+    }
+
+    int getMaxTime() {
+        return maxTime;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("QuestionQuery[");
+        for (BloomLevel level : BloomLevel.values()) {
+            if ((bloomMask & (1 << level.ordinal())) != 0) {
+                text.append(level.getName()).append(' ');
+            }
+        }
+        for (QuestionType type : QuestionType.values()) {
+            if ((typeMask & (1 << type.ordinal())) != 0) {
+                text.append(type.getName()).append(' ');
+            }
+        }
+        if (minTime != Integer.MIN_VALUE || maxTime != Integer.MAX_VALUE) {
+            text.append(minTime == Integer.MIN_VALUE ? "" : minTime).append("..")
+                    .append(maxTime == Integer.MAX_VALUE ? "" : maxTime).append(" s");
+        }
+        return text.toString().trim() + "]";
+    }
+}
@@ -0,0 +1,913 @@
+// backend/bank/StatementIndex.java
+package backend.bank;
+
+import backend.file.TestLoader;
+import backend.model.Question;
+import backend.model.StatementListener;
+import backend.model.Test;
+import backend.model.TestListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Índice invertido sobre los enunciados de una prueba, para buscar preguntas por su redacción sin
+ * recorrer el banco. Los enunciados se dividen con {@link StatementTokenizer}, así que las búsquedas
+ * no distinguen mayúsculas ni acentos.
+ * Sintaxis de las consultas, con todas las partes obligatorias:
+ * - palabra: preguntas que contienen el término. Las palabras vacías ("de", "la", "y") se ignoran
+ *   si la consulta tiene otras palabras.
+ * - "varias palabras": la frase exacta, con las palabras consecutivas.
+ * - prefijo*: cualquier término que empiece así ("fotos*" encuentra "fotosíntesis" y "fotosintético").
+ * Los resultados se ordenan por relevancia con BM25.
+ * Cada término guarda sus documentos en orden creciente y, por documento, las posiciones donde
+ * aparece. El índice escucha la prueba y los enunciados: agregar o quitar preguntas y cambiar un
+ * enunciado lo actualizan en el momento. Un enunciado modificado se indexa como documento nuevo y el
+ * anterior queda marcado como borrado; cuando los borrados superan a los vivos el índice se reconstruye.
+ * Los métodos están sincronizados, así que puede consultarse desde varios hilos.
+ */
+public class StatementIndex {
+    private static final double K1 = 1.2; // Saturación de la frecuencia del término en BM25
+    private static final double B = 0.75; // Peso de la longitud del enunciado en BM25
+    private static final int MIN_DEAD_TO_COMPACT = 4096;
+
+    private final Test test;
+    private final Listener listener = new Listener();
+    private final TermTable postings = new TermTable();
+    private final TreeSet<String> sortedTerms = new TreeSet<>(); // Para los prefijos
+    private final IdentityIndex ids = new IdentityIndex(); // Pregunta -> documento vivo
+    private Question[] docs = new Question[1024]; // Documento -> pregunta; null si está borrado
+    private int[] docLengths = new int[1024]; // Términos del enunciado de cada documento
+    private int[] occurrences = new int[1024]; // Veces que la pregunta está en la prueba
+    private int docCount; // Documentos creados, vivos o borrados
+    private int liveCount;
+    private int deadCount;
+    private long totalLength; // Suma de las longitudes de los documentos vivos
+    private int[] scratch = new int[0]; // Frecuencias acumuladas por documento para los prefijos
+    private boolean attached;
+
+    private StatementIndex(Test test) {
+        this.test = test;
+    }
+
+    /**
+     * Indexa los enunciados de una prueba y se mantiene al día con sus cambios hasta {@link #detach()}.
+     * @param test La prueba.
+     * @return El índice.
+     */
+    public static StatementIndex of(Test test) {
+        StatementIndex index = new StatementIndex(test);
+        // Con el candado de la prueba ninguna pregunta entra ni sale entre el registro y la lectura;
+        // la prueba avisa con su candado tomado, así que el orden prueba -> índice es el de siempre
+        synchronized (test) {
+            test.addTestListener(index.listener);
+            synchronized (index) {
+                for (Question question : test.getQuestions()) {
+                    index.add(question);
+                }
+                index.attached = true;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Carga una prueba e indexa sus enunciados.
+     * @param file El archivo de la prueba.
+     * @param loader El cargador para el formato del archivo.
+     * @return El índice; la prueba cargada se obtiene con {@link #getTest()}.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el contenido del archivo no es válido.
+     */
+    public static StatementIndex load(File file, TestLoader loader) throws IOException, IllegalArgumentException {
+        return of(loader.loadTest(file));
+    }
+
+    public Test getTest() {
+        return test;
+    }
+
+    /**
+     * Deja de escuchar la prueba y sus preguntas. El índice conserva el estado que tenía.
+     */
+    public synchronized void detach() {
+        if (!attached) {
+            return;
+        }
+        attached = false;
+        test.removeTestListener(listener);
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docs[doc] != null) {
+                docs[doc].removeStatementListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas indexadas.
+     * @return La cantidad de preguntas distintas de la prueba.
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * Obtiene la cantidad de términos distintos del índice.
+     * @return La cantidad de términos.
+     */
+    public synchronized int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Busca preguntas por su enunciado.
+     * @param query La consulta.
+     * @param limit La cantidad máxima de resultados.
+     * @return Las preguntas que cumplen la consulta, de la más a la menos relevante.
+     */
+    public synchronized List<Question> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La cantidad de resultados debe ser un valor positivo.");
+        }
+        Matches matches = evaluate(query);
+        if (matches == null || matches.size == 0) {
+            return Collections.emptyList();
+        }
+        int[] top = topRows(matches, Math.min(limit, matches.size));
+        List<Question> results = new ArrayList<>(top.length);
+        for (int row : top) {
+            results.add(docs[matches.docs[row]]);
+        }
+        return results;
+    }
+
+    /**
+     * Cuenta las preguntas que cumplen una consulta, sin ordenarlas.
+     * @param query La consulta.
+     * @return La cantidad de preguntas.
+     */
+    public synchronized int count(String query) {
+        Matches matches = evaluate(query);
+        return matches == null ? 0 : matches.size;
+    }
+
+    private void add(Question question) {
+        int doc = ids.get(question);
+        if (doc >= 0) {
+            occurrences[doc]++; // La misma pregunta agregada dos veces se indexa una sola vez
+            return;
+        }
+        doc = indexDocument(question);
+        occurrences[doc] = 1;
+        question.addStatementListener(listener);
+    }
+
+    private void remove(Question question) {
+        int doc = ids.get(question);
+        if (doc < 0 || --occurrences[doc] > 0) {
+            return;
+        }
+        question.removeStatementListener(listener);
+        deleteDocument(doc, question.getStatement());
+        compactIfNeeded();
+    }
+
+    private void statementChanged(Question question, String oldStatement) {
+        int doc = ids.get(question);
+        if (doc < 0) {
+            return;
+        }
+        int count = occurrences[doc];
+        deleteDocument(doc, oldStatement);
+        int newDoc = indexDocument(question); // Puede ampliar los arreglos
+        occurrences[newDoc] = count;
+        compactIfNeeded();
+    }
+
+    private int indexDocument(Question question) {
+        int doc = docCount++;
+        if (doc == docs.length) {
+            int capacity = docs.length * 2;
+            docs = Arrays.copyOf(docs, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            occurrences = Arrays.copyOf(occurrences, capacity);
+        }
+        docs[doc] = question;
+        ids.put(question, doc);
+        int length = StatementTokenizer.tokenize(question.getStatement(), (chars, termLength, hash, position) -> {
+            Postings list = postings.get(chars, termLength, hash);
+            if (list == null) {
+                list = new Postings(new String(chars, 0, termLength), hash);
+                postings.put(list);
+                sortedTerms.add(list.term);
+            }
+            list.add(doc, position);
+        });
+        docLengths[doc] = length;
+        totalLength += length;
+        liveCount++;
+        return doc;
+    }
+
+    /**
+     * Marca un documento como borrado y descuenta sus términos. Las entradas quedan en las listas
+     * hasta la próxima reconstrucción; las consultas las saltan.
+     */
+    private void deleteDocument(int doc, String statement) {
+        Question question = docs[doc];
+        docs[doc] = null;
+        occurrences[doc] = 0;
+        ids.remove(question);
+        totalLength -= docLengths[doc];
+        liveCount--;
+        deadCount++;
+        for (String term : new HashSet<>(StatementTokenizer.terms(statement))) {
+            Postings list = postings.get(term);
+            if (list != null && --list.liveDocs == 0) {
+                postings.remove(term);
+                sortedTerms.remove(term);
+            }
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount < MIN_DEAD_TO_COMPACT || deadCount < liveCount) {
+            return;
+        }
+        Question[] liveDocs = new Question[liveCount];
+        int[] liveOccurrences = new int[liveCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (docs[doc] != null) {
+                liveDocs[live] = docs[doc];
+                liveOccurrences[live++] = occurrences[doc];
+            }
+        }
+        postings.clear();
+        sortedTerms.clear();
+        ids.clear();
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, live)) * 2);
+        docs = new Question[capacity];
+        docLengths = new int[capacity];
+        occurrences = new int[capacity];
+        docCount = 0;
+        liveCount = 0;
+        deadCount = 0;
+        totalLength = 0;
+        for (int i = 0; i < live; i++) {
+            int doc = indexDocument(liveDocs[i]);
+            occurrences[doc] = liveOccurrences[i];
+        }
+    }
+
+    /**
+     * Evalúa una consulta: resuelve primero la parte más selectiva y filtra con las demás,
+     * acumulando la puntuación BM25 de cada documento que sobrevive.
+     * @return Los documentos que cumplen la consulta, en orden creciente, o null si no hay partes.
+     */
+    private Matches evaluate(String query) {
+        List<Clause> clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return null;
+        }
+        for (Clause clause : clauses) {
+            clause.estimate = estimate(clause);
+            if (clause.estimate == 0) {
+                return new Matches(0);
+            }
+        }
+        clauses.sort((a, b) -> Long.compare(a.estimate, b.estimate));
+
+        double averageLength = liveCount == 0 ? 1 : Math.max(1.0, totalLength / (double) liveCount);
+        Matches current = null;
+        for (Clause clause : clauses) {
+            if (current != null && clause.kind == Clause.TERM) {
+                current = filterByTerm(current, postings.get(clause.terms[0]), averageLength);
+            } else {
+                Matches matches = clause.kind == Clause.TERM ? termMatches(postings.get(clause.terms[0]))
+                        : clause.kind == Clause.PREFIX ? prefixMatches(clause.terms[0])
+                        : phraseMatches(clause.terms);
+                double idf = idf(matches.size);
+                for (int row = 0; row < matches.size; row++) {
+                    matches.scores[row] = bm25(idf, matches.tfs[row], matches.docs[row], averageLength);
+                }
+                current = current == null ? matches : intersect(current, matches);
+            }
+            if (current.size == 0) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Divide la consulta en partes: frases entre comillas, prefijos terminados en * y términos sueltos.
+     */
+    private static List<Clause> parse(String query) {
+        List<Clause> clauses = new ArrayList<>();
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = query.indexOf('"', i + 1);
+                end = end < 0 ? length : end;
+                List<String> terms = StatementTokenizer.terms(query.substring(i + 1, end));
+                if (terms.size() == 1) {
+                    clauses.add(new Clause(Clause.TERM, terms.get(0)));
+                } else if (terms.size() > 1) {
+                    clauses.add(new Clause(Clause.PHRASE, terms.toArray(new String[0])));
+                }
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < length && !Character.isWhitespace(query.charAt(end)) && query.charAt(end) != '"') {
+                    end++;
+                }
+                String word = query.substring(i, end);
+                boolean prefix = word.endsWith("*");
+                List<String> terms = StatementTokenizer.terms(word);
+                for (int t = 0; t < terms.size(); t++) {
+                    boolean last = t == terms.size() - 1;
+                    clauses.add(new Clause(prefix && last ? Clause.PREFIX : Clause.TERM, terms.get(t)));
+                }
+                i = end;
+            }
+        }
+        // Las palabras vacías sueltas no restringen la búsqueda si hay otras partes
+        boolean hasContent = false;
+        for (Clause clause : clauses) {
+            hasContent |= !clause.isStopword();
+        }
+        if (hasContent) {
+            clauses.removeIf(Clause::isStopword);
+        }
+        return clauses;
+    }
+
+    /**
+     * Estima cuántos documentos puede devolver una parte, para evaluar primero la más selectiva.
+     */
+    private long estimate(Clause clause) {
+        if (clause.kind == Clause.PREFIX) {
+            long total = 0;
+            for (String term : prefixTerms(clause.terms[0])) {
+                total += postings.get(term).liveDocs;
+            }
+            return total;
+        }
+        long smallest = Long.MAX_VALUE;
+        for (String term : clause.terms) {
+            Postings list = postings.get(term);
+            smallest = Math.min(smallest, list == null ? 0 : list.liveDocs);
+        }
+        return smallest;
+    }
+
+    private Matches termMatches(Postings list) {
+        Matches matches = new Matches(list.liveDocs);
+        for (int entry = 0; entry < list.size; entry++) {
+            int doc = list.docs[entry];
+            if (docs[doc] != null) {
+                matches.add(doc, list.frequency(entry));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Filtra los documentos actuales con un término, avanzando en su lista con búsqueda exponencial:
+     * un término frecuente no se recorre entero si quedan pocos documentos.
+     */
+    private Matches filterByTerm(Matches current, Postings list, double averageLength) {
+        double idf = idf(list.liveDocs);
+        Matches result = new Matches(current.size);
+        int entry = 0;
+        for (int row = 0; row < current.size && entry < list.size; row++) {
+            int doc = current.docs[row];
+            entry = list.seek(doc, entry);
+            if (entry < list.size && list.docs[entry] == doc) {
+                int tf = list.frequency(entry);
+                result.add(doc, tf);
+                result.scores[result.size - 1] = current.scores[row] + bm25(idf, tf, doc, averageLength);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Une las listas de todos los términos con un prefijo, sumando sus frecuencias por documento.
+     */
+    private Matches prefixMatches(String prefix) {
+        if (scratch.length < docCount) {
+            scratch = new int[docs.length];
+        }
+        int[] touched = new int[16];
+        int touchedCount = 0;
+        for (String term : prefixTerms(prefix)) {
+            Postings list = postings.get(term);
+            for (int entry = 0; entry < list.size; entry++) {
+                int doc = list.docs[entry];
+                if (docs[doc] == null) {
+                    continue;
+                }
+                if (scratch[doc] == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = doc;
+                }
+                scratch[doc] += list.frequency(entry);
+            }
+        }
+        Arrays.sort(touched, 0, touchedCount);
+        Matches matches = new Matches(touchedCount);
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            matches.add(doc, scratch[doc]);
+            scratch[doc] = 0; // Deja el búfer limpio para la próxima consulta
+        }
+        return matches;
+    }
+
+    private Set<String> prefixTerms(String prefix) {
+        return sortedTerms.subSet(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Busca una frase: documentos con todos sus términos en los que aparecen en posiciones consecutivas.
+     * La frecuencia es la cantidad de veces que aparece la frase completa.
+     */
+    private Matches phraseMatches(String[] terms) {
+        Postings[] lists = new Postings[terms.length];
+        int rarest = 0;
+        for (int t = 0; t < terms.length; t++) {
+            lists[t] = postings.get(terms[t]);
+            if (lists[t].liveDocs < lists[rarest].liveDocs) {
+                rarest = t;
+            }
+        }
+        Matches matches = new Matches(lists[rarest].liveDocs);
+        int[] entries = new int[terms.length]; // Posición de avance en cada lista
+        Postings driver = lists[rarest];
+        for (int e = 0; e < driver.size; e++) {
+            int doc = driver.docs[e];
+            if (docs[doc] == null) {
+                continue;
+            }
+            boolean all = true;
+            for (int t = 0; t < terms.length && all; t++) {
+                entries[t] = lists[t].seek(doc, entries[t]);
+                all = entries[t] < lists[t].size && lists[t].docs[entries[t]] == doc;
+            }
+            if (!all) {
+                continue;
+            }
+            int occurrencesInDoc = 0;
+            Postings first = lists[0];
+            for (int p = first.positionsStart(entries[0]); p < first.positionEnds[entries[0]]; p++) {
+                int start = first.positions[p];
+                boolean consecutive = true;
+                for (int t = 1; t < terms.length && consecutive; t++) {
+                    consecutive = lists[t].hasPosition(entries[t], start + t);
+                }
+                if (consecutive) {
+                    occurrencesInDoc++;
+                }
+            }
+            if (occurrencesInDoc > 0) {
+                matches.add(doc, occurrencesInDoc);
+            }
+        }
+        return matches;
+    }
+
+    private static Matches intersect(Matches a, Matches b) {
+        Matches result = new Matches(Math.min(a.size, b.size));
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.docs[i] < b.docs[j]) {
+                i++;
+            } else if (a.docs[i] > b.docs[j]) {
+                j++;
+            } else {
+                result.add(a.docs[i], 0);
+                result.scores[result.size - 1] = a.scores[i] + b.scores[j];
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (liveCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private double bm25(double idf, int tf, int doc, double averageLength) {
+        double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+        return idf * tf * (K1 + 1) / (tf + norm);
+    }
+
+    /**
+     * Elige las filas de mayor puntuación con un montículo de tamaño limit; a igual puntuación gana
+     * el documento más antiguo.
+     * @return Las filas, de la más a la menos relevante.
+     */
+    private static int[] topRows(Matches matches, int limit) {
+        int[] heap = new int[limit]; // Montículo mínimo: en la raíz, la peor fila retenida
+        int heapSize = 0;
+        for (int row = 0; row < matches.size; row++) {
+            if (heapSize < limit) {
+                heap[heapSize] = row;
+                siftUp(heap, heapSize++, matches);
+            } else if (better(row, heap[0], matches)) {
+                heap[0] = row;
+                siftDown(heap, heapSize, matches);
+            }
+        }
+        int[] sorted = new int[heapSize];
+        for (int k = heapSize - 1; k >= 0; k--) {
+            sorted[k] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, matches);
+        }
+        return sorted;
+    }
+
+    private static boolean better(int a, int b, Matches matches) {
+        double scoreA = matches.scores[a];
+        double scoreB = matches.scores[b];
+        return scoreA > scoreB || (scoreA == scoreB && matches.docs[a] < matches.docs[b]);
+    }
+
+    private static void siftUp(int[] heap, int k, Matches matches) {
+        int row = heap[k];
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (!better(heap[parent], row, matches)) {
+                break;
+            }
+            heap[k] = heap[parent];
+            k = parent;
+        }
+        heap[k] = row;
+    }
+
+    private static void siftDown(int[] heap, int size, Matches matches) {
+        if (size == 0) {
+            return;
+        }
+        int row = heap[0];
+        int k = 0;
+        while (true) {
+            int child = 2 * k + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && better(heap[child], heap[child + 1], matches)) {
+                child++; // El hijo peor sube
+            }
+            if (!better(row, heap[child], matches)) {
+                break;
+            }
+            heap[k] = heap[child];
+            k = child;
+        }
+        heap[k] = row;
+    }
+
+    /**
+     * Documentos de un término en orden creciente, con sus posiciones contiguas en un solo arreglo.
+     */
+    private static final class Postings {
+        private final String term;
+        private final int hash;
+        private int[] docs = new int[2];
+        private int[] positionEnds = new int[2]; // Fin (exclusivo) de las posiciones de cada entrada
+        private int[] positions = new int[2];
+        private int size;
+        private int positionCount;
+        private int liveDocs; // Entradas de documentos no borrados
+
+        Postings(String term, int hash) {
+            this.term = term;
+            this.hash = hash;
+        }
+
+        void add(int doc, int position) {
+            if (size == 0 || docs[size - 1] != doc) {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                    positionEnds = Arrays.copyOf(positionEnds, size * 2);
+                }
+                docs[size++] = doc;
+                liveDocs++;
+            }
+            if (positionCount == positions.length) {
+                positions = Arrays.copyOf(positions, positionCount * 2);
+            }
+            positions[positionCount++] = position;
+            positionEnds[size - 1] = positionCount;
+        }
+
+        int positionsStart(int entry) {
+            return entry == 0 ? 0 : positionEnds[entry - 1];
+        }
+
+        int frequency(int entry) {
+            return positionEnds[entry] - positionsStart(entry);
+        }
+
+        boolean hasPosition(int entry, int position) {
+            return Arrays.binarySearch(positions, positionsStart(entry), positionEnds[entry], position) >= 0;
+        }
+
+        /**
+         * Busca la primera entrada desde from con documento mayor o igual a doc.
+         */
+        int seek(int doc, int from) {
+            if (from >= size || docs[from] >= doc) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && docs[high] < doc) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            high = Math.min(high, size);
+            int found = Arrays.binarySearch(docs, low + 1, high, doc);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+
+    /**
+     * Documentos que cumplen una consulta, en orden creciente, con su frecuencia y su puntuación.
+     */
+    private static final class Matches {
+        private final int[] docs;
+        private final int[] tfs;
+        private final double[] scores;
+        private int size;
+
+        Matches(int capacity) {
+            docs = new int[capacity];
+            tfs = new int[capacity];
+            scores = new double[capacity];
+        }
+
+        void add(int doc, int tf) {
+            docs[size] = doc;
+            tfs[size++] = tf;
+        }
+    }
+
+    /**
+     * Parte de una consulta.
+     */
+    private static final class Clause {
+        static final int TERM = 0;
+        static final int PREFIX = 1;
+        static final int PHRASE = 2;
+
+        private final int kind;
+        private final String[] terms;
+        private long estimate;
+
+        Clause(int kind, String... terms) {
+            this.kind = kind;
+            this.terms = terms;
+        }
+
+        boolean isStopword() {
+            return kind == TERM && StatementTokenizer.isStopword(terms[0]);
+        }
+    }
+
+    /**
+     * Diccionario de términos con direccionamiento abierto. Se consulta directamente con el búfer del
+     * divisor de términos, así que indexar un texto no crea cadenas para los términos ya conocidos.
+     */
+    private static final class TermTable {
+        private Postings[] slots = new Postings[1024];
+        private int size;
+
+        Postings get(String term) {
+            int hash = term.hashCode();
+            int mask = slots.length - 1;
+            for (int slot = spread(hash) & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+                Postings list = slots[slot];
+                if (list.hash == hash && list.term.equals(term)) {
+                    return list;
+                }
+            }
+            return null;
+        }
+
+        Postings get(char[] chars, int length, int hash) {
+            int mask = slots.length - 1;
+            for (int slot = spread(hash) & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+                Postings list = slots[slot];
+                if (list.hash == hash && regionEquals(list.term, chars, length)) {
+                    return list;
+                }
+            }
+            return null;
+        }
+
+        void put(Postings list) {
+            if ((size + 1) * 2 > slots.length) {
+                resize();
+            }
+            insert(slots, list);
+            size++;
+        }
+
+        void remove(String term) {
+            int hash = term.hashCode();
+            int mask = slots.length - 1;
+            int slot = spread(hash) & mask;
+            while (slots[slot] == null || slots[slot].hash != hash || !slots[slot].term.equals(term)) {
+                if (slots[slot] == null) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Borrado con desplazamiento hacia atrás, para no dejar marcas en la tabla
+            int gap = slot;
+            for (int next = (gap + 1) & mask; slots[next] != null; next = (next + 1) & mask) {
+                int home = spread(slots[next].hash) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    slots[gap] = slots[next];
+                    gap = next;
+                }
+            }
+            slots[gap] = null;
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            Arrays.fill(slots, null);
+            size = 0;
+        }
+
+        private void resize() {
+            Postings[] resized = new Postings[slots.length * 2];
+            for (Postings list : slots) {
+                if (list != null) {
+                    insert(resized, list);
+                }
+            }
+            slots = resized;
+        }
+
+        private static void insert(Postings[] table, Postings list) {
+            int mask = table.length - 1;
+            int slot = spread(list.hash) & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = list;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean regionEquals(String term, char[] chars, int length) {
+            if (term.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (term.charAt(i) != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Mapa de preguntas a documentos por identidad, con direccionamiento abierto: sin objetos por entrada.
+     */
+    private static final class IdentityIndex {
+        private Question[] keys = new Question[2048];
+        private int[] values = new int[2048];
+        private int size;
+
+        int get(Question question) {
+            int mask = keys.length - 1;
+            for (int slot = hash(question) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (keys[slot] == question) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(Question question, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(question) & mask;
+            while (keys[slot] != null && keys[slot] != question) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                size++;
+            }
+            keys[slot] = question;
+            values[slot] = value;
+        }
+
+        void remove(Question question) {
+            int mask = keys.length - 1;
+            int slot = hash(question) & mask;
+            while (keys[slot] != question) {
+                if (keys[slot] == null) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Borrado con desplazamiento hacia atrás, para no dejar marcas en la tabla
+            int gap = slot;
+            for (int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+                int home = hash(keys[next]) & mask;
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    values[gap] = values[next];
+                    gap = next;
+                }
+            }
+            keys[gap] = null;
+            size--;
+        }
+
+        void clear() {
+            Arrays.fill(keys, null);
+            size = 0;
+        }
+
+        private void resize() {
+            Question[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new Question[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(Question question) {
+            int h = System.identityHashCode(question);
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Receptor de los cambios de la prueba y de los enunciados; privado para no exponer esos métodos.
+     */
+    private final class Listener implements TestListener, StatementListener {
+        @Override
+        public void questionAdded(Test source, Question question) {
+            synchronized (StatementIndex.this) {
+                add(question);
+            }
+        }
+
+        @Override
+        public void questionRemoved(Test source, Question question) {
+            synchronized (StatementIndex.this) {
+                remove(question);
+            }
+        }
+
+        @Override
+        public void statementChanged(Question question, String oldStatement) {
+            synchronized (StatementIndex.this) {
+                StatementIndex.this.statementChanged(question, oldStatement);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+// backend/bank/StatementTokenizer.java
+package backend.bank;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Divide enunciados en español en términos para {@link StatementIndex}. Un término es una secuencia
+ * de letras y dígitos; se pasa a minúsculas y se le quitan las tildes, la diéresis y la virgulilla
+ * ("Fotosíntesis" y "fotosintesis" son el mismo término, igual que "año" y "ano"), de modo que las
+ * búsquedas funcionan aunque el autor escriba sin acentos. Los signos como ¿ ¡ y los guiones separan términos.
+ */
+final class StatementTokenizer {
+    private static final char SEPARATOR = 0;
+    private static final char[] FOLDED = buildFoldingTable(0x250); // Latín básico, Latín-1 y Latín extendido
+
+    private static final Set<String> STOPWORDS = new HashSet<>(Arrays.asList(
+            "a", "al", "ante", "como", "con", "cual", "de", "del", "desde", "donde", "e", "el", "en", "entre",
+            "es", "esa", "ese", "eso", "esta", "este", "esto", "hasta", "la", "las", "le", "les", "lo", "los",
+            "mas", "o", "para", "pero", "por", "que", "se", "si", "sin", "sobre", "su", "sus", "u", "un",
+            "una", "unas", "uno", "unos", "y"));
+    private static final String[] STOPWORD_TABLE = buildStopwordTable(); // Para consultar sin crear cadenas
+
+    /**
+     * Recibe los términos de un texto en orden. El término llega en un búfer que se reutiliza, para
+     * no crear una cadena por cada palabra del texto.
+     */
+    interface TermSink {
+        /**
+         * @param chars El búfer con el término al principio.
+         * @param length La longitud del término.
+         * @param hash El hash del término, igual al de {@link String#hashCode()}.
+         * @param position La posición del término en el texto, empezando en 0.
+         */
+        void term(char[] chars, int length, int hash, int position);
+    }
+
+    private StatementTokenizer() {
+    }
+
+    /**
+     * Recorre los términos de un texto.
+     * @param text El texto.
+     * @param sink El receptor de cada término y su posición, empezando en 0.
+     * @return La cantidad de términos.
+     */
+    static int tokenize(String text, TermSink sink) {
+        int length = text.length();
+        char[] term = new char[Math.min(length, 64)];
+        int termLength = 0;
+        int hash = 0;
+        int position = 0;
+        for (int i = 0; i <= length; i++) {
+            char folded = i < length ? fold(text.charAt(i)) : SEPARATOR;
+            if (folded != SEPARATOR) {
+                if (termLength == term.length) {
+                    term = Arrays.copyOf(term, Math.max(16, termLength * 2));
+                }
+                term[termLength++] = folded;
+                hash = 31 * hash + folded;
+            } else if (termLength > 0) {
+                sink.term(term, termLength, hash, position++);
+                termLength = 0;
+                hash = 0;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Obtiene los términos de un texto.
+     * @param text El texto.
+     * @return Los términos, en orden.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, (chars, length, hash, position) -> terms.add(new String(chars, 0, length)));
+        return terms;
+    }
+
+    /**
+     * Indica si un término es una palabra vacía (artículos, preposiciones, conjunciones), que no
+     * restringe una búsqueda salvo dentro de una frase.
+     * @param term El término ya normalizado.
+     * @return true si es una palabra vacía.
+     */
+    static boolean isStopword(String term) {
+        return STOPWORDS.contains(term);
+    }
+
+    /**
+     * Indica si un término recibido por un {@link TermSink} es una palabra vacía.
+     * @param chars El búfer con el término al principio.
+     * @param length La longitud del término.
+     * @param hash El hash del término.
+     * @return true si es una palabra vacía.
+     */
+    static boolean isStopword(char[] chars, int length, int hash) {
+        int mask = STOPWORD_TABLE.length - 1;
+        for (int slot = hash & mask; STOPWORD_TABLE[slot] != null; slot = (slot + 1) & mask) {
+            String stopword = STOPWORD_TABLE[slot];
+            if (stopword.length() == length && stopword.hashCode() == hash) {
+                int i = 0;
+                while (i < length && stopword.charAt(i) == chars[i]) {
+                    i++;
+                }
+                if (i == length) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String[] buildStopwordTable() {
+        String[] table = new String[Integer.highestOneBit(STOPWORDS.size()) * 4];
+        int mask = table.length - 1;
+        for (String stopword : STOPWORDS) {
+            int slot = stopword.hashCode() & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = stopword;
+        }
+        return table;
+    }
+
+    private static char fold(char c) {
+        if (c < FOLDED.length) {
+            return FOLDED[c];
+        }
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : SEPARATOR;
+    }
+
+    /**
+     * Precalcula la normalización de los primeros caracteres: minúscula sin marcas diacríticas, o
+     * SEPARATOR si no es letra ni dígito.
+     */
+    private static char[] buildFoldingTable(int size) {
+        char[] table = new char[size];
+        for (char c = 0; c < size; c++) {
+            if (!Character.isLetterOrDigit(c)) {
+                table[c] = SEPARATOR;
+                continue;
+            }
+            String base = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "")
+                    .toLowerCase();
+            table[c] = base.length() == 1 ? base.charAt(0) : Character.toLowerCase(c);
+        }
+        return table;
+    }
+}
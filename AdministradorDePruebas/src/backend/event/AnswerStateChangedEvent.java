@@ -0,0 +1,61 @@
+// backend/event/AnswerStateChangedEvent.java
+package backend.event;
+
+/**
+ * Evento que se notifica cuando cambia la respuesta o la marca de revisión de una pregunta.
+ * Lleva solo el estado de esa pregunta y los totales, para que la interfaz actualice una celda
+ * sin volver a consultar la prueba completa.
+ */
+public class AnswerStateChangedEvent extends BackendEvent {
+    private final int questionIndex;
+    private final boolean answered;
+    private final boolean flagged;
+    private final int answeredCount;
+    private final int flaggedCount;
+
+    public AnswerStateChangedEvent(int questionIndex, boolean answered, boolean flagged,
+                                   int answeredCount, int flaggedCount) {
+        this.questionIndex = questionIndex;
+        this.answered = answered;
+        this.flagged = flagged;
+        this.answeredCount = answeredCount;
+        this.flaggedCount = flaggedCount;
+    }
+
+    /**
+     * Un cambio posterior de la misma pregunta reemplaza al anterior.
+     */
+    @Override
+    public boolean supersedes(BackendEvent previous) {
+        return previous instanceof AnswerStateChangedEvent
+                && ((AnswerStateChangedEvent) previous).questionIndex == questionIndex;
+    }
+
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+
+    public boolean isAnswered() {
+        return answered;
+    }
+
+    public boolean isFlagged() {
+        return flagged;
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas respondidas después del cambio.
+     * @return La cantidad de preguntas respondidas.
+     */
+    public int getAnsweredCount() {
+        return answeredCount;
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas marcadas para revisar después del cambio.
+     * @return La cantidad de preguntas marcadas.
+     */
+    public int getFlaggedCount() {
+        return flaggedCount;
+    }
+}
@@ -7,4 +7,14 @@ package backend.event;
  */
 public abstract class BackendEvent {
     // Podría contener un timestamp, ID de evento, etc. si fuera necesario para depuración o auditoría.
+
+    /**
+     * Indica si este evento vuelve obsoleto a otro publicado antes, de modo que un observador
+     * atrasado puede recibir solo este.
+     * @param previous El evento anterior aún no entregado.
+     * @return true si el evento anterior puede descartarse en favor de este.
+     */
+    public boolean supersedes(BackendEvent previous) {
+        return false;
+    }
 }
\ No newline at end of file
@@ -20,6 +20,14 @@ public class QuestionUpdatedEvent extends BackendEvent {
         this.isLastQuestion = isLastQuestion;
     }
 
+    /**
+     * La pregunta actual más reciente reemplaza a la anterior: solo importa la que se muestra.
+     */
+    @Override
+    public boolean supersedes(BackendEvent previous) {
+        return previous instanceof QuestionUpdatedEvent;
+    }
+
     /**
      * Obtiene la pregunta actual.
      * @return La pregunta actual.
@@ -1,38 +1,26 @@
 // backend/event/TestFinishedEvent.java
 package backend.event;
 
-import java.util.Map;
-import java.util.List;
-import backend.model.BloomLevel;
-import backend.model.Question;
+import backend.model.TestResult;
 
 
 public class TestFinishedEvent extends BackendEvent {
-    // Mapa para porcentajes correctos por nivel de Bloom
-    private final Map<BloomLevel, Double> bloomPercentages;
-    // Mapa para porcentajes correctos por tipo de ítem
-    private final Map<String, Double> itemTypePercentages;
-    // Lista de preguntas con las respuestas del usuario para revisión
-    private final List<Question> questionsForReview;
+    // Resultado inmutable; puede entregarse a varios observadores a la vez sin copiarlo
+    private final TestResult result;
 
 
-    public TestFinishedEvent(Map<BloomLevel, Double> bloomPercentages,
-                             Map<String, Double> itemTypePercentages,
-                             List<Question> questionsForReview) {
-        this.bloomPercentages = bloomPercentages;
-        this.itemTypePercentages = itemTypePercentages;
-        this.questionsForReview = questionsForReview;
+    public TestFinishedEvent(TestResult result) {
+        if (result == null) {
+            throw new IllegalArgumentException("El resultado de la prueba no puede ser nulo.");
+        }
+        this.result = result;
     }
 
-    public Map<BloomLevel, Double> getBloomPercentages() {
-        return bloomPercentages;
-    }
-
-    public Map<String, Double> getItemTypePercentages() {
-        return itemTypePercentages;
-    }
-
-    public List<Question> getQuestionsForReview() {
-        return questionsForReview;
+    /**
+     * Obtiene el resultado de la prueba, con los porcentajes y las respuestas del candidato.
+     * @return El resultado.
+     */
+    public TestResult getResult() {
+        return result;
     }
 }
\ No newline at end of file
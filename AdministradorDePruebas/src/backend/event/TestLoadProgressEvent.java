@@ -0,0 +1,57 @@
+// backend/event/TestLoadProgressEvent.java
+package backend.event;
+
+import java.io.File;
+
+/**
+ * Evento que informa el avance de una carga asíncrona de prueba.
+ */
+public class TestLoadProgressEvent extends BackendEvent {
+    private final File file;
+    private final long bytesRead;
+    private final long totalBytes;
+    private final int questionsParsed;
+
+    public TestLoadProgressEvent(File file, long bytesRead, long totalBytes, int questionsParsed) {
+        this.file = file;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+        this.questionsParsed = questionsParsed;
+    }
+
+    /**
+     * Un avance más reciente de la misma carga reemplaza al anterior.
+     */
+    @Override
+    public boolean supersedes(BackendEvent previous) {
+        return previous instanceof TestLoadProgressEvent && ((TestLoadProgressEvent) previous).file.equals(file);
+    }
+
+    /**
+     * Obtiene el archivo que se está cargando.
+     * @return El archivo.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public int getQuestionsParsed() {
+        return questionsParsed;
+    }
+
+    /**
+     * Obtiene la fracción del archivo ya procesada.
+     * @return Un valor entre 0 y 1.
+     */
+    public double getFraction() {
+        return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 1.0;
+    }
+}
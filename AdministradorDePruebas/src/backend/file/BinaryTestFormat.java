@@ -0,0 +1,46 @@
+// backend/file/BinaryTestFormat.java
+package backend.file;
+
+/**
+ * Constantes del formato binario de bancos de preguntas (.tbank).
+ * Disposición del archivo (enteros en big-endian):
+ * - Cabecera de 64 bytes: firma, versión, cantidades y posiciones de cada tabla.
+ * - Registros de pregunta de ancho fijo (20 bytes): tipo, nivel de Bloom, clave de respuesta,
+ *   cantidad de opciones, tiempo estimado, id del enunciado, índice de la primera opción e id
+ *   del texto de la respuesta correcta (-1 en verdadero/falso).
+ * - Tabla de opciones: un id de cadena (int) por opción, consecutivas por pregunta.
+ * - Tabla de cadenas: posiciones (int) de cada cadena y a continuación los textos en UTF-8.
+ *   Cada texto distinto se guarda una sola vez.
+ */
+final class BinaryTestFormat {
+    static final int MAGIC = 0x54424E4B; // "TBNK"
+    static final short VERSION = 1;
+    static final String EXTENSION = ".tbank";
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 20;
+
+    // Posiciones dentro de la cabecera
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int QUESTION_COUNT_OFFSET = 8;
+    static final int OPTION_COUNT_OFFSET = 12;
+    static final int STRING_COUNT_OFFSET = 16;
+    static final int NAME_ID_OFFSET = 20;
+    static final int OPTIONS_TABLE_OFFSET = 24;
+    static final int STRING_OFFSETS_OFFSET = 32;
+    static final int STRING_DATA_OFFSET = 40;
+
+    // Posiciones dentro de cada registro de pregunta
+    static final int RECORD_TYPE = 0;
+    static final int RECORD_BLOOM = 1;
+    static final int RECORD_ANSWER_KEY = 2;
+    static final int RECORD_OPTION_COUNT = 3;
+    static final int RECORD_ESTIMATED_TIME = 4;
+    static final int RECORD_STATEMENT_ID = 8;
+    static final int RECORD_FIRST_OPTION = 12;
+    static final int RECORD_CORRECT_TEXT_ID = 16;
+
+    private BinaryTestFormat() {
+    }
+}
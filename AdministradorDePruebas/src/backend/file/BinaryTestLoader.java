@@ -0,0 +1,28 @@
+// backend/file/BinaryTestLoader.java
+package backend.file;
+
+import backend.model.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Implementación de TestLoader para bancos en formato binario (.tbank), generados con
+ * {@link BinaryTestWriter}. El archivo se proyecta en memoria y no se analiza texto.
+ */
+public class BinaryTestLoader implements TestLoader {
+
+    @Override
+    public Test loadTest(File file) throws IOException, IllegalArgumentException {
+        return loadTest(file, LoadProgress.NONE);
+    }
+
+    @Override
+    public Test loadTest(File file, LoadProgress progress) throws IOException, IllegalArgumentException {
+        Test test = MappedTestBank.open(file).toTest(progress);
+        if (test.getNumberOfItems() == 0) {
+            throw new IllegalArgumentException("El banco binario no contiene preguntas.");
+        }
+        return test;
+    }
+}
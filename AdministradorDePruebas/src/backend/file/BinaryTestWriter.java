@@ -0,0 +1,178 @@
+// backend/file/BinaryTestWriter.java
+package backend.file;
+
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convierte pruebas al formato binario (.tbank) que lee {@link MappedTestBank}.
+ * Los registros se escriben a medida que llegan las preguntas, así que la conversión solo
+ * mantiene en memoria los textos distintos y los ids de las opciones.
+ * Uso desde la línea de comandos: java backend.file.BinaryTestWriter entrada.csv|entrada.xml salida.tbank
+ */
+public class BinaryTestWriter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: java backend.file.BinaryTestWriter <entrada.csv|entrada.xml> <salida" + BinaryTestFormat.EXTENSION + ">");
+            System.exit(1);
+        }
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        String fileName = input.getName().toLowerCase();
+        Test test;
+        if (fileName.endsWith(".csv")) {
+            test = new CSVLoader().loadTest(input);
+        } else if (fileName.endsWith(".xml")) {
+            test = new XMLLoader().loadTest(input);
+        } else {
+            throw new IllegalArgumentException("Formato de archivo no soportado. Por favor, use .csv o .xml");
+        }
+        long start = System.nanoTime();
+        new BinaryTestWriter().write(test, output);
+        System.out.printf("%d preguntas convertidas en %.1f ms (%d bytes)%n",
+                test.getNumberOfItems(), (System.nanoTime() - start) / 1e6, output.length());
+    }
+
+    /**
+     * Escribe una prueba completa.
+     * @param test La prueba.
+     * @param file El archivo de destino.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void write(Test test, File file) throws IOException {
+        write(test.getName(), test.getQuestions().iterator(), file);
+    }
+
+    /**
+     * Escribe las preguntas que entrega un iterador, por ejemplo el de
+     * {@link CSVLoader#streamQuestions(File)} o {@link XMLLoader#streamQuestions(File)}.
+     * @param name El nombre de la prueba.
+     * @param questions Las preguntas, en orden.
+     * @param file El archivo de destino.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void write(String name, Iterator<Question> questions, File file) throws IOException {
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] optionIds = new int[1024];
+        int optionCount = 0;
+        int questionCount = 0;
+        int nameId = intern(name != null ? name : "", stringIds, strings);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            channel.position(BinaryTestFormat.HEADER_SIZE); // La cabecera se escribe al final
+
+            while (questions.hasNext()) {
+                Question question = questions.next();
+                MultipleChoiceQuestion multipleChoice = question instanceof MultipleChoiceQuestion
+                        ? (MultipleChoiceQuestion) question : null;
+                List<String> options = multipleChoice != null ? multipleChoice.getOptions() : null;
+                int firstOption = optionCount;
+                if (options != null) {
+                    if (optionCount + options.size() > optionIds.length) {
+                        optionIds = Arrays.copyOf(optionIds, Math.max(optionIds.length * 2, optionCount + options.size()));
+                    }
+                    for (String option : options) {
+                        optionIds[optionCount++] = intern(option, stringIds, strings);
+                    }
+                }
+
+                ensureRemaining(channel, buffer, BinaryTestFormat.RECORD_SIZE);
+                buffer.put((byte) question.getQuestionType().ordinal());
+                buffer.put((byte) question.getBloomLevel().ordinal());
+                buffer.put(question.getAnswerKey());
+                buffer.put((byte) (options != null ? options.size() : 0));
+                buffer.putInt(question.getEstimatedTime());
+                buffer.putInt(intern(question.getStatement(), stringIds, strings));
+                buffer.putInt(firstOption);
+                buffer.putInt(multipleChoice != null ? intern(multipleChoice.getCorrectAnswerText(), stringIds, strings) : -1);
+                questionCount++;
+            }
+
+            long optionsOffset = channel.position() + buffer.position();
+            for (int i = 0; i < optionCount; i++) {
+                ensureRemaining(channel, buffer, 4);
+                buffer.putInt(optionIds[i]);
+            }
+
+            // Tabla de cadenas: primero las posiciones, luego los textos
+            byte[][] encoded = new byte[strings.size()][];
+            long stringOffsetsOffset = channel.position() + buffer.position();
+            int position = 0;
+            for (int i = 0; i < strings.size(); i++) {
+                encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(channel, buffer, 4);
+                buffer.putInt(position);
+                position += encoded[i].length;
+            }
+            ensureRemaining(channel, buffer, 4);
+            buffer.putInt(position);
+
+            long stringDataOffset = channel.position() + buffer.position();
+            for (byte[] bytes : encoded) {
+                int written = 0;
+                while (written < bytes.length) {
+                    ensureRemaining(channel, buffer, 1);
+                    int length = Math.min(buffer.remaining(), bytes.length - written);
+                    buffer.put(bytes, written, length);
+                    written += length;
+                }
+            }
+            flush(channel, buffer);
+
+            ByteBuffer header = ByteBuffer.allocate(BinaryTestFormat.HEADER_SIZE);
+            header.putInt(BinaryTestFormat.MAGIC_OFFSET, BinaryTestFormat.MAGIC);
+            header.putShort(BinaryTestFormat.VERSION_OFFSET, BinaryTestFormat.VERSION);
+            header.putInt(BinaryTestFormat.QUESTION_COUNT_OFFSET, questionCount);
+            header.putInt(BinaryTestFormat.OPTION_COUNT_OFFSET, optionCount);
+            header.putInt(BinaryTestFormat.STRING_COUNT_OFFSET, strings.size());
+            header.putInt(BinaryTestFormat.NAME_ID_OFFSET, nameId);
+            header.putLong(BinaryTestFormat.OPTIONS_TABLE_OFFSET, optionsOffset);
+            header.putLong(BinaryTestFormat.STRING_OFFSETS_OFFSET, stringOffsetsOffset);
+            header.putLong(BinaryTestFormat.STRING_DATA_OFFSET, stringDataOffset);
+            channel.write(header, 0);
+        }
+    }
+
+    private static int intern(String text, Map<String, Integer> stringIds, List<String> strings) {
+        Integer id = stringIds.get(text);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(text, id);
+            strings.add(text);
+        }
+        return id;
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
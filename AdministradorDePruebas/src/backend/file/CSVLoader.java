@@ -2,98 +2,470 @@
 package backend.file;
 
 import backend.model.*;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 public class CSVLoader implements TestLoader {
 
-    private static final String CSV_DELIMITER = ";"; // Separador de columnas
-    private static final String OPTIONS_DELIMITER = ","; // Separador de opciones para selección múltiple
+    private static final char CSV_DELIMITER = ';'; // Separador de columnas
+    private static final char OPTIONS_DELIMITER = ','; // Separador de opciones para selección múltiple
+    private static final int EXPECTED_COLUMNS = 6; // tipo, enunciado, opciones, respuesta, nivel, tiempo
+    private static final long DEFAULT_CHUNK_SIZE = 4L * 1024 * 1024; // Tamaño aproximado de cada bloque paralelo
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+
+    private final long chunkSize;
+    private final Charset charset;
+    private final boolean poolText;
+
+    /**
+     * Constructor por defecto. Lee el archivo con la codificación por defecto de la plataforma.
+     */
+    public CSVLoader() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor con tamaño de bloque configurable.
+     * @param chunkSize La cantidad aproximada de bytes que procesa cada tarea en paralelo.
+     */
+    public CSVLoader(long chunkSize) {
+        this(chunkSize, true);
+    }
+
+    /**
+     * Constructor con tamaño de bloque configurable y diccionario de textos opcional.
+     * @param chunkSize La cantidad aproximada de bytes que procesa cada tarea en paralelo.
+     * @param poolText true para compartir las opciones y respuestas repetidas con un {@link StringPool}.
+     */
+    public CSVLoader(long chunkSize, boolean poolText) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser un valor positivo.");
+        }
+        this.chunkSize = chunkSize;
+        this.charset = Charset.defaultCharset();
+        this.poolText = poolText;
+    }
 
     @Override
     public Test loadTest(File file) throws IOException, IllegalArgumentException {
+        return loadTest(file, LoadProgress.NONE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * El avance se informa cada vez que termina un bloque.
+     */
+    @Override
+    public Test loadTest(File file, LoadProgress progress) throws IOException, IllegalArgumentException {
         Test test = new Test(file.getName().replace(".csv", "")); // Nombre de la prueba basado en el archivo
-        int lineNumber = 0;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lineNumber++;
-                if (line.trim().isEmpty()) { // Ignorar líneas vacías
-                    continue;
-                }
-                String[] parts = line.split(CSV_DELIMITER, -1);
 
-                // Se esperan 6 partes: tipo, enunciado, opciones, respuesta, nivel, tiempo
-                if (parts.length != 6) {
-                    throw new IllegalArgumentException("Línea " + lineNumber + ": Formato CSV inválido. Se esperaban 6 columnas, se encontraron " + parts.length + ".");
+        // Los bloques se procesan en paralelo; los resultados se recorren en orden para
+        // que el error informado sea siempre el de la primera línea inválida del archivo.
+        List<Chunk> chunks = splitIntoChunks(file);
+        StringPool pool = newPool(); // Un diccionario para todo el archivo, compartido por los bloques
+        ProgressTotals totals = new ProgressTotals(progress, file.length());
+        List<ChunkResult> results = chunks.parallelStream()
+                .map(chunk -> {
+                    ChunkResult result = parseChunkSafely(chunk, pool);
+                    int questions = 0;
+                    if (result.questions != null) {
+                        for (Question question : result.questions) {
+                            progress.questionParsed(question);
+                        }
+                        questions = result.questions.size();
+                    }
+                    totals.chunkParsed(chunk.buffer.limit(), questions);
+                    return result;
+                })
+                .collect(Collectors.toList());
+        for (ChunkResult result : results) {
+            if (result.error != null) {
+                throw result.error;
+            }
+            for (Question question : result.questions) {
+                test.addQuestion(question);
+            }
+        }
+
+        if (test.getNumberOfItems() == 0) {
+            throw new IllegalArgumentException("El archivo CSV no contiene preguntas válidas.");
+        }
+        return test;
+    }
+
+    /**
+     * Devuelve las preguntas del archivo como un flujo, sin construir la prueba completa.
+     * El archivo se divide en bloques alineados a líneas que se analizan a medida que se consumen;
+     * el flujo es secuencial pero puede pasarse a paralelo con {@link Stream#parallel()}.
+     * Los errores de una fila se lanzan al llegar a ella, con el mismo mensaje que {@link #loadTest(File)}.
+     * @param file El archivo CSV.
+     * @return Un flujo ordenado con las preguntas del archivo.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public Stream<Question> streamQuestions(File file) throws IOException {
+        StringPool pool = newPool();
+        return splitIntoChunks(file).stream()
+                .flatMap(chunk -> parseChunk(chunk, pool).stream());
+    }
+
+    private StringPool newPool() {
+        return poolText ? new StringPool() : null;
+    }
+
+    /**
+     * Divide el archivo en bloques que terminan en un salto de línea y calcula el número de
+     * línea con el que empieza cada uno.
+     */
+    private List<Chunk> splitIntoChunks(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Chunk> chunks = new ArrayList<>();
+            ByteBuffer probe = ByteBuffer.allocate(8192);
+            long start = 0;
+            while (start < size) {
+                long end = Math.min(size, start + chunkSize);
+                // Extender el bloque hasta el siguiente salto de línea
+                while (end < size) {
+                    probe.clear();
+                    int read = channel.read(probe, end);
+                    if (read <= 0) {
+                        end = size;
+                        break;
+                    }
+                    int newline = indexOf(probe, read, (byte) '\n');
+                    if (newline >= 0) {
+                        end += newline + 1;
+                        break;
+                    }
+                    end += read;
                 }
+                // La proyección en memoria sigue siendo válida después de cerrar el canal
+                chunks.add(new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)));
+                start = end;
+            }
 
-                String questionType = parts[0].trim();
-                String statement = parts[1].trim();
-                String optionsRaw = parts[2].trim();
-                String correctAnswer = parts[3].trim();
-                String bloomLevelStr = parts[4].trim();
-                String estimatedTimeStr = parts[5].trim();
+            // Número de línea inicial de cada bloque: se cuentan los saltos en paralelo y se acumulan
+            long[] lineCounts = chunks.parallelStream().mapToLong(Chunk::countLines).toArray();
+            int firstLine = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                chunks.get(i).firstLine = firstLine;
+                firstLine += (int) lineCounts[i];
+            }
+            return chunks;
+        } catch (IOException e) {
+            throw new IOException("Error al leer el archivo CSV: " + e.getMessage(), e);
+        }
+    }
+
+    private ChunkResult parseChunkSafely(Chunk chunk, StringPool pool) {
+        try {
+            return new ChunkResult(parseChunk(chunk, pool), null);
+        } catch (RuntimeException e) {
+            return new ChunkResult(null, e);
+        }
+    }
 
-                BloomLevel bloomLevel = BloomLevel.fromString(bloomLevelStr);
-                if (bloomLevel == null) {
-                    throw new IllegalArgumentException("Línea " + lineNumber + ": Nivel de Bloom inválido: " + bloomLevelStr);
+    /**
+     * Analiza las filas de un bloque. Cada línea se decodifica en un mismo búfer de caracteres y las
+     * columnas se delimitan con posiciones dentro de él; solo se crean cadenas para los valores finales,
+     * y las opciones y respuestas que ya están en el diccionario no crean ninguna.
+     */
+    private List<Question> parseChunk(Chunk chunk, StringPool pool) {
+        ByteBuffer bytes = chunk.buffer.duplicate();
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer line = CharBuffer.allocate(256);
+        int[] fieldStarts = new int[EXPECTED_COLUMNS];
+        int[] fieldEnds = new int[EXPECTED_COLUMNS];
+        List<Question> questions = new ArrayList<>();
+        int lineNumber = chunk.firstLine;
+
+        int limit = bytes.limit();
+        int position = 0;
+        while (position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > position && bytes.get(lineEnd - 1) == '\r') {
+                lineEnd--; // Saltos de línea de Windows
+            }
+            lineNumber++;
+
+            line = decodeLine(decoder, bytes, position, lineEnd, line);
+            position = next;
+            try {
+                Question question = parseRow(line.array(), line.limit(), fieldStarts, fieldEnds, lineNumber, pool);
+                if (question != null) {
+                    questions.add(question);
                 }
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Error inesperado al procesar el archivo CSV en la línea " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return questions;
+    }
 
-                int estimatedTime;
-                try {
-                    estimatedTime = Integer.parseInt(estimatedTimeStr);
-                    if (estimatedTime <= 0) {
-                        throw new IllegalArgumentException("Línea " + lineNumber + ": Tiempo estimado debe ser un número positivo.");
-                    }
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Línea " + lineNumber + ": Tiempo estimado inválido: " + estimatedTimeStr);
+    /**
+     * Decodifica una línea en el búfer reutilizable, ampliándolo solo si la línea no cabe.
+     */
+    private static CharBuffer decodeLine(CharsetDecoder decoder, ByteBuffer bytes, int from, int to, CharBuffer line) {
+        ByteBuffer slice = bytes.duplicate();
+        slice.limit(to).position(from);
+        int needed = (int) Math.ceil((to - from) * (double) decoder.maxCharsPerByte());
+        if (line.capacity() < needed) {
+            line = CharBuffer.allocate(Math.max(needed, line.capacity() * 2));
+        }
+        line.clear();
+        decoder.reset();
+        decoder.decode(slice, line, true);
+        decoder.flush(line);
+        line.flip();
+        return line;
+    }
+
+    /**
+     * Analiza una fila ya decodificada.
+     * @return La pregunta, o null si la línea está vacía.
+     */
+    private Question parseRow(char[] chars, int length, int[] fieldStarts, int[] fieldEnds, int lineNumber, StringPool pool) {
+        if (trimStart(chars, 0, length) == length) { // Ignorar líneas vacías
+            return null;
+        }
+
+        int columns = 0;
+        int fieldStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || chars[i] == CSV_DELIMITER) {
+                if (columns < EXPECTED_COLUMNS) {
+                    // Cada columna queda recortada, como con String.trim()
+                    int start = trimStart(chars, fieldStart, i);
+                    fieldStarts[columns] = start;
+                    fieldEnds[columns] = trimEnd(chars, start, i);
                 }
+                columns++;
+                fieldStart = i + 1;
+            }
+        }
 
-                Question question;
-                if ("Selección Múltiple".equalsIgnoreCase(questionType)) {
-                    List<String> options = new ArrayList<>();
-                    if (!optionsRaw.isEmpty()) {
-                        options = Arrays.asList(optionsRaw.split(OPTIONS_DELIMITER));
-                        options.replaceAll(String::trim);
-                    }
-                    if (options.isEmpty()) {
-                        throw new IllegalArgumentException("Línea " + lineNumber + ": Las preguntas de Selección Múltiple deben tener opciones.");
-                    }
+        // Se esperan 6 partes: tipo, enunciado, opciones, respuesta, nivel, tiempo
+        if (columns != EXPECTED_COLUMNS) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": Formato CSV inválido. Se esperaban 6 columnas, se encontraron " + columns + ".");
+        }
 
-                    // Intentar cargar la respuesta correcta por índice o por texto
-                    try {
-                        int correctIndex = Integer.parseInt(correctAnswer.trim());
-                        question = new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctIndex);
-                    } catch (NumberFormatException e) {
-                        // Si no es un número, intentar por texto
-                        question = new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctAnswer);
-                    }
+        BloomLevel bloomLevel = findBloomLevel(chars, fieldStarts[4], fieldEnds[4]);
+        if (bloomLevel == null) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": Nivel de Bloom inválido: " + field(chars, fieldStarts, fieldEnds, 4));
+        }
 
-                } else if ("Verdadero/Falso".equalsIgnoreCase(questionType)) {
-                    question = new TrueFalseQuestion(statement, bloomLevel, estimatedTime, correctAnswer);
-                } else {
-                    throw new IllegalArgumentException("Línea " + lineNumber + ": Tipo de pregunta no soportado: " + questionType);
+        long parsedTime = parseInt(chars, fieldStarts[5], fieldEnds[5]);
+        if (parsedTime == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": Tiempo estimado inválido: " + field(chars, fieldStarts, fieldEnds, 5));
+        }
+        if (parsedTime <= 0) {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": Tiempo estimado debe ser un número positivo.");
+        }
+        int estimatedTime = (int) parsedTime;
+
+        String statement = field(chars, fieldStarts, fieldEnds, 1);
+        Question question;
+        if (regionEqualsIgnoreCase(chars, fieldStarts[0], fieldEnds[0], QuestionType.MULTIPLE_CHOICE.getName())) {
+            List<String> options = splitOptions(chars, fieldStarts[2], fieldEnds[2], pool);
+            if (options.isEmpty()) {
+                throw new IllegalArgumentException("Línea " + lineNumber + ": Las preguntas de Selección Múltiple deben tener opciones.");
+            }
+            if (pool != null) {
+                options = pool.options(options); // Las preguntas con las mismas opciones comparten la lista
+            }
+
+            // Intentar cargar la respuesta correcta por índice o por texto
+            long correctIndex = parseInt(chars, fieldStarts[3], fieldEnds[3]);
+            if (correctIndex != Long.MIN_VALUE) {
+                question = new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, (int) correctIndex);
+            } else {
+                // Si no es un número, intentar por texto
+                String correctAnswer = pool != null ? pool.intern(chars, fieldStarts[3], fieldEnds[3])
+                        : field(chars, fieldStarts, fieldEnds, 3);
+                question = new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctAnswer);
+            }
+
+        } else if (regionEqualsIgnoreCase(chars, fieldStarts[0], fieldEnds[0], QuestionType.TRUE_FALSE.getName())) {
+            question = new TrueFalseQuestion(statement, bloomLevel, estimatedTime, field(chars, fieldStarts, fieldEnds, 3));
+        } else {
+            throw new IllegalArgumentException("Línea " + lineNumber + ": Tipo de pregunta no soportado: " + field(chars, fieldStarts, fieldEnds, 0));
+        }
+        return question;
+    }
+
+    private static String field(char[] chars, int[] fieldStarts, int[] fieldEnds, int column) {
+        return new String(chars, fieldStarts[column], fieldEnds[column] - fieldStarts[column]);
+    }
+
+    private static List<String> splitOptions(char[] chars, int from, int to, StringPool pool) {
+        List<String> options = new ArrayList<>();
+        if (from == to) {
+            return options;
+        }
+        int optionStart = from;
+        int trailingEmpty = 0; // Opciones vacías al final, que String.split descarta
+        for (int i = from; i <= to; i++) {
+            if (i == to || chars[i] == OPTIONS_DELIMITER) {
+                trailingEmpty = (i == optionStart) ? trailingEmpty + 1 : 0;
+                int start = trimStart(chars, optionStart, i);
+                int end = trimEnd(chars, start, i);
+                options.add(pool != null ? pool.intern(chars, start, end) : new String(chars, start, end - start));
+                optionStart = i + 1;
+            }
+        }
+        return trailingEmpty == 0 ? options : new ArrayList<>(options.subList(0, options.size() - trailingEmpty));
+    }
+
+    private static BloomLevel findBloomLevel(char[] chars, int from, int to) {
+        for (BloomLevel level : BLOOM_LEVELS) {
+            if (regionEqualsIgnoreCase(chars, from, to, level.getName())) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Interpreta un entero con las mismas reglas que Integer.parseInt, sin lanzar excepciones.
+     * @return El valor, o Long.MIN_VALUE si el texto no es un entero válido.
+     */
+    private static long parseInt(char[] chars, int from, int to) {
+        if (from == to) {
+            return Long.MIN_VALUE;
+        }
+        boolean negative = chars[from] == '-';
+        int i = (negative || chars[from] == '+') ? from + 1 : from;
+        if (i == to) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return Long.MIN_VALUE;
+            }
+        }
+        value = negative ? -value : value;
+        return (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) ? Long.MIN_VALUE : value;
+    }
+
+    private static boolean regionEqualsIgnoreCase(char[] chars, int from, int to, String text) {
+        if (to - from != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char a = chars[from + i];
+            char b = text.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+                    && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int trimStart(char[] chars, int from, int to) {
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(char[] chars, int from, int to) {
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static int indexOf(ByteBuffer buffer, int length, byte value) {
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Bloque del archivo proyectado en memoria, alineado a líneas completas.
+     */
+    private static class Chunk {
+        private final MappedByteBuffer buffer;
+        private int firstLine; // Cantidad de líneas anteriores al bloque
+
+        Chunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        long countLines() {
+            ByteBuffer bytes = buffer.duplicate();
+            int limit = bytes.limit();
+            long lines = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes.get(i) == '\n') {
+                    lines++;
                 }
-                test.addQuestion(question);
             }
-        } catch (IOException e) {
-            throw new IOException("Error al leer el archivo CSV: " + e.getMessage(), e);
-        } catch (IllegalArgumentException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Error inesperado al procesar el archivo CSV en la línea " + lineNumber + ": " + e.getMessage(), e);
+            // Una última línea sin salto final también cuenta
+            return (limit > 0 && bytes.get(limit - 1) != '\n') ? lines + 1 : lines;
         }
-        if (test.getNumberOfItems() == 0) {
-            throw new IllegalArgumentException("El archivo CSV no contiene preguntas válidas.");
+    }
+
+    /**
+     * Totales de la carga, acumulados por todos los bloques. Se suman e informan con el mismo candado,
+     * así que el receptor recibe los avances de uno en uno y nunca retroceden.
+     */
+    private static class ProgressTotals {
+        private final LoadProgress progress;
+        private final long totalBytes;
+        private long bytesRead;
+        private int questionsParsed;
+
+        ProgressTotals(LoadProgress progress, long totalBytes) {
+            this.progress = progress;
+            this.totalBytes = totalBytes;
+        }
+
+        synchronized void chunkParsed(long bytes, int questions) {
+            bytesRead += bytes;
+            questionsParsed += questions;
+            progress.update(bytesRead, totalBytes, questionsParsed);
+        }
+    }
+
+    private static class ChunkResult {
+        private final List<Question> questions;
+        private final RuntimeException error;
+
+        ChunkResult(List<Question> questions, RuntimeException error) {
+            this.questions = questions;
+            this.error = error;
         }
-        return test;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+// backend/file/LoadProgress.java
+package backend.file;
+
+import backend.model.Question;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Receptor del avance de una carga. Los cargadores lo invocan periódicamente, posiblemente
+ * desde varios hilos, y el receptor puede detener la carga lanzando CancellationException.
+ */
+@FunctionalInterface
+public interface LoadProgress {
+    /**
+     * Receptor que ignora el avance.
+     */
+    LoadProgress NONE = (bytesRead, totalBytes, questionsParsed) -> {
+    };
+
+    /**
+     * Informa el avance de la carga. Nunca se invoca desde dos hilos a la vez, y cada llamada tiene
+     * valores mayores o iguales que la anterior.
+     * @param bytesRead Los bytes del archivo procesados hasta ahora.
+     * @param totalBytes El tamaño total del archivo.
+     * @param questionsParsed Las preguntas leídas hasta ahora.
+     * @throws CancellationException si la carga debe detenerse.
+     */
+    void update(long bytesRead, long totalBytes, int questionsParsed);
+
+    /**
+     * Recibe cada pregunta en cuanto se lee, antes de agregarla a la prueba. Los cargadores que
+     * analizan en paralelo la invocan desde varios hilos, así que el orden puede no ser el del archivo.
+     * Por defecto no hace nada.
+     * @param question La pregunta leída.
+     * @throws CancellationException si la carga debe detenerse.
+     */
+    default void questionParsed(Question question) {
+    }
+}
@@ -0,0 +1,290 @@
+// backend/file/MappedTestBank.java
+package backend.file;
+
+import backend.model.AnswerSheet;
+import backend.model.BloomLevel;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.QuestionType;
+import backend.model.StringPool;
+import backend.model.Test;
+import backend.model.TrueFalseQuestion;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Banco de preguntas en formato binario (.tbank) proyectado en memoria.
+ * Abrir el banco solo valida la cabecera; cada pregunta se decodifica al pedirla, directamente
+ * desde las páginas del archivo. La proyección es de solo lectura, así que varias JVM que abran
+ * el mismo archivo comparten sus páginas en la caché del sistema operativo.
+ * Las lecturas usan posiciones absolutas, por lo que el banco puede consultarse desde varios hilos.
+ */
+public class MappedTestBank {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+    private static final int PROGRESS_INTERVAL = 65536; // Preguntas decodificadas entre avisos de avance
+
+    private final ByteBuffer buffer;
+    private final int questionCount;
+    private final int optionCount;
+    private final int stringCount;
+    private final int optionsOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+    private final String name;
+
+    private MappedTestBank(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.limit() < BinaryTestFormat.HEADER_SIZE
+                || buffer.getInt(BinaryTestFormat.MAGIC_OFFSET) != BinaryTestFormat.MAGIC) {
+            throw new IllegalArgumentException("El archivo no es un banco de preguntas binario válido.");
+        }
+        short version = buffer.getShort(BinaryTestFormat.VERSION_OFFSET);
+        if (version != BinaryTestFormat.VERSION) {
+            throw new IllegalArgumentException("Versión de banco binario no soportada: " + version);
+        }
+        this.questionCount = buffer.getInt(BinaryTestFormat.QUESTION_COUNT_OFFSET);
+        this.optionCount = buffer.getInt(BinaryTestFormat.OPTION_COUNT_OFFSET);
+        this.stringCount = buffer.getInt(BinaryTestFormat.STRING_COUNT_OFFSET);
+        long options = buffer.getLong(BinaryTestFormat.OPTIONS_TABLE_OFFSET);
+        long stringOffsets = buffer.getLong(BinaryTestFormat.STRING_OFFSETS_OFFSET);
+        long stringData = buffer.getLong(BinaryTestFormat.STRING_DATA_OFFSET);
+
+        // Las tablas deben ir en orden, sin solaparse y dentro del archivo
+        if (questionCount < 0 || optionCount < 0 || stringCount < 0
+                || options != BinaryTestFormat.HEADER_SIZE + (long) questionCount * BinaryTestFormat.RECORD_SIZE
+                || stringOffsets != options + 4L * optionCount
+                || stringData != stringOffsets + 4L * (stringCount + 1)
+                || stringData > buffer.limit()
+                || stringData + buffer.getInt((int) stringData - 4) != buffer.limit()) {
+            throw new IllegalArgumentException("El banco binario está truncado o dañado.");
+        }
+        this.optionsOffset = (int) options;
+        this.stringOffsetsOffset = (int) stringOffsets;
+        this.stringDataOffset = (int) stringData;
+        this.name = getString(buffer.getInt(BinaryTestFormat.NAME_ID_OFFSET));
+    }
+
+    /**
+     * Proyecta en memoria un banco binario.
+     * @param file El archivo .tbank.
+     * @return El banco, listo para consultar.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el archivo no tiene el formato esperado.
+     */
+    public static MappedTestBank open(File file) throws IOException, IllegalArgumentException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("El banco binario supera el tamaño máximo de 2 GB.");
+            }
+            // La proyección sigue siendo válida después de cerrar el canal
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedTestBank(mapped);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas del banco.
+     * @return La cantidad de preguntas.
+     */
+    public int size() {
+        return questionCount;
+    }
+
+    public QuestionType getQuestionType(int index) {
+        int type = buffer.get(record(index) + BinaryTestFormat.RECORD_TYPE);
+        if (type < 0 || type >= QUESTION_TYPES.length) {
+            throw new IllegalArgumentException("Pregunta " + (index + 1) + ": Tipo de pregunta inválido en el banco binario.");
+        }
+        return QUESTION_TYPES[type];
+    }
+
+    public BloomLevel getBloomLevel(int index) {
+        int level = buffer.get(record(index) + BinaryTestFormat.RECORD_BLOOM);
+        if (level < 0 || level >= BLOOM_LEVELS.length) {
+            throw new IllegalArgumentException("Pregunta " + (index + 1) + ": Nivel de Bloom inválido en el banco binario.");
+        }
+        return BLOOM_LEVELS[level];
+    }
+
+    public int getEstimatedTime(int index) {
+        return buffer.getInt(record(index) + BinaryTestFormat.RECORD_ESTIMATED_TIME);
+    }
+
+    /**
+     * Obtiene la clave de respuesta de una pregunta, codificada como en {@link AnswerSheet}.
+     * @param index El índice de la pregunta.
+     * @return El código de la respuesta correcta.
+     */
+    public byte getAnswerKey(int index) {
+        return buffer.get(record(index) + BinaryTestFormat.RECORD_ANSWER_KEY);
+    }
+
+    public String getStatement(int index) {
+        return getString(buffer.getInt(record(index) + BinaryTestFormat.RECORD_STATEMENT_ID));
+    }
+
+    /**
+     * Obtiene la cantidad de opciones de una pregunta.
+     * @param index El índice de la pregunta.
+     * @return La cantidad de opciones, 0 en preguntas de verdadero/falso.
+     */
+    public int getOptionCount(int index) {
+        return buffer.get(record(index) + BinaryTestFormat.RECORD_OPTION_COUNT) & 0xFF;
+    }
+
+    public String getOption(int index, int option) {
+        return getString(optionStringId(index, option));
+    }
+
+    /**
+     * Decodifica una pregunta completa.
+     * Cada llamada crea una pregunta nueva; para recorrer todo el banco es preferible {@link #toTest()}.
+     * @param index El índice de la pregunta.
+     * @return La pregunta.
+     */
+    public Question getQuestion(int index) {
+        return decodeQuestion(index, null, null);
+    }
+
+    /**
+     * Devuelve una vista de solo lectura del banco que decodifica cada pregunta al accederla.
+     * @return La lista de preguntas.
+     */
+    public List<Question> asList() {
+        return new QuestionList();
+    }
+
+    /**
+     * Decodifica todas las preguntas en una prueba. Los textos repetidos se decodifican una sola
+     * vez y se comparten entre preguntas, igual que las listas de opciones repetidas.
+     * @return La prueba con todas las preguntas del banco.
+     */
+    public Test toTest() {
+        return toTest(LoadProgress.NONE);
+    }
+
+    /**
+     * Decodifica todas las preguntas en una prueba, informando el avance.
+     * @param progress El receptor del avance.
+     * @return La prueba con todas las preguntas del banco.
+     */
+    public Test toTest(LoadProgress progress) {
+        String[] strings = new String[stringCount];
+        StringPool pool = new StringPool(); // Solo para compartir las listas de opciones; los textos ya son únicos por id
+        Test test = new Test(name);
+        long totalBytes = buffer.limit();
+        for (int i = 0; i < questionCount; i++) {
+            Question question = decodeQuestion(i, strings, pool);
+            progress.questionParsed(question);
+            test.addQuestion(question);
+            if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                progress.update(totalBytes * (i + 1) / questionCount, totalBytes, i + 1);
+            }
+        }
+        progress.update(totalBytes, totalBytes, questionCount);
+        return test;
+    }
+
+    private Question decodeQuestion(int index, String[] strings, StringPool pool) {
+        int record = record(index);
+        QuestionType type = getQuestionType(index);
+        BloomLevel bloomLevel = getBloomLevel(index);
+        int estimatedTime = buffer.getInt(record + BinaryTestFormat.RECORD_ESTIMATED_TIME);
+        String statement = getString(buffer.getInt(record + BinaryTestFormat.RECORD_STATEMENT_ID), strings);
+        byte answerKey = buffer.get(record + BinaryTestFormat.RECORD_ANSWER_KEY);
+
+        if (type == QuestionType.TRUE_FALSE) {
+            if (answerKey != AnswerSheet.TRUE && answerKey != AnswerSheet.FALSE) {
+                throw new IllegalArgumentException("Pregunta " + (index + 1) + ": Respuesta correcta inválida en el banco binario.");
+            }
+            return new TrueFalseQuestion(statement, bloomLevel, estimatedTime, answerKey == AnswerSheet.TRUE);
+        }
+
+        int count = getOptionCount(index);
+        List<String> options = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            options.add(getString(optionStringId(index, i), strings));
+        }
+        String correctAnswer = getString(buffer.getInt(record + BinaryTestFormat.RECORD_CORRECT_TEXT_ID), strings);
+        return new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime,
+                pool != null ? pool.options(options) : options, correctAnswer, AnswerSheet.optionIndex(answerKey));
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= questionCount) {
+            throw new IndexOutOfBoundsException("Índice de pregunta fuera de rango: " + index);
+        }
+        return BinaryTestFormat.HEADER_SIZE + index * BinaryTestFormat.RECORD_SIZE;
+    }
+
+    private int optionStringId(int index, int option) {
+        if (option < 0 || option >= getOptionCount(index)) {
+            throw new IndexOutOfBoundsException("Índice de opción fuera de rango: " + option);
+        }
+        int first = buffer.getInt(record(index) + BinaryTestFormat.RECORD_FIRST_OPTION);
+        long position = (long) first + option;
+        if (first < 0 || position >= optionCount) {
+            throw new IllegalArgumentException("Pregunta " + (index + 1) + ": Tabla de opciones dañada en el banco binario.");
+        }
+        return buffer.getInt(optionsOffset + (int) position * 4);
+    }
+
+    private String getString(int id, String[] cache) {
+        if (cache == null) {
+            return getString(id);
+        }
+        String value = cache[id];
+        if (value == null) {
+            value = getString(id);
+            cache[id] = value;
+        }
+        return value;
+    }
+
+    private String getString(int id) {
+        if (id < 0 || id >= stringCount) {
+            throw new IllegalArgumentException("Referencia a texto inválida en el banco binario: " + id);
+        }
+        int start = buffer.getInt(stringOffsetsOffset + id * 4);
+        int end = buffer.getInt(stringOffsetsOffset + (id + 1) * 4);
+        if (start < 0 || end < start || stringDataOffset + (long) end > buffer.limit()) {
+            throw new IllegalArgumentException("Tabla de textos dañada en el banco binario.");
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = buffer.duplicate(); // Copia de la posición para no compartir estado entre hilos
+        view.position(stringDataOffset + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Vista de lista sobre el banco; no guarda las preguntas decodificadas.
+     */
+    private class QuestionList extends AbstractList<Question> implements RandomAccess {
+        @Override
+        public Question get(int index) {
+            return getQuestion(index);
+        }
+
+        @Override
+        public int size() {
+            return questionCount;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+// backend/file/TestCache.java
+package backend.file;
+
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caché de pruebas ya analizadas, indexada por la ruta canónica del archivo.
+ * Una entrada solo se reutiliza si el tamaño, la fecha de modificación y la huella del contenido
+ * coinciden, de modo que un archivo modificado siempre se vuelve a analizar. Las entradas se
+ * desalojan en orden LRU cuando el tamaño estimado de las pruebas supera el presupuesto de memoria.
+ * Las pruebas en caché se comparten entre cargas, por lo que no deben modificarse después de cargarlas.
+ * La caché recuerda además la huella del archivo de cada prueba que entregó, aunque no la guarde,
+ * para que una sesión pueda referirse a su banco sin copiar las preguntas.
+ */
+public class TestCache {
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 8;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // Orden de acceso
+    private final Map<Test, String> hashes = new WeakHashMap<>(); // Huella de cada prueba entregada; Test compara por identidad
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Crea una caché con un presupuesto de memoria.
+     * @param maxBytes El tamaño estimado máximo, en bytes, de las pruebas guardadas.
+     */
+    public TestCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("El presupuesto de memoria de la caché no puede ser negativo.");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Devuelve la prueba del archivo, reutilizando la copia en caché si el archivo no cambió.
+     * @param file El archivo de la prueba.
+     * @param loader El cargador a usar si hay que analizar el archivo.
+     * @return La prueba.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el contenido del archivo no es válido.
+     */
+    public Test load(File file, TestLoader loader) throws IOException, IllegalArgumentException {
+        String path = file.getCanonicalPath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+        String hash = ContentHash.of(file);
+
+        synchronized (this) {
+            Entry entry = entries.get(path);
+            if (entry != null) {
+                if (entry.matches(size, lastModified, hash)) {
+                    hits++;
+                    hashes.put(entry.test, hash);
+                    return entry.test;
+                }
+                remove(path); // El archivo cambió: la copia ya no sirve
+            }
+            misses++;
+        }
+
+        Test test = loader.loadTest(file);
+        // Si el archivo cambió mientras se analizaba, la huella calculada ya no lo describe
+        if (file.length() == size && file.lastModified() == lastModified) {
+            synchronized (this) {
+                hashes.put(test, hash);
+            }
+            put(path, new Entry(size, lastModified, hash, test, estimateSize(test)));
+        }
+        return test;
+    }
+
+    /**
+     * Obtiene la huella del contenido del archivo del que se cargó una prueba.
+     * @param test Una prueba entregada por {@link #load(File, TestLoader)}.
+     * @return La huella, como la de {@link ContentHash#of(File)}, o null si la prueba no se cargó con
+     * esta caché o el archivo cambió mientras se analizaba.
+     */
+    public synchronized String hashOf(Test test) {
+        return hashes.get(test);
+    }
+
+    /**
+     * Descarta todas las entradas. Los contadores se conservan.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Obtiene el tamaño estimado de las pruebas guardadas.
+     * @return El tamaño en bytes.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("TestCache[entradas=%d, memoria=%d/%d bytes, aciertos=%d, fallos=%d, desalojos=%d]",
+                entries.size(), usedBytes, maxBytes, hits, misses, evictions);
+    }
+
+    private synchronized void put(String path, Entry entry) {
+        if (entry.bytes > maxBytes) {
+            return; // No cabe ni sola en el presupuesto
+        }
+        remove(path);
+        entries.put(path, entry);
+        usedBytes += entry.bytes;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes) {
+            usedBytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(String path) {
+        Entry removed = entries.remove(path);
+        if (removed != null) {
+            usedBytes -= removed.bytes;
+        }
+    }
+
+    /**
+     * Estima el tamaño en memoria de una prueba a partir de sus textos y la cantidad de objetos.
+     * Los textos compartidos entre preguntas se cuentan cada vez, así que la estimación es por exceso.
+     * @param test La prueba.
+     * @return El tamaño estimado en bytes.
+     */
+    static long estimateSize(Test test) {
+        long bytes = OBJECT_OVERHEAD + stringSize(test.getName());
+        for (Question question : test.getQuestions()) {
+            bytes += REFERENCE_SIZE + 2 * OBJECT_OVERHEAD + stringSize(question.getStatement());
+            if (question instanceof MultipleChoiceQuestion) {
+                MultipleChoiceQuestion multipleChoice = (MultipleChoiceQuestion) question;
+                bytes += 2 * OBJECT_OVERHEAD;
+                for (String option : multipleChoice.getOptions()) {
+                    bytes += REFERENCE_SIZE + stringSize(option);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long stringSize(String text) {
+        return text == null ? 0 : 2 * OBJECT_OVERHEAD + 2L * text.length();
+    }
+
+    private static class Entry {
+        final long size;
+        final long lastModified;
+        final String hash;
+        final Test test;
+        final long bytes;
+
+        Entry(long size, long lastModified, String hash, Test test, long bytes) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.test = test;
+            this.bytes = bytes;
+        }
+
+        boolean matches(long size, long lastModified, String hash) {
+            return this.size == size && this.lastModified == lastModified && this.hash.equals(hash);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 // backend/file/TestLoader.java
 package backend.file;
 
+import backend.model.Question;
 import backend.model.Test;
 import java.io.File;
 import java.io.IOException;
@@ -8,4 +9,22 @@ import java.io.IOException;
 public interface TestLoader {
 
     Test loadTest(File file) throws IOException, IllegalArgumentException;
-}
\ No newline at end of file
+
+    /**
+     * Carga una prueba informando el avance. Los cargadores que no lo soportan solo lo informan al terminar,
+     * junto con todas las preguntas.
+     * @param file El archivo de la prueba.
+     * @param progress El receptor del avance; puede cancelar la carga lanzando CancellationException.
+     * @return La prueba cargada.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el contenido del archivo no es válido.
+     */
+    default Test loadTest(File file, LoadProgress progress) throws IOException, IllegalArgumentException {
+        Test test = loadTest(file);
+        for (Question question : test.getQuestions()) {
+            progress.questionParsed(question);
+        }
+        progress.update(file.length(), file.length(), test.getNumberOfItems());
+        return test;
+    }
+}
@@ -2,22 +2,32 @@
 package backend.file;
 
 import backend.model.*;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementación de TestLoader para cargar pruebas desde archivos XML.
+ * El archivo se lee en una sola pasada con un analizador StAX, por lo que en memoria solo
+ * se mantiene la pregunta que se está leyendo.
  * Estructura XML esperada:
  * <test name="Nombre de la Prueba">
  * <question type="multiple_choice" bloom_level="Recordar" estimated_time="60">
@@ -36,124 +46,375 @@ import java.util.List;
  */
 public class XMLLoader implements TestLoader {
 
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_INTERVAL = 1024 * 1024; // Bytes leídos entre avisos de avance
+
+    private final boolean poolText;
+
+    /**
+     * Constructor por defecto. Las opciones y respuestas repetidas se comparten con un {@link StringPool}.
+     */
+    public XMLLoader() {
+        this(true);
+    }
+
+    /**
+     * Constructor con diccionario de textos opcional.
+     * @param poolText true para compartir las opciones y respuestas repetidas con un {@link StringPool}.
+     */
+    public XMLLoader(boolean poolText) {
+        this.poolText = poolText;
+    }
+
     @Override
     public Test loadTest(File file) throws IOException, IllegalArgumentException {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        try {
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(file);
-            document.getDocumentElement().normalize();
-
-            Element testElement = document.getDocumentElement();
-            if (!"test".equals(testElement.getTagName())) {
-                throw new IllegalArgumentException("El elemento raíz del XML debe ser 'test'.");
-            }
+        return loadTest(file, LoadProgress.NONE);
+    }
 
-            String testName = testElement.getAttribute("name");
+    /**
+     * {@inheritDoc}
+     * El avance se informa aproximadamente cada megabyte leído.
+     */
+    @Override
+    public Test loadTest(File file, LoadProgress progress) throws IOException, IllegalArgumentException {
+        try (QuestionReader reader = new QuestionReader(file, newPool())) {
+            String testName = reader.getTestName();
             Test test = new Test(testName.isEmpty() ? file.getName().replace(".xml", "") : testName);
+            long totalBytes = file.length();
+            long nextReport = PROGRESS_INTERVAL;
 
-            NodeList questionNodes = document.getElementsByTagName("question");
-            if (questionNodes.getLength() == 0) {
+            Question question;
+            while ((question = reader.next()) != null) {
+                progress.questionParsed(question);
+                test.addQuestion(question);
+                long bytesRead = reader.getBytesRead();
+                if (bytesRead >= nextReport) {
+                    progress.update(bytesRead, totalBytes, test.getNumberOfItems());
+                    nextReport = bytesRead + PROGRESS_INTERVAL;
+                }
+            }
+            if (test.getNumberOfItems() == 0) {
                 throw new IllegalArgumentException("El archivo XML no contiene elementos 'question'.");
             }
+            progress.update(totalBytes, totalBytes, test.getNumberOfItems());
+            return test;
+
+        } catch (XMLStreamException | IOException e) {
+            throw new IOException("Error al parsear el archivo XML: " + e.getMessage(), e);
+        } catch (IllegalArgumentException | CancellationException e) {
+            throw e; // Re-lanzar las excepciones ya detalladas y las cancelaciones
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Error inesperado al procesar el archivo XML: " + e.getMessage(), e);
+        }
+    }
 
-            for (int i = 0; i < questionNodes.getLength(); i++) {
-                Node node = questionNodes.item(i);
-                if (node.getNodeType() == Node.ELEMENT_NODE) {
-                    Element questionElement = (Element) node;
+    /**
+     * Devuelve las preguntas del archivo a medida que se leen, sin construir la prueba completa.
+     * El flujo mantiene el archivo abierto hasta que se cierra, por lo que debe usarse con try-with-resources.
+     * Los errores de lectura se lanzan como {@link UncheckedIOException} y los de contenido como
+     * IllegalArgumentException, con los mismos mensajes que {@link #loadTest(File)}.
+     * @param file El archivo XML.
+     * @return Un flujo ordenado con las preguntas del archivo.
+     * @throws IOException si no se puede abrir el archivo.
+     * @throws IllegalArgumentException si el elemento raíz no es 'test'.
+     */
+    public Stream<Question> streamQuestions(File file) throws IOException, IllegalArgumentException {
+        QuestionReader reader;
+        try {
+            reader = new QuestionReader(file, newPool());
+        } catch (XMLStreamException | IOException e) {
+            throw new IOException("Error al parsear el archivo XML: " + e.getMessage(), e);
+        }
+        Spliterator<Question> spliterator = new Spliterators.AbstractSpliterator<Question>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Question> action) {
+                Question question;
+                try {
+                    question = reader.next();
+                } catch (XMLStreamException e) {
+                    throw new UncheckedIOException(new IOException("Error al parsear el archivo XML: " + e.getMessage(), e));
+                }
+                if (question == null) {
+                    return false;
+                }
+                action.accept(question);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private StringPool newPool() {
+        return poolText ? new StringPool() : null;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE); // Texto de un elemento en un solo evento
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    /**
+     * Lector de preguntas sobre un XMLStreamReader: cada llamada a {@link #next()} avanza hasta
+     * el siguiente elemento 'question' y lo convierte en una pregunta.
+     */
+    private static class QuestionReader implements Closeable {
+        private final CountingInputStream counter;
+        private final InputStream input;
+        private final XMLStreamReader reader;
+        private final String testName;
+        private final StringBuilder text = new StringBuilder(); // Búfer reutilizado para el texto de los elementos
+        private final StringPool pool; // Diccionario de opciones y respuestas, o null para no compartirlas
+        private char[] chars = new char[256]; // Copia del texto para buscarlo en el diccionario sin crear cadenas
+        private int questionNumber;
+
+        QuestionReader(File file, StringPool pool) throws IOException, XMLStreamException {
+            this.pool = pool;
+            this.counter = new CountingInputStream(Files.newInputStream(file.toPath()));
+            this.input = new BufferedInputStream(counter, BUFFER_SIZE);
+            try {
+                this.reader = INPUT_FACTORY.createXMLStreamReader(input);
+                while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    // Saltar la declaración, comentarios y DOCTYPE hasta el elemento raíz
+                }
+                if (!"test".equals(qualifiedName())) {
+                    throw new IllegalArgumentException("El elemento raíz del XML debe ser 'test'.");
+                }
+                this.testName = attribute("name");
+            } catch (XMLStreamException | RuntimeException e) {
+                input.close();
+                throw e;
+            }
+        }
+
+        String getTestName() {
+            return testName;
+        }
+
+        /**
+         * Obtiene los bytes leídos del archivo; puede ir algo por delante del analizador por el búfer.
+         */
+        long getBytesRead() {
+            return counter.count;
+        }
+
+        /**
+         * Lee la siguiente pregunta.
+         * @return La pregunta, o null si no quedan preguntas.
+         */
+        Question next() throws XMLStreamException {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "question".equals(qualifiedName())) {
+                    questionNumber++;
+                    return readQuestion(questionNumber);
+                }
+            }
+            return null;
+        }
 
-                    String type = questionElement.getAttribute("type");
-                    String bloomLevelStr = questionElement.getAttribute("bloom_level");
-                    String estimatedTimeStr = questionElement.getAttribute("estimated_time");
+        private Question readQuestion(int number) throws XMLStreamException {
+            String type = attribute("type");
+            String bloomLevelStr = attribute("bloom_level");
+            String estimatedTimeStr = attribute("estimated_time");
 
-                    BloomLevel bloomLevel = BloomLevel.fromString(bloomLevelStr);
-                    if (bloomLevel == null) {
-                        throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Nivel de Bloom inválido: " + bloomLevelStr);
+            // Leer el contenido de la pregunta hasta su etiqueta de cierre
+            String statement = null;
+            List<String> options = new ArrayList<>();
+            String correctAnsText = null;
+            String correctAnsIndexStr = "";
+            int depth = 0;
+            while (depth >= 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String tagName = qualifiedName();
+                    if ("statement".equals(tagName) && statement == null) {
+                        statement = readElementText();
+                    } else if ("option".equals(tagName)) {
+                        options.add(readPooledText());
+                    } else if ("correct_answer".equals(tagName) && correctAnsText == null) {
+                        correctAnsIndexStr = attribute("index");
+                        correctAnsText = readPooledText();
+                    } else {
+                        depth++;
                     }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+
+            BloomLevel bloomLevel = BloomLevel.fromString(bloomLevelStr);
+            if (bloomLevel == null) {
+                throw new IllegalArgumentException("Pregunta " + number + ": Nivel de Bloom inválido: " + bloomLevelStr);
+            }
+
+            int estimatedTime;
+            try {
+                estimatedTime = Integer.parseInt(estimatedTimeStr);
+                if (estimatedTime <= 0) {
+                    throw new IllegalArgumentException("Pregunta " + number + ": Tiempo estimado debe ser un número positivo.");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Pregunta " + number + ": Tiempo estimado inválido: " + estimatedTimeStr);
+            }
+
+            if (statement == null || statement.isEmpty()) {
+                throw new IllegalArgumentException("Pregunta " + number + ": El enunciado de la pregunta no puede estar vacío.");
+            }
+
+            if ("multiple_choice".equalsIgnoreCase(type)) {
+                if (options.isEmpty()) {
+                    throw new IllegalArgumentException("Pregunta " + number + ": Las preguntas de selección múltiple deben tener opciones.");
+                }
+                if (pool != null) {
+                    options = pool.options(options); // Las preguntas con las mismas opciones comparten la lista
+                }
+                if (correctAnsText == null) {
+                    throw new IllegalArgumentException("Pregunta " + number + ": Elemento <correct_answer> faltante para selección múltiple.");
+                }
 
-                    int estimatedTime;
+                if (!correctAnsIndexStr.isEmpty()) {
+                    int correctAnsIndex;
                     try {
-                        estimatedTime = Integer.parseInt(estimatedTimeStr);
-                        if (estimatedTime <= 0) {
-                            throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Tiempo estimado debe ser un número positivo.");
-                        }
+                        correctAnsIndex = Integer.parseInt(correctAnsIndexStr);
                     } catch (NumberFormatException e) {
-                        throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Tiempo estimado inválido: " + estimatedTimeStr);
+                        throw new IllegalArgumentException("Pregunta " + number + ": Índice de respuesta correcta inválido: " + correctAnsIndexStr);
                     }
+                    return new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctAnsIndex);
+                } else if (!correctAnsText.isEmpty()) {
+                    return new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctAnsText);
+                } else {
+                    throw new IllegalArgumentException("Pregunta " + number + ": Respuesta correcta (texto o índice) faltante para selección múltiple.");
+                }
 
-                    String statement = getElementTextContent(questionElement, "statement");
-                    if (statement.isEmpty()) {
-                        throw new IllegalArgumentException("Pregunta " + (i + 1) + ": El enunciado de la pregunta no puede estar vacío.");
-                    }
+            } else if ("true_false".equalsIgnoreCase(type)) {
+                if (correctAnsText == null || correctAnsText.isEmpty()) {
+                    throw new IllegalArgumentException("Pregunta " + number + ": Respuesta correcta faltante para verdadero/falso.");
+                }
+                return new TrueFalseQuestion(statement, bloomLevel, estimatedTime, correctAnsText);
+            } else {
+                throw new IllegalArgumentException("Pregunta " + number + ": Tipo de pregunta XML no soportado: " + type);
+            }
+        }
 
-                    Question question;
-                    if ("multiple_choice".equalsIgnoreCase(type)) {
-                        List<String> options = getStrings(questionElement, i);
-
-                        Element correctAnswerElement = (Element) questionElement.getElementsByTagName("correct_answer").item(0);
-                        if (correctAnswerElement == null) {
-                            throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Elemento <correct_answer> faltante para selección múltiple.");
-                        }
-                        String correctAnsText = correctAnswerElement.getTextContent().trim();
-                        String correctAnsIndexStr = correctAnswerElement.getAttribute("index");
-
-                        if (!correctAnsIndexStr.isEmpty()) {
-                            try {
-                                int correctAnsIndex = Integer.parseInt(correctAnsIndexStr);
-                                question = new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctAnsIndex);
-                            } catch (NumberFormatException e) {
-                                throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Índice de respuesta correcta inválido: " + correctAnsIndexStr);
-                            }
-                        } else if (!correctAnsText.isEmpty()) {
-                            question = new MultipleChoiceQuestion(statement, bloomLevel, estimatedTime, options, correctAnsText);
-                        } else {
-                            throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Respuesta correcta (texto o índice) faltante para selección múltiple.");
-                        }
-
-                    } else if ("true_false".equalsIgnoreCase(type)) {
-                        String correctAnsText = getElementTextContent(questionElement, "correct_answer");
-                        if (correctAnsText.isEmpty()) {
-                            throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Respuesta correcta faltante para verdadero/falso.");
-                        }
-                        question = new TrueFalseQuestion(statement, bloomLevel, estimatedTime, correctAnsText);
-                    } else {
-                        throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Tipo de pregunta XML no soportado: " + type);
+        /**
+         * Lee el texto de un elemento, incluido el de sus descendientes, y lo devuelve sin espacios alrededor.
+         */
+        private String readElementText() throws XMLStreamException {
+            readText();
+            return text.toString().trim();
+        }
+
+        /**
+         * Lee el texto de un elemento como {@link #readElementText()}, pero si hay diccionario devuelve
+         * la copia compartida y solo crea una cadena si el texto es nuevo.
+         */
+        private String readPooledText() throws XMLStreamException {
+            readText();
+            if (pool == null) {
+                return text.toString().trim();
+            }
+            int length = text.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            text.getChars(0, length, chars, 0);
+            int start = 0;
+            int end = length;
+            while (start < end && chars[start] <= ' ') { // Mismo recorte que String.trim()
+                start++;
+            }
+            while (end > start && chars[end - 1] <= ' ') {
+                end--;
+            }
+            return pool.intern(chars, start, end);
+        }
+
+        /**
+         * Deja en el búfer el texto de un elemento, incluido el de sus descendientes.
+         */
+        private void readText() throws XMLStreamException {
+            text.setLength(0);
+            int depth = 0;
+            while (true) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 0) {
+                        return;
                     }
-                    test.addQuestion(question);
+                    depth--;
                 }
             }
-            if (test.getNumberOfItems() == 0) {
-                throw new IllegalArgumentException("El archivo XML no contiene preguntas válidas.");
-            }
-            return test;
+        }
 
-        } catch (ParserConfigurationException | SAXException | IOException e) {
-            throw new IOException("Error al parsear el archivo XML: " + e.getMessage(), e);
-        } catch (IllegalArgumentException e) {
-            throw e; // Re-lanzar las excepciones ya detalladas
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Error inesperado al procesar el archivo XML: " + e.getMessage(), e);
+        private String attribute(String name) {
+            String value = reader.getAttributeValue(null, name);
+            return value != null ? value : "";
         }
-    }
 
-    private static List<String> getStrings(Element questionElement, int i) {
-        List<String> options = new ArrayList<>();
-        NodeList optionNodes = questionElement.getElementsByTagName("option");
-        if (optionNodes.getLength() == 0) {
-            throw new IllegalArgumentException("Pregunta " + (i + 1) + ": Las preguntas de selección múltiple deben tener opciones.");
+        private String qualifiedName() {
+            String prefix = reader.getPrefix();
+            return (prefix == null || prefix.isEmpty()) ? reader.getLocalName() : prefix + ":" + reader.getLocalName();
         }
-        for (int j = 0; j < optionNodes.getLength(); j++) {
-            options.add(optionNodes.item(j).getTextContent().trim());
+
+        @Override
+        public void close() throws IOException {
+            try {
+                reader.close();
+            } catch (XMLStreamException e) {
+                throw new IOException(e.getMessage(), e);
+            } finally {
+                input.close();
+            }
         }
-        return options;
     }
 
+    /**
+     * Flujo que cuenta los bytes leídos, para informar el avance de la carga.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
 
-    private String getElementTextContent(Element parentElement, String tagName) {
-        NodeList nodeList = parentElement.getElementsByTagName(tagName);
-        if (nodeList != null && nodeList.getLength() > 0) {
-            return nodeList.item(0).getTextContent().trim();
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
         }
-        return "";
     }
-}
\ No newline at end of file
+}
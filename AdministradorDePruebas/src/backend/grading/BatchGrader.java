@@ -0,0 +1,192 @@
+// backend/grading/BatchGrader.java
+package backend.grading;
+
+import backend.model.AnswerSheet;
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.QuestionType;
+import backend.model.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Califica hojas de respuestas en bloque (exámenes en papel o de quiosco) con paralelismo fork-join.
+ * Cada hoja es un arreglo con un código de {@link AnswerSheet} por pregunta. Las hojas se leen en lotes
+ * de tamaño fijo y los arreglos del lote se reutilizan, por lo que la memoria no crece con la cantidad
+ * de hojas procesadas.
+ */
+public class BatchGrader {
+    private static final int DEFAULT_BATCH_SIZE = 8192;
+    private static final int SEQUENTIAL_THRESHOLD = 256; // Hojas por tarea hoja del fork-join
+
+    private final int numberOfItems;
+    private final byte[] answerKeys; // Clave normalizada de cada pregunta
+    private final byte[] bloomOrdinals; // Nivel de Bloom de cada pregunta, por ordinal
+    private final byte[] typeOrdinals; // Tipo de cada pregunta, por ordinal
+    private final int[] totalByBloom;
+    private final int[] totalByType;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    /**
+     * Constructor que usa el pool común de fork-join.
+     * @param test La prueba cargada, que no debe modificarse mientras se califica.
+     */
+    public BatchGrader(Test test) {
+        this(test, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor con pool y tamaño de lote configurables.
+     * @param test La prueba cargada, que no debe modificarse mientras se califica.
+     * @param pool El pool de fork-join en el que se califica.
+     * @param batchSize La cantidad de hojas que se leen y califican juntas.
+     */
+    public BatchGrader(Test test, ForkJoinPool pool, int batchSize) {
+        if (test == null || test.getNumberOfItems() == 0) {
+            throw new IllegalArgumentException("La calificación requiere una prueba con ítems.");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("El pool de calificación no puede ser nulo.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser un valor positivo.");
+        }
+        List<Question> questions = test.getQuestions();
+        this.numberOfItems = questions.size();
+        this.answerKeys = new byte[numberOfItems];
+        this.bloomOrdinals = new byte[numberOfItems];
+        this.typeOrdinals = new byte[numberOfItems];
+        for (int i = 0; i < numberOfItems; i++) {
+            Question question = questions.get(i);
+            answerKeys[i] = question.getAnswerKey();
+            bloomOrdinals[i] = (byte) test.getBloomLevel(i).ordinal(); // El nivel con el que la prueba la contó
+            typeOrdinals[i] = (byte) question.getQuestionType().ordinal();
+        }
+        this.totalByBloom = new int[BloomLevel.values().length];
+        for (BloomLevel level : BloomLevel.values()) {
+            totalByBloom[level.ordinal()] = test.getTotalByBloom(level);
+        }
+        this.totalByType = new int[QuestionType.values().length];
+        for (QuestionType type : QuestionType.values()) {
+            totalByType[type.ordinal()] = test.getTotalByType(type);
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Califica un flujo de hojas de respuestas.
+     * @param answerSheets Las hojas, una por candidato, en el orden en que se leen.
+     * @param candidateConsumer Recibe el resultado de cada candidato, en orden y desde el hilo que llama.
+     * @return Los resultados agregados de la cohorte.
+     */
+    public CohortScore grade(Stream<byte[]> answerSheets, Consumer<CandidateScore> candidateConsumer) {
+        return grade(answerSheets.iterator(), candidateConsumer);
+    }
+
+    /**
+     * Califica las hojas de respuestas que entrega un iterador.
+     * @param answerSheets Las hojas, una por candidato, en el orden en que se leen.
+     * @param candidateConsumer Recibe el resultado de cada candidato, en orden y desde el hilo que llama.
+     * @return Los resultados agregados de la cohorte.
+     */
+    public CohortScore grade(Iterator<byte[]> answerSheets, Consumer<CandidateScore> candidateConsumer) {
+        CohortScore cohort = new CohortScore(totalByBloom, totalByType);
+        byte[][] batch = new byte[batchSize][];
+        CandidateScore[] results = new CandidateScore[batchSize];
+        long sequence = 0;
+
+        while (answerSheets.hasNext()) {
+            int count = 0;
+            while (count < batchSize && answerSheets.hasNext()) {
+                byte[] sheet = answerSheets.next();
+                checkSheet(sheet, sequence + count);
+                batch[count++] = sheet;
+            }
+
+            pool.invoke(new GradeTask(batch, results, sequence, 0, count));
+
+            for (int i = 0; i < count; i++) {
+                cohort.add(results[i]);
+                if (candidateConsumer != null) {
+                    candidateConsumer.accept(results[i]);
+                }
+                // Soltar las referencias para que el lote no retenga hojas ya calificadas
+                batch[i] = null;
+                results[i] = null;
+            }
+            sequence += count;
+        }
+        return cohort;
+    }
+
+    /**
+     * Califica una sola hoja de respuestas.
+     * @param answers Los códigos de respuesta, uno por pregunta.
+     * @param sequence La posición del candidato.
+     * @return El resultado del candidato.
+     * @throws IllegalArgumentException si la hoja no tiene una respuesta por pregunta.
+     */
+    public CandidateScore gradeSheet(byte[] answers, long sequence) throws IllegalArgumentException {
+        checkSheet(answers, sequence);
+        int[] correctByBloom = new int[totalByBloom.length];
+        int[] correctByType = new int[totalByType.length];
+        long[] correctBits = new long[(numberOfItems + 63) >>> 6];
+        for (int i = 0; i < numberOfItems; i++) {
+            byte code = answers[i];
+            // Sin saltos: el acierto vale 1 o 0 y se suma directamente
+            int hit = ((code != AnswerSheet.UNANSWERED) & (code == answerKeys[i])) ? 1 : 0;
+            correctByBloom[bloomOrdinals[i]] += hit;
+            correctByType[typeOrdinals[i]] += hit;
+            correctBits[i >>> 6] |= (long) hit << i;
+        }
+        return new CandidateScore(sequence, correctByBloom, correctByType, totalByBloom, totalByType,
+                numberOfItems, correctBits);
+    }
+
+    private void checkSheet(byte[] sheet, long sequence) {
+        if (sheet == null || sheet.length != numberOfItems) {
+            throw new IllegalArgumentException("Hoja " + (sequence + 1) + ": Se esperaban "
+                    + numberOfItems + " respuestas, se encontraron " + (sheet == null ? 0 : sheet.length) + ".");
+        }
+    }
+
+    /**
+     * Tarea fork-join que divide un lote de hojas hasta un tamaño que conviene calificar secuencialmente.
+     */
+    @SuppressWarnings("serial") // Las tareas nunca se serializan
+    private class GradeTask extends RecursiveAction {
+        private final byte[][] batch;
+        private final CandidateScore[] results;
+        private final long firstSequence;
+        private final int from;
+        private final int to;
+
+        GradeTask(byte[][] batch, CandidateScore[] results, long firstSequence, int from, int to) {
+            this.batch = batch;
+            this.results = results;
+            this.firstSequence = firstSequence;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = gradeSheet(batch[i], firstSequence + i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new GradeTask(batch, results, firstSequence, from, middle),
+                    new GradeTask(batch, results, firstSequence, middle, to));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// backend/grading/CandidateScore.java
+package backend.grading;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resultado de un candidato calificado por lotes.
+ * Los aciertos se guardan por ordinal de nivel de Bloom y de tipo de pregunta; los totales
+ * son los de la prueba y se comparten entre todos los candidatos.
+ */
+public class CandidateScore {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+
+    private final long sequence;
+    private final int[] correctByBloom;
+    private final int[] correctByType;
+    private final int[] totalByBloom; // Compartido, de solo lectura
+    private final int[] totalByType; // Compartido, de solo lectura
+    private final int numberOfItems;
+    private final long[] correctBits; // Un bit por pregunta respondida correctamente
+
+    CandidateScore(long sequence, int[] correctByBloom, int[] correctByType, int[] totalByBloom, int[] totalByType,
+                   int numberOfItems, long[] correctBits) {
+        this.sequence = sequence;
+        this.correctByBloom = correctByBloom;
+        this.correctByType = correctByType;
+        this.totalByBloom = totalByBloom;
+        this.totalByType = totalByType;
+        this.numberOfItems = numberOfItems;
+        this.correctBits = correctBits;
+    }
+
+    /**
+     * Obtiene la posición del candidato en el flujo de hojas de respuestas.
+     * @return La posición, empezando en 0.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas de la prueba.
+     * @return La cantidad de preguntas.
+     */
+    public int getNumberOfItems() {
+        return numberOfItems;
+    }
+
+    /**
+     * Indica si el candidato respondió correctamente una pregunta.
+     * @param questionIndex El índice de la pregunta en la prueba.
+     * @return true si la respuesta fue correcta.
+     */
+    public boolean isCorrect(int questionIndex) {
+        if (questionIndex < 0 || questionIndex >= numberOfItems) {
+            throw new IndexOutOfBoundsException("Índice de pregunta fuera de rango: " + questionIndex);
+        }
+        return (correctBits[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Copia los bits de aciertos, para exportarlos sin crear arreglos por candidato.
+     * @param target Un arreglo con una palabra por cada 64 preguntas.
+     */
+    void copyCorrectBits(long[] target) {
+        System.arraycopy(correctBits, 0, target, 0, correctBits.length);
+    }
+
+    /**
+     * Obtiene la cantidad de aciertos de un nivel de Bloom.
+     * @param level El nivel de Bloom.
+     * @return La cantidad de aciertos.
+     */
+    public int getCorrectByBloom(BloomLevel level) {
+        return correctByBloom[level.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de aciertos de un tipo de pregunta.
+     * @param type El tipo de pregunta.
+     * @return La cantidad de aciertos.
+     */
+    public int getCorrectByType(QuestionType type) {
+        return correctByType[type.ordinal()];
+    }
+
+    /**
+     * Obtiene el porcentaje de aciertos de un nivel de Bloom.
+     * @param level El nivel de Bloom.
+     * @return El porcentaje, o 0 si la prueba no tiene preguntas de ese nivel.
+     */
+    public double getBloomPercentage(BloomLevel level) {
+        int total = totalByBloom[level.ordinal()];
+        return total > 0 ? (double) correctByBloom[level.ordinal()] * 100 / total : 0.0;
+    }
+
+    /**
+     * Obtiene el porcentaje de aciertos de un tipo de pregunta.
+     * @param type El tipo de pregunta.
+     * @return El porcentaje, o 0 si la prueba no tiene preguntas de ese tipo.
+     */
+    public double getTypePercentage(QuestionType type) {
+        int total = totalByType[type.ordinal()];
+        return total > 0 ? (double) correctByType[type.ordinal()] * 100 / total : 0.0;
+    }
+
+    /**
+     * Obtiene los porcentajes por nivel de Bloom, con el mismo formato que TestResult.
+     * @return Un mapa con los niveles presentes en la prueba.
+     */
+    public Map<BloomLevel, Double> getBloomPercentages() {
+        Map<BloomLevel, Double> percentages = new HashMap<>();
+        for (BloomLevel level : BLOOM_LEVELS) {
+            if (totalByBloom[level.ordinal()] > 0) {
+                percentages.put(level, getBloomPercentage(level));
+            }
+        }
+        return percentages;
+    }
+
+    /**
+     * Obtiene los porcentajes por tipo de ítem, con el mismo formato que TestResult.
+     * @return Un mapa con los tipos presentes en la prueba.
+     */
+    public Map<String, Double> getItemTypePercentages() {
+        Map<String, Double> percentages = new HashMap<>();
+        for (QuestionType type : QUESTION_TYPES) {
+            if (totalByType[type.ordinal()] > 0) {
+                percentages.put(type.getName(), getTypePercentage(type));
+            }
+        }
+        return percentages;
+    }
+}
@@ -0,0 +1,98 @@
+// backend/grading/CohortScore.java
+package backend.grading;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionType;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resultados agregados de una cohorte de candidatos.
+ * Solo acumula contadores, por lo que su tamaño no depende de la cantidad de candidatos.
+ */
+public class CohortScore {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+
+    private final int[] totalByBloom; // Preguntas por nivel en la prueba
+    private final int[] totalByType; // Preguntas por tipo en la prueba
+    private final long[] correctByBloom = new long[BLOOM_LEVELS.length];
+    private final long[] correctByType = new long[QUESTION_TYPES.length];
+    private long candidates;
+
+    CohortScore(int[] totalByBloom, int[] totalByType) {
+        this.totalByBloom = totalByBloom;
+        this.totalByType = totalByType;
+    }
+
+    /**
+     * Suma el resultado de un candidato a la cohorte.
+     * @param score El resultado del candidato.
+     */
+    void add(CandidateScore score) {
+        for (BloomLevel level : BLOOM_LEVELS) {
+            correctByBloom[level.ordinal()] += score.getCorrectByBloom(level);
+        }
+        for (QuestionType type : QUESTION_TYPES) {
+            correctByType[type.ordinal()] += score.getCorrectByType(type);
+        }
+        candidates++;
+    }
+
+    /**
+     * Obtiene la cantidad de candidatos calificados.
+     * @return La cantidad de candidatos.
+     */
+    public long getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Obtiene el porcentaje medio de aciertos de la cohorte en un nivel de Bloom.
+     * @param level El nivel de Bloom.
+     * @return El porcentaje, o 0 si no hay candidatos o preguntas de ese nivel.
+     */
+    public double getBloomPercentage(BloomLevel level) {
+        long total = (long) totalByBloom[level.ordinal()] * candidates;
+        return total > 0 ? (double) correctByBloom[level.ordinal()] * 100 / total : 0.0;
+    }
+
+    /**
+     * Obtiene el porcentaje medio de aciertos de la cohorte en un tipo de pregunta.
+     * @param type El tipo de pregunta.
+     * @return El porcentaje, o 0 si no hay candidatos o preguntas de ese tipo.
+     */
+    public double getTypePercentage(QuestionType type) {
+        long total = (long) totalByType[type.ordinal()] * candidates;
+        return total > 0 ? (double) correctByType[type.ordinal()] * 100 / total : 0.0;
+    }
+
+    /**
+     * Obtiene los porcentajes medios por nivel de Bloom, con el mismo formato que TestResult.
+     * @return Un mapa con los niveles presentes en la prueba.
+     */
+    public Map<BloomLevel, Double> getBloomPercentages() {
+        Map<BloomLevel, Double> percentages = new HashMap<>();
+        for (BloomLevel level : BLOOM_LEVELS) {
+            if (totalByBloom[level.ordinal()] > 0) {
+                percentages.put(level, getBloomPercentage(level));
+            }
+        }
+        return percentages;
+    }
+
+    /**
+     * Obtiene los porcentajes medios por tipo de ítem, con el mismo formato que TestResult.
+     * @return Un mapa con los tipos presentes en la prueba.
+     */
+    public Map<String, Double> getItemTypePercentages() {
+        Map<String, Double> percentages = new HashMap<>();
+        for (QuestionType type : QUESTION_TYPES) {
+            if (totalByType[type.ordinal()] > 0) {
+                percentages.put(type.getName(), getTypePercentage(type));
+            }
+        }
+        return percentages;
+    }
+}
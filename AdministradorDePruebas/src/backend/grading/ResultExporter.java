@@ -0,0 +1,454 @@
+// backend/grading/ResultExporter.java
+package backend.grading;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionType;
+import backend.model.TestResult;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Exporta resultados de candidatos, uno por línea, en CSV o en JSON Lines: el porcentaje global,
+ * los porcentajes por nivel de Bloom y por tipo de pregunta, y si cada pregunta se respondió bien.
+ * Cada registro se codifica directamente en un búfer de bytes reutilizado que se vacía en el canal
+ * al llenarse, así que la memoria no depende de la cantidad de candidatos exportados.
+ * El CSV usa ';' como separador, como los bancos que lee {@link backend.file.CSVLoader}, y punto decimal.
+ * No es seguro para hilos; con {@link BatchGrader} los resultados llegan en orden desde un solo hilo.
+ */
+public class ResultExporter implements Closeable {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_NUMBER_BYTES = 24; // Cota del texto de un número con su separador
+
+    /**
+     * Formatos de exportación.
+     */
+    public enum Format {
+        CSV,
+        JSON_LINES
+    }
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final int numberOfItems;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[][] bloomNames; // Nombres en UTF-8, ya escapados para el formato
+    private final byte[][] typeNames;
+    private final double[] bloomPercentages = new double[BLOOM_LEVELS.length];
+    private final double[] typePercentages = new double[QUESTION_TYPES.length];
+    private final long[] correctBits;
+    private long written;
+    private boolean closed;
+
+    /**
+     * Constructor que escribe en un canal ya abierto. Con CSV escribe de inmediato la cabecera.
+     * @param channel El canal de destino, que se cierra al cerrar el exportador.
+     * @param format El formato de los registros.
+     * @param numberOfItems La cantidad de preguntas de la prueba.
+     * @throws IOException si falla la escritura de la cabecera.
+     */
+    public ResultExporter(WritableByteChannel channel, Format format, int numberOfItems) throws IOException {
+        if (channel == null || format == null) {
+            throw new IllegalArgumentException("El canal y el formato de exportación no pueden ser nulos.");
+        }
+        if (numberOfItems <= 0) {
+            throw new IllegalArgumentException("La exportación requiere una prueba con ítems.");
+        }
+        this.channel = channel;
+        this.format = format;
+        this.numberOfItems = numberOfItems;
+        this.correctBits = new long[(numberOfItems + 63) >>> 6];
+        this.bloomNames = new byte[BLOOM_LEVELS.length][];
+        for (BloomLevel level : BLOOM_LEVELS) {
+            bloomNames[level.ordinal()] = escape(level.getName());
+        }
+        this.typeNames = new byte[QUESTION_TYPES.length][];
+        for (QuestionType type : QUESTION_TYPES) {
+            typeNames[type.ordinal()] = escape(type.getName());
+        }
+        if (format == Format.CSV) {
+            writeHeader();
+        }
+    }
+
+    /**
+     * Abre un archivo para exportar, reemplazando su contenido.
+     * @param file El archivo de destino.
+     * @param format El formato de los registros.
+     * @param gzip Si se comprime con gzip, con el nivel más rápido para no frenar la escritura.
+     * @param numberOfItems La cantidad de preguntas de la prueba.
+     * @return El exportador, que debe cerrarse para completar el archivo.
+     * @throws IOException si no se puede abrir el archivo.
+     */
+    public static ResultExporter open(File file, Format format, boolean gzip, int numberOfItems) throws IOException {
+        FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            return new ResultExporter(gzip ? new GzipChannel(fileChannel) : fileChannel, format, numberOfItems);
+        } catch (IOException | RuntimeException e) {
+            fileChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Exporta el resultado de una prueba terminada, como el de {@link backend.event.TestFinishedEvent}.
+     * @param candidateId El identificador del candidato.
+     * @param result El resultado.
+     * @throws IOException si falla la escritura.
+     */
+    public void write(String candidateId, TestResult result) throws IOException {
+        checkItems(result.getNumberOfItems());
+        for (BloomLevel level : BLOOM_LEVELS) {
+            bloomPercentages[level.ordinal()] = result.getBloomPercentage(level);
+        }
+        for (QuestionType type : QUESTION_TYPES) {
+            typePercentages[type.ordinal()] = result.getTypePercentage(type);
+        }
+        Arrays.fill(correctBits, 0);
+        for (int i = 0; i < numberOfItems; i++) {
+            if (result.isCorrect(i)) {
+                correctBits[i >>> 6] |= 1L << i;
+            }
+        }
+        writeRecord(candidateId, -1);
+    }
+
+    /**
+     * Exporta el resultado de un candidato calificado por lotes, identificado por su posición.
+     * Puede pasarse directamente como consumidor a {@link BatchGrader#grade}, envolviendo la excepción.
+     * @param score El resultado del candidato.
+     * @throws IOException si falla la escritura.
+     */
+    public void write(CandidateScore score) throws IOException {
+        checkItems(score.getNumberOfItems());
+        for (BloomLevel level : BLOOM_LEVELS) {
+            bloomPercentages[level.ordinal()] = score.getBloomPercentage(level);
+        }
+        for (QuestionType type : QUESTION_TYPES) {
+            typePercentages[type.ordinal()] = score.getTypePercentage(type);
+        }
+        score.copyCorrectBits(correctBits);
+        writeRecord(null, score.getSequence());
+    }
+
+    /**
+     * Obtiene la cantidad de registros exportados, sin contar la cabecera.
+     * @return La cantidad de candidatos escritos.
+     */
+    public long getWrittenCount() {
+        return written;
+    }
+
+    /**
+     * Escribe lo que queda en el búfer y cierra el canal.
+     * @throws IOException si falla la escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void checkItems(int items) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (items != numberOfItems) {
+            throw new IllegalArgumentException("El resultado tiene " + items + " preguntas y la exportación "
+                    + numberOfItems + ".");
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        putAscii("candidato;porcentaje");
+        for (byte[] name : bloomNames) {
+            ensure(name.length + 1);
+            buffer.put((byte) ';').put(name);
+        }
+        for (byte[] name : typeNames) {
+            ensure(name.length + 1);
+            buffer.put((byte) ';').put(name);
+        }
+        for (int i = 1; i <= numberOfItems; i++) {
+            ensure(MAX_NUMBER_BYTES);
+            buffer.put((byte) ';').put((byte) 'P');
+            putLong(i);
+        }
+        ensure(1);
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Escribe un registro con los porcentajes y los aciertos ya copiados a los arreglos de trabajo.
+     * @param candidateId El identificador, o null para usar la posición.
+     * @param sequence La posición del candidato, si no tiene identificador.
+     */
+    private void writeRecord(String candidateId, long sequence) throws IOException {
+        int correctCount = 0;
+        for (long bits : correctBits) {
+            correctCount += Long.bitCount(bits);
+        }
+        double percentage = (double) correctCount * 100 / numberOfItems;
+        boolean csv = format == Format.CSV;
+
+        if (!csv) {
+            putAscii("{\"candidato\":");
+        }
+        if (candidateId != null) {
+            putString(candidateId, csv);
+        } else {
+            ensure(MAX_NUMBER_BYTES);
+            putLong(sequence);
+        }
+        if (csv) {
+            ensure(MAX_NUMBER_BYTES);
+            buffer.put((byte) ';');
+            putPercentage(percentage);
+            for (double value : bloomPercentages) {
+                ensure(MAX_NUMBER_BYTES);
+                buffer.put((byte) ';');
+                putPercentage(value);
+            }
+            for (double value : typePercentages) {
+                ensure(MAX_NUMBER_BYTES);
+                buffer.put((byte) ';');
+                putPercentage(value);
+            }
+            for (int i = 0; i < numberOfItems; i++) {
+                ensure(2);
+                buffer.put((byte) ';').put((byte) ((correctBits[i >>> 6] >>> i & 1) + '0'));
+            }
+        } else {
+            putAscii(",\"porcentaje\":");
+            ensure(MAX_NUMBER_BYTES);
+            putPercentage(percentage);
+            putAscii(",\"bloom\":");
+            putObject(bloomNames, bloomPercentages);
+            putAscii(",\"tipos\":");
+            putObject(typeNames, typePercentages);
+            putAscii(",\"correctas\":[");
+            for (int i = 0; i < numberOfItems; i++) {
+                ensure(2);
+                if (i > 0) {
+                    buffer.put((byte) ',');
+                }
+                buffer.put((byte) ((correctBits[i >>> 6] >>> i & 1) + '0'));
+            }
+            putAscii("]}");
+        }
+        ensure(1);
+        buffer.put((byte) '\n');
+        written++;
+    }
+
+    private void putObject(byte[][] names, double[] values) throws IOException {
+        ensure(1);
+        buffer.put((byte) '{');
+        for (int i = 0; i < names.length; i++) {
+            ensure(names[i].length + MAX_NUMBER_BYTES);
+            if (i > 0) {
+                buffer.put((byte) ',');
+            }
+            buffer.put(names[i]).put((byte) ':');
+            putPercentage(values[i]);
+        }
+        ensure(1);
+        buffer.put((byte) '}');
+    }
+
+    /**
+     * Escribe un porcentaje redondeado a dos decimales, sin pasar por String.format.
+     */
+    private void putPercentage(double value) {
+        long hundredths = Math.round(value * 100);
+        putLong(hundredths / 100);
+        int decimals = (int) (hundredths % 100);
+        buffer.put((byte) '.').put((byte) ('0' + decimals / 10)).put((byte) ('0' + decimals % 10));
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        if (value >= 10) {
+            putLong(value / 10);
+        }
+        buffer.put((byte) ('0' + value % 10));
+    }
+
+    private void putAscii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    /**
+     * Escribe un texto en UTF-8, entre comillas y escapado según el formato.
+     */
+    private void putString(String text, boolean csv) throws IOException {
+        boolean quote = !csv;
+        if (csv) {
+            for (int i = 0; i < text.length() && !quote; i++) {
+                char c = text.charAt(i);
+                quote = c == ';' || c == '"' || c == '\n' || c == '\r';
+            }
+        }
+        if (quote) {
+            ensure(1);
+            buffer.put((byte) '"');
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            ensure(6);
+            if (c == '"') {
+                buffer.put(csv ? (byte) '"' : (byte) '\\').put((byte) '"');
+            } else if (!csv && c == '\\') {
+                buffer.put((byte) '\\').put((byte) '\\');
+            } else if (!csv && c < 0x20) {
+                buffer.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put((byte) Character.forDigit(c >> 4, 16)).put((byte) Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?'); // Sustituto suelto: no se puede codificar en UTF-8
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        if (quote) {
+            ensure(1);
+            buffer.put((byte) '"');
+        }
+    }
+
+    /**
+     * Codifica un nombre fijo (nivel o tipo) una sola vez, con comillas en JSON.
+     */
+    private byte[] escape(String name) {
+        return (format == Format.CSV ? name : "\"" + name + "\"").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Vacía el búfer si no quedan al menos los bytes pedidos.
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Canal que comprime en formato gzip (RFC 1952) hacia otro canal. Comprime directamente desde el
+     * arreglo del búfer del exportador, sin la copia intermedia de Channels.newChannel sobre un
+     * GZIPOutputStream, y con el nivel de compresión más rápido.
+     */
+    private static final class GzipChannel implements WritableByteChannel {
+        private static final byte[] HEADER = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+
+        private final WritableByteChannel out;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        private final CRC32 crc = new CRC32();
+        private final ByteBuffer compressed = ByteBuffer.allocate(BUFFER_SIZE);
+        private boolean open = true;
+
+        GzipChannel(WritableByteChannel out) throws IOException {
+            this.out = out;
+            writeFully(ByteBuffer.wrap(HEADER));
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            int length = source.remaining();
+            // El exportador siempre pasa un búfer con arreglo accesible
+            byte[] array = source.array();
+            int offset = source.arrayOffset() + source.position();
+            crc.update(array, offset, length);
+            deflater.setInput(array, offset, length);
+            while (!deflater.needsInput()) {
+                drain();
+            }
+            source.position(source.limit());
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!open) {
+                return;
+            }
+            open = false;
+            try {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    drain();
+                }
+                ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) crc.getValue()).putInt((int) deflater.getBytesRead());
+                trailer.flip();
+                writeFully(trailer);
+            } finally {
+                deflater.end();
+                out.close();
+            }
+        }
+
+        private void drain() throws IOException {
+            int count = deflater.deflate(compressed.array(), 0, compressed.capacity());
+            if (count > 0) {
+                compressed.clear().limit(count);
+                writeFully(compressed);
+            }
+        }
+
+        private void writeFully(ByteBuffer data) throws IOException {
+            while (data.hasRemaining()) {
+                out.write(data);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+// backend/model/AnswerSheet.java
+package backend.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hoja de respuestas de un candidato, codificada como un byte por pregunta.
+ * Codificación:
+ * - 0: sin responder.
+ * - Verdadero/Falso: 1 para Verdadero, 2 para Falso.
+ * - Selección Múltiple: índice de la opción + 1 (sin signo, hasta 255 opciones).
+ * Cada tipo de pregunta traduce sus respuestas de texto a este código con {@link Question#encodeAnswer(String)}.
+ * Además guarda, en un mapa de bits, si cada respuesta es correcta, junto con contadores de aciertos
+ * por nivel de Bloom y por tipo de pregunta; todo ello solo se recalcula cuando el código de una pregunta cambia.
+ * Otros dos mapas de bits registran qué preguntas tienen respuesta y cuáles marcó el candidato para
+ * revisar, con sus totales, de modo que consultar o actualizar el estado de una pregunta es O(1).
+ */
+public final class AnswerSheet {
+    public static final byte UNANSWERED = 0;
+    public static final byte TRUE = 1;
+    public static final byte FALSE = 2;
+    public static final int MAX_OPTIONS = 255;
+
+    private final List<Question> questions; // Preguntas de la prueba, compartidas y de solo lectura
+    private final byte[] bloomOrdinals; // Nivel de cada pregunta según la prueba, ver Test.getBloomLevel(int)
+    private final byte[] answers;
+    private final long[] correctBits; // Resultado de calificación en caché, un bit por pregunta
+    private final long[] answeredBits; // Un bit por pregunta con respuesta
+    private final long[] flaggedBits; // Un bit por pregunta marcada para revisar
+    private final int[] correctByBloom = new int[BloomLevel.values().length]; // Aciertos por nivel de Bloom (por ordinal)
+    private final int[] correctByType = new int[QuestionType.values().length]; // Aciertos por tipo (por ordinal)
+    private int correctCount;
+    private int answeredCount;
+    private int flaggedCount;
+
+    /**
+     * Constructor para una hoja vacía. Normalmente se obtiene con {@link Test#newAnswerSheet()}.
+     * @param test La prueba a la que pertenece la hoja.
+     */
+    public AnswerSheet(Test test) {
+        if (test == null) {
+            throw new IllegalArgumentException("La hoja de respuestas requiere una prueba.");
+        }
+        this.questions = test.getQuestions();
+        this.bloomOrdinals = test.bloomOrdinalsCopy();
+        this.answers = new byte[questions.size()];
+        this.correctBits = new long[(answers.length + 63) >>> 6];
+        this.answeredBits = new long[correctBits.length];
+        this.flaggedBits = new long[correctBits.length];
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas de la hoja.
+     * @return La cantidad de preguntas.
+     */
+    public int size() {
+        return answers.length;
+    }
+
+    /**
+     * Obtiene el código de respuesta de una pregunta.
+     * @param questionIndex El índice de la pregunta.
+     * @return El código de respuesta, o {@link #UNANSWERED}.
+     */
+    public byte get(int questionIndex) {
+        return answers[questionIndex];
+    }
+
+    /**
+     * Establece el código de respuesta de una pregunta y actualiza su resultado en caché si el código cambió.
+     * @param questionIndex El índice de la pregunta.
+     * @param answerCode El código de respuesta.
+     * @return true si el código cambió, false si ya era el mismo.
+     */
+    public boolean set(int questionIndex, byte answerCode) {
+        if (answers[questionIndex] == answerCode) {
+            return false;
+        }
+        if ((answers[questionIndex] == UNANSWERED) != (answerCode == UNANSWERED)) {
+            answeredBits[questionIndex >>> 6] ^= 1L << questionIndex;
+            answeredCount += answerCode == UNANSWERED ? -1 : 1;
+        }
+        answers[questionIndex] = answerCode;
+        Question question = questions.get(questionIndex);
+        boolean wasCorrect = isCorrect(questionIndex);
+        if (question.isCorrect(answerCode) != wasCorrect) {
+            correctBits[questionIndex >>> 6] ^= 1L << questionIndex;
+            int delta = wasCorrect ? -1 : 1;
+            correctByBloom[bloomOrdinals[questionIndex]] += delta;
+            correctByType[question.getQuestionType().ordinal()] += delta;
+            correctCount += delta;
+        }
+        return true;
+    }
+
+    /**
+     * Indica si la respuesta de una pregunta es correcta, según el resultado en caché.
+     * @param questionIndex El índice de la pregunta.
+     * @return true si la respuesta es correcta, false en caso contrario.
+     */
+    public boolean isCorrect(int questionIndex) {
+        return (correctBits[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Cuenta las respuestas correctas de la hoja.
+     * @return La cantidad de respuestas correctas.
+     */
+    public int countCorrect() {
+        return correctCount;
+    }
+
+    /**
+     * Obtiene la cantidad de respuestas correctas de un nivel de Bloom.
+     * @param level El nivel de Bloom.
+     * @return La cantidad de aciertos de ese nivel.
+     */
+    public int getCorrectByBloom(BloomLevel level) {
+        return correctByBloom[level.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de respuestas correctas de un tipo de pregunta.
+     * @param type El tipo de pregunta.
+     * @return La cantidad de aciertos de ese tipo.
+     */
+    public int getCorrectByType(QuestionType type) {
+        return correctByType[type.ordinal()];
+    }
+
+    /**
+     * Indica si una pregunta tiene respuesta.
+     * @param questionIndex El índice de la pregunta.
+     * @return true si la pregunta fue respondida, false en caso contrario.
+     */
+    public boolean isAnswered(int questionIndex) {
+        checkIndex(questionIndex);
+        return (answeredBits[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Cuenta las preguntas con respuesta.
+     * @return La cantidad de preguntas respondidas.
+     */
+    public int countAnswered() {
+        return answeredCount;
+    }
+
+    /**
+     * Marca o desmarca una pregunta para revisarla más tarde.
+     * @param questionIndex El índice de la pregunta.
+     * @param flagged true para marcarla, false para desmarcarla.
+     * @return true si la marca cambió, false si ya tenía ese estado.
+     */
+    public boolean setFlagged(int questionIndex, boolean flagged) {
+        if (isFlagged(questionIndex) == flagged) {
+            return false;
+        }
+        flaggedBits[questionIndex >>> 6] ^= 1L << questionIndex;
+        flaggedCount += flagged ? 1 : -1;
+        return true;
+    }
+
+    public boolean isFlagged(int questionIndex) {
+        checkIndex(questionIndex);
+        return (flaggedBits[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Cuenta las preguntas marcadas para revisar.
+     * @return La cantidad de preguntas marcadas.
+     */
+    public int countFlagged() {
+        return flaggedCount;
+    }
+
+    /**
+     * Obtiene una copia de los códigos de respuesta.
+     * @return Un arreglo con un código por pregunta.
+     */
+    public byte[] toArray() {
+        return Arrays.copyOf(answers, answers.length);
+    }
+
+    /**
+     * Obtiene una copia del mapa de bits de preguntas marcadas.
+     * @return Un arreglo con un bit por pregunta, 64 preguntas por elemento.
+     */
+    public long[] flagsToArray() {
+        return Arrays.copyOf(flaggedBits, flaggedBits.length);
+    }
+
+    /**
+     * Obtiene una copia del mapa de bits de aciertos, para {@link TestResult}.
+     */
+    long[] correctBitsCopy() {
+        return Arrays.copyOf(correctBits, correctBits.length);
+    }
+
+    private void checkIndex(int questionIndex) {
+        // Los mapas de bits tienen relleno al final: un índice fuera de rango no siempre fallaría solo
+        if (questionIndex < 0 || questionIndex >= answers.length) {
+            throw new IndexOutOfBoundsException("Índice de pregunta fuera de rango: " + questionIndex);
+        }
+    }
+
+    /**
+     * Codifica el índice de una opción de selección múltiple.
+     * @param optionIndex El índice de la opción.
+     * @return El código de respuesta.
+     */
+    public static byte optionCode(int optionIndex) {
+        if (optionIndex < 0 || optionIndex >= MAX_OPTIONS) {
+            throw new IllegalArgumentException("Índice de opción fuera de rango: " + optionIndex);
+        }
+        return (byte) (optionIndex + 1);
+    }
+
+    /**
+     * Decodifica el índice de una opción de selección múltiple.
+     * @param answerCode El código de respuesta.
+     * @return El índice de la opción, o -1 si no hay respuesta.
+     */
+    public static int optionIndex(byte answerCode) {
+        return (answerCode & 0xFF) - 1;
+    }
+
+    /**
+     * Codifica una respuesta de verdadero/falso.
+     * @param value La respuesta.
+     * @return El código de respuesta.
+     */
+    public static byte booleanCode(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+}
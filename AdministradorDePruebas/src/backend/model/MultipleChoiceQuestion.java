@@ -16,6 +16,9 @@ public class MultipleChoiceQuestion extends Question {
         if (options == null || options.isEmpty()) {
             throw new IllegalArgumentException("Las opciones de respuesta no pueden ser nulas o vacías.");
         }
+        if (options.size() > AnswerSheet.MAX_OPTIONS) {
+            throw new IllegalArgumentException("Una pregunta de selección múltiple admite como máximo " + AnswerSheet.MAX_OPTIONS + " opciones.");
+        }
         if (correctAnswer == null || correctAnswer.trim().isEmpty()) {
             throw new IllegalArgumentException("La respuesta correcta (texto) no puede ser nula o vacía.");
         }
@@ -29,6 +32,7 @@ public class MultipleChoiceQuestion extends Question {
         this.options = options;
         this.correctAnswer = correctAnswer;
         this.correctOptionIndex = correctOptionIndex;
+        updateAnswerKey();
     }
 
     public MultipleChoiceQuestion(String statement, BloomLevel bloomLevel, int estimatedTime,
@@ -37,12 +41,16 @@ public class MultipleChoiceQuestion extends Question {
         if (options == null || options.isEmpty()) {
             throw new IllegalArgumentException("Las opciones de respuesta no pueden ser nulas o vacías.");
         }
+        if (options.size() > AnswerSheet.MAX_OPTIONS) {
+            throw new IllegalArgumentException("Una pregunta de selección múltiple admite como máximo " + AnswerSheet.MAX_OPTIONS + " opciones.");
+        }
         if (correctOptionIndex < 0 || correctOptionIndex >= options.size()) {
             throw new IllegalArgumentException("El índice de la respuesta correcta está fuera de los límites de las opciones.");
         }
         this.options = options;
         this.correctOptionIndex = correctOptionIndex;
         this.correctAnswer = options.get(correctOptionIndex); // Inferir el texto de la respuesta correcta
+        updateAnswerKey();
     }
 
     public MultipleChoiceQuestion(String statement, BloomLevel bloomLevel, int estimatedTime,
@@ -51,6 +59,9 @@ public class MultipleChoiceQuestion extends Question {
         if (options == null || options.isEmpty()) {
             throw new IllegalArgumentException("Las opciones de respuesta no pueden ser nulas o vacías.");
         }
+        if (options.size() > AnswerSheet.MAX_OPTIONS) {
+            throw new IllegalArgumentException("Una pregunta de selección múltiple admite como máximo " + AnswerSheet.MAX_OPTIONS + " opciones.");
+        }
         if (correctAnswer == null || correctAnswer.trim().isEmpty()) {
             throw new IllegalArgumentException("La respuesta correcta (texto) no puede ser nula o vacía.");
         }
@@ -67,6 +78,7 @@ public class MultipleChoiceQuestion extends Question {
         if (this.correctOptionIndex == -1) {
             throw new IllegalArgumentException("El texto de la respuesta correcta no se encontró entre las opciones proporcionadas.");
         }
+        updateAnswerKey();
     }
 
 
@@ -86,6 +98,9 @@ public class MultipleChoiceQuestion extends Question {
         if (options == null || options.isEmpty()) {
             throw new IllegalArgumentException("Las opciones de respuesta no pueden ser nulas o vacías.");
         }
+        if (options.size() > AnswerSheet.MAX_OPTIONS) {
+            throw new IllegalArgumentException("Una pregunta de selección múltiple admite como máximo " + AnswerSheet.MAX_OPTIONS + " opciones.");
+        }
         this.options = options;
         if (correctOptionIndex != -1 && (correctOptionIndex >= options.size() || !options.get(correctOptionIndex).equalsIgnoreCase(correctAnswer))) {
             this.correctOptionIndex = -1; // Marcar como inválido
@@ -104,6 +119,7 @@ public class MultipleChoiceQuestion extends Question {
                 }
             }
         }
+        updateAnswerKey();
     }
 
     /**
@@ -123,38 +139,76 @@ public class MultipleChoiceQuestion extends Question {
     }
 
 
+    /**
+     * Normaliza la respuesta correcta como código de opción, para calificar con una sola comparación.
+     */
+    private void updateAnswerKey() {
+        setAnswerKey(correctOptionIndex >= 0 ? AnswerSheet.optionCode(correctOptionIndex) : AnswerSheet.UNANSWERED);
+    }
+
+    /**
+     * Traduce una respuesta al código de la opción elegida.
+     * Se acepta el índice de la opción (como lo envía la interfaz) o su texto.
+     * @param answer La respuesta de texto.
+     * @return El código de la opción, o {@link AnswerSheet#UNANSWERED} si no corresponde a ninguna.
+     */
     @Override
-    public boolean isCorrect() {
-        String userAnswer = getUserAnswer();
-        if (userAnswer == null || userAnswer.trim().isEmpty()) {
-            return false;
+    public byte encodeAnswer(String answer) {
+        if (answer == null || answer.trim().isEmpty()) {
+            return AnswerSheet.UNANSWERED;
         }
-
-        // Opción 1: Comparar por el texto de la respuesta
-        if (correctAnswer != null && userAnswer.trim().equalsIgnoreCase(correctAnswer.trim())) {
-            return true;
+        String trimmed = answer.trim();
+        int optionIndex = parseOptionIndex(trimmed);
+        if (optionIndex >= 0 && optionIndex < options.size()) {
+            return AnswerSheet.optionCode(optionIndex);
         }
-
-        // Opción 2: Comparar por el índice de la respuesta
-        try {
-            int userSelectedOptionIndex = Integer.parseInt(userAnswer.trim());
-            // Si el índice del usuario corresponde al índice de la respuesta correcta
-            if (userSelectedOptionIndex >= 0 && userSelectedOptionIndex < options.size() && userSelectedOptionIndex == correctOptionIndex) {
-                return true;
+        // La respuesta no es un índice válido, se busca por texto
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).trim().equalsIgnoreCase(trimmed)) {
+                return AnswerSheet.optionCode(i);
             }
-        } catch (NumberFormatException e) {
-            // La respuesta del usuario no es un número, así que no se compara por índice.
         }
+        return AnswerSheet.UNANSWERED;
+    }
+
+    /**
+     * Traduce un código de respuesta al índice de la opción, en el mismo formato que usa la interfaz.
+     * @param answerCode El código de respuesta.
+     * @return El índice de la opción como texto, o una cadena vacía si no hay respuesta.
+     */
+    @Override
+    public String decodeAnswer(byte answerCode) {
+        int optionIndex = AnswerSheet.optionIndex(answerCode);
+        return (optionIndex >= 0 && optionIndex < options.size()) ? String.valueOf(optionIndex) : "";
+    }
 
-        return false;
+    /**
+     * Interpreta un texto como índice de opción sin usar excepciones.
+     * @param text El texto, ya sin espacios alrededor.
+     * @return El índice, o -1 si el texto no es un número entero no negativo de hasta tres dígitos.
+     */
+    private static int parseOptionIndex(String text) {
+        int length = text.length();
+        if (length == 0 || length > 3) { // MAX_OPTIONS tiene tres dígitos
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
     }
 
     /**
      * Devuelve el tipo de pregunta.
-     * @return La cadena "Selección Múltiple".
+     * @return {@link QuestionType#MULTIPLE_CHOICE}.
      */
     @Override
-    public String getType() {
-        return "Selección Múltiple";
+    public QuestionType getQuestionType() {
+        return QuestionType.MULTIPLE_CHOICE;
     }
 }
\ No newline at end of file
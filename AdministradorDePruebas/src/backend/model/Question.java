@@ -10,7 +10,8 @@ public abstract class Question {
     private String statement; // Enunciado de la pregunta
     private BloomLevel bloomLevel; // Nivel de la taxonomía de Bloom
     private int estimatedTime; // Tiempo estimado para resolver la pregunta en segundos
-    private String userAnswer; // Respuesta del usuario a la pregunta
+    private byte answerKey; // Respuesta correcta normalizada como código de AnswerSheet
+    private volatile StatementListener statementListener; // Un receptor o varios encadenados; null si no hay
 
     public Question(String statement, BloomLevel bloomLevel, int estimatedTime) {
         if (statement == null || statement.trim().isEmpty()) {
@@ -25,7 +26,7 @@ public abstract class Question {
         this.statement = statement;
         this.bloomLevel = bloomLevel;
         this.estimatedTime = estimatedTime;
-        this.userAnswer = ""; // Inicialmente vacía
+        this.answerKey = AnswerSheet.UNANSWERED; // Las subclases la establecen al construirse
     }
 
     /**
@@ -44,7 +45,33 @@ public abstract class Question {
         if (statement == null || statement.trim().isEmpty()) {
             throw new IllegalArgumentException("El enunciado de la pregunta no puede estar vacío.");
         }
+        String oldStatement = this.statement;
         this.statement = statement;
+        StatementListener listener = statementListener; // Una sola lectura: la cadena puede cambiar en otro hilo
+        if (listener != null && !oldStatement.equals(statement)) {
+            listener.statementChanged(this, oldStatement);
+        }
+    }
+
+    /**
+     * Registra un receptor de los cambios de enunciado. Con un solo receptor no se reserva memoria
+     * adicional, lo que importa en bancos de millones de preguntas. La cadena se actualiza con el
+     * candado de la pregunta, así que dos índices pueden registrarse a la vez desde hilos distintos.
+     * @param listener El receptor.
+     */
+    public synchronized void addStatementListener(StatementListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("El receptor no puede ser nulo.");
+        }
+        statementListener = statementListener == null ? listener : new StatementListenerPair(statementListener, listener);
+    }
+
+    /**
+     * Quita un receptor de los cambios de enunciado registrado antes.
+     * @param listener El receptor.
+     */
+    public synchronized void removeStatementListener(StatementListener listener) {
+        statementListener = StatementListenerPair.remove(statementListener, listener);
     }
 
     /**
@@ -86,32 +113,108 @@ public abstract class Question {
     }
 
     /**
-     * Obtiene la respuesta del usuario para esta pregunta.
-     * @return La respuesta del usuario.
+     * Obtiene el nombre del tipo de pregunta.
+     * @return Una cadena que describe el tipo de pregunta.
      */
-    public String getUserAnswer() {
-        return userAnswer;
+    public String getType() {
+        return getQuestionType().getName();
     }
 
     /**
-     * Establece la respuesta del usuario para esta pregunta.
-     * @param userAnswer La respuesta ingresada por el usuario.
+     * Método abstracto para obtener el tipo de pregunta
+     * Debe ser implementado por las subclases.
+     * @return El tipo de pregunta.
+     */
+    public abstract QuestionType getQuestionType();
+
+    /**
+     * Verifica si una respuesta de texto es correcta.
+     * No modifica el estado de la pregunta, por lo que puede usarse desde varias sesiones a la vez.
+     * @param answer La respuesta a verificar.
+     * @return true si la respuesta es correcta, false en caso contrario.
      */
-    public void setUserAnswer(String userAnswer) {
-        this.userAnswer = userAnswer != null ? userAnswer : "";
+    public boolean isCorrect(String answer) {
+        return isCorrect(encodeAnswer(answer));
     }
 
     /**
-     * Método abstracto para obtener el tipo de pregunta
+     * Verifica si un código de respuesta de una {@link AnswerSheet} es correcto.
+     * Compara contra la clave normalizada al cargar la pregunta, sin reservar memoria.
+     * @param answerCode El código de respuesta.
+     * @return true si la respuesta es correcta, false en caso contrario.
+     */
+    public final boolean isCorrect(byte answerCode) {
+        return (answerCode != AnswerSheet.UNANSWERED) & (answerCode == answerKey);
+    }
+
+    /**
+     * Obtiene la respuesta correcta normalizada como código de {@link AnswerSheet}.
+     * @return El código de la respuesta correcta, o {@link AnswerSheet#UNANSWERED} si no está definida.
+     */
+    public final byte getAnswerKey() {
+        return answerKey;
+    }
+
+    /**
+     * Establece la respuesta correcta normalizada. Las subclases la actualizan cada vez que cambia su clave.
+     * @param answerKey El código de la respuesta correcta.
+     */
+    protected final void setAnswerKey(byte answerKey) {
+        this.answerKey = answerKey;
+    }
+
+    /**
+     * Método abstracto para traducir una respuesta de texto a su código en la {@link AnswerSheet}.
      * Debe ser implementado por las subclases.
-     * @return Una cadena que describe el tipo de pregunta.
+     * @param answer La respuesta de texto.
+     * @return El código de respuesta, o {@link AnswerSheet#UNANSWERED} si la respuesta no es válida.
      */
-    public abstract String getType();
+    public abstract byte encodeAnswer(String answer);
 
     /**
-     * Método abstracto para verificar si la respuesta del usuario es correcta.
+     * Método abstracto para traducir un código de respuesta a texto.
      * Debe ser implementado por las subclases.
-     * @return true si la respuesta del usuario es correcta, false en caso contrario.
+     * @param answerCode El código de respuesta.
+     * @return La respuesta de texto, o una cadena vacía si no hay respuesta.
      */
-    public abstract boolean isCorrect();
+    public abstract String decodeAnswer(byte answerCode);
+
+    /**
+     * Dos receptores encadenados; varios receptores forman una cadena de pares, como AWTEventMulticaster.
+     */
+    private static final class StatementListenerPair implements StatementListener {
+        private final StatementListener first;
+        private final StatementListener second;
+
+        StatementListenerPair(StatementListener first, StatementListener second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void statementChanged(Question question, String oldStatement) {
+            first.statementChanged(question, oldStatement);
+            second.statementChanged(question, oldStatement);
+        }
+
+        /**
+         * Quita un receptor de una cadena.
+         * @return La cadena sin el receptor, o null si queda vacía.
+         */
+        static StatementListener remove(StatementListener chain, StatementListener listener) {
+            if (chain == listener) {
+                return null;
+            }
+            if (!(chain instanceof StatementListenerPair)) {
+                return chain; // Un solo receptor distinto, o ninguno
+            }
+            StatementListenerPair pair = (StatementListenerPair) chain;
+            StatementListener first = remove(pair.first, listener);
+            StatementListener second = remove(pair.second, listener);
+            if (first == pair.first && second == pair.second) {
+                return pair;
+            }
+            return first == null ? second : second == null ? first : new StatementListenerPair(first, second);
+        }
+    }
 }
\ No newline at end of file
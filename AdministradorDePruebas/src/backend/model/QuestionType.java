@@ -0,0 +1,29 @@
+// backend/model/QuestionType.java
+package backend.model;
+
+/**
+ * Representa los tipos de pregunta soportados.
+ * El ordinal de cada tipo sirve de índice en los contadores de resultados.
+ */
+public enum QuestionType {
+    MULTIPLE_CHOICE("Selección Múltiple"),
+    TRUE_FALSE("Verdadero/Falso");
+
+    private final String name;
+
+    /**
+     * Constructor para el tipo de pregunta.
+     * @param name El nombre del tipo, tal como se muestra al usuario.
+     */
+    QuestionType(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Obtiene el nombre del tipo de pregunta.
+     * @return El nombre del tipo.
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,15 @@
+// backend/model/StatementListener.java
+package backend.model;
+
+/**
+ * Receptor de los cambios de enunciado de una pregunta, por ejemplo para mantener al día un índice.
+ */
+@FunctionalInterface
+public interface StatementListener {
+    /**
+     * Método invocado después de que cambia el enunciado de una pregunta.
+     * @param question La pregunta, que ya tiene el enunciado nuevo.
+     * @param oldStatement El enunciado anterior.
+     */
+    void statementChanged(Question question, String oldStatement);
+}
@@ -0,0 +1,228 @@
+// backend/model/StringPool.java
+package backend.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de textos de un banco de preguntas. Los cargadores pasan por aquí las opciones y las
+ * respuestas, que se repiten mucho ("Verdadero", "Ninguna de las anteriores", distractores comunes):
+ * cada texto distinto se guarda una sola vez y cada conjunto de opciones distinto también, de modo que
+ * las preguntas con las mismas opciones comparten la misma lista.
+ * Los textos se buscan directamente sobre el búfer del cargador, así que un texto repetido no crea
+ * ninguna cadena. La tabla está dividida en segmentos con su propio candado para que los cargadores
+ * que analizan bloques en paralelo compartan el diccionario sin competir por un único candado.
+ * El diccionario solo se necesita durante la carga: las preguntas conservan los textos, no el diccionario.
+ */
+public final class StringPool {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENT_COUNT = 1 << SEGMENT_BITS;
+    private static final int INITIAL_SEGMENT_CAPACITY = 256; // Potencia de dos
+
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    private final ConcurrentHashMap<OptionList, OptionList> optionLists = new ConcurrentHashMap<>();
+
+    public StringPool() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Obtiene la copia compartida de un texto.
+     * @param text El texto.
+     * @return La cadena guardada en el diccionario, igual a la recibida.
+     */
+    public String intern(String text) {
+        int hash = text.hashCode();
+        return segmentFor(hash).intern(text, hash);
+    }
+
+    /**
+     * Obtiene la copia compartida de un fragmento de un búfer, creando la cadena solo si es nueva.
+     * @param chars El búfer.
+     * @param from La posición del primer carácter.
+     * @param to La posición siguiente al último carácter.
+     * @return La cadena guardada en el diccionario.
+     */
+    public String intern(char[] chars, int from, int to) {
+        if (from < 0 || to > chars.length || from > to) {
+            throw new IndexOutOfBoundsException("Fragmento fuera de rango: [" + from + ", " + to + ")");
+        }
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + chars[i]; // Igual que String.hashCode()
+        }
+        return segmentFor(hash).intern(chars, from, to, hash);
+    }
+
+    /**
+     * Obtiene la lista compartida de un conjunto de opciones. Los textos se agregan al diccionario y
+     * las preguntas con las mismas opciones, en el mismo orden, reciben la misma lista.
+     * @param options Las opciones.
+     * @return Una lista inmutable con los textos del diccionario.
+     */
+    public List<String> options(List<String> options) {
+        String[] values = new String[options.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = intern(options.get(i));
+        }
+        OptionList candidate = new OptionList(values);
+        OptionList shared = optionLists.putIfAbsent(candidate, candidate);
+        return shared != null ? shared : candidate;
+    }
+
+    /**
+     * Obtiene la cantidad de textos distintos del diccionario.
+     * @return La cantidad de textos.
+     */
+    public int getStringCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Obtiene la cantidad de conjuntos de opciones distintos.
+     * @return La cantidad de listas de opciones compartidas.
+     */
+    public int getOptionListCount() {
+        return optionLists.size();
+    }
+
+    private Segment segmentFor(int hash) {
+        int spread = hash ^ (hash >>> 16);
+        return segments[(spread >>> 8) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * Tabla de direccionamiento abierto con sondeo lineal; se protege con su propio candado.
+     */
+    private static final class Segment {
+        private String[] table = new String[INITIAL_SEGMENT_CAPACITY];
+        private int[] hashes = new int[INITIAL_SEGMENT_CAPACITY];
+        private int size;
+
+        synchronized String intern(String text, int hash) {
+            int mask = table.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                String existing = table[slot];
+                if (existing == null) {
+                    return insert(slot, text, hash);
+                }
+                if (hashes[slot] == hash && existing.equals(text)) {
+                    return existing;
+                }
+            }
+        }
+
+        synchronized String intern(char[] chars, int from, int to, int hash) {
+            int mask = table.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                String existing = table[slot];
+                if (existing == null) {
+                    return insert(slot, new String(chars, from, to - from), hash);
+                }
+                if (hashes[slot] == hash && regionEquals(existing, chars, from, to)) {
+                    return existing;
+                }
+            }
+        }
+
+        private String insert(int slot, String text, int hash) {
+            table[slot] = text;
+            hashes[slot] = hash;
+            if (++size * 4 > table.length * 3) { // Factor de carga de 0.75
+                resize();
+            }
+            return text;
+        }
+
+        private void resize() {
+            String[] oldTable = table;
+            int[] oldHashes = hashes;
+            table = new String[oldTable.length * 2];
+            hashes = new int[oldTable.length * 2];
+            int mask = table.length - 1;
+            for (int i = 0; i < oldTable.length; i++) {
+                if (oldTable[i] != null) {
+                    int slot = oldHashes[i] & mask;
+                    while (table[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    table[slot] = oldTable[i];
+                    hashes[slot] = oldHashes[i];
+                }
+            }
+        }
+
+        private static boolean regionEquals(String text, char[] chars, int from, int to) {
+            if (text.length() != to - from) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (text.charAt(i - from) != chars[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Lista inmutable de opciones compartida entre preguntas. Sus textos vienen del diccionario, así
+     * que dos listas son iguales si tienen las mismas cadenas en el mismo orden.
+     */
+    private static final class OptionList extends AbstractList<String> implements RandomAccess {
+        private final String[] values;
+        private final int hash;
+
+        OptionList(String[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public String get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OptionList)) {
+                return super.equals(o);
+            }
+            OptionList other = (OptionList) o;
+            if (hash != other.hash || values.length != other.values.length) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                // Con cadenas del mismo diccionario basta comparar referencias
+                if (values[i] != other.values[i] && !values[i].equals(other.values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
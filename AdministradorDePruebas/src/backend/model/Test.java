@@ -2,15 +2,26 @@
 package backend.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Representa una prueba o examen, que contiene una colección de preguntas.
+ * Las altas y bajas se sincronizan sobre la prueba y avisan a los receptores dentro del candado, así
+ * que quien se registre y lea las preguntas con el mismo candado no pierde ni repite ninguna.
  */
 public class Test {
     private List<Question> questions;
     private String name; // Nombre o identificador de la prueba (opcional)
+    private final int[] totalByBloom = new int[BloomLevel.values().length]; // Preguntas por nivel de Bloom (por ordinal)
+    private final int[] totalByType = new int[QuestionType.values().length]; // Preguntas por tipo (por ordinal)
+    // Nivel de Bloom de cada pregunta al agregarla (por ordinal). Question.setBloomLevel no avisa a la
+    // prueba, así que los totales y las hojas de respuestas usan siempre este nivel y nunca se descuadran.
+    private byte[] bloomOrdinals = new byte[16];
+    private int maxOptionCount; // Opciones de la pregunta con más opciones
+    private final List<TestListener> listeners = new CopyOnWriteArrayList<>(); // Receptores de altas y bajas
 
     /**
      * Constructor por defecto para una nueva prueba.
@@ -33,9 +44,20 @@ public class Test {
      * Añade una pregunta a la prueba.
      * @param question La pregunta a añadir.
      */
-    public void addQuestion(Question question) {
+    public synchronized void addQuestion(Question question) {
         if (question != null) {
+            int index = questions.size();
+            if (index == bloomOrdinals.length) {
+                bloomOrdinals = Arrays.copyOf(bloomOrdinals, index * 2);
+            }
+            bloomOrdinals[index] = (byte) question.getBloomLevel().ordinal();
             this.questions.add(question);
+            totalByBloom[bloomOrdinals[index]]++;
+            totalByType[question.getQuestionType().ordinal()]++;
+            maxOptionCount = Math.max(maxOptionCount, optionCount(question));
+            for (TestListener listener : listeners) {
+                listener.questionAdded(this, question);
+            }
         }
     }
 
@@ -44,8 +66,44 @@ public class Test {
      * @param question La pregunta a eliminar.
      * @return true si la pregunta fue eliminada, false en caso contrario.
      */
-    public boolean removeQuestion(Question question) {
-        return this.questions.remove(question);
+    public synchronized boolean removeQuestion(Question question) {
+        int index = this.questions.indexOf(question);
+        boolean removed = index >= 0;
+        if (removed) {
+            question = this.questions.remove(index);
+            totalByBloom[bloomOrdinals[index]]--;
+            System.arraycopy(bloomOrdinals, index + 1, bloomOrdinals, index, questions.size() - index);
+            totalByType[question.getQuestionType().ordinal()]--;
+            if (optionCount(question) == maxOptionCount) {
+                maxOptionCount = 0; // Puede haber sido la más ancha: recalcular
+                for (Question remaining : questions) {
+                    maxOptionCount = Math.max(maxOptionCount, optionCount(remaining));
+                }
+            }
+            for (TestListener listener : listeners) {
+                listener.questionRemoved(this, question);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Registra un receptor de las preguntas que se agregan o se quitan.
+     * @param listener El receptor.
+     */
+    public void addTestListener(TestListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("El receptor no puede ser nulo.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Quita un receptor registrado antes.
+     * @param listener El receptor.
+     */
+    public void removeTestListener(TestListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -64,6 +122,54 @@ public class Test {
         return questions.size();
     }
 
+    /**
+     * Obtiene el nivel de Bloom con el que se contó una pregunta al agregarla a la prueba.
+     * Si después se cambia el nivel de la pregunta, los totales y las calificaciones siguen usando este.
+     * @param questionIndex El índice de la pregunta.
+     * @return El nivel de Bloom.
+     */
+    public BloomLevel getBloomLevel(int questionIndex) {
+        if (questionIndex < 0 || questionIndex >= questions.size()) {
+            throw new IndexOutOfBoundsException("Índice de pregunta fuera de rango: " + questionIndex);
+        }
+        return BloomLevel.values()[bloomOrdinals[questionIndex]];
+    }
+
+    /**
+     * Obtiene una copia de los niveles de Bloom de las preguntas, por ordinal, para {@link AnswerSheet}.
+     */
+    byte[] bloomOrdinalsCopy() {
+        return Arrays.copyOf(bloomOrdinals, questions.size());
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas de un nivel de Bloom, sin recorrer la prueba.
+     * Cuenta cada pregunta con el nivel que tenía al agregarse, como {@link #getBloomLevel(int)}.
+     * @param level El nivel de Bloom.
+     * @return La cantidad de preguntas de ese nivel.
+     */
+    public int getTotalByBloom(BloomLevel level) {
+        return totalByBloom[level.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas de un tipo, sin recorrer la prueba.
+     * @param type El tipo de pregunta.
+     * @return La cantidad de preguntas de ese tipo.
+     */
+    public int getTotalByType(QuestionType type) {
+        return totalByType[type.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de opciones de la pregunta con más opciones, sin recorrer la prueba.
+     * Las preguntas de verdadero/falso cuentan como dos opciones.
+     * @return La cantidad máxima de opciones, o 0 si la prueba no tiene preguntas.
+     */
+    public int getMaxOptionCount() {
+        return maxOptionCount;
+    }
+
     /**
      * Calcula el tiempo total estimado para completar la prueba.
      * @return El tiempo total estimado en segundos.
@@ -90,12 +196,19 @@ public class Test {
         this.name = name;
     }
 
+    private static int optionCount(Question question) {
+        if (question instanceof MultipleChoiceQuestion) {
+            return ((MultipleChoiceQuestion) question).getOptions().size();
+        }
+        return 2; // Verdadero y Falso
+    }
+
     /**
-     * Reinicia las respuestas de los usuarios para todas las preguntas de la prueba.
+     * Crea una hoja de respuestas vacía para esta prueba.
+     * Reiniciar las respuestas de un candidato consiste en reemplazar su hoja por una nueva.
+     * @return Una hoja de respuestas con una entrada por pregunta.
      */
-    public void resetUserAnswers() {
-        for (Question question : questions) {
-            question.setUserAnswer(""); // Establecer la respuesta del usuario como vacía
-        }
+    public AnswerSheet newAnswerSheet() {
+        return new AnswerSheet(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+// backend/model/TestListener.java
+package backend.model;
+
+/**
+ * Receptor de las preguntas que se agregan a una prueba o se quitan de ella.
+ */
+public interface TestListener {
+    /**
+     * Método invocado después de agregar una pregunta.
+     * @param test La prueba.
+     * @param question La pregunta agregada.
+     */
+    void questionAdded(Test test, Question question);
+
+    /**
+     * Método invocado después de quitar una pregunta.
+     * @param test La prueba.
+     * @param question La pregunta quitada.
+     */
+    void questionRemoved(Test test, Question question);
+}
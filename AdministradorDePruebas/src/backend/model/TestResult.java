@@ -0,0 +1,347 @@
+// backend/model/TestResult.java
+package backend.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resultado inmutable de una prueba terminada: aciertos y totales por nivel de Bloom y por tipo de
+ * pregunta, guardados en arreglos indexados por ordinal, y una copia congelada de las respuestas.
+ * Ningún arreglo interno sale de la clase, así que una misma instancia puede compartirse entre hilos
+ * (interfaz, exportadores, análisis) sin copiarla.
+ */
+public final class TestResult {
+    private static final BloomLevel[] BLOOM_LEVELS = BloomLevel.values();
+    private static final QuestionType[] QUESTION_TYPES = QuestionType.values();
+    private static final short MAGIC = 0x5452; // "TR"
+    private static final byte VERSION = 1;
+
+    private final int[] totalByBloom;
+    private final int[] correctByBloom;
+    private final int[] totalByType;
+    private final int[] correctByType;
+    private final byte[] answers; // Códigos de respuesta, según AnswerSheet
+    private final long[] correctBits; // Un bit por pregunta respondida correctamente
+    private final int correctCount;
+
+    private TestResult(int[] totalByBloom, int[] correctByBloom, int[] totalByType, int[] correctByType,
+                       byte[] answers, long[] correctBits) {
+        this.totalByBloom = totalByBloom;
+        this.correctByBloom = correctByBloom;
+        this.totalByType = totalByType;
+        this.correctByType = correctByType;
+        this.answers = answers;
+        this.correctBits = correctBits;
+        int count = 0;
+        for (long bits : correctBits) {
+            count += Long.bitCount(bits);
+        }
+        this.correctCount = count;
+    }
+
+    /**
+     * Congela el estado de una hoja de respuestas.
+     * @param test La prueba, de la que se toman los totales.
+     * @param sheet La hoja de respuestas del candidato.
+     * @return El resultado.
+     */
+    public static TestResult of(Test test, AnswerSheet sheet) {
+        if (test.getNumberOfItems() != sheet.size()) {
+            throw new IllegalArgumentException("La hoja de respuestas no corresponde a la prueba.");
+        }
+        int[] totalByBloom = new int[BLOOM_LEVELS.length];
+        int[] correctByBloom = new int[BLOOM_LEVELS.length];
+        for (BloomLevel level : BLOOM_LEVELS) {
+            totalByBloom[level.ordinal()] = test.getTotalByBloom(level);
+            correctByBloom[level.ordinal()] = sheet.getCorrectByBloom(level);
+        }
+        int[] totalByType = new int[QUESTION_TYPES.length];
+        int[] correctByType = new int[QUESTION_TYPES.length];
+        for (QuestionType type : QUESTION_TYPES) {
+            totalByType[type.ordinal()] = test.getTotalByType(type);
+            correctByType[type.ordinal()] = sheet.getCorrectByType(type);
+        }
+        return new TestResult(totalByBloom, correctByBloom, totalByType, correctByType,
+                sheet.toArray(), sheet.correctBitsCopy());
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas de la prueba.
+     * @return La cantidad de preguntas.
+     */
+    public int getNumberOfItems() {
+        return answers.length;
+    }
+
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    /**
+     * Obtiene el porcentaje total de respuestas correctas.
+     * @return El porcentaje, o 0 si la prueba no tiene preguntas.
+     */
+    public double getPercentage() {
+        return percentage(correctCount, answers.length);
+    }
+
+    public int getTotalByBloom(BloomLevel level) {
+        return totalByBloom[level.ordinal()];
+    }
+
+    public int getCorrectByBloom(BloomLevel level) {
+        return correctByBloom[level.ordinal()];
+    }
+
+    /**
+     * Obtiene el porcentaje de respuestas correctas de un nivel de Bloom.
+     * @param level El nivel de Bloom.
+     * @return El porcentaje, o 0 si la prueba no tiene preguntas de ese nivel.
+     */
+    public double getBloomPercentage(BloomLevel level) {
+        return percentage(correctByBloom[level.ordinal()], totalByBloom[level.ordinal()]);
+    }
+
+    public int getTotalByType(QuestionType type) {
+        return totalByType[type.ordinal()];
+    }
+
+    public int getCorrectByType(QuestionType type) {
+        return correctByType[type.ordinal()];
+    }
+
+    /**
+     * Obtiene el porcentaje de respuestas correctas de un tipo de pregunta.
+     * @param type El tipo de pregunta.
+     * @return El porcentaje, o 0 si la prueba no tiene preguntas de ese tipo.
+     */
+    public double getTypePercentage(QuestionType type) {
+        return percentage(correctByType[type.ordinal()], totalByType[type.ordinal()]);
+    }
+
+    /**
+     * Obtiene el código de respuesta que dio el candidato a una pregunta.
+     * @param questionIndex El índice de la pregunta.
+     * @return El código de respuesta, según la codificación de {@link AnswerSheet}.
+     */
+    public byte getAnswerCode(int questionIndex) {
+        return answers[questionIndex];
+    }
+
+    public boolean isCorrect(int questionIndex) {
+        if (questionIndex < 0 || questionIndex >= answers.length) {
+            throw new IndexOutOfBoundsException("Índice de pregunta fuera de rango: " + questionIndex);
+        }
+        return (correctBits[questionIndex >>> 6] & (1L << questionIndex)) != 0;
+    }
+
+    /**
+     * Obtiene una copia de los códigos de respuesta.
+     * @return Un arreglo con un código por pregunta.
+     */
+    public byte[] getAnswers() {
+        return Arrays.copyOf(answers, answers.length);
+    }
+
+    /**
+     * Obtiene los porcentajes por nivel de Bloom de los niveles presentes en la prueba.
+     * @return Un mapa de solo lectura, en el orden de la taxonomía.
+     */
+    public Map<BloomLevel, Double> getBloomPercentages() {
+        Map<BloomLevel, Double> percentages = new EnumMap<>(BloomLevel.class);
+        for (BloomLevel level : BLOOM_LEVELS) {
+            if (totalByBloom[level.ordinal()] > 0) {
+                percentages.put(level, getBloomPercentage(level));
+            }
+        }
+        return Collections.unmodifiableMap(percentages);
+    }
+
+    /**
+     * Obtiene los porcentajes por tipo de ítem de los tipos presentes en la prueba, con el nombre del tipo como clave.
+     * @return Un mapa de solo lectura, en el orden de {@link QuestionType}.
+     */
+    public Map<String, Double> getItemTypePercentages() {
+        Map<String, Double> percentages = new LinkedHashMap<>();
+        for (QuestionType type : QUESTION_TYPES) {
+            if (totalByType[type.ordinal()] > 0) {
+                percentages.put(type.getName(), getTypePercentage(type));
+            }
+        }
+        return Collections.unmodifiableMap(percentages);
+    }
+
+    /**
+     * Serializa el resultado en un formato compacto: contadores como enteros de longitud variable,
+     * un byte por respuesta y un bit por acierto. Para n preguntas ocupa 3 bytes de cabecera, un byte con
+     * la cantidad de niveles y otro con la de tipos, un total y un acierto por nivel y por tipo (cada uno de
+     * 1 byte hasta 127, 2 hasta 16383), la cantidad n con el mismo formato, n bytes de respuestas y
+     * ⌈n/8⌉ bytes de aciertos: entre n + ⌈n/8⌉ + 23 y n + ⌈n/8⌉ + 39 bytes para n entre 128 y 16383.
+     * @return Los bytes del resultado.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + answers.length + answers.length / 8);
+        out.write(MAGIC >>> 8);
+        out.write(MAGIC & 0xFF);
+        out.write(VERSION);
+        writeCounters(out, totalByBloom, correctByBloom);
+        writeCounters(out, totalByType, correctByType);
+        writeVarInt(out, answers.length);
+        out.write(answers, 0, answers.length);
+        for (int i = 0; i < answers.length; i += 8) {
+            out.write((int) (correctBits[i >>> 6] >>> (i & 63)) & 0xFF);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reconstruye un resultado serializado con {@link #toBytes()}.
+     * @param bytes Los bytes del resultado.
+     * @return El resultado.
+     * @throws IllegalArgumentException si los bytes no son un resultado válido.
+     */
+    public static TestResult fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.getShort() != MAGIC || in.get() != VERSION) {
+                throw new IllegalArgumentException("Los datos no son un resultado de prueba válido.");
+            }
+            int[][] bloom = readCounters(in, BLOOM_LEVELS.length);
+            int[][] types = readCounters(in, QUESTION_TYPES.length);
+            int numberOfItems = readVarInt(in);
+            if (numberOfItems > in.remaining()) {
+                throw new IllegalArgumentException("Resultado de prueba truncado.");
+            }
+            byte[] answers = new byte[numberOfItems];
+            in.get(answers);
+            long[] correctBits = new long[(numberOfItems + 63) >>> 6];
+            for (int i = 0; i < numberOfItems; i += 8) {
+                correctBits[i >>> 6] |= (in.get() & 0xFFL) << (i & 63);
+            }
+            if (numberOfItems % 64 != 0 && correctBits.length > 0) {
+                correctBits[correctBits.length - 1] &= (1L << numberOfItems) - 1; // Descartar bits de relleno
+            }
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Datos sobrantes al final del resultado de prueba.");
+            }
+            checkConsistency(bloom, types, answers, correctBits);
+            return new TestResult(bloom[0], bloom[1], types[0], types[1], answers, correctBits);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Resultado de prueba truncado.", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TestResult)) {
+            return false;
+        }
+        TestResult other = (TestResult) o;
+        return Arrays.equals(totalByBloom, other.totalByBloom) && Arrays.equals(correctByBloom, other.correctByBloom)
+                && Arrays.equals(totalByType, other.totalByType) && Arrays.equals(correctByType, other.correctByType)
+                && Arrays.equals(answers, other.answers) && Arrays.equals(correctBits, other.correctBits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(answers) + Arrays.hashCode(correctBits);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TestResult[%d/%d correctas (%.2f%%)]", correctCount, answers.length, getPercentage());
+    }
+
+    private static double percentage(int correct, int total) {
+        return total > 0 ? (double) correct * 100 / total : 0.0;
+    }
+
+    /**
+     * Verifica que los contadores describan un resultado posible: ningún acierto mayor que su total,
+     * totales que sumen la cantidad de preguntas y aciertos que coincidan con los bits de acierto.
+     */
+    private static void checkConsistency(int[][] bloom, int[][] types, byte[] answers, long[] correctBits) {
+        int correctCount = 0;
+        for (int i = 0; i < answers.length; i++) {
+            if ((correctBits[i >>> 6] & (1L << i)) != 0) {
+                if (answers[i] == AnswerSheet.UNANSWERED) {
+                    throw new IllegalArgumentException("Resultado de prueba inválido: la pregunta " + i
+                            + " cuenta como acierto sin respuesta.");
+                }
+                correctCount++;
+            }
+        }
+        checkCounters(bloom, answers.length, correctCount, "nivel de Bloom");
+        checkCounters(types, answers.length, correctCount, "tipo de pregunta");
+    }
+
+    private static void checkCounters(int[][] counters, int numberOfItems, int correctCount, String category) {
+        long totalSum = 0;
+        long correctSum = 0;
+        for (int i = 0; i < counters[0].length; i++) {
+            if (counters[1][i] > counters[0][i]) {
+                throw new IllegalArgumentException("Resultado de prueba inválido: más aciertos que preguntas en un "
+                        + category + ".");
+            }
+            totalSum += counters[0][i];
+            correctSum += counters[1][i];
+        }
+        if (totalSum != numberOfItems || correctSum != correctCount) {
+            throw new IllegalArgumentException("Resultado de prueba inválido: los contadores por " + category
+                    + " no suman " + numberOfItems + " preguntas y " + correctCount + " aciertos.");
+        }
+    }
+
+    private static void writeCounters(ByteArrayOutputStream out, int[] totals, int[] corrects) {
+        writeVarInt(out, totals.length);
+        for (int i = 0; i < totals.length; i++) {
+            writeVarInt(out, totals[i]);
+            writeVarInt(out, corrects[i]);
+        }
+    }
+
+    private static int[][] readCounters(ByteBuffer in, int expectedLength) {
+        int length = readVarInt(in);
+        if (length != expectedLength) {
+            throw new IllegalArgumentException("El resultado de prueba fue creado con otras categorías.");
+        }
+        int[][] counters = new int[2][length];
+        for (int i = 0; i < length; i++) {
+            counters[0][i] = readVarInt(in);
+            counters[1][i] = readVarInt(in);
+        }
+        return counters;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Entero inválido en el resultado de prueba.");
+    }
+}
@@ -7,7 +7,7 @@ public class TrueFalseQuestion extends Question {
 
     public TrueFalseQuestion(String statement, BloomLevel bloomLevel, int estimatedTime, boolean correctAnswer) {
         super(statement, bloomLevel, estimatedTime);
-        this.correctAnswer = correctAnswer;
+        setCorrectAnswer(correctAnswer);
     }
 
     public TrueFalseQuestion(String statement, BloomLevel bloomLevel, int estimatedTime, String correctAnswerString) {
@@ -15,14 +15,11 @@ public class TrueFalseQuestion extends Question {
         if (correctAnswerString == null || correctAnswerString.trim().isEmpty()) {
             throw new IllegalArgumentException("La cadena de respuesta correcta no puede ser nula o vacía.");
         }
-        String normalizedAnswer = correctAnswerString.trim().toLowerCase();
-        if (normalizedAnswer.equals("verdadero") || normalizedAnswer.equals("true") || normalizedAnswer.equals("v")) {
-            this.correctAnswer = true;
-        } else if (normalizedAnswer.equals("falso") || normalizedAnswer.equals("false") || normalizedAnswer.equals("f")) {
-            this.correctAnswer = false;
-        } else {
+        byte answerCode = parseAnswerCode(correctAnswerString);
+        if (answerCode == AnswerSheet.UNANSWERED) {
             throw new IllegalArgumentException("Formato de respuesta correcta no válido para Verdadero/Falso: " + correctAnswerString);
         }
+        setCorrectAnswer(answerCode == AnswerSheet.TRUE);
     }
 
 
@@ -40,30 +37,53 @@ public class TrueFalseQuestion extends Question {
      */
     public void setCorrectAnswer(boolean correctAnswer) {
         this.correctAnswer = correctAnswer;
+        setAnswerKey(AnswerSheet.booleanCode(correctAnswer));
     }
 
+    /**
+     * Traduce una respuesta de texto (Verdadero/V/True o Falso/F/False) a su código.
+     * @param answer La respuesta de texto.
+     * @return El código de respuesta, o {@link AnswerSheet#UNANSWERED} si no es válida.
+     */
     @Override
-    public boolean isCorrect() {
-        String userAnswer = getUserAnswer();
-        if (userAnswer == null || userAnswer.trim().isEmpty()) {
-            return false;
-        }
+    public byte encodeAnswer(String answer) {
+        return parseAnswerCode(answer);
+    }
 
-        String normalizedUserAnswer = userAnswer.trim().toLowerCase();
+    @Override
+    public String decodeAnswer(byte answerCode) {
+        if (answerCode == AnswerSheet.TRUE) {
+            return "Verdadero";
+        } else if (answerCode == AnswerSheet.FALSE) {
+            return "Falso";
+        }
+        return "";
+    }
 
-        if (this.correctAnswer) { // Si la respuesta correcta es Verdadero
-            return normalizedUserAnswer.equals("verdadero") || normalizedUserAnswer.equals("true") || normalizedUserAnswer.equals("v");
-        } else { // Si la respuesta correcta es Falso
-            return normalizedUserAnswer.equals("falso") || normalizedUserAnswer.equals("false") || normalizedUserAnswer.equals("f");
+    /**
+     * Normaliza una respuesta de texto a su código, comparando sin distinguir mayúsculas y sin crear cadenas nuevas.
+     * @param answer La respuesta de texto.
+     * @return {@link AnswerSheet#TRUE}, {@link AnswerSheet#FALSE} o {@link AnswerSheet#UNANSWERED}.
+     */
+    private static byte parseAnswerCode(String answer) {
+        if (answer == null) {
+            return AnswerSheet.UNANSWERED;
+        }
+        String trimmed = answer.trim();
+        if (trimmed.equalsIgnoreCase("verdadero") || trimmed.equalsIgnoreCase("true") || trimmed.equalsIgnoreCase("v")) {
+            return AnswerSheet.TRUE;
+        } else if (trimmed.equalsIgnoreCase("falso") || trimmed.equalsIgnoreCase("false") || trimmed.equalsIgnoreCase("f")) {
+            return AnswerSheet.FALSE;
         }
+        return AnswerSheet.UNANSWERED;
     }
 
     /**
      * Devuelve el tipo de pregunta.
-     * @return La cadena "Verdadero/Falso".
+     * @return {@link QuestionType#TRUE_FALSE}.
      */
     @Override
-    public String getType() {
-        return "Verdadero/Falso";
+    public QuestionType getQuestionType() {
+        return QuestionType.TRUE_FALSE;
     }
 }
\ No newline at end of file
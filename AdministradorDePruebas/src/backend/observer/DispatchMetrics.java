@@ -0,0 +1,83 @@
+// backend/observer/DispatchMetrics.java
+package backend.observer;
+
+/**
+ * Métricas de entrega de eventos a un observador, tomadas en un instante dado.
+ */
+public class DispatchMetrics {
+    private final String observerName;
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final long delivered;
+    private final long dropped;
+    private final long coalesced;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+
+    DispatchMetrics(String observerName, int queueDepth, int maxQueueDepth, long delivered, long dropped,
+                    long coalesced, long totalLatencyNanos, long maxLatencyNanos) {
+        this.observerName = observerName;
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.coalesced = coalesced;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    public String getObserverName() {
+        return observerName;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos que esperan en la cola.
+     * @return La profundidad actual de la cola.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos descartados por la política DROP_OLDEST.
+     * @return Los eventos descartados.
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos reemplazados por uno más reciente antes de entregarse.
+     * @return Los eventos combinados.
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Obtiene la latencia media entre la publicación y la entrega de un evento.
+     * @return La latencia media en nanosegundos, o 0 si no se entregó ningún evento.
+     */
+    public long getAverageLatencyNanos() {
+        return delivered > 0 ? totalLatencyNanos / delivered : 0;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: cola=%d (máx. %d), entregados=%d, descartados=%d, combinados=%d, latencia media=%.3f ms (máx. %.3f ms)",
+                observerName, queueDepth, maxQueueDepth, delivered, dropped, coalesced,
+                getAverageLatencyNanos() / 1e6, maxLatencyNanos / 1e6);
+    }
+}
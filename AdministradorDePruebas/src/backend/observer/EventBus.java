@@ -0,0 +1,179 @@
+// backend/observer/EventBus.java
+package backend.observer;
+
+import backend.event.BackendEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Distribuye eventos del backend a los suscriptores de forma asíncrona.
+ * Cada suscriptor tiene su propia cola acotada y su propio hilo de entrega, así que uno lento
+ * solo se retrasa a sí mismo; qué pasa cuando su cola se llena lo decide la {@link OverflowPolicy}.
+ * Los suscriptores eligen los tipos de evento que reciben: una tabla de despacho indexada por la
+ * clase del evento indica a qué colas va cada publicación, sin filtrar evento por evento.
+ */
+public class EventBus {
+    /**
+     * Capacidad por defecto de la cola de cada suscriptor.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final ObserverDispatcher[] NO_DISPATCHERS = new ObserverDispatcher[0];
+
+    private final int queueCapacity;
+    private final OverflowPolicy policy;
+    private final List<ObserverDispatcher> dispatchers = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, ObserverDispatcher[]> routes = new ConcurrentHashMap<>(); // Clase de evento -> colas
+    private volatile int dispatchersVersion; // Cambia con cada alta o baja, para no guardar rutas obsoletas
+
+    /**
+     * Crea un bus con la capacidad por defecto que combina los eventos reemplazados.
+     */
+    public EventBus() {
+        this(DEFAULT_QUEUE_CAPACITY, OverflowPolicy.COALESCE);
+    }
+
+    /**
+     * Crea un bus con una capacidad de cola y una política de desborde.
+     * @param queueCapacity La cantidad máxima de eventos pendientes por suscriptor.
+     * @param policy Qué hacer cuando la cola de un suscriptor está llena.
+     */
+    public EventBus(int queueCapacity, OverflowPolicy policy) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("La capacidad de la cola debe ser un valor positivo.");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("La política de desborde no puede ser nula.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Registra un observador para todos los eventos.
+     * @param observer El observador.
+     * @return true si se registró, false si ya estaba registrado.
+     */
+    public synchronized boolean subscribe(BackendObserver observer) {
+        if (observer == null || find(observer) != null) {
+            return false;
+        }
+        subscribe(observer, BackendEvent.class, observer::onBackendEvent);
+        return true;
+    }
+
+    /**
+     * Registra un receptor para un tipo de evento y sus subtipos. Todos los receptores de un mismo
+     * suscriptor comparten cola e hilo, así que reciben los eventos en el orden en que se publicaron.
+     * @param subscriber El dueño del receptor; identifica la cola y se usa para darlo de baja.
+     * @param eventType La clase de los eventos a recibir.
+     * @param handler El receptor.
+     * @param <E> El tipo de evento.
+     */
+    public synchronized <E extends BackendEvent> void subscribe(Object subscriber, Class<E> eventType,
+                                                              EventHandler<? super E> handler) {
+        if (subscriber == null || eventType == null || handler == null) {
+            throw new IllegalArgumentException("El suscriptor, el tipo de evento y el receptor no pueden ser nulos.");
+        }
+        ObserverDispatcher dispatcher = find(subscriber);
+        if (dispatcher == null) {
+            dispatcher = new ObserverDispatcher(subscriber, queueCapacity, policy);
+            dispatchers.add(dispatcher);
+            dispatcher.start();
+        }
+        dispatcher.addHandler(eventType, handler);
+        invalidateRoutes();
+    }
+
+    /**
+     * Quita un suscriptor con todos sus receptores. Los eventos que tenía pendientes se descartan.
+     * @param subscriber El suscriptor u observador.
+     * @return true si estaba registrado.
+     */
+    public synchronized boolean unsubscribe(Object subscriber) {
+        ObserverDispatcher dispatcher = find(subscriber);
+        if (dispatcher == null) {
+            return false;
+        }
+        dispatchers.remove(dispatcher);
+        invalidateRoutes();
+        dispatcher.stop();
+        return true;
+    }
+
+    /**
+     * Publica un evento para los suscriptores de su tipo.
+     * @param event El evento.
+     */
+    public void publish(BackendEvent event) {
+        for (ObserverDispatcher dispatcher : routesFor(event.getClass())) {
+            dispatcher.offer(event);
+        }
+    }
+
+    /**
+     * Obtiene las métricas de entrega de cada suscriptor.
+     * @return Una lista con las métricas, en orden de registro.
+     */
+    public List<DispatchMetrics> getMetrics() {
+        List<DispatchMetrics> metrics = new ArrayList<>();
+        for (ObserverDispatcher dispatcher : dispatchers) {
+            metrics.add(dispatcher.getMetrics());
+        }
+        return metrics;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Detiene todos los hilos de entrega y quita los suscriptores.
+     */
+    public synchronized void shutdown() {
+        for (ObserverDispatcher dispatcher : dispatchers) {
+            dispatcher.stop();
+        }
+        dispatchers.clear();
+        invalidateRoutes();
+    }
+
+    private ObserverDispatcher[] routesFor(Class<?> eventType) {
+        ObserverDispatcher[] route = routes.get(eventType);
+        if (route == null) {
+            int version = dispatchersVersion;
+            List<ObserverDispatcher> matching = new ArrayList<>();
+            for (ObserverDispatcher dispatcher : dispatchers) {
+                if (dispatcher.accepts(eventType)) {
+                    matching.add(dispatcher);
+                }
+            }
+            route = matching.isEmpty() ? NO_DISPATCHERS : matching.toArray(new ObserverDispatcher[0]);
+            if (version == dispatchersVersion) {
+                routes.put(eventType, route);
+            }
+        }
+        return route;
+    }
+
+    private void invalidateRoutes() {
+        dispatchersVersion++;
+        routes.clear();
+    }
+
+    private ObserverDispatcher find(Object subscriber) {
+        for (ObserverDispatcher dispatcher : dispatchers) {
+            if (dispatcher.getSubscriber() == subscriber) {
+                return dispatcher;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+// backend/observer/EventHandler.java
+package backend.observer;
+
+import backend.event.BackendEvent;
+
+/**
+ * Receptor de un tipo concreto de evento, registrado con {@link EventBus#subscribe(Object, Class, EventHandler)}.
+ * @param <E> El tipo de evento que recibe.
+ */
+@FunctionalInterface
+public interface EventHandler<E extends BackendEvent> {
+    /**
+     * Método invocado cuando se publica un evento del tipo suscrito o de un subtipo.
+     * @param event El evento.
+     */
+    void onEvent(E event);
+}
@@ -0,0 +1,264 @@
+// backend/observer/ObserverDispatcher.java
+package backend.observer;
+
+import backend.event.BackendEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola acotada y hilo de entrega de un suscriptor. Los eventos se entregan en el orden en que se
+ * publicaron, a los receptores registrados para su tipo.
+ * La cola es un búfer circular preasignado, así que encolar un evento no crea objetos.
+ */
+class ObserverDispatcher implements Runnable {
+    private static final EventHandler<?>[] NO_HANDLERS = new EventHandler<?>[0];
+
+    private final Object subscriber;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Map<Class<?>, EventHandler<?>[]> handlersByType = new ConcurrentHashMap<>(); // Tabla de despacho
+    private volatile int subscriptionsVersion; // Cambia con cada receptor nuevo, para no guardar tablas obsoletas
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final BackendEvent[] events; // Búfer circular de eventos pendientes
+    private final long[] publishedNanos; // Instante de publicación de cada evento pendiente
+    private int head;
+    private int size;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Thread thread;
+    private boolean running = true;
+
+    // Métricas, protegidas por el mismo candado que la cola
+    private int maxQueueDepth;
+    private long delivered;
+    private long dropped;
+    private long coalesced;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    ObserverDispatcher(Object subscriber, int capacity, OverflowPolicy policy) {
+        this.subscriber = subscriber;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.events = new BackendEvent[capacity];
+        this.publishedNanos = new long[capacity];
+        this.thread = new Thread(this, "Eventos: " + subscriberName());
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    Object getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * Registra un receptor para un tipo de evento y sus subtipos.
+     */
+    <E extends BackendEvent> void addHandler(Class<E> eventType, EventHandler<? super E> handler) {
+        subscriptions.add(new Subscription(eventType, handler));
+        subscriptionsVersion++; // Solo se escribe con el candado del bus
+        handlersByType.clear(); // Recalcular la tabla con el nuevo receptor
+    }
+
+    /**
+     * Indica si algún receptor de este suscriptor acepta eventos del tipo dado.
+     */
+    boolean accepts(Class<?> eventType) {
+        return handlersFor(eventType).length > 0;
+    }
+
+    /**
+     * Encola un evento según la política de desborde.
+     * @param event El evento a entregar.
+     */
+    void offer(BackendEvent event) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            if (policy == OverflowPolicy.COALESCE && coalesce(event)) {
+                return; // Ocupó el lugar de un evento pendiente: la cola no creció, así que nunca espera
+            }
+            while (size >= capacity && running) {
+                if (policy == OverflowPolicy.DROP_OLDEST) {
+                    events[head] = null;
+                    head = (head + 1) % capacity;
+                    size--;
+                    dropped++;
+                } else if (Thread.currentThread() == thread) {
+                    // El propio suscriptor publica con la cola llena: esperar lo bloquearía para siempre,
+                    // así que se entrega de inmediato, antes que los pendientes
+                    deliverNow(event);
+                    return;
+                } else {
+                    notFull.awaitUninterruptibly();
+                }
+            }
+            if (!running) {
+                return;
+            }
+            int tail = (head + size) % capacity;
+            events[tail] = event;
+            publishedNanos[tail] = now;
+            size++;
+            maxQueueDepth = Math.max(maxQueueDepth, size);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quita el evento pendiente que el nuevo reemplaza, si lo hay, y pone el nuevo al final de la cola:
+     * así queda detrás de los eventos publicados entre ambos, como si el anterior nunca se hubiera
+     * publicado. Como siempre se combina, hay a lo sumo un evento pendiente reemplazable por cada uno nuevo.
+     * Se llama con el candado tomado.
+     * @return true si el evento se combinó con uno pendiente.
+     */
+    private boolean coalesce(BackendEvent event) {
+        for (int i = size - 1; i >= 0; i--) {
+            int index = (head + i) % capacity;
+            if (event.supersedes(events[index])) {
+                long publishedAt = publishedNanos[index]; // La latencia se mide desde el evento reemplazado
+                for (int j = i; j < size - 1; j++) {
+                    int to = (head + j) % capacity;
+                    int from = (to + 1) % capacity;
+                    events[to] = events[from];
+                    publishedNanos[to] = publishedNanos[from];
+                }
+                int tail = (head + size - 1) % capacity;
+                events[tail] = event;
+                publishedNanos[tail] = publishedAt;
+                coalesced++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            BackendEvent event;
+            lock.lock();
+            try {
+                while (size == 0 && running) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+                event = events[head];
+                long latency = System.nanoTime() - publishedNanos[head];
+                events[head] = null;
+                head = (head + 1) % capacity;
+                size--;
+                notFull.signal();
+                delivered++;
+                totalLatencyNanos += latency;
+                maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+            } finally {
+                lock.unlock();
+            }
+            deliver(event);
+        }
+    }
+
+    /**
+     * Entrega un evento en el hilo actual, sin pasar por la cola. Se llama con el candado tomado,
+     * pero solo desde el hilo de entrega, que es el único que lo necesita.
+     */
+    private void deliverNow(BackendEvent event) {
+        delivered++;
+        lock.unlock();
+        try {
+            deliver(event);
+        } finally {
+            lock.lock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(BackendEvent event) {
+        for (EventHandler<?> handler : handlersFor(event.getClass())) {
+            try {
+                ((EventHandler<BackendEvent>) handler).onEvent(event);
+            } catch (RuntimeException e) {
+                // Un receptor con errores no debe detener la entrega de los siguientes eventos
+                System.err.println("Error en el observador " + subscriberName() + ": " + e);
+            }
+        }
+    }
+
+    private EventHandler<?>[] handlersFor(Class<?> eventType) {
+        EventHandler<?>[] handlers = handlersByType.get(eventType);
+        if (handlers == null) {
+            int version = subscriptionsVersion;
+            List<EventHandler<?>> matching = new ArrayList<>();
+            for (Subscription subscription : subscriptions) {
+                if (subscription.eventType.isAssignableFrom(eventType)) {
+                    matching.add(subscription.handler);
+                }
+            }
+            handlers = matching.isEmpty() ? NO_HANDLERS : matching.toArray(new EventHandler<?>[0]);
+            if (version == subscriptionsVersion) {
+                handlersByType.put(eventType, handlers);
+            }
+        }
+        return handlers;
+    }
+
+    /**
+     * Detiene el hilo de entrega y descarta los eventos pendientes.
+     */
+    void stop() {
+        lock.lock();
+        try {
+            running = false;
+            for (int i = 0; i < size; i++) {
+                events[(head + i) % capacity] = null;
+            }
+            size = 0;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    DispatchMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new DispatchMetrics(subscriberName(), size, maxQueueDepth, delivered, dropped,
+                    coalesced, totalLatencyNanos, maxLatencyNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String subscriberName() {
+        return subscriber.getClass().getName();
+    }
+
+    private static class Subscription {
+        final Class<?> eventType;
+        final EventHandler<?> handler;
+
+        Subscription(Class<?> eventType, EventHandler<?> handler) {
+            this.eventType = eventType;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// backend/observer/OverflowPolicy.java
+package backend.observer;
+
+/**
+ * Qué hace el {@link EventBus} cuando la cola de un observador está llena.
+ */
+public enum OverflowPolicy {
+    /**
+     * El hilo que publica espera a que el observador libere espacio. No se pierde ningún evento.
+     */
+    BLOCK,
+    /**
+     * Se descarta el evento más antiguo de la cola para hacer lugar al nuevo.
+     */
+    DROP_OLDEST,
+    /**
+     * Un evento que reemplaza a otro aún pendiente (por ejemplo, una nueva pregunta actual) lo quita de la
+     * cola y se encola al final en su lugar, aunque entre ambos haya otros eventos. Ese evento nunca
+     * espera, ni con la cola llena; los demás esperan como con {@link #BLOCK}.
+     */
+    COALESCE
+}
@@ -0,0 +1,751 @@
+// backend/session/AnswerJournal.java
+package backend.session;
+
+import backend.model.Test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de escritura anticipada de las sesiones: cada respuesta, marca y movimiento de un candidato
+ * se agrega al final de un archivo antes de que el método de la sesión termine, de modo que si la
+ * aplicación o el equipo se caen durante la prueba, las sesiones se recuperan tal como estaban.
+ * Con {@link Durability#EACH_OPERATION} cada operación espera además a que su registro llegue al disco;
+ * con {@link Durability#BACKGROUND} un hilo del diario lo sincroniza y solo cerrar el diario espera,
+ * así que la interfaz no se detiene en cada clic.
+ * <p>
+ * Cada operación es un registro de pocos bytes: un byte de tipo, el número de la sesión en el diario
+ * y uno o dos enteros de longitud variable. Los registros se escriben en lotes con su longitud y su
+ * CRC32, y cada lote se sincroniza con el disco una sola vez (confirmación en grupo): mientras un hilo
+ * sincroniza un lote, los registros de las demás sesiones se acumulan en el siguiente, así que miles
+ * de sesiones comparten cada sincronización en lugar de pagar una cada una. Un lote cortado por una
+ * caída no pasa la verificación y se descarta; ninguna de sus operaciones había terminado.
+ * <p>
+ * Al abrirse, el diario lee los registros existentes y guarda el estado de las sesiones que no se
+ * cerraron ni terminaron; {@link #resume(String, Test)} las reconstruye con la pregunta actual, las
+ * respuestas y las marcas que tenían. Cada sesión guarda la huella del archivo de su banco
+ * ({@link backend.file.ContentHash}) y solo se reanuda sobre un banco con la misma huella: un banco
+ * editado, u otro con el mismo nombre y la misma cantidad de preguntas, no recibe respuestas ajenas.
+ * <p>
+ * Abrir el diario también lo compacta: se reescribe con solo el estado de esas sesiones en un archivo
+ * temporal que luego reemplaza al original, así que no crece de una ejecución a otra. Un archivo
+ * {@code .lock} junto al diario impide que dos instancias de la aplicación lo usen a la vez.
+ */
+public final class AnswerJournal implements Closeable {
+    private static final int MAGIC = 0x414A4E4C; // "AJNL"
+    private static final int VERSION = 2; // 2: la apertura guarda la huella del banco en lugar del nombre
+    private static final int FILE_HEADER_BYTES = 8;
+    private static final int BATCH_HEADER_BYTES = 8; // Longitud y CRC32 del lote
+
+    static final byte OPEN = 1;
+    static final byte START = 2;
+    static final byte POSITION = 3;
+    static final byte ANSWER = 4;
+    static final byte FLAG = 5;
+    static final byte FINISH = 6;
+    static final byte CLOSE = 7;
+
+    /**
+     * Cuándo espera una operación de la sesión a que su registro esté en el disco.
+     */
+    public enum Durability {
+        /**
+         * Cada operación espera su sincronización; las de sesiones concurrentes comparten cada una
+         * (confirmación en grupo). Una operación terminada nunca se pierde.
+         */
+        EACH_OPERATION,
+        /**
+         * Las operaciones, incluido el fin de la sesión, solo agregan su registro y un hilo del diario
+         * los sincroniza enseguida; cerrar el diario sí espera. Una caída del equipo puede perder las
+         * operaciones de la última sincronización en curso.
+         */
+        BACKGROUND
+    }
+
+    private final File file;
+    private final FileChannel channel;
+    private final FileChannel lock; // Tiene el candado del archivo .lock mientras el diario esté abierto
+    private final Function<Test, String> bankHashes; // Huella del archivo de cada prueba, o null si no se conoce
+    private final Durability durability;
+    private final Map<String, SessionState> recovered = new HashMap<>(); // Sesiones pendientes de reanudar, por identificador
+    private final long recoveredRecords;
+    private int nextSessionNumber;
+
+    // Confirmación en grupo, protegida por el propio diario
+    private byte[] pending = new byte[8192];
+    private int pendingLength;
+    private byte[] spare; // Búfer del lote anterior, para no crear uno por lote
+    private long appended; // Registros agregados
+    private long durable; // Registros ya sincronizados con el disco
+    private boolean committing; // Un hilo está escribiendo y sincronizando un lote
+    private IOException failure; // Error de escritura; el diario deja de aceptar registros
+    private long commits;
+    private boolean closed;
+
+    private AnswerJournal(File file, FileChannel channel, FileChannel lock, Function<Test, String> bankHashes,
+                          Durability durability, long recoveredRecords) {
+        this.file = file;
+        this.channel = channel;
+        this.lock = lock;
+        this.bankHashes = bankHashes;
+        this.durability = durability;
+        this.recoveredRecords = recoveredRecords;
+    }
+
+    /**
+     * Abre un diario en el que cada operación espera a estar en el disco; ver
+     * {@link #open(File, Function, Durability)}.
+     * @param file El archivo del diario.
+     * @param bankHashes Da la huella del archivo del banco de una prueba, o null si no se conoce.
+     * @return El diario, listo para agregar registros al final.
+     * @throws IOException si no se puede leer o escribir el archivo, o si otra instancia lo está usando.
+     * @throws IllegalArgumentException si el archivo no es un diario de respuestas.
+     */
+    public static AnswerJournal open(File file, Function<Test, String> bankHashes) throws IOException, IllegalArgumentException {
+        return open(file, bankHashes, Durability.EACH_OPERATION);
+    }
+
+    /**
+     * Abre un diario, creándolo si no existe. Si ya tiene registros, los lee para poder reanudar
+     * las sesiones, descartando el último lote si quedó incompleto, y lo reescribe con solo las
+     * sesiones que no se cerraron ni terminaron. Lee todo el archivo: conviene llamarlo fuera del
+     * hilo de la interfaz.
+     * @param file El archivo del diario.
+     * @param bankHashes Da la huella del archivo del banco de una prueba, como {@link backend.file.TestCache#hashOf(Test)},
+     * o null si no se conoce; las sesiones de un banco sin huella se registran pero nunca se reanudan.
+     * @param durability Cuándo esperan las operaciones a que su registro esté en el disco.
+     * @return El diario, listo para agregar registros al final.
+     * @throws IOException si no se puede leer o escribir el archivo, o si otra instancia lo está usando.
+     * @throws IllegalArgumentException si el archivo no es un diario de respuestas.
+     */
+    public static AnswerJournal open(File file, Function<Test, String> bankHashes, Durability durability)
+            throws IOException, IllegalArgumentException {
+        if (bankHashes == null || durability == null) {
+            throw new IllegalArgumentException("La función de huellas y la durabilidad del diario no pueden ser nulas.");
+        }
+        FileChannel lock = FileChannel.open(new File(file.getPath() + ".lock").toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock held;
+            try {
+                held = lock.tryLock();
+            } catch (OverlappingFileLockException e) {
+                held = null; // Ya abierto en esta misma máquina virtual
+            }
+            if (held == null) {
+                throw new IOException("El diario de respuestas " + file + " está en uso por otra instancia de la aplicación.");
+            }
+
+            Replay replay = new Replay();
+            if (file.length() >= FILE_HEADER_BYTES) { // Si no, es nuevo o se cortó antes de terminar la cabecera
+                try (FileChannel existing = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    replay.read(existing); // Un lote cortado por una caída queda fuera de la copia compactada
+                }
+            }
+            Map<String, SessionState> latest = new HashMap<>();
+            for (SessionState state : replay.sessions) {
+                latest.put(state.sessionId, state); // La última apertura de cada identificador prevalece
+            }
+            List<SessionState> unfinished = new ArrayList<>();
+            for (SessionState state : replay.sessions) {
+                if (latest.get(state.sessionId) == state && !state.closed && !state.finished) {
+                    unfinished.add(state);
+                }
+            }
+
+            // El original sigue intacto hasta que la copia compactada está en el disco
+            Path compacted = new File(file.getPath() + ".tmp").toPath();
+            FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+                channel.force(true);
+                AnswerJournal journal = new AnswerJournal(file, channel, lock, bankHashes, durability, replay.records);
+                journal.rewrite(unfinished);
+                Files.move(compacted, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                forceDirectory(file.getAbsoluteFile().getParentFile().toPath()); // Sin esto, una caída puede deshacer el cambio de nombre
+                if (durability == Durability.BACKGROUND) {
+                    Thread flusher = new Thread(journal::flushInBackground, "Diario de respuestas");
+                    flusher.setDaemon(true);
+                    flusher.start();
+                }
+                return journal;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            lock.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sincroniza un directorio con el disco, para que un cambio de nombre en él sobreviva a una caída.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows no permite abrir un directorio; allí el sistema de archivos ya registra el cambio de nombre
+        }
+    }
+
+    /**
+     * Escribe el estado de las sesiones pendientes como si se registraran de nuevo, con números
+     * consecutivos, y deja los contadores en cero para la ejecución que empieza.
+     */
+    private synchronized void rewrite(List<SessionState> sessions) {
+        for (SessionState state : sessions) {
+            state.number = open(state.sessionId, state.bankHash, state.answers.length, state.order());
+            for (int questionIndex = 0; questionIndex < state.answers.length; questionIndex++) {
+                if (state.answers[questionIndex] != 0) {
+                    append(ANSWER, state.number, questionIndex, state.answers[questionIndex]);
+                }
+                if (state.flags.get(questionIndex)) {
+                    append(FLAG, state.number, questionIndex, 1);
+                }
+            }
+            if (state.position >= 0) {
+                append(POSITION, state.number, state.position, 0);
+            }
+            recovered.put(state.sessionId, state);
+        }
+        awaitDurable(appended);
+        appended = 0;
+        durable = 0;
+        commits = 0;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Registra una sesión en el diario. Se escribe su orden y, si ya tenía respuestas, su estado
+     * actual; desde ese momento la sesión registra cada operación antes de terminarla.
+     * @param session La sesión.
+     * @throws UncheckedIOException si no se puede escribir el diario.
+     */
+    public void attach(TestSession session) {
+        session.attachJournal(this);
+    }
+
+    /**
+     * Registra el cierre de una sesión: ya no se reanudará y deja de escribir en el diario.
+     * Si la sesión no está registrada en este diario, no hace nada.
+     * @param session La sesión.
+     * @throws UncheckedIOException si no se puede escribir el diario.
+     */
+    public void detach(TestSession session) {
+        session.detachJournal(this);
+    }
+
+    /**
+     * Reconstruye una sesión que no se cerró ni terminó antes de la última ejecución y la registra de
+     * nuevo en el diario. Cada sesión se puede reanudar una sola vez.
+     * @param sessionId El identificador de la sesión.
+     * @param test La prueba de la sesión; el archivo de su banco debe tener la huella registrada.
+     * @return La sesión, en la misma pregunta y con las mismas respuestas, o null si no hay una
+     * sesión pendiente con ese identificador para el banco de esa prueba, o si sus respuestas no
+     * corresponden a las preguntas.
+     */
+    public TestSession resume(String sessionId, Test test) {
+        String bankHash = bankHashOf(test);
+        SessionState state;
+        synchronized (this) {
+            state = recovered.get(sessionId);
+            if (state == null || state.bankHash.isEmpty() || !state.bankHash.equals(bankHash)
+                    || state.answers.length != test.getNumberOfItems()) {
+                return null; // Otro banco, o uno editado: sus respuestas caerían en otras preguntas
+            }
+            recovered.remove(sessionId);
+        }
+        TestSession session = new TestSession(sessionId, test);
+        try {
+            session.restore(state.order(), state.answers, state.flags, state.position, this, state.number);
+        } catch (IllegalArgumentException e) {
+            return null; // Registros dañados: se empieza una sesión nueva en lugar de impedir la carga
+        }
+        return session;
+    }
+
+    /**
+     * Obtiene los identificadores de las sesiones que se pueden reanudar.
+     * @return Una copia de los identificadores.
+     */
+    public synchronized List<String> getRecoveredSessionIds() {
+        return new ArrayList<>(recovered.keySet());
+    }
+
+    /**
+     * Obtiene la cantidad de registros leídos al abrir el diario, antes de compactarlo.
+     * @return La cantidad de registros.
+     */
+    public long getRecoveredRecordCount() {
+        return recoveredRecords;
+    }
+
+    /**
+     * Obtiene la cantidad de registros agregados desde que se abrió el diario.
+     * @return La cantidad de registros.
+     */
+    public synchronized long getRecordCount() {
+        return appended;
+    }
+
+    /**
+     * Obtiene la cantidad de lotes sincronizados con el disco desde que se abrió el diario.
+     * @return La cantidad de sincronizaciones.
+     */
+    public synchronized long getCommitCount() {
+        return commits;
+    }
+
+    /**
+     * Escribe los registros pendientes, cierra el archivo y libera el candado. Desde ese momento no se
+     * aceptan registros.
+     * @throws IOException si no se pueden escribir los registros pendientes.
+     */
+    @Override
+    public void close() throws IOException {
+        long last;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = appended;
+            notifyAll(); // El hilo de sincronización en segundo plano termina
+        }
+        try {
+            awaitDurable(last);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            try {
+                channel.close();
+            } finally {
+                lock.close();
+            }
+        }
+    }
+
+    /**
+     * Agrega el registro de apertura de una sesión, con la huella del banco de su prueba.
+     * @return El número de la sesión en el diario.
+     */
+    int open(String sessionId, Test test, SessionOrder order) {
+        return open(sessionId, bankHashOf(test), test.getNumberOfItems(), order); // La huella se busca sin el candado
+    }
+
+    private synchronized int open(String sessionId, String bankHash, int numberOfItems, SessionOrder order) {
+        int number = nextSessionNumber++;
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = bankHash.getBytes(StandardCharsets.UTF_8);
+        ensureOpen(32 + id.length + hash.length);
+        pending[pendingLength++] = OPEN;
+        writeVarInt(number);
+        writeVarInt(id.length);
+        System.arraycopy(id, 0, pending, pendingLength, id.length);
+        pendingLength += id.length;
+        writeVarInt(hash.length);
+        System.arraycopy(hash, 0, pending, pendingLength, hash.length);
+        pendingLength += hash.length;
+        writeVarInt(numberOfItems);
+        writeOrder(order);
+        appended++;
+        return number;
+    }
+
+    /**
+     * Agrega el registro de inicio de una sesión, que borra sus respuestas.
+     * @return La secuencia del registro, para {@link #awaitDurable(long)}.
+     */
+    synchronized long start(int number, SessionOrder order) {
+        ensureOpen(16);
+        pending[pendingLength++] = START;
+        writeVarInt(number);
+        writeOrder(order);
+        return ++appended;
+    }
+
+    /**
+     * Agrega un registro de una operación con uno o dos valores.
+     * @return La secuencia del registro, para {@link #awaitDurable(long)}.
+     */
+    synchronized long append(byte type, int number, int value, int extra) {
+        ensureOpen(16);
+        pending[pendingLength++] = type;
+        writeVarInt(number);
+        if (type == POSITION || type == ANSWER || type == FLAG) {
+            writeVarInt(value);
+        }
+        if (type == ANSWER || type == FLAG) {
+            pending[pendingLength++] = (byte) extra;
+        }
+        return ++appended;
+    }
+
+    /**
+     * Confirma un registro según la durabilidad del diario: espera a que esté en el disco, o avisa al
+     * hilo de sincronización y vuelve enseguida.
+     * @param sequence La secuencia del registro.
+     * @throws UncheckedIOException si no se puede escribir el diario.
+     */
+    void commit(long sequence) {
+        if (durability == Durability.EACH_OPERATION) {
+            awaitDurable(sequence);
+        } else {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Hilo de {@link Durability#BACKGROUND}: sincroniza lo pendiente en cuanto hay registros nuevos.
+     * Los que llegan mientras sincroniza se acumulan en el siguiente lote.
+     */
+    private void flushInBackground() {
+        while (true) {
+            long target;
+            synchronized (this) {
+                while (!closed && failure == null && (durable >= appended || committing)) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed || failure != null) {
+                    return; // close() sincroniza lo que quede; un error se informa al terminar o cerrar
+                }
+                target = appended;
+            }
+            try {
+                awaitDurable(target);
+            } catch (UncheckedIOException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Espera hasta que un registro esté sincronizado con el disco. Si nadie está escribiendo, este
+     * hilo escribe y sincroniza todo lo pendiente, incluidos los registros de otras sesiones.
+     * @param sequence La secuencia del registro.
+     * @throws UncheckedIOException si no se puede escribir el diario.
+     */
+    void awaitDurable(long sequence) {
+        while (true) {
+            byte[] batch;
+            int length;
+            long upTo;
+            synchronized (this) {
+                while (durable < sequence && committing && failure == null) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new UncheckedIOException(new InterruptedIOException("Espera del diario interrumpida."));
+                    }
+                }
+                if (durable >= sequence) {
+                    return;
+                }
+                if (failure != null) {
+                    throw new UncheckedIOException("No se pudo escribir el diario de respuestas.", failure);
+                }
+                committing = true;
+                batch = pending;
+                length = pendingLength;
+                upTo = appended;
+                pending = spare != null && spare.length >= batch.length ? spare : new byte[batch.length];
+                spare = null;
+                pendingLength = 0;
+            }
+            IOException error = null;
+            try {
+                writeBatch(batch, length);
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (this) {
+                committing = false;
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = upTo;
+                    commits++;
+                }
+                notifyAll();
+            }
+        }
+    }
+
+    private void writeBatch(byte[] batch, int length) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(batch, 0, length);
+        ByteBuffer header = ByteBuffer.allocate(BATCH_HEADER_BYTES).putInt(length).putInt((int) crc.getValue());
+        header.flip();
+        ByteBuffer[] buffers = {header, ByteBuffer.wrap(batch, 0, length)};
+        while (buffers[1].hasRemaining()) {
+            channel.write(buffers);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Obtiene la huella del banco de una prueba, o una cadena vacía si no se conoce.
+     */
+    private String bankHashOf(Test test) {
+        String hash = bankHashes.apply(test);
+        return hash != null ? hash : "";
+    }
+
+    private void ensureOpen(int bytes) {
+        if (closed) {
+            throw new IllegalStateException("El diario de respuestas está cerrado.");
+        }
+        if (pendingLength + bytes > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + bytes));
+        }
+    }
+
+    private void writeOrder(SessionOrder order) {
+        pending[pendingLength++] = (byte) (order.isShuffled() ? 1 : 0);
+        if (order.isShuffled()) {
+            long seed = order.getSeed();
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                pending[pendingLength++] = (byte) (seed >>> shift);
+            }
+        }
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            pending[pendingLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        pending[pendingLength++] = (byte) value;
+    }
+
+    /**
+     * Estado de una sesión reconstruido a partir de sus registros.
+     */
+    private static final class SessionState {
+        int number; // Cambia al compactar el diario
+        final String sessionId;
+        final String bankHash; // Vacía si la prueba no tenía huella conocida
+        final byte[] answers;
+        final BitSet flags = new BitSet();
+        boolean shuffled;
+        long seed;
+        int position = -1;
+        boolean finished;
+        boolean closed;
+
+        SessionState(int number, String sessionId, String bankHash, int numberOfItems) {
+            this.number = number;
+            this.sessionId = sessionId;
+            this.bankHash = bankHash;
+            this.answers = new byte[numberOfItems];
+        }
+
+        SessionOrder order() {
+            return shuffled ? SessionOrder.shuffled(answers.length, seed) : SessionOrder.identity(answers.length);
+        }
+    }
+
+    /**
+     * Lectura de los lotes de un diario existente.
+     */
+    private static final class Replay {
+        final List<SessionState> sessions = new ArrayList<>(); // Por número de sesión
+        long records;
+        private ByteBuffer batch;
+
+        /**
+         * Aplica todos los lotes válidos.
+         * @return La posición siguiente al último lote válido.
+         */
+        long read(FileChannel channel) throws IOException {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(Math.max(FILE_HEADER_BYTES, BATCH_HEADER_BYTES));
+            header.limit(FILE_HEADER_BYTES);
+            if (!readFully(channel, header, 0) || header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("El archivo no es un diario de respuestas.");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("Versión de diario de respuestas no soportada: " + header.getInt(4));
+            }
+            long position = FILE_HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            batch = ByteBuffer.allocate(1 << 16);
+            while (position + BATCH_HEADER_BYTES <= size) {
+                header.clear().limit(BATCH_HEADER_BYTES);
+                readFully(channel, header, position);
+                int length = header.getInt(0);
+                int checksum = header.getInt(4);
+                if (length < 0 || position + BATCH_HEADER_BYTES + length > size) {
+                    break; // Lote incompleto
+                }
+                if (batch.capacity() < length) {
+                    batch = ByteBuffer.allocate(Math.max(length, batch.capacity() * 2));
+                }
+                batch.clear().limit(length);
+                readFully(channel, batch, position + BATCH_HEADER_BYTES);
+                crc.reset();
+                crc.update(batch.array(), 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break; // Lote escrito a medias
+                }
+                batch.flip();
+                try {
+                    while (batch.hasRemaining()) {
+                        apply(batch);
+                        records++;
+                    }
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    throw new IllegalArgumentException("Diario de respuestas inválido: registro incompleto en el lote en "
+                            + position, e);
+                }
+                position += BATCH_HEADER_BYTES + length;
+            }
+            return position;
+        }
+
+        private void apply(ByteBuffer in) {
+            byte type = in.get();
+            int number = readVarInt(in);
+            if (type == OPEN) {
+                if (number != sessions.size()) {
+                    throw new IllegalArgumentException("Diario de respuestas inválido: sesión " + number + " fuera de orden.");
+                }
+                String sessionId = readString(in);
+                String bankHash = readString(in);
+                int numberOfItems = readVarInt(in);
+                if (numberOfItems < 0) {
+                    throw new IllegalArgumentException("Diario de respuestas inválido: sesión " + number + " con "
+                            + numberOfItems + " preguntas.");
+                }
+                SessionState state = new SessionState(number, sessionId, bankHash, numberOfItems);
+                readOrder(in, state);
+                sessions.add(state);
+                return;
+            }
+            if (number < 0 || number >= sessions.size()) {
+                throw new IllegalArgumentException("Diario de respuestas inválido: sesión desconocida " + number);
+            }
+            SessionState state = sessions.get(number);
+            switch (type) {
+                case START:
+                    readOrder(in, state);
+                    Arrays.fill(state.answers, (byte) 0);
+                    state.flags.clear();
+                    state.position = 0;
+                    state.finished = false;
+                    break;
+                case POSITION:
+                    state.position = readIndex(in, state);
+                    break;
+                case ANSWER:
+                    state.answers[readIndex(in, state)] = in.get();
+                    break;
+                case FLAG:
+                    state.flags.set(readIndex(in, state), in.get() != 0);
+                    break;
+                case FINISH:
+                    state.finished = true;
+                    break;
+                case CLOSE:
+                    state.closed = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Diario de respuestas inválido: tipo de registro " + type);
+            }
+        }
+
+        /**
+         * Lee una posición o un índice de pregunta y verifica que exista en la prueba de la sesión.
+         */
+        private static int readIndex(ByteBuffer in, SessionState state) {
+            int index = readVarInt(in);
+            if (index < 0 || index >= state.answers.length) {
+                throw new IllegalArgumentException("Diario de respuestas inválido: pregunta " + index
+                        + " fuera de rango en la sesión " + state.number);
+            }
+            return index;
+        }
+
+        private static void readOrder(ByteBuffer in, SessionState state) {
+            state.shuffled = in.get() != 0;
+            state.seed = state.shuffled ? in.getLong() : 0;
+        }
+
+        private static String readString(ByteBuffer in) {
+            int length = readVarInt(in);
+            if (length < 0 || length > in.remaining()) {
+                throw new IllegalArgumentException("Diario de respuestas inválido: texto de " + length + " bytes.");
+            }
+            String text = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+            return text;
+        }
+
+        private static int readVarInt(ByteBuffer in) {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return false;
+                }
+                position += read;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+// backend/session/SessionOrder.java
+package backend.session;
+
+/**
+ * Orden en que un candidato ve las preguntas de una prueba compartida y las opciones de cada una.
+ * La prueba no se copia: el orden de las preguntas son dos arreglos de índices (posición a pregunta
+ * y su inverso) y el orden de las opciones se deriva de la semilla y el índice de la pregunta cada
+ * vez que se pide, así que no ocupa memoria. El orden identidad no guarda arreglos.
+ * Con la misma semilla y la misma cantidad de preguntas se obtiene siempre el mismo orden.
+ * Las respuestas se siguen guardando con el índice original de la pregunta y de la opción, de modo
+ * que la calificación y los resultados no dependen del orden.
+ */
+public final class SessionOrder {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int size;
+    private final long seed;
+    private final int[] questionAt; // Posición -> índice de la pregunta; null en el orden identidad
+    private final int[] positionOf; // Índice de la pregunta -> posición; null en el orden identidad
+
+    private SessionOrder(int size, long seed, int[] questionAt, int[] positionOf) {
+        this.size = size;
+        this.seed = seed;
+        this.questionAt = questionAt;
+        this.positionOf = positionOf;
+    }
+
+    /**
+     * Crea el orden original de la prueba, sin barajar preguntas ni opciones.
+     * @param size La cantidad de preguntas.
+     * @return El orden identidad.
+     */
+    public static SessionOrder identity(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("La cantidad de preguntas no puede ser negativa.");
+        }
+        return new SessionOrder(size, 0, null, null);
+    }
+
+    /**
+     * Crea un orden barajado a partir de una semilla.
+     * @param size La cantidad de preguntas.
+     * @param seed La semilla; la misma semilla reproduce el mismo orden.
+     * @return El orden barajado.
+     */
+    public static SessionOrder shuffled(int size, long seed) {
+        if (size < 0) {
+            throw new IllegalArgumentException("La cantidad de preguntas no puede ser negativa.");
+        }
+        int[] questionAt = new int[size];
+        for (int i = 0; i < size; i++) {
+            questionAt[i] = i;
+        }
+        long state = seed;
+        for (int i = size - 1; i > 0; i--) { // Fisher-Yates
+            state += GOLDEN_GAMMA;
+            int j = bounded(mix(state), i + 1);
+            int swap = questionAt[i];
+            questionAt[i] = questionAt[j];
+            questionAt[j] = swap;
+        }
+        int[] positionOf = new int[size];
+        for (int position = 0; position < size; position++) {
+            positionOf[questionAt[position]] = position;
+        }
+        return new SessionOrder(size, seed, questionAt, positionOf);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isShuffled() {
+        return questionAt != null;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Obtiene la pregunta que el candidato ve en una posición.
+     * @param position La posición, de 0 a size() - 1.
+     * @return El índice de la pregunta en la prueba.
+     */
+    public int getQuestionIndex(int position) {
+        checkIndex(position);
+        return questionAt == null ? position : questionAt[position];
+    }
+
+    /**
+     * Obtiene la posición en que el candidato ve una pregunta.
+     * @param questionIndex El índice de la pregunta en la prueba.
+     * @return La posición.
+     */
+    public int getPosition(int questionIndex) {
+        checkIndex(questionIndex);
+        return positionOf == null ? questionIndex : positionOf[questionIndex];
+    }
+
+    /**
+     * Obtiene el orden en que se muestran las opciones de una pregunta.
+     * @param questionIndex El índice de la pregunta en la prueba.
+     * @param optionCount La cantidad de opciones de la pregunta.
+     * @return Un arreglo nuevo: el elemento i es el índice original de la opción mostrada en el lugar i.
+     */
+    public int[] getOptionOrder(int questionIndex, int optionCount) {
+        checkIndex(questionIndex);
+        int[] order = new int[optionCount];
+        for (int i = 0; i < optionCount; i++) {
+            order[i] = i;
+        }
+        if (questionAt == null) {
+            return order;
+        }
+        // Un generador propio por pregunta: el orden de sus opciones no depende de qué otras se mostraron
+        long state = mix(seed ^ ((questionIndex + 1L) * GOLDEN_GAMMA));
+        for (int i = optionCount - 1; i > 0; i--) {
+            state += GOLDEN_GAMMA;
+            int j = bounded(mix(state), i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice de pregunta fuera de rango: " + index);
+        }
+    }
+
+    /**
+     * Mezcla de SplitMix64: convierte un contador en un valor pseudoaleatorio de 64 bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Reduce un valor aleatorio al rango [0, bound) con una multiplicación, sin divisiones.
+     */
+    private static int bounded(long random, int bound) {
+        return (int) (((random >>> 32) * bound) >>> 32);
+    }
+}
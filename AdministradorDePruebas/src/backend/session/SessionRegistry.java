@@ -0,0 +1,190 @@
+// backend/session/SessionRegistry.java
+package backend.session;
+
+import backend.model.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registro de sesiones de candidatos, indexado por identificador de sesión.
+ * Las búsquedas no toman candados y las altas/bajas solo bloquean el segmento del mapa
+ * afectado, por lo que el rendimiento escala con el número de núcleos.
+ * Con un {@link AnswerJournal}, las sesiones abiertas se registran en el diario y las que quedaron
+ * abiertas en una ejecución anterior se pueden reanudar con {@link #resumeSession(String, Test)}.
+ */
+public class SessionRegistry {
+    private static final int DEFAULT_EXPECTED_SESSIONS = 1024;
+
+    private final ConcurrentMap<String, TestSession> sessions;
+    private final AnswerJournal journal; // null si las sesiones no se registran
+
+    /**
+     * Constructor por defecto.
+     */
+    public SessionRegistry() {
+        this(DEFAULT_EXPECTED_SESSIONS);
+    }
+
+    /**
+     * Constructor que reserva espacio para una cantidad esperada de sesiones.
+     * @param expectedSessions La cantidad de sesiones simultáneas esperadas.
+     */
+    public SessionRegistry(int expectedSessions) {
+        this(expectedSessions, null);
+    }
+
+    /**
+     * Constructor que registra las sesiones en un diario de respuestas.
+     * @param expectedSessions La cantidad de sesiones simultáneas esperadas.
+     * @param journal El diario, o null para no registrar las sesiones.
+     */
+    public SessionRegistry(int expectedSessions, AnswerJournal journal) {
+        if (expectedSessions <= 0) {
+            throw new IllegalArgumentException("La cantidad esperada de sesiones debe ser un valor positivo.");
+        }
+        this.sessions = new ConcurrentHashMap<>(expectedSessions);
+        this.journal = journal;
+    }
+
+    /**
+     * Abre una sesión nueva sobre una prueba compartida.
+     * @param sessionId El identificador de la sesión.
+     * @param test La prueba compartida.
+     * @return La sesión creada.
+     * @throws IllegalStateException si ya existe una sesión con ese identificador.
+     */
+    public TestSession openSession(String sessionId, Test test) throws IllegalStateException {
+        return register(new TestSession(sessionId, test));
+    }
+
+    /**
+     * Abre una sesión nueva sobre una prueba compartida, con las preguntas y las opciones barajadas
+     * para ese candidato. La prueba no se copia.
+     * @param sessionId El identificador de la sesión.
+     * @param test La prueba compartida.
+     * @param orderSeed La semilla del orden; la misma semilla reproduce el mismo orden.
+     * @return La sesión creada.
+     * @throws IllegalStateException si ya existe una sesión con ese identificador.
+     */
+    public TestSession openSession(String sessionId, Test test, long orderSeed) throws IllegalStateException {
+        return register(new TestSession(sessionId, test, orderSeed));
+    }
+
+    /**
+     * Reanuda una sesión que quedó abierta en el diario en una ejecución anterior.
+     * @param sessionId El identificador de la sesión.
+     * @param test La prueba de la sesión, cargada de nuevo.
+     * @return La sesión, con su pregunta actual y sus respuestas, o null si el diario no tiene una
+     * sesión pendiente con ese identificador para esa prueba.
+     * @throws IllegalStateException si el registro no tiene diario o ya existe una sesión con ese identificador.
+     */
+    public TestSession resumeSession(String sessionId, Test test) throws IllegalStateException {
+        if (journal == null) {
+            throw new IllegalStateException("El registro de sesiones no tiene un diario de respuestas.");
+        }
+        if (sessions.containsKey(sessionId)) {
+            throw new IllegalStateException("Ya existe una sesión con el identificador: " + sessionId);
+        }
+        TestSession session = journal.resume(sessionId, test);
+        if (session != null && sessions.putIfAbsent(sessionId, session) != null) {
+            throw new IllegalStateException("Ya existe una sesión con el identificador: " + sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * Registra una sesión suspendida en otro equipo, tal como estaba.
+     * @param snapshot La instantánea de la sesión.
+     * @param test La prueba cargada del banco de la instantánea.
+     * @return La sesión reanudada.
+     * @throws IllegalStateException si ya existe una sesión con ese identificador.
+     */
+    public TestSession restoreSession(SessionSnapshot snapshot, Test test) throws IllegalStateException {
+        return register(snapshot.restore(test));
+    }
+
+    /**
+     * Toma instantáneas de todas las sesiones abiertas, en paralelo. Cada sesión se lee con su propio
+     * candado, así que las demás siguen respondiendo mientras tanto.
+     * @param bankHashes Obtiene la huella del banco de cada prueba, por ejemplo {@link backend.file.TestCache#hashOf(Test)}.
+     * @return Las instantáneas.
+     */
+    public List<SessionSnapshot> snapshotAll(Function<Test, String> bankHashes) {
+        return sessions.values().parallelStream()
+                .map(session -> SessionSnapshot.of(session, bankHashes.apply(session.getTest())))
+                .collect(Collectors.toList());
+    }
+
+    private TestSession register(TestSession session) {
+        if (sessions.putIfAbsent(session.getSessionId(), session) != null) {
+            throw new IllegalStateException("Ya existe una sesión con el identificador: " + session.getSessionId());
+        }
+        if (journal != null) {
+            try {
+                journal.attach(session);
+            } catch (RuntimeException e) {
+                sessions.remove(session.getSessionId(), session);
+                throw e;
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Obtiene una sesión por su identificador.
+     * @param sessionId El identificador de la sesión.
+     * @return La sesión, o null si no existe.
+     */
+    public TestSession getSession(String sessionId) {
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    /**
+     * Obtiene una sesión que debe existir.
+     * @param sessionId El identificador de la sesión.
+     * @return La sesión.
+     * @throws IllegalArgumentException si la sesión no existe.
+     */
+    public TestSession requireSession(String sessionId) throws IllegalArgumentException {
+        TestSession session = getSession(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("No existe una sesión con el identificador: " + sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * Cierra una sesión y la elimina del registro.
+     * @param sessionId El identificador de la sesión.
+     * @return La sesión eliminada, o null si no existía.
+     */
+    public TestSession closeSession(String sessionId) {
+        TestSession session = sessionId != null ? sessions.remove(sessionId) : null;
+        if (session != null && journal != null) {
+            journal.detach(session);
+        }
+        return session;
+    }
+
+    /**
+     * Obtiene la cantidad de sesiones abiertas.
+     * @return La cantidad de sesiones.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Obtiene una vista de solo lectura de las sesiones abiertas.
+     * @return Las sesiones abiertas.
+     */
+    public Collection<TestSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+}
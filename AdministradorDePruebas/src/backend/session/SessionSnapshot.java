@@ -0,0 +1,239 @@
+// backend/session/SessionSnapshot.java
+package backend.session;
+
+import backend.model.AnswerSheet;
+import backend.model.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Estado de una sesión en curso, para suspenderla y continuarla en otro equipo. La instantánea no
+ * copia las preguntas: guarda la huella SHA-256 del archivo del banco ({@link backend.file.ContentHash})
+ * y, de la sesión, el orden, la posición actual, un byte de respuesta por pregunta y las preguntas
+ * marcadas. Una prueba de 100 preguntas ocupa unos 160 bytes.
+ * Formato: cabecera, huella, identificador, cantidad de preguntas, orden, posición, respuestas,
+ * marcas como diferencias entre índices, y un CRC32 de todo lo anterior.
+ */
+public final class SessionSnapshot {
+    private static final int MAGIC = 0x53534E50; // "SSNP"
+    private static final byte VERSION = 1;
+    private static final int HASH_BYTES = 32;
+
+    private final byte[] bankHash;
+    private final String sessionId;
+    private final boolean shuffled;
+    private final long seed;
+    private final int position;
+    private final byte[] answers;
+    private final long[] flags;
+
+    SessionSnapshot(byte[] bankHash, String sessionId, boolean shuffled, long seed, int position,
+                    byte[] answers, long[] flags) {
+        this.bankHash = bankHash;
+        this.sessionId = sessionId;
+        this.shuffled = shuffled;
+        this.seed = seed;
+        this.position = position;
+        this.answers = answers;
+        this.flags = flags;
+    }
+
+    /**
+     * Toma una instantánea de una sesión.
+     * @param session La sesión.
+     * @param bankHash La huella del archivo del banco de la sesión, en hexadecimal.
+     * @return La instantánea.
+     */
+    public static SessionSnapshot of(TestSession session, String bankHash) {
+        return session.toSnapshot(parseHash(bankHash));
+    }
+
+    /**
+     * Lee una instantánea escrita con {@link #toByteArray()}.
+     * @param data Los bytes de la instantánea.
+     * @return La instantánea.
+     * @throws IllegalArgumentException si los bytes no son una instantánea válida.
+     */
+    public static SessionSnapshot fromByteArray(byte[] data) throws IllegalArgumentException {
+        if (data.length < 4 + 1 + HASH_BYTES + 4) {
+            throw new IllegalArgumentException("Instantánea de sesión incompleta.");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Los datos no son una instantánea de sesión.");
+        }
+        if (in.get() != VERSION) {
+            throw new IllegalArgumentException("Versión de instantánea de sesión no soportada.");
+        }
+        if (in.getInt(data.length - 4) != (int) crc.getValue()) {
+            throw new IllegalArgumentException("La instantánea de sesión está dañada.");
+        }
+        try {
+            in.limit(data.length - 4);
+            byte[] bankHash = new byte[HASH_BYTES];
+            in.get(bankHash);
+            byte[] id = new byte[readVarInt(in)];
+            in.get(id);
+            int numberOfItems = readVarInt(in);
+            boolean shuffled = in.get() != 0;
+            long seed = shuffled ? in.getLong() : 0;
+            int position = readVarInt(in) - 1;
+            byte[] answers = new byte[numberOfItems];
+            in.get(answers);
+            long[] flags = new long[(numberOfItems + 63) >>> 6];
+            int questionIndex = -1;
+            for (int count = readVarInt(in); count > 0; count--) {
+                questionIndex += readVarInt(in);
+                flags[questionIndex >>> 6] |= 1L << questionIndex;
+            }
+            if (in.hasRemaining() || position < -1 || position >= numberOfItems || questionIndex >= numberOfItems) {
+                throw new IllegalArgumentException("Instantánea de sesión inválida.");
+            }
+            return new SessionSnapshot(bankHash, new String(id, StandardCharsets.UTF_8), shuffled, seed,
+                    position, answers, flags);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Instantánea de sesión inválida.", e);
+        }
+    }
+
+    /**
+     * Escribe la instantánea en su formato binario.
+     * @return Los bytes de la instantánea.
+     */
+    public byte[] toByteArray() {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int flagCount = 0;
+        for (long word : flags) {
+            flagCount += Long.bitCount(word);
+        }
+        ByteBuffer out = ByteBuffer.allocate(4 + 1 + HASH_BYTES + 5 + id.length + 5 + 9 + 5 + answers.length
+                + 5 + 5 * flagCount + 4);
+        out.putInt(MAGIC).put(VERSION).put(bankHash);
+        writeVarInt(out, id.length);
+        out.put(id);
+        writeVarInt(out, answers.length);
+        out.put((byte) (shuffled ? 1 : 0));
+        if (shuffled) {
+            out.putLong(seed);
+        }
+        writeVarInt(out, position + 1);
+        out.put(answers);
+        writeVarInt(out, flagCount);
+        int previous = -1;
+        for (int w = 0; w < flags.length; w++) {
+            for (long word = flags[w]; word != 0; word &= word - 1) {
+                int questionIndex = (w << 6) + Long.numberOfTrailingZeros(word);
+                writeVarInt(out, questionIndex - previous);
+                previous = questionIndex;
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Reconstruye la sesión sobre su banco, en la misma pregunta y con las mismas respuestas.
+     * @param test La prueba cargada del archivo cuya huella es {@link #getBankHash()}.
+     * @return Una sesión nueva, sin diario.
+     * @throws IllegalArgumentException si la prueba no tiene la cantidad de preguntas de la sesión, o si
+     * una respuesta no corresponde a su pregunta (por ejemplo, una opción que la pregunta no tiene).
+     */
+    public TestSession restore(Test test) throws IllegalArgumentException {
+        if (test.getNumberOfItems() != answers.length) {
+            throw new IllegalArgumentException("La prueba no corresponde a la sesión: tiene " + test.getNumberOfItems()
+                    + " preguntas y la sesión " + answers.length + ".");
+        }
+        TestSession session = new TestSession(sessionId, test);
+        SessionOrder order = shuffled ? SessionOrder.shuffled(answers.length, seed) : SessionOrder.identity(answers.length);
+        session.restore(order, answers, BitSet.valueOf(flags), position, null, 0);
+        return session;
+    }
+
+    /**
+     * Obtiene la huella del archivo del banco de la sesión.
+     * @return La huella en hexadecimal, como la de {@link backend.file.ContentHash#of(java.io.File)}.
+     */
+    public String getBankHash() {
+        char[] hex = new char[HASH_BYTES * 2];
+        for (int i = 0; i < HASH_BYTES; i++) {
+            hex[2 * i] = Character.forDigit((bankHash[i] >> 4) & 0xF, 16);
+            hex[2 * i + 1] = Character.forDigit(bankHash[i] & 0xF, 16);
+        }
+        return new String(hex);
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public int getNumberOfItems() {
+        return answers.length;
+    }
+
+    /**
+     * Obtiene la posición de la pregunta actual en el orden del candidato.
+     * @return La posición, o -1 si la sesión no había comenzado.
+     */
+    public int getCurrentQuestionIndex() {
+        return position;
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas respondidas.
+     * @return La cantidad de preguntas con respuesta.
+     */
+    public int getAnsweredCount() {
+        int count = 0;
+        for (byte answer : answers) {
+            if (answer != AnswerSheet.UNANSWERED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] parseHash(String hex) {
+        if (hex == null || hex.length() != HASH_BYTES * 2) {
+            throw new IllegalArgumentException("La huella del banco debe tener " + HASH_BYTES * 2 + " dígitos hexadecimales.");
+        }
+        byte[] hash = new byte[HASH_BYTES];
+        for (int i = 0; i < HASH_BYTES; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("La huella del banco no es hexadecimal: " + hex);
+            }
+            hash[i] = (byte) (high << 4 | low);
+        }
+        return hash;
+    }
+
+    private static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Instantánea de sesión inválida: entero demasiado largo.");
+    }
+}
@@ -0,0 +1,455 @@
+// backend/session/TestSession.java
+package backend.session;
+
+import backend.event.AnswerStateChangedEvent;
+import backend.event.TestFinishedEvent;
+import backend.model.AnswerSheet;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.Test;
+import backend.model.TestResult;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Representa la sesión de un candidato sobre una prueba cargada.
+ * La prueba se comparte en modo de solo lectura entre todas las sesiones; cada sesión
+ * guarda su propio índice de navegación y sus propias respuestas.
+ * Los métodos están sincronizados sobre la propia sesión, de modo que dos candidatos
+ * distintos nunca compiten por el mismo candado.
+ * La navegación y los métodos que reciben una posición siguen el orden del candidato
+ * ({@link SessionOrder}); la hoja de respuestas y el resultado usan siempre el índice original de
+ * cada pregunta y de cada opción, así que la calificación no depende del orden.
+ * Si la sesión está registrada en un {@link AnswerJournal}, cada operación que cambia su estado se
+ * escribe en el diario antes de terminar; si además espera al disco depende de la durabilidad del diario.
+ */
+public class TestSession {
+
+    private final String sessionId;
+    private final Test test;
+    private final List<Question> questions; // Vista de solo lectura de las preguntas de la prueba
+    private final int numberOfItems;
+    private AnswerSheet answerSheet; // Respuestas del candidato, un byte por pregunta, por índice original
+    private SessionOrder order; // Orden de preguntas y opciones que ve el candidato
+    private int currentQuestionIndex; // Posición actual en el orden del candidato
+    private boolean finished; // Terminada: la revisión ya no se registra en el diario
+    private AnswerJournal journal; // Diario donde se registran las operaciones, o null
+    private int journalNumber; // Número de la sesión en el diario
+
+    /**
+     * Constructor para una sesión nueva.
+     * @param sessionId El identificador de la sesión.
+     * @param test La prueba compartida sobre la que trabaja el candidato.
+     */
+    public TestSession(String sessionId, Test test) {
+        this(sessionId, test, null);
+    }
+
+    /**
+     * Constructor para una sesión nueva con preguntas y opciones barajadas.
+     * @param sessionId El identificador de la sesión.
+     * @param test La prueba compartida sobre la que trabaja el candidato.
+     * @param orderSeed La semilla del orden; la misma semilla reproduce el mismo orden.
+     */
+    public TestSession(String sessionId, Test test, long orderSeed) {
+        this(sessionId, test, Long.valueOf(orderSeed));
+    }
+
+    private TestSession(String sessionId, Test test, Long orderSeed) {
+        if (sessionId == null || sessionId.trim().isEmpty()) {
+            throw new IllegalArgumentException("El identificador de la sesión no puede estar vacío.");
+        }
+        if (test == null || test.getNumberOfItems() == 0) {
+            throw new IllegalArgumentException("La sesión requiere una prueba con ítems.");
+        }
+        this.sessionId = sessionId;
+        this.test = test;
+        this.questions = test.getQuestions();
+        this.numberOfItems = questions.size();
+        this.answerSheet = test.newAnswerSheet();
+        this.order = orderSeed == null ? SessionOrder.identity(numberOfItems) : SessionOrder.shuffled(numberOfItems, orderSeed);
+        this.currentQuestionIndex = -1; // La sesión aún no ha comenzado
+    }
+
+    /**
+     * Obtiene el identificador de la sesión.
+     * @return El identificador.
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Obtiene la prueba compartida de la sesión.
+     * @return La prueba.
+     */
+    public Test getTest() {
+        return test;
+    }
+
+    /**
+     * Obtiene el número de preguntas de la sesión.
+     * @return La cantidad de preguntas.
+     */
+    public int getNumberOfItems() {
+        return numberOfItems;
+    }
+
+    /**
+     * Obtiene el orden de preguntas y opciones del candidato.
+     * @return El orden.
+     */
+    public synchronized SessionOrder getOrder() {
+        return order;
+    }
+
+    /**
+     * Obtiene la posición de la pregunta actual en el orden del candidato.
+     * @return La posición, o -1 si la sesión no ha comenzado.
+     */
+    public synchronized int getCurrentQuestionIndex() {
+        return currentQuestionIndex;
+    }
+
+    /**
+     * Inicia (o reinicia) la sesión, borrando las respuestas anteriores.
+     */
+    public synchronized void start() {
+        answerSheet = test.newAnswerSheet(); // Se reemplaza la hoja completa en lugar de borrarla
+        currentQuestionIndex = 0;
+        finished = false;
+        if (journal != null) {
+            journal.commit(journal.start(journalNumber, order));
+        }
+    }
+
+    /**
+     * Inicia (o reinicia) la sesión con un orden barajado nuevo, borrando las respuestas anteriores.
+     * @param orderSeed La semilla del orden; la misma semilla reproduce el mismo orden.
+     */
+    public synchronized void start(long orderSeed) {
+        order = SessionOrder.shuffled(numberOfItems, orderSeed);
+        start();
+    }
+
+    /**
+     * Inicia (o reinicia) la sesión en el orden del autor, aunque un intento anterior se haya barajado,
+     * borrando las respuestas anteriores.
+     */
+    public synchronized void startInOriginalOrder() {
+        if (order.isShuffled()) {
+            order = SessionOrder.identity(numberOfItems);
+        }
+        start();
+    }
+
+    /**
+     * Avanza a la siguiente pregunta.
+     * @return true si se avanzó, false si ya se estaba en la última pregunta.
+     */
+    public synchronized boolean goToNextQuestion() {
+        if (currentQuestionIndex < numberOfItems - 1) {
+            currentQuestionIndex++;
+            log(AnswerJournal.POSITION, currentQuestionIndex, 0);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrocede a la pregunta anterior.
+     * @throws IllegalStateException si ya se está en la primera pregunta.
+     */
+    public synchronized void goToPreviousQuestion() throws IllegalStateException {
+        if (currentQuestionIndex > 0) {
+            currentQuestionIndex--;
+            log(AnswerJournal.POSITION, currentQuestionIndex, 0);
+        } else {
+            throw new IllegalStateException("Ya estás en la primera pregunta.");
+        }
+    }
+
+    /**
+     * Salta directamente a una pregunta.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @throws IllegalArgumentException si la posición está fuera de rango.
+     */
+    public synchronized void goToQuestion(int position) {
+        if (position < 0 || position >= numberOfItems) {
+            throw new IllegalArgumentException("Índice de pregunta fuera de rango: " + position);
+        }
+        if (currentQuestionIndex != position) {
+            currentQuestionIndex = position;
+            log(AnswerJournal.POSITION, position, 0);
+        }
+    }
+
+    /**
+     * Indica si la pregunta actual es la última de la prueba.
+     * @return true si es la última, false en caso contrario.
+     */
+    public synchronized boolean isOnLastQuestion() {
+        return currentQuestionIndex == numberOfItems - 1;
+    }
+
+    /**
+     * Guarda la respuesta del candidato para la pregunta actual.
+     * @param answer La respuesta ingresada.
+     * @return true si la respuesta guardada cambió.
+     */
+    public synchronized boolean saveUserAnswer(String answer) {
+        if (currentQuestionIndex >= 0 && currentQuestionIndex < numberOfItems) {
+            int questionIndex = order.getQuestionIndex(currentQuestionIndex);
+            return setAnswer(questionIndex, questions.get(questionIndex).encodeAnswer(answer));
+        }
+        return false;
+    }
+
+    /**
+     * Guarda el código de respuesta del candidato para la pregunta actual.
+     * @param answerCode El código de respuesta, según la codificación de {@link AnswerSheet}.
+     * @return true si la respuesta guardada cambió.
+     */
+    public synchronized boolean saveAnswerCode(byte answerCode) {
+        if (currentQuestionIndex >= 0 && currentQuestionIndex < numberOfItems) {
+            return setAnswer(order.getQuestionIndex(currentQuestionIndex), answerCode);
+        }
+        return false;
+    }
+
+    private boolean setAnswer(int questionIndex, byte answerCode) {
+        if (answerSheet.set(questionIndex, answerCode)) {
+            log(AnswerJournal.ANSWER, questionIndex, answerCode);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Marca o desmarca una pregunta para revisarla antes de enviar la prueba.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @param flagged true para marcarla, false para desmarcarla.
+     * @return true si la marca cambió.
+     */
+    public synchronized boolean setFlagged(int position, boolean flagged) {
+        int questionIndex = order.getQuestionIndex(position);
+        if (answerSheet.setFlagged(questionIndex, flagged)) {
+            log(AnswerJournal.FLAG, questionIndex, flagged ? 1 : 0);
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized boolean isAnswered(int position) {
+        return answerSheet.isAnswered(order.getQuestionIndex(position));
+    }
+
+    public synchronized boolean isFlagged(int position) {
+        return answerSheet.isFlagged(order.getQuestionIndex(position));
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas respondidas, sin recorrer la hoja de respuestas.
+     * @return La cantidad de preguntas respondidas.
+     */
+    public synchronized int getAnsweredCount() {
+        return answerSheet.countAnswered();
+    }
+
+    /**
+     * Obtiene la cantidad de preguntas marcadas para revisar.
+     * @return La cantidad de preguntas marcadas.
+     */
+    public synchronized int getFlaggedCount() {
+        return answerSheet.countFlagged();
+    }
+
+    /**
+     * Crea un evento con el estado actual de una pregunta y los totales de la hoja, leídos juntos.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @return El evento.
+     */
+    public synchronized AnswerStateChangedEvent getAnswerState(int position) {
+        int questionIndex = order.getQuestionIndex(position);
+        return new AnswerStateChangedEvent(position, answerSheet.isAnswered(questionIndex),
+                answerSheet.isFlagged(questionIndex), answerSheet.countAnswered(), answerSheet.countFlagged());
+    }
+
+    /**
+     * Obtiene la pregunta actual.
+     * @return La pregunta actual, o null si la sesión no ha comenzado.
+     */
+    public synchronized Question getCurrentQuestion() {
+        if (currentQuestionIndex >= 0 && currentQuestionIndex < numberOfItems) {
+            return questions.get(order.getQuestionIndex(currentQuestionIndex));
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene la pregunta que el candidato ve en una posición.
+     * @param position La posición en el orden del candidato.
+     * @return La pregunta.
+     */
+    public synchronized Question getQuestion(int position) {
+        return questions.get(order.getQuestionIndex(position));
+    }
+
+    /**
+     * Obtiene el orden en que el candidato ve las opciones de una pregunta.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @return El índice original de la opción mostrada en cada lugar; vacío en preguntas sin opciones.
+     */
+    public synchronized int[] getOptionOrder(int position) {
+        int questionIndex = order.getQuestionIndex(position);
+        Question question = questions.get(questionIndex);
+        int optionCount = question instanceof MultipleChoiceQuestion
+                ? ((MultipleChoiceQuestion) question).getOptions().size() : 0;
+        return order.getOptionOrder(questionIndex, optionCount);
+    }
+
+    /**
+     * Obtiene el código de respuesta del candidato para una pregunta.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @return El código de respuesta, con el índice original de la opción, o {@link AnswerSheet#UNANSWERED}.
+     */
+    public synchronized byte getAnswerCode(int position) {
+        return answerSheet.get(order.getQuestionIndex(position));
+    }
+
+    /**
+     * Obtiene la respuesta del candidato para una pregunta como texto.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @return La respuesta guardada, o una cadena vacía si no hay respuesta.
+     */
+    public synchronized String getUserAnswer(int position) {
+        int questionIndex = order.getQuestionIndex(position);
+        return questions.get(questionIndex).decodeAnswer(answerSheet.get(questionIndex));
+    }
+
+    /**
+     * Verifica si la respuesta del candidato para una pregunta es correcta.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @return true si la respuesta es correcta, false en caso contrario.
+     */
+    public synchronized boolean isAnswerCorrect(int position) {
+        return answerSheet.isCorrect(order.getQuestionIndex(position)); // Resultado en caché, calculado al guardar la respuesta
+    }
+
+    /**
+     * Vuelve a la primera pregunta para revisar las respuestas.
+     */
+    public synchronized void startReview() {
+        goToQuestion(0);
+    }
+
+    /**
+     * Se posiciona en una pregunta concreta para revisarla.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @throws IllegalArgumentException si la posición está fuera de rango.
+     */
+    public synchronized void startReview(int position) {
+        goToQuestion(position);
+    }
+
+    /**
+     * Congela los resultados de la sesión. Los porcentajes salen de los contadores de la hoja de
+     * respuestas; solo se copian las respuestas, un byte por pregunta.
+     * La primera llamada registra el fin en el diario; desde entonces la revisión no se registra
+     * hasta que la sesión se reinicie.
+     * @return El evento con el resultado inmutable de la sesión.
+     */
+    public synchronized TestFinishedEvent finish() {
+        if (!finished) {
+            log(AnswerJournal.FINISH, 0, 0);
+            finished = true;
+        }
+        return new TestFinishedEvent(TestResult.of(test, answerSheet));
+    }
+
+    /**
+     * Registra la sesión en un diario, con su orden y su estado actual.
+     */
+    synchronized void attachJournal(AnswerJournal journal) {
+        if (this.journal != null) {
+            throw new IllegalStateException("La sesión ya está registrada en un diario: " + sessionId);
+        }
+        int number = journal.open(sessionId, test, order);
+        for (int questionIndex = 0; questionIndex < numberOfItems; questionIndex++) {
+            byte answerCode = answerSheet.get(questionIndex);
+            if (answerCode != AnswerSheet.UNANSWERED) {
+                journal.append(AnswerJournal.ANSWER, number, questionIndex, answerCode);
+            }
+            if (answerSheet.isFlagged(questionIndex)) {
+                journal.append(AnswerJournal.FLAG, number, questionIndex, 1);
+            }
+        }
+        if (currentQuestionIndex >= 0) {
+            journal.append(AnswerJournal.POSITION, number, currentQuestionIndex, 0);
+        }
+        journal.commit(journal.getRecordCount());
+        this.journal = journal;
+        this.journalNumber = number;
+    }
+
+    /**
+     * Registra el cierre de la sesión y deja de escribir en el diario; no hace nada si la sesión no
+     * está registrada en ese diario.
+     */
+    synchronized void detachJournal(AnswerJournal journal) {
+        if (this.journal != journal) {
+            return;
+        }
+        log(AnswerJournal.CLOSE, 0, 0);
+        this.journal = null;
+    }
+
+    /**
+     * Toma una instantánea de la sesión; ver {@link SessionSnapshot#of(TestSession, String)}.
+     */
+    synchronized SessionSnapshot toSnapshot(byte[] bankHash) {
+        return new SessionSnapshot(bankHash, sessionId, order.isShuffled(), order.getSeed(), currentQuestionIndex,
+                answerSheet.toArray(), answerSheet.flagsToArray());
+    }
+
+    /**
+     * Restablece el estado leído de un diario o de una instantánea, sin volver a escribirlo, y sigue
+     * registrando en el diario si se indica uno.
+     * @throws IllegalArgumentException si un código de respuesta no corresponde a su pregunta; la
+     * sesión queda sin cambios.
+     */
+    synchronized void restore(SessionOrder order, byte[] answers, BitSet flags, int position,
+                              AnswerJournal journal, int journalNumber) {
+        for (int questionIndex = 0; questionIndex < numberOfItems; questionIndex++) {
+            byte answerCode = answers[questionIndex];
+            // Un código que la pregunta no sabe traducir contaría como respondida pero se vería en blanco
+            if (answerCode != AnswerSheet.UNANSWERED && questions.get(questionIndex).decodeAnswer(answerCode).isEmpty()) {
+                throw new IllegalArgumentException("Código de respuesta " + (answerCode & 0xFF)
+                        + " inválido para la pregunta " + (questionIndex + 1) + ".");
+            }
+        }
+        this.order = order;
+        for (int questionIndex = 0; questionIndex < numberOfItems; questionIndex++) {
+            if (answers[questionIndex] != AnswerSheet.UNANSWERED) {
+                answerSheet.set(questionIndex, answers[questionIndex]);
+            }
+        }
+        for (int questionIndex = flags.nextSetBit(0); questionIndex >= 0; questionIndex = flags.nextSetBit(questionIndex + 1)) {
+            answerSheet.setFlagged(questionIndex, true);
+        }
+        this.currentQuestionIndex = position;
+        this.journal = journal;
+        this.journalNumber = journalNumber;
+    }
+
+    /**
+     * Escribe una operación en el diario, si lo hay y la sesión no está terminada, y la confirma según
+     * su durabilidad.
+     */
+    private void log(byte type, int value, int extra) {
+        if (journal != null && !finished) {
+            journal.commit(journal.append(type, journalNumber, value, extra));
+        }
+    }
+}
@@ -2,20 +2,24 @@
 package frontend;
 
 import backend.TestManager;
-import backend.event.BackendEvent;
 import backend.event.QuestionUpdatedEvent;
 import backend.event.TestFinishedEvent;
+import backend.event.TestLoadProgressEvent;
 import backend.event.TestLoadedEvent;
-import backend.observer.BackendObserver;
+import backend.model.Test;
+import backend.model.TestResult;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
-import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 
-public class MainFrame extends JFrame implements BackendObserver {
+public class MainFrame extends JFrame {
 
     private final TestManager testManager;
     private JPanel currentPanel; // Panel que se está mostrando actualmente
@@ -23,6 +27,11 @@ public class MainFrame extends JFrame implements BackendObserver {
     private JLabel totalTimeLabel;
     private JButton loadFileButton;
     private JButton startTestButton;
+    private JCheckBox shuffleCheckBox; // Barajar solo si se pide; por defecto, el orden del autor
+    private JProgressBar loadProgressBar;
+    private JButton cancelLoadButton;
+    private CompletableFuture<Test> pendingLoad; // Carga en curso, o null
+    private TestResult lastResult; // Último resultado, para la lista de revisión
 
     private TestPanel testApplicationPanel;
     private ResultSummaryPanel resultSummaryPanel;
@@ -39,7 +48,11 @@ public class MainFrame extends JFrame implements BackendObserver {
 
     public MainFrame(TestManager testManager) {
         this.testManager = testManager;
-        this.testManager.addObserver(this);
+        // Cada tipo de evento tiene su propio receptor; todos comparten el hilo de entrega de esta ventana
+        this.testManager.subscribe(this, TestLoadProgressEvent.class, this::onTestLoadProgress);
+        this.testManager.subscribe(this, TestLoadedEvent.class, this::onTestLoaded);
+        this.testManager.subscribe(this, QuestionUpdatedEvent.class, this::onQuestionUpdated);
+        this.testManager.subscribe(this, TestFinishedEvent.class, this::onTestFinished);
 
         setTitle("Administrador de Pruebas - Taxonomía de Bloom");
         setSize(800, 600);
@@ -75,6 +88,22 @@ public class MainFrame extends JFrame implements BackendObserver {
         startTestButton.addActionListener(e -> startTest());
         gbc.gridy = 3;
         initialPanel.add(startTestButton, gbc);
+
+        shuffleCheckBox = new JCheckBox("Barajar preguntas y opciones");
+        gbc.gridy = 4;
+        initialPanel.add(shuffleCheckBox, gbc);
+
+        loadProgressBar = new JProgressBar(0, 1000);
+        loadProgressBar.setStringPainted(true);
+        loadProgressBar.setVisible(false); // Solo se muestra durante una carga
+        gbc.gridy = 5;
+        initialPanel.add(loadProgressBar, gbc);
+
+        cancelLoadButton = new JButton("Cancelar Carga");
+        cancelLoadButton.setVisible(false);
+        cancelLoadButton.addActionListener(e -> cancelLoad());
+        gbc.gridy = 6;
+        initialPanel.add(cancelLoadButton, gbc);
     }
     public void showInitialPanel() {
         if (currentPanel != null) {
@@ -92,6 +121,12 @@ public class MainFrame extends JFrame implements BackendObserver {
         initialPanelToDisplay.add(totalTimeLabel, gbc);
         gbc.gridy = 3;
         initialPanelToDisplay.add(startTestButton, gbc);
+        gbc.gridy = 4;
+        initialPanelToDisplay.add(shuffleCheckBox, gbc);
+        gbc.gridy = 5;
+        initialPanelToDisplay.add(loadProgressBar, gbc);
+        gbc.gridy = 6;
+        initialPanelToDisplay.add(cancelLoadButton, gbc);
 
         // Resetear el estado visual del panel inicial
         resetInitialPanelDisplay();
@@ -106,23 +141,51 @@ public class MainFrame extends JFrame implements BackendObserver {
     private void selectFileToLoad() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Seleccionar Archivo de Prueba");
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Archivos CSV y XML", "csv", "xml")); // Filtro de extensiones
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Archivos CSV, XML y bancos binarios", "csv", "xml", "tbank")); // Filtro de extensiones
 
         int userSelection = fileChooser.showOpenDialog(this);
 
         if (userSelection == JFileChooser.APPROVE_OPTION) { // Si el usuario selecciona un archivo y pulsa "Abrir"
             File selectedFile = fileChooser.getSelectedFile();
-            try {
-                testManager.loadTestFromFile(selectedFile); // Intentar cargar la prueba
-            } catch (IOException | IllegalArgumentException ex) {
-                // Mostrar un mensaje de error si la carga falla
-                JOptionPane.showMessageDialog(this,
-                        "Error al cargar la prueba: " + ex.getMessage(),
-                        "Error de Carga",
-                        JOptionPane.ERROR_MESSAGE);
-                resetInitialPanelDisplay(); // Restablecer la visualización si hay un error
-            }
+            // La carga se hace en segundo plano para que la ventana siga respondiendo
+            loadFileButton.setEnabled(false);
+            startTestButton.setEnabled(false);
+            loadProgressBar.setValue(0);
+            loadProgressBar.setString("Cargando " + selectedFile.getName() + "...");
+            loadProgressBar.setVisible(true);
+            cancelLoadButton.setVisible(true);
+            CompletableFuture<Test> load = testManager.loadTestFromFileAsync(selectedFile);
+            pendingLoad = load;
+            load.whenComplete((test, error) -> SwingUtilities.invokeLater(() -> onLoadFinished(load, error)));
+        }
+    }
+
+    private void cancelLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false); // El hilo de carga se detiene en su siguiente aviso de avance
+        }
+    }
+
+    private void onLoadFinished(CompletableFuture<Test> load, Throwable error) {
+        if (load != pendingLoad) {
+            return; // Una carga anterior ya reemplazada
+        }
+        pendingLoad = null;
+        loadProgressBar.setVisible(false);
+        cancelLoadButton.setVisible(false);
+        loadFileButton.setEnabled(true);
+        if (error == null) {
+            return; // Las etiquetas se actualizan con el TestLoadedEvent
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof CancellationException)) {
+            // Mostrar un mensaje de error si la carga falla
+            JOptionPane.showMessageDialog(this,
+                    "Error al cargar la prueba: " + cause.getMessage(),
+                    "Error de Carga",
+                    JOptionPane.ERROR_MESSAGE);
         }
+        resetInitialPanelDisplay(); // Restablecer la visualización si hay un error o se canceló
     }
 
     private void resetInitialPanelDisplay() {
@@ -133,7 +196,12 @@ public class MainFrame extends JFrame implements BackendObserver {
 
     private void startTest() {
         try {
-            testManager.startTest(); // Iniciar la prueba a través del TestManager
+            if (shuffleCheckBox.isSelected()) {
+                // Cada intento ve las preguntas y las opciones en un orden distinto
+                testManager.startTest(ThreadLocalRandom.current().nextLong());
+            } else {
+                testManager.startTest(); // En el orden del autor
+            }
             currentAppState = AppState.TEST_IN_PROGRESS; // Cambiar estado a "prueba en progreso"
         } catch (IllegalStateException ex) {
             // Mostrar un mensaje de error si la prueba no se puede iniciar
@@ -154,43 +222,70 @@ public class MainFrame extends JFrame implements BackendObserver {
         repaint();
     }
 
-    @Override
-    public void onBackendEvent(BackendEvent event) {
+    private void onTestLoadProgress(TestLoadProgressEvent progressEvent) {
+        SwingUtilities.invokeLater(() -> {
+            if (pendingLoad != null) { // Ignorar avisos de una carga ya cancelada
+                loadProgressBar.setValue((int) (progressEvent.getFraction() * loadProgressBar.getMaximum()));
+                loadProgressBar.setString(progressEvent.getQuestionsParsed() + " preguntas leídas");
+            }
+        });
+    }
+
+    private void onTestLoaded(TestLoadedEvent loadedEvent) {
+        SwingUtilities.invokeLater(() -> {
+            itemsCountLabel.setText("Cantidad de ítems: " + loadedEvent.getNumberOfItems()); // Actualizar cantidad de ítems
+            totalTimeLabel.setText("Tiempo total estimado: " + loadedEvent.getTotalEstimatedTime() + " segundos"); // Actualizar tiempo total
+            startTestButton.setEnabled(true); // Habilitar el botón de iniciar prueba
+            currentAppState = AppState.INITIAL;
+            if (testManager.hasRecoveredSession()) {
+                // La aplicación se cerró durante un intento de esta prueba
+                int choice = JOptionPane.showConfirmDialog(this,
+                        "Hay un intento sin terminar de esta prueba. ¿Desea continuar donde quedó?",
+                        "Prueba sin terminar",
+                        JOptionPane.YES_NO_OPTION);
+                if (choice == JOptionPane.YES_OPTION) {
+                    currentAppState = AppState.TEST_IN_PROGRESS;
+                    testManager.resumeTest();
+                }
+            }
+        });
+    }
+
+    private void onQuestionUpdated(QuestionUpdatedEvent qe) {
         SwingUtilities.invokeLater(() -> {
-            if (event instanceof TestLoadedEvent) {
-                TestLoadedEvent loadedEvent = (TestLoadedEvent) event;
-                itemsCountLabel.setText("Cantidad de ítems: " + loadedEvent.getNumberOfItems()); // Actualizar cantidad de ítems
-                totalTimeLabel.setText("Tiempo total estimado: " + loadedEvent.getTotalEstimatedTime() + " segundos"); // Actualizar tiempo total
-                startTestButton.setEnabled(true); // Habilitar el botón de iniciar prueba
-                currentAppState = AppState.INITIAL;
-            } else if (event instanceof QuestionUpdatedEvent) {
-                QuestionUpdatedEvent qe = (QuestionUpdatedEvent) event;
-                if (currentAppState == AppState.TEST_IN_PROGRESS) { // Si la prueba está en progreso
-                    if (testApplicationPanel == null) {
-                        testApplicationPanel = new TestPanel(testManager); // Crear TestPanel si no existe
-                    }
-                    // Mostrar la pregunta en el TestPanel
-                    testApplicationPanel.displayQuestion(qe.getCurrentQuestion(), qe.getCurrentQuestionIndex(),
-                            qe.getTotalQuestions(), qe.canGoBack(), qe.isLastQuestion());
-                    showPanel(testApplicationPanel); // Mostrar el TestPanel
-                } else if (currentAppState == AppState.TEST_REVIEW) { // Si estamos en modo revisión
-                    if (reviewPanel == null) {
-                        reviewPanel = new ReviewPanel(testManager); // Crear ReviewPanel si no existe
-                    }
-                    // Mostrar la pregunta en el ReviewPanel
-                    reviewPanel.displayReviewQuestion(qe.getCurrentQuestion(), qe.getCurrentQuestionIndex(),
-                            qe.getTotalQuestions(), qe.canGoBack(), qe.isLastQuestion());
-                    showPanel(reviewPanel); // Mostrar el ReviewPanel
+            if (currentAppState == AppState.TEST_IN_PROGRESS) { // Si la prueba está en progreso
+                if (testApplicationPanel == null) {
+                    testApplicationPanel = new TestPanel(testManager); // Crear TestPanel si no existe
                 }
-            } else if (event instanceof TestFinishedEvent) {
-                TestFinishedEvent fe = (TestFinishedEvent) event;
-                if (resultSummaryPanel == null) {
-                    resultSummaryPanel = new ResultSummaryPanel(testManager, this);
+                // Mostrar la pregunta en el TestPanel
+                testApplicationPanel.displayQuestion(qe.getCurrentQuestion(), qe.getCurrentQuestionIndex(),
+                        qe.getTotalQuestions(), qe.canGoBack(), qe.isLastQuestion());
+                showPanel(testApplicationPanel); // Mostrar el TestPanel
+            } else if (currentAppState == AppState.TEST_REVIEW) { // Si estamos en modo revisión
+                if (reviewPanel == null) {
+                    reviewPanel = new ReviewPanel(testManager); // Crear ReviewPanel si no existe
                 }
-                resultSummaryPanel.displayResults(fe.getBloomPercentages(), fe.getItemTypePercentages());
-                showPanel(resultSummaryPanel); // Mostrar el ResultSummaryPanel
-                currentAppState = AppState.TEST_FINISHED_SUMMARY; // Cambiar estado a resumen
+                if (lastResult != null) {
+                    reviewPanel.setReviewData(testManager.getCurrentSession().getTest(), lastResult,
+                            testManager.getCurrentSession().getOrder());
+                }
+                // Mostrar la pregunta en el ReviewPanel
+                reviewPanel.displayReviewQuestion(qe.getCurrentQuestion(), qe.getCurrentQuestionIndex(),
+                        qe.getTotalQuestions(), qe.canGoBack(), qe.isLastQuestion());
+                showPanel(reviewPanel); // Mostrar el ReviewPanel
+            }
+        });
+    }
+
+    private void onTestFinished(TestFinishedEvent fe) {
+        SwingUtilities.invokeLater(() -> {
+            if (resultSummaryPanel == null) {
+                resultSummaryPanel = new ResultSummaryPanel(testManager, this);
             }
+            lastResult = fe.getResult();
+            resultSummaryPanel.displayResults(lastResult);
+            showPanel(resultSummaryPanel); // Mostrar el ResultSummaryPanel
+            currentAppState = AppState.TEST_FINISHED_SUMMARY; // Cambiar estado a resumen
         });
     }
 
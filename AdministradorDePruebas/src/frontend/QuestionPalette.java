@@ -0,0 +1,214 @@
+// frontend/QuestionPalette.java
+package frontend;
+
+import backend.TestManager;
+import backend.session.TestSession;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.function.IntConsumer;
+
+/**
+ * Paleta de preguntas: una celda por pregunta que muestra si está respondida, sin responder o
+ * marcada para revisar. Las celdas no son componentes; se dibujan directamente y solo las que
+ * intersecan la zona a pintar, así que el costo de pintar depende del área visible y no del tamaño
+ * de la prueba. Un cambio de estado repinta únicamente la celda afectada.
+ * Clic izquierdo salta a la pregunta; clic derecho la marca o desmarca.
+ * El estado se lee de la sesión para la que se dimensionó la paleta, no de la sesión actual del
+ * administrador: al cargar otra prueba en segundo plano, la sesión nueva se instala antes de que la
+ * paleta se ajuste en el EDT.
+ */
+public class QuestionPalette extends JComponent implements Scrollable {
+    private static final int COLUMNS = 5;
+    private static final int CELL_WIDTH = 44;
+    private static final int CELL_HEIGHT = 24;
+    private static final int GAP = 4;
+    private static final int FLAG_SIZE = 9; // Lado del triángulo que indica la marca
+    private static final Color ANSWERED_COLOR = new Color(0x8FD19E);
+    private static final Color UNANSWERED_COLOR = new Color(0xE4E4E4);
+    private static final Color FLAG_COLOR = new Color(0xE8912D);
+
+    private final TestManager testManager;
+    private TestSession session; // Sesión de la que se lee el estado, o null
+    private int itemCount;
+    private int currentIndex = -1; // Pregunta mostrada, resaltada con un borde
+
+    /**
+     * Crea la paleta.
+     * @param testManager El administrador, con el que se marcan las preguntas.
+     * @param onSelect Recibe el índice de la pregunta elegida con clic izquierdo.
+     */
+    public QuestionPalette(TestManager testManager, IntConsumer onSelect) {
+        this.testManager = testManager;
+        setFont(new Font("SansSerif", Font.PLAIN, 11));
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        setToolTipText(""); // Registra la paleta en el ToolTipManager; el texto depende de la celda
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                int index = indexAt(e.getPoint());
+                if (index < 0) {
+                    return;
+                }
+                if (SwingUtilities.isRightMouseButton(e)) {
+                    if (testManager.getCurrentSession() == session) { // Si no, la paleta aún no se ajustó a la sesión nueva
+                        testManager.setQuestionFlagged(index, !session.isFlagged(index));
+                    }
+                } else if (SwingUtilities.isLeftMouseButton(e)) {
+                    onSelect.accept(index);
+                }
+            }
+        });
+    }
+
+    /**
+     * Cambia la sesión que muestra la paleta, por ejemplo al cargar otra prueba.
+     * @param session La sesión, de la que se leen la cantidad de preguntas y su estado.
+     */
+    public void setSession(TestSession session) {
+        this.session = session;
+        this.itemCount = session != null ? session.getNumberOfItems() : 0;
+        this.currentIndex = -1;
+        revalidate();
+        repaint();
+    }
+
+    public TestSession getSession() {
+        return session;
+    }
+
+    /**
+     * Resalta la pregunta mostrada y la desplaza a la vista. Solo se repintan la celda anterior y la nueva.
+     * @param index El índice de la pregunta.
+     */
+    public void setCurrentIndex(int index) {
+        if (index == currentIndex) {
+            return;
+        }
+        int previous = currentIndex;
+        currentIndex = index;
+        repaintCell(previous);
+        repaintCell(index);
+        if (index >= 0 && index < itemCount) {
+            scrollRectToVisible(getCellBounds(index));
+        }
+    }
+
+    /**
+     * Repinta la celda de una pregunta, después de un cambio en su estado.
+     * @param index El índice de la pregunta.
+     */
+    public void repaintCell(int index) {
+        if (index >= 0 && index < itemCount) {
+            repaint(getCellBounds(index));
+        }
+    }
+
+    public Rectangle getCellBounds(int index) {
+        int row = index / COLUMNS;
+        int column = index % COLUMNS;
+        return new Rectangle(GAP + column * (CELL_WIDTH + GAP), GAP + row * (CELL_HEIGHT + GAP), CELL_WIDTH, CELL_HEIGHT);
+    }
+
+    /**
+     * Obtiene la pregunta bajo un punto de la paleta.
+     * @param point El punto, en coordenadas de la paleta.
+     * @return El índice de la pregunta, o -1 si el punto cae entre celdas o fuera de ellas.
+     */
+    public int indexAt(Point point) {
+        int column = (point.x - GAP) / (CELL_WIDTH + GAP);
+        int row = (point.y - GAP) / (CELL_HEIGHT + GAP);
+        if (point.x < GAP || point.y < GAP || column >= COLUMNS) {
+            return -1;
+        }
+        int index = row * COLUMNS + column;
+        return index < itemCount && getCellBounds(index).contains(point) ? index : -1;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // Solo las filas que intersecan la zona a pintar
+        int firstRow = Math.max(0, (clip.y - GAP) / (CELL_HEIGHT + GAP));
+        int lastRow = (clip.y + clip.height - GAP) / (CELL_HEIGHT + GAP);
+        int first = firstRow * COLUMNS;
+        int last = Math.min(itemCount - 1, (lastRow + 1) * COLUMNS - 1);
+        FontMetrics metrics = g.getFontMetrics(getFont());
+        for (int index = first; index <= last; index++) {
+            paintCell(g, index, metrics);
+        }
+    }
+
+    private void paintCell(Graphics g, int index, FontMetrics metrics) {
+        Rectangle cell = getCellBounds(index);
+        g.setColor(session.isAnswered(index) ? ANSWERED_COLOR : UNANSWERED_COLOR);
+        g.fillRect(cell.x, cell.y, cell.width, cell.height);
+        if (session.isFlagged(index)) {
+            int right = cell.x + cell.width;
+            g.setColor(FLAG_COLOR);
+            g.fillPolygon(new int[]{right - FLAG_SIZE, right, right}, new int[]{cell.y, cell.y, cell.y + FLAG_SIZE}, 3);
+        }
+        if (index == currentIndex) {
+            g.setColor(Color.BLACK);
+            g.drawRect(cell.x, cell.y, cell.width - 1, cell.height - 1);
+            g.drawRect(cell.x + 1, cell.y + 1, cell.width - 3, cell.height - 3);
+        }
+        String number = String.valueOf(index + 1);
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(number, cell.x + (cell.width - metrics.stringWidth(number)) / 2,
+                cell.y + (cell.height - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int index = indexAt(event.getPoint());
+        if (index < 0) {
+            return null;
+        }
+        String state = session.isAnswered(index) ? "respondida" : "sin responder";
+        if (session.isFlagged(index)) {
+            state += ", marcada para revisar";
+        }
+        return "Pregunta " + (index + 1) + ": " + state;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int rows = (itemCount + COLUMNS - 1) / COLUMNS;
+        return new Dimension(GAP + COLUMNS * (CELL_WIDTH + GAP), GAP + rows * (CELL_HEIGHT + GAP));
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(GAP + COLUMNS * (CELL_WIDTH + GAP), 12 * (CELL_HEIGHT + GAP));
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? CELL_HEIGHT + GAP : CELL_WIDTH + GAP;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
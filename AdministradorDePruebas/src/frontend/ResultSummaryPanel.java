@@ -2,11 +2,16 @@
 package frontend;
 
 import backend.TestManager;
+import backend.grading.ResultExporter;
 import backend.model.BloomLevel;
+import backend.model.QuestionType;
+import backend.model.TestResult;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
 
 public class ResultSummaryPanel extends JPanel {
 
@@ -15,7 +20,9 @@ public class ResultSummaryPanel extends JPanel {
     private JLabel titleLabel;
     private JTextArea summaryTextArea;
     private JButton reviewButton;
+    private JButton exportButton;
     private JButton returnToMainButton;
+    private TestResult currentResult; // Resultado mostrado, para exportarlo
 
     public ResultSummaryPanel(TestManager testManager, MainFrame parentFrame) {
         this.testManager = testManager;
@@ -45,6 +52,9 @@ public class ResultSummaryPanel extends JPanel {
             testManager.startReview(); // Iniciar la revisión en el backend
         });
 
+        exportButton = new JButton("Exportar Resultados");
+        exportButton.addActionListener(e -> exportResults());
+
         returnToMainButton = new JButton("Volver a Pantalla Principal");
         returnToMainButton.addActionListener(e -> {
             parentFrame.setAppStateToInitial(); // Indicar a MainFrame que vuelva al estado inicial
@@ -57,23 +67,54 @@ public class ResultSummaryPanel extends JPanel {
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
         buttonPanel.add(reviewButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(returnToMainButton);
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
-    public void displayResults(Map<BloomLevel, Double> bloomPercentages, Map<String, Double> itemTypePercentages) {
+    public void displayResults(TestResult result) {
+        currentResult = result;
         StringBuilder sb = new StringBuilder();
         sb.append("--- Porcentaje de Respuestas Correctas por Nivel de Bloom ---\n");
         // Asegurarse de mostrar todos los niveles de Bloom en un orden consistente
         for (BloomLevel level : BloomLevel.values()) {
-            sb.append(String.format("%-10s: %.2f%%\n", level.getName(), bloomPercentages.getOrDefault(level, 0.0)));
+            sb.append(String.format("%-10s: %.2f%%\n", level.getName(), result.getBloomPercentage(level)));
         }
         sb.append("\n--- Porcentaje de Respuestas Correctas por Tipo de Ítem ---\n");
-        itemTypePercentages.forEach((type, percentage) ->
-                sb.append(String.format("%-18s: %.2f%%\n", type, percentage))
-        );
+        for (QuestionType type : QuestionType.values()) {
+            if (result.getTotalByType(type) > 0) { // Solo los tipos presentes en la prueba
+                sb.append(String.format("%-18s: %.2f%%\n", type.getName(), result.getTypePercentage(type)));
+            }
+        }
 
         summaryTextArea.setText(sb.toString());
         summaryTextArea.setCaretPosition(0);
     }
+
+    private void exportResults() {
+        if (currentResult == null) {
+            return;
+        }
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Exportar Resultados");
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Archivos CSV y JSON Lines (opcionalmente .gz)", "csv", "jsonl", "gz"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = fileChooser.getSelectedFile();
+        // El formato y la compresión se deducen de la extensión: resultados.jsonl.gz, resultados.csv...
+        String name = file.getName().toLowerCase();
+        boolean gzip = name.endsWith(".gz");
+        String baseName = gzip ? name.substring(0, name.length() - 3) : name;
+        ResultExporter.Format format = baseName.endsWith(".jsonl") || baseName.endsWith(".json")
+                ? ResultExporter.Format.JSON_LINES : ResultExporter.Format.CSV;
+        try (ResultExporter exporter = ResultExporter.open(file, format, gzip, currentResult.getNumberOfItems())) {
+            exporter.write(testManager.getCurrentSession().getSessionId(), currentResult);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this,
+                    "Error al exportar los resultados: " + ex.getMessage(),
+                    "Error de Exportación",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 }
\ No newline at end of file
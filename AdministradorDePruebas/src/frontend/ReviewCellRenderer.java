@@ -0,0 +1,85 @@
+// frontend/ReviewCellRenderer.java
+package frontend;
+
+import backend.model.AnswerSheet;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.TestResult;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Dibuja una fila de la lista de revisión: número, nivel y resultado, el enunciado y las respuestas.
+ * Un mismo componente se reutiliza para todas las filas, y el JList solo lo invoca para las visibles.
+ */
+public class ReviewCellRenderer extends JPanel implements ListCellRenderer<Integer> {
+    private static final Color CORRECT_COLOR = new Color(0, 128, 0); // Verde oscuro
+    private static final Color INCORRECT_COLOR = new Color(200, 0, 0); // Rojo oscuro
+
+    private final ReviewListModel model;
+    private final JLabel headerLabel = new JLabel();
+    private final JLabel statementLabel = new JLabel();
+    private final JLabel answerLabel = new JLabel();
+
+    public ReviewCellRenderer(ReviewListModel model) {
+        this.model = model;
+        setLayout(new GridLayout(3, 1));
+        setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createMatteBorder(0, 0, 1, 0, Color.LIGHT_GRAY),
+                BorderFactory.createEmptyBorder(2, 6, 2, 6)));
+        headerLabel.setFont(headerLabel.getFont().deriveFont(Font.BOLD));
+        add(headerLabel);
+        add(statementLabel);
+        add(answerLabel);
+    }
+
+    /**
+     * Obtiene el alto de una fila, para fijarlo en el JList.
+     * @return El alto en píxeles.
+     */
+    public int getRowHeight() {
+        headerLabel.setText("Pregunta");
+        statementLabel.setText("Enunciado");
+        answerLabel.setText("Respuesta");
+        return getPreferredSize().height;
+    }
+
+    @Override
+    public Component getListCellRendererComponent(JList<? extends Integer> list, Integer position, int row,
+                                                  boolean isSelected, boolean cellHasFocus) {
+        Question question = model.getQuestion(position);
+        int questionIndex = model.getQuestionIndex(position); // El resultado usa el índice original
+        TestResult result = model.getResult();
+        boolean isCorrect = result.isCorrect(questionIndex);
+        byte answerCode = result.getAnswerCode(questionIndex);
+
+        headerLabel.setText("Pregunta " + (position + 1) + " · " + question.getBloomLevel().getName()
+                + " · " + question.getType() + " · " + (isCorrect ? "Correcta" : "Incorrecta"));
+        headerLabel.setForeground(isCorrect ? CORRECT_COLOR : INCORRECT_COLOR);
+        statementLabel.setText(question.getStatement());
+        String userAnswer = answerCode == AnswerSheet.UNANSWERED ? "(sin responder)" : answerText(question, answerCode);
+        answerLabel.setText(isCorrect ? "Tu respuesta: " + userAnswer
+                : "Tu respuesta: " + userAnswer + "   Correcta: " + answerText(question, question.getAnswerKey()));
+
+        Color background = isSelected ? list.getSelectionBackground() : list.getBackground();
+        Color foreground = isSelected ? list.getSelectionForeground() : list.getForeground();
+        setBackground(background);
+        statementLabel.setForeground(foreground);
+        answerLabel.setForeground(foreground);
+        return this;
+    }
+
+    /**
+     * Obtiene el texto de una respuesta codificada: la opción elegida o Verdadero/Falso.
+     */
+    private static String answerText(Question question, byte answerCode) {
+        if (question instanceof MultipleChoiceQuestion) {
+            int option = AnswerSheet.optionIndex(answerCode);
+            List<String> options = ((MultipleChoiceQuestion) question).getOptions();
+            return option >= 0 && option < options.size() ? options.get(option) : "";
+        }
+        return question.decodeAnswer(answerCode);
+    }
+}
@@ -0,0 +1,126 @@
+// frontend/ReviewListModel.java
+package frontend;
+
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.Test;
+import backend.model.TestResult;
+import backend.session.SessionOrder;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Modelo de la lista de revisión: cada fila es la posición, en el orden del candidato, de una pregunta
+ * que pasa el filtro actual. Las posiciones visibles se guardan en un arreglo de enteros ordenado, así que filtrar es un recorrido
+ * lineal de la prueba y ubicar una pregunta en la lista es una búsqueda binaria.
+ */
+public class ReviewListModel extends AbstractListModel<Integer> {
+    private Test test;
+    private List<Question> questions = Collections.emptyList();
+    private TestResult result;
+    private SessionOrder order = SessionOrder.identity(0);
+    private int[] rows = new int[0]; // Posiciones visibles, en orden
+    private int size;
+
+    /**
+     * Cambia la prueba y el resultado que se revisan y muestra todas las preguntas.
+     * @param test La prueba revisada.
+     * @param result El resultado del candidato.
+     * @param order El orden en que el candidato vio las preguntas.
+     */
+    public void setData(Test test, TestResult result, SessionOrder order) {
+        if (order.size() != test.getNumberOfItems()) {
+            throw new IllegalArgumentException("El orden no corresponde a la prueba revisada.");
+        }
+        this.test = test;
+        this.questions = test.getQuestions();
+        this.result = result;
+        this.order = order;
+        this.rows = new int[questions.size()];
+        applyFilter(false, null);
+    }
+
+    /**
+     * Filtra las filas visibles.
+     * @param onlyIncorrect true para mostrar solo las respuestas incorrectas.
+     * @param level El nivel de Bloom a mostrar, o null para todos. Se usa el nivel que cada pregunta
+     * tenía al agregarse a la prueba, el mismo con el que el resultado cuenta los aciertos por nivel.
+     */
+    public void applyFilter(boolean onlyIncorrect, BloomLevel level) {
+        int oldSize = size;
+        int count = 0;
+        for (int position = 0; position < questions.size(); position++) {
+            int questionIndex = order.getQuestionIndex(position);
+            if ((onlyIncorrect && result.isCorrect(questionIndex))
+                    || (level != null && test.getBloomLevel(questionIndex) != level)) {
+                continue;
+            }
+            rows[count++] = position;
+        }
+        size = count;
+        // Un solo aviso para toda la lista: el JList solo vuelve a pintar las filas visibles
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (size > 0) {
+            fireIntervalAdded(this, 0, size - 1);
+        }
+    }
+
+    /**
+     * Obtiene la pregunta que el candidato vio en una posición.
+     * @param position La posición en el orden del candidato.
+     * @return La pregunta.
+     */
+    public Question getQuestion(int position) {
+        return questions.get(order.getQuestionIndex(position));
+    }
+
+    /**
+     * Obtiene el índice original de la pregunta de una posición, con el que se consulta el resultado.
+     * @param position La posición en el orden del candidato.
+     * @return El índice de la pregunta en la prueba.
+     */
+    public int getQuestionIndex(int position) {
+        return order.getQuestionIndex(position);
+    }
+
+    public SessionOrder getOrder() {
+        return order;
+    }
+
+    public TestResult getResult() {
+        return result;
+    }
+
+    /**
+     * Obtiene la fila en la que se muestra una pregunta.
+     * @param position La posición de la pregunta en el orden del candidato.
+     * @return La fila, o -1 si el filtro la oculta.
+     */
+    public int rowOf(int position) {
+        int row = Arrays.binarySearch(rows, 0, size, position);
+        return row >= 0 ? row : -1;
+    }
+
+    /**
+     * Obtiene la cantidad total de preguntas, sin filtrar.
+     * @return La cantidad de preguntas.
+     */
+    public int getTotalSize() {
+        return questions.size();
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public Integer getElementAt(int row) {
+        return rows[row];
+    }
+}
@@ -2,9 +2,14 @@
 package frontend;
 
 import backend.TestManager;
+import backend.model.AnswerSheet;
+import backend.model.BloomLevel;
 import backend.model.MultipleChoiceQuestion;
 import backend.model.Question;
+import backend.model.Test;
+import backend.model.TestResult;
 import backend.model.TrueFalseQuestion;
+import backend.session.SessionOrder;
 
 import javax.swing.*;
 import java.awt.*;
@@ -22,6 +27,15 @@ public class ReviewPanel extends JPanel {
     private JButton nextButton;
     private JButton backToSummaryButton; // Nuevo botón para volver al resumen
 
+    // Lista virtualizada de todas las preguntas, con filtros
+    private final ReviewListModel listModel = new ReviewListModel();
+    private JList<Integer> questionList;
+    private JComboBox<String> correctnessFilter;
+    private JComboBox<Object> bloomFilter;
+    private JLabel filterCountLabel;
+    private boolean updatingSelection; // Evita que seleccionar desde el backend vuelva a navegar
+    private boolean resettingFilters; // Evita filtrar varias veces al restablecer los filtros
+
     public ReviewPanel(TestManager testManager) {
         this.testManager = testManager;
         setLayout(new BorderLayout(10, 10));
@@ -58,6 +72,40 @@ public class ReviewPanel extends JPanel {
 
         backToSummaryButton = new JButton("Volver a Resumen");
         backToSummaryButton.addActionListener(e -> testManager.returnToSummary());
+
+        questionList = new JList<>(listModel);
+        questionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        ReviewCellRenderer renderer = new ReviewCellRenderer(listModel);
+        questionList.setCellRenderer(renderer);
+        // Con alto y ancho fijos el JList no mide cada fila: solo pide al renderizador las visibles
+        questionList.setFixedCellHeight(renderer.getRowHeight());
+        questionList.setFixedCellWidth(200);
+        questionList.addListSelectionListener(e -> {
+            int row = questionList.getSelectedIndex();
+            if (!e.getValueIsAdjusting() && !updatingSelection && row >= 0) {
+                testManager.startReview(listModel.getElementAt(row)); // Mostrar el detalle de la fila elegida
+            }
+        });
+
+        correctnessFilter = new JComboBox<>(new String[]{"Todas las preguntas", "Solo incorrectas"});
+        correctnessFilter.addActionListener(e -> applyFilter());
+
+        bloomFilter = new JComboBox<>();
+        bloomFilter.addItem("Todos los niveles");
+        for (BloomLevel level : BloomLevel.values()) {
+            bloomFilter.addItem(level);
+        }
+        bloomFilter.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Object text = value instanceof BloomLevel ? ((BloomLevel) value).getName() : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        bloomFilter.addActionListener(e -> applyFilter());
+
+        filterCountLabel = new JLabel();
     }
 
     private void setupLayout() {
@@ -66,7 +114,19 @@ public class ReviewPanel extends JPanel {
         JPanel centerPanel = new JPanel(new BorderLayout(10, 10));
         centerPanel.add(new JScrollPane(statementArea), BorderLayout.CENTER);
         centerPanel.add(optionsPanel, BorderLayout.SOUTH);
-        add(centerPanel, BorderLayout.CENTER);
+
+        // Izquierda: filtros y lista de todas las preguntas
+        JPanel filterPanel = new JPanel(new GridLayout(3, 1, 5, 5));
+        filterPanel.add(correctnessFilter);
+        filterPanel.add(bloomFilter);
+        filterPanel.add(filterCountLabel);
+        JPanel listPanel = new JPanel(new BorderLayout(5, 5));
+        listPanel.add(filterPanel, BorderLayout.NORTH);
+        listPanel.add(new JScrollPane(questionList), BorderLayout.CENTER);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, listPanel, centerPanel);
+        splitPane.setDividerLocation(320);
+        add(splitPane, BorderLayout.CENTER);
 
         JPanel southPanel = new JPanel(new BorderLayout());
         southPanel.add(resultLabel, BorderLayout.NORTH); // Resultado de la pregunta
@@ -78,10 +138,62 @@ public class ReviewPanel extends JPanel {
         add(southPanel, BorderLayout.SOUTH);
     }
 
+    /**
+     * Carga en la lista las preguntas y el resultado a revisar. Si ya estaban cargados no hace nada.
+     * @param test La prueba revisada.
+     * @param result El resultado del candidato.
+     * @param order El orden en que el candidato vio las preguntas y las opciones.
+     */
+    public void setReviewData(Test test, TestResult result, SessionOrder order) {
+        if (result == listModel.getResult()) {
+            return;
+        }
+        resettingFilters = true;
+        try {
+            correctnessFilter.setSelectedIndex(0);
+            bloomFilter.setSelectedIndex(0);
+        } finally {
+            resettingFilters = false;
+        }
+        listModel.setData(test, result, order); // Muestra todas las preguntas
+        filterCountLabel.setText(listModel.getSize() + " de " + listModel.getTotalSize() + " preguntas");
+    }
+
+    private void applyFilter() {
+        if (resettingFilters || listModel.getResult() == null) {
+            return;
+        }
+        Object level = bloomFilter.getSelectedItem();
+        listModel.applyFilter(correctnessFilter.getSelectedIndex() == 1,
+                level instanceof BloomLevel ? (BloomLevel) level : null);
+        filterCountLabel.setText(listModel.getSize() + " de " + listModel.getTotalSize() + " preguntas");
+    }
+
+    /**
+     * Selecciona en la lista la pregunta mostrada, si el filtro actual la incluye.
+     */
+    private void selectInList(int questionIndex) {
+        int row = listModel.rowOf(questionIndex);
+        updatingSelection = true;
+        try {
+            if (row >= 0) {
+                questionList.setSelectedIndex(row);
+                questionList.ensureIndexIsVisible(row);
+            } else {
+                questionList.clearSelection();
+            }
+        } finally {
+            updatingSelection = false;
+        }
+    }
+
     public void displayReviewQuestion(Question question, int questionIndex, int totalQuestions, boolean canGoBack, boolean isLastQuestion) {
+        selectInList(questionIndex);
         questionNumberLabel.setText("Pregunta " + (questionIndex + 1) + " de " + totalQuestions + " (Revisión)");
         statementArea.setText(question.getStatement());
         statementArea.setCaretPosition(0);
+        byte answerCode = testManager.getAnswerCode(questionIndex); // Respuesta guardada en la sesión
+        boolean isCorrect = testManager.isAnswerCorrect(questionIndex);
 
         optionsPanel.removeAll();
         ButtonGroup optionGroup = new ButtonGroup();
@@ -91,28 +203,20 @@ public class ReviewPanel extends JPanel {
 
         if (question instanceof MultipleChoiceQuestion) {
             MultipleChoiceQuestion mcq = (MultipleChoiceQuestion) question;
-            for (int i = 0; i < mcq.getOptions().size(); i++) {
+            // Las opciones se muestran en el orden que vio el candidato; i es el índice original
+            for (int i : testManager.getCurrentSession().getOptionOrder(questionIndex)) {
                 JRadioButton radioButton = new JRadioButton(mcq.getOptions().get(i));
                 radioButton.setEnabled(false); // Deshabilitar para que no se pueda cambiar la respuesta
                 optionGroup.add(radioButton);
                 optionsPanel.add(radioButton);
 
-                boolean isUserAnswer = false;
-                try {
-                    int userSavedIndex = Integer.parseInt(question.getUserAnswer());
-                    if (userSavedIndex == i) {
-                        radioButton.setSelected(true);
-                        isUserAnswer = true;
-                    }
-                } catch (NumberFormatException e) {
-                    if (question.getUserAnswer().equalsIgnoreCase(mcq.getOptions().get(i))) {
-                        radioButton.setSelected(true);
-                        isUserAnswer = true;
-                    }
+                boolean isUserAnswer = AnswerSheet.optionIndex(answerCode) == i;
+                if (isUserAnswer) {
+                    radioButton.setSelected(true);
                 }
 
                 if (isUserAnswer) {
-                    if (question.isCorrect()) {
+                    if (isCorrect) {
                         radioButton.setBackground(correctColor); // Respuesta del usuario es correcta
                         radioButton.setOpaque(true);
                     } else {
@@ -121,7 +225,7 @@ public class ReviewPanel extends JPanel {
                     }
                 }
                 // Marcar la respuesta correcta si el usuario no la acertó
-                if (!question.isCorrect() && i == mcq.getCorrectOptionIndex()) {
+                if (!isCorrect && i == mcq.getCorrectOptionIndex()) {
                     radioButton.setBackground(correctColor); // Resaltar la opción correcta
                     radioButton.setOpaque(true);
                 }
@@ -139,13 +243,12 @@ public class ReviewPanel extends JPanel {
             optionGroup.add(falseButton);
             optionsPanel.add(falseButton);
 
-            String userAnswer = question.getUserAnswer();
-            boolean userSelectedTrue = "Verdadero".equalsIgnoreCase(userAnswer) || "V".equalsIgnoreCase(userAnswer) || "True".equalsIgnoreCase(userAnswer);
-            boolean userSelectedFalse = "Falso".equalsIgnoreCase(userAnswer) || "F".equalsIgnoreCase(userAnswer) || "False".equalsIgnoreCase(userAnswer);
+            boolean userSelectedTrue = answerCode == AnswerSheet.TRUE;
+            boolean userSelectedFalse = answerCode == AnswerSheet.FALSE;
 
             if (userSelectedTrue) {
                 trueButton.setSelected(true);
-                if (question.isCorrect()) {
+                if (isCorrect) {
                     trueButton.setBackground(correctColor);
                 } else {
                     trueButton.setBackground(incorrectColor);
@@ -153,7 +256,7 @@ public class ReviewPanel extends JPanel {
                 trueButton.setOpaque(true);
             } else if (userSelectedFalse) {
                 falseButton.setSelected(true);
-                if (question.isCorrect()) {
+                if (isCorrect) {
                     falseButton.setBackground(correctColor);
                 } else {
                     falseButton.setBackground(incorrectColor);
@@ -162,7 +265,7 @@ public class ReviewPanel extends JPanel {
             }
 
             // Resaltar la respuesta correcta si el usuario no la acertó
-            if (!question.isCorrect()) {
+            if (!isCorrect) {
                 if (tfq.getCorrectAnswer()) { // Si la respuesta correcta era Verdadero
                     trueButton.setBackground(correctColor);
                     trueButton.setOpaque(true);
@@ -173,7 +276,7 @@ public class ReviewPanel extends JPanel {
             }
         }
 
-        if (question.isCorrect()) {
+        if (isCorrect) {
             resultLabel.setText("¡Correcta!");
             resultLabel.setForeground(new Color(0, 128, 0)); // Verde oscuro
         } else {
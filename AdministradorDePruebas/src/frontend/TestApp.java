@@ -2,14 +2,46 @@
 package frontend;
 
 import backend.TestManager; // Importar el TestManager del backend
+import backend.session.AnswerJournal;
+import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
+import java.io.File;
+import java.io.IOException;
 
 public class TestApp {
+    // Diario de respuestas, para continuar un intento si la aplicación se cierra sin terminarlo
+    private static final File JOURNAL_FILE = new File(System.getProperty("user.home"), ".administrador-de-pruebas.journal");
 
     public static void main(String[] args) {
+        // Crear la instancia del TestManager (backend) y leer el diario antes de mostrar la interfaz,
+        // fuera del hilo de eventos
+        TestManager testManager = new TestManager();
+        String journalError = null;
+        try {
+            AnswerJournal journal = AnswerJournal.open(JOURNAL_FILE, testManager.getTestCache()::hashOf,
+                    AnswerJournal.Durability.BACKGROUND);
+            testManager.setAnswerJournal(journal);
+            // Al cerrar la ventana (EXIT_ON_CLOSE) se escriben los registros que el hilo del diario aún no sincronizó
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    System.err.println("No se pudo cerrar el diario de respuestas: " + e.getMessage());
+                }
+            }, "Cierre del diario de respuestas"));
+        } catch (IOException | IllegalArgumentException e) {
+            journalError = e.getMessage();
+        }
+
+        String warning = journalError;
         SwingUtilities.invokeLater(() -> {
-            // Crear la instancia del TestManager (backend)
-            TestManager testManager = new TestManager();
+            if (warning != null) {
+                // Se sigue sin diario: las respuestas no se podrán recuperar si la aplicación se cierra
+                JOptionPane.showMessageDialog(null,
+                        "No se pudo abrir el diario de respuestas: " + warning,
+                        "Diario de Respuestas",
+                        JOptionPane.WARNING_MESSAGE);
+            }
 
             // Crear la ventana principal de la aplicación y pasarle el TestManager
             MainFrame mainFrame = new MainFrame(testManager);
@@ -2,25 +2,40 @@
 package frontend;
 
 import backend.TestManager;
+import backend.event.AnswerStateChangedEvent;
+import backend.model.AnswerSheet;
 import backend.model.MultipleChoiceQuestion;
 import backend.model.Question;
+import backend.model.Test;
 import backend.model.TrueFalseQuestion;
+import backend.session.SessionOrder;
+import backend.session.TestSession;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class TestPanel extends JPanel {
 
+    private static final int CARD_COUNT = 3; // Pregunta anterior, actual y siguiente
+
     private final TestManager testManager;
     private JLabel questionNumberLabel;
-    private JTextArea statementArea;
-    private JPanel optionsPanel; // Contenedor para opciones (botones de radio, etc.)
-    private ButtonGroup optionGroup; // Para preguntas de selección múltiple/verdadero-falso
+    private JPanel cardPanel; // Contenedor de las tarjetas de pregunta (CardLayout)
+    private QuestionCard[] cards;
+    private QuestionCard currentCard; // Tarjeta de la pregunta actualmente mostrada
+    private QuestionPalette palette; // Estado de todas las preguntas, para saltar a cualquiera
+    private JLabel progressLabel;
+    private JToggleButton flagButton;
     private JButton backButton;
     private JButton nextButton;
 
-    private Question currentQuestionDisplayed; // Referencia a la pregunta actualmente mostrada
+    private Test currentTest; // Prueba de las preguntas preparadas en las tarjetas
+    private SessionOrder currentOrder; // Orden del candidato con el que se prepararon las tarjetas
+    private boolean prefetchPending; // Hay una preparación de vecinas en cola en el EDT
 
     public TestPanel(TestManager testManager) {
         this.testManager = testManager;
@@ -29,6 +44,9 @@ public class TestPanel extends JPanel {
 
         initComponents();
         setupLayout();
+        // La paleta solo repinta la celda de la pregunta que cambió
+        testManager.subscribe(this, AnswerStateChangedEvent.class,
+                e -> SwingUtilities.invokeLater(() -> onAnswerStateChanged(e)));
     }
 
     /**
@@ -39,15 +57,28 @@ public class TestPanel extends JPanel {
         questionNumberLabel.setFont(new Font("SansSerif", Font.BOLD, 16));
         questionNumberLabel.setHorizontalAlignment(SwingConstants.CENTER);
 
-        statementArea = new JTextArea();
-        statementArea.setWrapStyleWord(true);
-        statementArea.setLineWrap(true);
-        statementArea.setEditable(false);
-        statementArea.setFont(new Font("Serif", Font.PLAIN, 18));
-        JScrollPane scrollPane = new JScrollPane(statementArea);
+        // Cada tarjeta conserva sus componentes: navegar a una pregunta ya preparada es solo cambiar de tarjeta
+        cardPanel = new JPanel(new CardLayout());
+        cards = new QuestionCard[CARD_COUNT];
+        for (int i = 0; i < CARD_COUNT; i++) {
+            cards[i] = new QuestionCard(e -> saveCurrentAnswer()); // Guardar al elegir, para que la paleta se actualice
+            cards[i].setName(String.valueOf(i)); // Clave en el CardLayout
+            cardPanel.add(cards[i], cards[i].getName());
+        }
+        currentCard = cards[0];
 
-        optionsPanel = new JPanel(); // El layout se definirá dinámicamente
-        optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.Y_AXIS)); // Por defecto vertical
+        palette = new QuestionPalette(testManager, index -> {
+            saveCurrentAnswer(); // Guardar la respuesta actual antes de saltar
+            testManager.goToQuestion(index);
+        });
+        progressLabel = new JLabel(" ");
+
+        flagButton = new JToggleButton("Marcar para Revisar");
+        flagButton.addActionListener(e -> {
+            if (currentCard.question != null) {
+                testManager.setQuestionFlagged(currentCard.questionIndex, flagButton.isSelected());
+            }
+        });
 
         backButton = new JButton("Volver Atrás");
         backButton.addActionListener(e -> {
@@ -69,69 +100,55 @@ public class TestPanel extends JPanel {
         // Norte: Número de pregunta
         add(questionNumberLabel, BorderLayout.NORTH);
 
-        // Centro: Enunciado de la pregunta y opciones
-        JPanel centerPanel = new JPanel(new BorderLayout(10, 10));
-        centerPanel.add(new JScrollPane(statementArea), BorderLayout.CENTER);
-        centerPanel.add(optionsPanel, BorderLayout.SOUTH);
-        add(centerPanel, BorderLayout.CENTER);
+        // Centro: Enunciado de la pregunta y opciones, en la tarjeta visible
+        add(cardPanel, BorderLayout.CENTER);
+
+        // Este: Paleta de preguntas y avance
+        JPanel palettePanel = new JPanel(new BorderLayout(5, 5));
+        palettePanel.add(new JScrollPane(palette, ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS,
+                ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER), BorderLayout.CENTER);
+        palettePanel.add(progressLabel, BorderLayout.SOUTH);
+        add(palettePanel, BorderLayout.EAST);
 
         // Sur: Botones de navegación
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 5));
         buttonPanel.add(backButton);
+        buttonPanel.add(flagButton);
         buttonPanel.add(nextButton);
         add(buttonPanel, BorderLayout.SOUTH);
     }
 
     public void displayQuestion(Question question, int questionIndex, int totalQuestions, boolean canGoBack, boolean isLastQuestion) {
-        this.currentQuestionDisplayed = question;
-
-        questionNumberLabel.setText("Pregunta " + (questionIndex + 1) + " de " + totalQuestions);
-        statementArea.setText(question.getStatement());
-        statementArea.setCaretPosition(0);
-        // Limpiar opciones anteriores
-        optionsPanel.removeAll();
-        optionGroup = new ButtonGroup();
-
-        if (question instanceof MultipleChoiceQuestion) {
-            MultipleChoiceQuestion mcq = (MultipleChoiceQuestion) question;
-            for (int i = 0; i < mcq.getOptions().size(); i++) {
-                JRadioButton radioButton = new JRadioButton(mcq.getOptions().get(i));
-                radioButton.setActionCommand(String.valueOf(i));
-                optionGroup.add(radioButton);
-                optionsPanel.add(radioButton);
-
-                if (!mcq.getUserAnswer().isEmpty()) {
-                    try {
-                        int savedIndex = Integer.parseInt(mcq.getUserAnswer());
-                        if (savedIndex == i) {
-                            radioButton.setSelected(true);
-                        }
-                    } catch (NumberFormatException e) {
-                        if (mcq.getUserAnswer().equalsIgnoreCase(mcq.getOptions().get(i))) {
-                            radioButton.setSelected(true);
-                        }
-                    }
-                }
-            }
-        } else if (question instanceof TrueFalseQuestion) {
-            JRadioButton trueButton = new JRadioButton("Verdadero");
-            trueButton.setActionCommand("Verdadero");
-            optionGroup.add(trueButton);
-            optionsPanel.add(trueButton);
-
-            JRadioButton falseButton = new JRadioButton("Falso");
-            falseButton.setActionCommand("Falso");
-            optionGroup.add(falseButton);
-            optionsPanel.add(falseButton);
-
-            // Seleccionar la respuesta del usuario si ya existe
-            String userAnswer = question.getUserAnswer();
-            if ("Verdadero".equalsIgnoreCase(userAnswer) || "V".equalsIgnoreCase(userAnswer) || "True".equalsIgnoreCase(userAnswer)) {
-                trueButton.setSelected(true);
-            } else if ("Falso".equalsIgnoreCase(userAnswer) || "F".equalsIgnoreCase(userAnswer) || "False".equalsIgnoreCase(userAnswer)) {
-                falseButton.setSelected(true);
+        TestSession session = testManager.getCurrentSession();
+        Test test = session.getTest();
+        if (test != currentTest || session.getOrder() != currentOrder) {
+            // Prueba u orden nuevos: las tarjetas preparadas ya no sirven y el conjunto de botones se ajusta a la pregunta más ancha
+            currentTest = test;
+            currentOrder = session.getOrder();
+            for (QuestionCard card : cards) {
+                card.clear();
+                card.ensureButtons(test.getMaxOptionCount());
             }
         }
+        if (session != palette.getSession()) {
+            palette.setSession(session); // Otro candidato u otro intento: la paleta lee el estado de esta sesión
+        }
+
+        QuestionCard card = findCard(question, questionIndex);
+        if (card == null) {
+            card = spareCard(questionIndex);
+            card.prepare(question, questionIndex, session.getOptionOrder(questionIndex));
+        }
+        card.selectAnswer(testManager.getAnswerCode(questionIndex)); // Respuesta guardada en la sesión
+        if (card != currentCard) {
+            currentCard = card;
+            ((CardLayout) cardPanel.getLayout()).show(cardPanel, card.getName());
+        }
+
+        questionNumberLabel.setText("Pregunta " + (questionIndex + 1) + " de " + totalQuestions);
+        palette.setCurrentIndex(questionIndex);
+        flagButton.setSelected(testManager.isFlagged(questionIndex));
+        updateProgress(session.getAnsweredCount(), session.getFlaggedCount(), totalQuestions);
 
         // Actualizar estado de los botones de navegación
         backButton.setEnabled(canGoBack);
@@ -141,26 +158,209 @@ public class TestPanel extends JPanel {
             nextButton.setText("Avanzar a la Siguiente");
         }
 
-        optionsPanel.revalidate();
-        optionsPanel.repaint();
-        revalidate();
-        repaint();
+        // Las preguntas vecinas se preparan cuando el EDT termine de pintar la actual
+        if (!prefetchPending) {
+            prefetchPending = true;
+            SwingUtilities.invokeLater(this::prefetchNeighbours);
+        }
+    }
+
+    private void onAnswerStateChanged(AnswerStateChangedEvent event) {
+        if (currentTest == null || event.getQuestionIndex() >= currentTest.getNumberOfItems()) {
+            return; // Evento de una prueba anterior
+        }
+        palette.repaintCell(event.getQuestionIndex());
+        if (event.getQuestionIndex() == currentCard.questionIndex) {
+            flagButton.setSelected(event.isFlagged());
+        }
+        updateProgress(event.getAnsweredCount(), event.getFlaggedCount(), currentTest.getNumberOfItems());
+    }
+
+    private void updateProgress(int answered, int flagged, int total) {
+        progressLabel.setText("Respondidas: " + answered + " de " + total + " · Marcadas: " + flagged);
+    }
+
+    /**
+     * Prepara y distribuye las tarjetas de la pregunta anterior y la siguiente, para que navegar
+     * hacia ellas no tenga que reconstruir ni volver a distribuir componentes.
+     */
+    private void prefetchNeighbours() {
+        prefetchPending = false;
+        int index = currentCard.questionIndex;
+        if (currentTest == null || index < 0) {
+            return;
+        }
+        TestSession session = testManager.getCurrentSession();
+        if (session == null || session.getOrder() != currentOrder) {
+            return; // La sesión cambió antes de que se ejecutara la preparación
+        }
+        for (int neighbour = index - 1; neighbour <= index + 1; neighbour += 2) {
+            if (neighbour < 0 || neighbour >= currentTest.getNumberOfItems()) {
+                continue;
+            }
+            Question question = session.getQuestion(neighbour);
+            if (findCard(question, neighbour) == null) {
+                QuestionCard card = spareCard(index);
+                card.prepare(question, neighbour, session.getOptionOrder(neighbour));
+                card.setBounds(currentCard.getBounds()); // CardLayout da a todas las tarjetas el mismo tamaño
+                card.validate();
+            }
+        }
+    }
+
+    private QuestionCard findCard(Question question, int questionIndex) {
+        for (QuestionCard card : cards) {
+            if (card.questionIndex == questionIndex && card.question == question) {
+                return card;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Elige una tarjeta para reutilizar, descartando la más alejada de la pregunta indicada.
+     */
+    private QuestionCard spareCard(int questionIndex) {
+        QuestionCard spare = null;
+        int farthest = -1;
+        for (QuestionCard card : cards) {
+            if (card == currentCard && card.questionIndex == questionIndex) {
+                continue;
+            }
+            int distance = card.questionIndex < 0 ? Integer.MAX_VALUE : Math.abs(card.questionIndex - questionIndex);
+            if (distance > farthest) {
+                farthest = distance;
+                spare = card;
+            }
+        }
+        return spare;
     }
 
     /**
      * Guarda la respuesta seleccionada por el usuario para la pregunta actual.
      */
     private void saveCurrentAnswer() {
-        if (currentQuestionDisplayed == null) {
+        if (currentCard.question == null) {
             return;
         }
+        testManager.saveUserAnswer(currentCard.getSelectedAnswer()); // La respuesta se guarda en la sesión del candidato
+    }
+
+    /**
+     * Enunciado y opciones de una pregunta. Los botones de opción se reutilizan entre preguntas:
+     * solo se cambia su texto y se ocultan los que sobran. Las opciones se muestran en el orden del
+     * candidato, pero cada botón lleva como comando el índice original de su opción.
+     */
+    private static class QuestionCard extends JPanel {
+        private final JTextArea statementArea;
+        private final JPanel optionsPanel;
+        private final ButtonGroup optionGroup = new ButtonGroup(); // Para preguntas de selección múltiple/verdadero-falso
+        private final List<JRadioButton> optionButtons = new ArrayList<>();
+        private int visibleButtons;
+        private boolean trueFalse;
+        private int[] optionOrder; // Índice original de la opción mostrada en cada botón
+        private Question question; // Pregunta preparada en la tarjeta
+        private int questionIndex = -1;
+
+        private final ActionListener onSelect; // Se avisa cuando el candidato elige una opción
+
+        QuestionCard(ActionListener onSelect) {
+            super(new BorderLayout(10, 10));
+            this.onSelect = onSelect;
+            statementArea = new JTextArea();
+            statementArea.setWrapStyleWord(true);
+            statementArea.setLineWrap(true);
+            statementArea.setEditable(false);
+            statementArea.setFont(new Font("Serif", Font.PLAIN, 18));
+
+            optionsPanel = new JPanel();
+            optionsPanel.setLayout(new BoxLayout(optionsPanel, BoxLayout.Y_AXIS)); // Opciones en vertical
+
+            add(new JScrollPane(statementArea), BorderLayout.CENTER);
+            add(optionsPanel, BorderLayout.SOUTH);
+        }
+
+        /**
+         * Asegura que haya al menos la cantidad indicada de botones de opción.
+         */
+        void ensureButtons(int count) {
+            while (optionButtons.size() < count) {
+                JRadioButton radioButton = new JRadioButton();
+                radioButton.setVisible(false);
+                radioButton.addActionListener(onSelect);
+                optionGroup.add(radioButton);
+                optionsPanel.add(radioButton);
+                optionButtons.add(radioButton);
+            }
+        }
+
+        void clear() {
+            question = null;
+            questionIndex = -1;
+        }
+
+        void prepare(Question question, int questionIndex, int[] optionOrder) {
+            this.question = question;
+            this.questionIndex = questionIndex;
+            this.optionOrder = optionOrder;
+            statementArea.setText(question.getStatement());
+            statementArea.setCaretPosition(0);
+
+            trueFalse = question instanceof TrueFalseQuestion;
+            int count;
+            if (question instanceof MultipleChoiceQuestion) {
+                List<String> options = ((MultipleChoiceQuestion) question).getOptions();
+                count = options.size();
+                ensureButtons(count);
+                for (int i = 0; i < count; i++) {
+                    setOption(i, options.get(optionOrder[i]), String.valueOf(optionOrder[i]));
+                }
+            } else {
+                count = 2;
+                ensureButtons(count);
+                setOption(0, "Verdadero", "Verdadero");
+                setOption(1, "Falso", "Falso");
+            }
+            // Solo cambia la distribución si cambia la cantidad de opciones visibles
+            for (int i = count; i < visibleButtons; i++) {
+                optionButtons.get(i).setVisible(false);
+            }
+            for (int i = visibleButtons; i < count; i++) {
+                optionButtons.get(i).setVisible(true);
+            }
+            visibleButtons = count;
+        }
+
+        private void setOption(int position, String text, String actionCommand) {
+            JRadioButton radioButton = optionButtons.get(position);
+            radioButton.setText(text); // No invalida la distribución si el texto no cambia
+            radioButton.setActionCommand(actionCommand);
+        }
+
+        void selectAnswer(byte answerCode) {
+            int selected;
+            if (trueFalse) {
+                selected = answerCode == AnswerSheet.TRUE ? 0 : answerCode == AnswerSheet.FALSE ? 1 : -1;
+            } else {
+                selected = -1;
+                int optionIndex = AnswerSheet.optionIndex(answerCode);
+                for (int i = 0; i < optionOrder.length; i++) {
+                    if (optionOrder[i] == optionIndex) {
+                        selected = i;
+                        break;
+                    }
+                }
+            }
+            if (selected >= 0 && selected < visibleButtons) {
+                optionButtons.get(selected).setSelected(true);
+            } else {
+                optionGroup.clearSelection();
+            }
+        }
 
-        String selectedAnswer = "";
-        ButtonModel selectedButton = optionGroup.getSelection();
-        if (selectedButton != null) {
-            selectedAnswer = selectedButton.getActionCommand();
+        String getSelectedAnswer() {
+            ButtonModel selectedButton = optionGroup.getSelection();
+            return selectedButton != null ? selectedButton.getActionCommand() : "";
         }
-        currentQuestionDisplayed.setUserAnswer(selectedAnswer);
-        testManager.saveUserAnswer(selectedAnswer); // También notificar al manager si es necesario
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+// backend/bank/FormAssemblerTest.java
+package backend.bank;
+
+import backend.model.BloomLevel;
+import backend.model.Question;
+import backend.model.QuestionFixtures;
+import backend.model.QuestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FormAssemblerTest {
+    private static final int[] BLOOM_COUNTS = {4, 4, 3, 3, 2, 2}; // Por ordinal de nivel
+    private static final int MULTIPLE_CHOICE = 11;
+    private static final int TRUE_FALSE = 7;
+
+    private final backend.model.Test bank = QuestionFixtures.mixed("Banco", 400, 1);
+    private final FormAssembler assembler = new FormAssembler(QuestionBank.of(bank));
+
+    @Test
+    void formsFollowTheBlueprint() {
+        Blueprint blueprint = plan().withMaxTotalTime(minimumTotalTime(bank.getQuestions()) + 600).withForms(5, true);
+        List<backend.model.Test> forms = assembler.assemble(blueprint, 7);
+
+        assertEquals(5, forms.size());
+        Set<String> used = new HashSet<>();
+        for (int form = 0; form < forms.size(); form++) {
+            backend.model.Test test = forms.get(form);
+            assertEquals("Parcial - Forma " + (form + 1), test.getName());
+            for (BloomLevel level : BloomLevel.values()) {
+                assertEquals(BLOOM_COUNTS[level.ordinal()], test.getTotalByBloom(level), level.getName());
+            }
+            assertEquals(MULTIPLE_CHOICE, test.getTotalByType(QuestionType.MULTIPLE_CHOICE));
+            assertEquals(TRUE_FALSE, test.getTotalByType(QuestionType.TRUE_FALSE));
+            assertTrue(test.getTotalEstimatedTime() <= blueprint.getMaxTotalTime());
+            for (Question question : test.getQuestions()) {
+                assertTrue(used.add(question.getStatement()), "Las formas disjuntas no comparten preguntas");
+                assertTrue(bank.getQuestions().contains(question));
+            }
+        }
+    }
+
+    @Test
+    void theSameSeedGivesTheSameForms() {
+        Blueprint blueprint = plan().withForms(3, false);
+        List<backend.model.Test> first = assembler.assemble(blueprint, 99);
+        List<backend.model.Test> second = assembler.assemble(blueprint, 99);
+        for (int form = 0; form < first.size(); form++) {
+            assertEquals(first.get(form).getQuestions(), second.get(form).getQuestions());
+        }
+    }
+
+    @Test
+    void meetsTheTightestPossibleTimeBudget() {
+        int minimum = minimumTotalTime(bank.getQuestions());
+        backend.model.Test form = assembler.assemble(plan().withMaxTotalTime(minimum), 3).get(0);
+        assertEquals(minimum, form.getTotalEstimatedTime());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> assembler.assemble(plan().withMaxTotalTime(minimum - 1), 3));
+        assertEquals("El tiempo total mínimo posible es " + minimum + " s y el plan permite " + (minimum - 1) + " s.",
+                e.getMessage());
+    }
+
+    @Test
+    void rejectsAPlanTheBankCannotFill() {
+        int available = bank.getTotalByBloom(BloomLevel.CREAR);
+        Blueprint blueprint = Blueprint.named("Parcial").withBloomCount(BloomLevel.CREAR, available + 1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> assembler.assemble(blueprint, 1));
+        assertTrue(e.getMessage().contains(Integer.toString(available)), e.getMessage());
+
+        assertEquals(available, assembler.assemble(Blueprint.named("Parcial").withBloomCount(BloomLevel.CREAR, available), 1)
+                .get(0).getNumberOfItems());
+    }
+
+    @Test
+    void rejectsMoreDisjointFormsThanTheBankHolds() {
+        int available = bank.getTotalByBloom(BloomLevel.EVALUAR);
+        int perForm = available / 3 + 1;
+        Blueprint blueprint = Blueprint.named("Parcial").withBloomCount(BloomLevel.EVALUAR, perForm);
+
+        assertThrows(IllegalArgumentException.class, () -> assembler.assemble(blueprint.withForms(3, true), 1));
+        assertEquals(3, assembler.assemble(blueprint.withForms(3, false), 1).size(), "Sin disjunción las preguntas se repiten");
+    }
+
+    @Test
+    void rejectsAPlanWithoutQuestions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.assemble(Blueprint.named("Vacío").withBloomCount(BloomLevel.RECORDAR, 0), 1));
+        assertThrows(IllegalArgumentException.class, () -> assembler.assemble(Blueprint.named("Vacío"), 1));
+        assertThrows(IllegalArgumentException.class, () -> assembler.assemble(
+                plan().withTypeCount(QuestionType.TRUE_FALSE, TRUE_FALSE + 1), 1), "Las sumas por nivel y por tipo no coinciden");
+    }
+
+    private static Blueprint plan() {
+        Blueprint blueprint = Blueprint.named("Parcial")
+                .withTypeCount(QuestionType.MULTIPLE_CHOICE, MULTIPLE_CHOICE)
+                .withTypeCount(QuestionType.TRUE_FALSE, TRUE_FALSE);
+        for (BloomLevel level : BloomLevel.values()) {
+            blueprint = blueprint.withBloomCount(level, BLOOM_COUNTS[level.ordinal()]);
+        }
+        return blueprint;
+    }
+
+    /**
+     * Calcula el menor tiempo total de una forma del plan probando, nivel por nivel, cada reparto
+     * posible entre los dos tipos (programación dinámica sobre las preguntas de selección múltiple usadas).
+     */
+    private static int minimumTotalTime(List<Question> questions) {
+        int unreachable = Integer.MAX_VALUE / 2;
+        int[] best = new int[MULTIPLE_CHOICE + 1];
+        Arrays.fill(best, unreachable);
+        best[0] = 0;
+        for (BloomLevel level : BloomLevel.values()) {
+            int[] multipleChoice = prefixTimes(questions, level, QuestionType.MULTIPLE_CHOICE);
+            int[] trueFalse = prefixTimes(questions, level, QuestionType.TRUE_FALSE);
+            int count = BLOOM_COUNTS[level.ordinal()];
+            int[] next = new int[MULTIPLE_CHOICE + 1];
+            Arrays.fill(next, unreachable);
+            for (int used = 0; used <= MULTIPLE_CHOICE; used++) {
+                for (int taken = 0; taken <= count && used + taken <= MULTIPLE_CHOICE; taken++) {
+                    if (best[used] < unreachable && taken < multipleChoice.length && count - taken < trueFalse.length) {
+                        next[used + taken] = Math.min(next[used + taken],
+                                best[used] + multipleChoice[taken] + trueFalse[count - taken]);
+                    }
+                }
+            }
+            best = next;
+        }
+        return best[MULTIPLE_CHOICE];
+    }
+
+    /**
+     * Suma de los k tiempos más cortos de una celda, para cada k.
+     */
+    private static int[] prefixTimes(List<Question> questions, BloomLevel level, QuestionType type) {
+        List<Integer> times = new ArrayList<>();
+        for (Question question : questions) {
+            if (question.getBloomLevel() == level && question.getQuestionType() == type) {
+                times.add(question.getEstimatedTime());
+            }
+        }
+        Collections.sort(times);
+        int[] prefix = new int[times.size() + 1];
+        for (int i = 0; i < times.size(); i++) {
+            prefix[i + 1] = prefix[i] + times.get(i);
+        }
+        return prefix;
+    }
+}
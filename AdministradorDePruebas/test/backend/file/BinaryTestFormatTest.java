@@ -0,0 +1,120 @@
+// backend/file/BinaryTestFormatTest.java
+package backend.file;
+
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+import backend.model.QuestionFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static backend.model.QuestionFixtures.assertSameQuestions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryTestFormatTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void loaderReadsBackWhatTheWriterWrote() throws IOException {
+        backend.model.Test test = QuestionFixtures.mixed("Banco de repaso", 500, 1);
+        File file = new File(directory, "banco.tbank");
+        new BinaryTestWriter().write(test, file);
+
+        backend.model.Test loaded = new BinaryTestLoader().loadTest(file);
+        assertEquals(test.getName(), loaded.getName());
+        assertSameQuestions(test.getQuestions(), loaded.getQuestions());
+    }
+
+    @Test
+    void mappedBankDecodesEachQuestionOnDemand() throws IOException {
+        backend.model.Test test = QuestionFixtures.mixed("Banco", 300, 2);
+        File file = new File(directory, "banco.tbank");
+        new BinaryTestWriter().write(test, file);
+
+        MappedTestBank bank = MappedTestBank.open(file);
+        assertEquals(test.getName(), bank.getName());
+        assertEquals(test.getNumberOfItems(), bank.size());
+        for (int i = test.getNumberOfItems() - 1; i >= 0; i--) { // En desorden: cada pregunta es independiente
+            Question question = test.getQuestions().get(i);
+            assertEquals(question.getQuestionType(), bank.getQuestionType(i));
+            assertEquals(question.getBloomLevel(), bank.getBloomLevel(i));
+            assertEquals(question.getEstimatedTime(), bank.getEstimatedTime(i));
+            assertEquals(question.getAnswerKey(), bank.getAnswerKey(i));
+            assertEquals(question.getStatement(), bank.getStatement(i));
+            if (question instanceof MultipleChoiceQuestion) {
+                List<String> options = ((MultipleChoiceQuestion) question).getOptions();
+                assertEquals(options.size(), bank.getOptionCount(i));
+                for (int option = 0; option < options.size(); option++) {
+                    assertEquals(options.get(option), bank.getOption(i, option));
+                }
+            }
+            assertEquals(QuestionFixtures.describe(question), QuestionFixtures.describe(bank.getQuestion(i)));
+        }
+        assertSameQuestions(test.getQuestions(), bank.asList());
+    }
+
+    @Test
+    void keepsTheQuestionsOfATextFile() throws IOException {
+        File csv = new File(directory, "banco.csv");
+        Files.write(csv.toPath(), CSVLoaderTest.generateRows(400, 5), Charset.defaultCharset());
+        backend.model.Test test = new CSVLoader().loadTest(csv);
+        File file = new File(directory, "banco.tbank");
+        new BinaryTestWriter().write(test, file);
+
+        assertSameQuestions(new BaselineLoaders.Csv().loadTest(csv).getQuestions(),
+                new BinaryTestLoader().loadTest(file).getQuestions());
+    }
+
+    @Test
+    void rejectsEveryTruncatedCopy() throws IOException {
+        File file = new File(directory, "banco.tbank");
+        new BinaryTestWriter().write(QuestionFixtures.mixed("Banco", 20, 3), file);
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        File truncated = new File(directory, "truncado.tbank");
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(truncated.toPath(), Arrays.copyOf(bytes, length));
+            assertThrows(IllegalArgumentException.class, () -> MappedTestBank.open(truncated), "Cortado en " + length);
+            assertThrows(IllegalArgumentException.class, () -> new BinaryTestLoader().loadTest(truncated));
+        }
+    }
+
+    @Test
+    void rejectsAnotherSignatureOrVersion() throws IOException {
+        File file = new File(directory, "banco.tbank");
+        new BinaryTestWriter().write(QuestionFixtures.mixed("Banco", 10, 4), file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(BinaryTestFormat.VERSION_OFFSET);
+            raf.writeShort(BinaryTestFormat.VERSION + 1);
+        }
+        IllegalArgumentException version = assertThrows(IllegalArgumentException.class, () -> MappedTestBank.open(file));
+        assertEquals("Versión de banco binario no soportada: " + (BinaryTestFormat.VERSION + 1), version.getMessage());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(BinaryTestFormat.MAGIC_OFFSET);
+            raf.writeInt(0x3C3F786D); // "<?xm"
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BinaryTestLoader().loadTest(file));
+    }
+
+    @Test
+    void rejectsTablesThatDoNotFitTheFile() throws IOException {
+        File file = new File(directory, "banco.tbank");
+        new BinaryTestWriter().write(QuestionFixtures.mixed("Banco", 10, 6), file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(BinaryTestFormat.QUESTION_COUNT_OFFSET);
+            raf.writeInt(11);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MappedTestBank.open(file));
+    }
+}
@@ -0,0 +1,159 @@
+// backend/file/CSVLoaderTest.java
+package backend.file;
+
+import backend.model.Question;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static backend.model.QuestionFixtures.assertSameQuestions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CSVLoaderTest {
+    private static final String[] LEVELS = {"Recordar", "entender", " APLICAR ", "Analizar", "evaluar", "Crear"};
+    private static final String[] TRUE_FALSE_ANSWERS = {"Verdadero", "falso", "V", "f", "TRUE", " false "};
+    private static final long DEFAULT_CHUNK_SIZE = 4L * 1024 * 1024;
+
+    @TempDir
+    File directory;
+
+    @ParameterizedTest
+    @ValueSource(longs = {16, 64, 4096, DEFAULT_CHUNK_SIZE})
+    void loadsTheSameQuestionsAsTheBaselineLoader(long chunkSize) throws IOException {
+        for (long seed = 1; seed <= 5; seed++) {
+            File file = write("banco" + seed + ".csv", generateRows(300, seed));
+            backend.model.Test expected = new BaselineLoaders.Csv().loadTest(file);
+
+            for (boolean poolText : new boolean[]{true, false}) {
+                backend.model.Test actual = new CSVLoader(chunkSize, poolText).loadTest(file);
+                assertEquals(expected.getName(), actual.getName());
+                assertSameQuestions(expected.getQuestions(), actual.getQuestions());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {16, 4096})
+    void streamedQuestionsMatchTheLoadedTest(long chunkSize) throws IOException {
+        File file = write("banco.csv", generateRows(500, 7));
+        CSVLoader loader = new CSVLoader(chunkSize);
+        List<Question> streamed;
+        try (Stream<Question> questions = loader.streamQuestions(file)) {
+            streamed = questions.collect(Collectors.toList());
+        }
+        assertSameQuestions(loader.loadTest(file).getQuestions(), streamed);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Selección Múltiple;Enunciado;A,B;0;Recordar", // Columnas de menos
+            "Selección Múltiple;Enunciado;A,B;0;Recordar;30;extra", // Columnas de más
+            "Selección Múltiple;Enunciado;A,B;0;Memorizar;30",
+            "Verdadero/Falso;Enunciado;;V;Crear;treinta",
+            "Verdadero/Falso;Enunciado;;V;Crear;0",
+            "Verdadero/Falso;Enunciado;;Quizás;Crear;30",
+            "Abierta;Enunciado;;Texto;Crear;30",
+            "Selección Múltiple;Enunciado;;0;Recordar;30",
+            "Selección Múltiple;Enunciado;A,B;5;Recordar;30",
+            "Selección Múltiple;Enunciado;A,B;C;Recordar;30"
+    })
+    void reportsTheFirstInvalidLineLikeTheBaselineLoader(String invalidRow) throws IOException {
+        List<String> rows = generateRows(400, 11);
+        rows.add(250, invalidRow);
+        rows.add(320, "Abierta;Segunda fila inválida;;Texto;Crear;30");
+        File file = write("invalido.csv", rows);
+
+        IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                () -> new BaselineLoaders.Csv().loadTest(file));
+        for (long chunkSize : new long[]{16, 256, DEFAULT_CHUNK_SIZE}) {
+            IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                    () -> new CSVLoader(chunkSize).loadTest(file));
+            assertEquals(expected.getMessage(), actual.getMessage(), "Bloques de " + chunkSize + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsAFileWithoutQuestions() throws IOException {
+        File file = write("vacio.csv", Arrays.asList("", "   ", ""));
+        IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                () -> new BaselineLoaders.Csv().loadTest(file));
+        IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                () -> new CSVLoader(16).loadTest(file));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void reportsProgressInOrderUpToTheWholeFile() throws IOException {
+        File file = write("avance.csv", generateRows(2000, 3));
+        List<long[]> updates = new ArrayList<>();
+        backend.model.Test test = new CSVLoader(512).loadTest(file, (bytesRead, totalBytes, questionsParsed) -> {
+            synchronized (updates) {
+                updates.add(new long[]{bytesRead, totalBytes, questionsParsed});
+            }
+        });
+
+        assertTrue(updates.size() > 1, "Un aviso por bloque");
+        long[] previous = {0, file.length(), 0};
+        for (long[] update : updates) {
+            assertEquals(file.length(), update[1]);
+            assertTrue(update[0] >= previous[0] && update[2] >= previous[2], "El avance no retrocede");
+            previous = update;
+        }
+        assertEquals(file.length(), previous[0]);
+        assertEquals(test.getNumberOfItems(), previous[2]);
+    }
+
+    /**
+     * Genera filas válidas con las variaciones que acepta el formato: espacios alrededor de los campos,
+     * mayúsculas distintas, respuestas por índice o por texto, y líneas en blanco.
+     */
+    static List<String> generateRows(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(20) == 0) {
+                rows.add(random.nextBoolean() ? "" : "   ");
+            }
+            String statement = "¿Qué ocurre con la energía, el núcleo y la célula número " + i + "?";
+            String level = LEVELS[random.nextInt(LEVELS.length)];
+            int time = 1 + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                String type = random.nextBoolean() ? "Verdadero/Falso" : " verdadero/falso";
+                rows.add(type + ";" + statement + ";;" + TRUE_FALSE_ANSWERS[random.nextInt(TRUE_FALSE_ANSWERS.length)]
+                        + ";" + level + ";" + time);
+            } else {
+                int optionCount = 1 + random.nextInt(6);
+                List<String> options = new ArrayList<>();
+                for (int option = 0; option < optionCount; option++) {
+                    options.add("Opción " + (char) ('A' + option) + " de la pregunta " + i);
+                }
+                int correct = random.nextInt(optionCount);
+                String answer = random.nextBoolean() ? Integer.toString(correct) : options.get(correct).toUpperCase();
+                String type = random.nextBoolean() ? "Selección Múltiple" : "selección múltiple ";
+                rows.add(type + ";" + statement + "; " + String.join(" , ", options) + " ;" + answer
+                        + ";" + level + ";" + time);
+            }
+        }
+        return rows;
+    }
+
+    private File write(String name, List<String> rows) throws IOException {
+        File file = new File(directory, name);
+        Files.write(file.toPath(), rows, Charset.defaultCharset());
+        return file;
+    }
+}
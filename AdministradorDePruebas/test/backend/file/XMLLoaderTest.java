@@ -0,0 +1,172 @@
+// backend/file/XMLLoaderTest.java
+package backend.file;
+
+import backend.model.Question;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static backend.model.QuestionFixtures.assertSameQuestions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XMLLoaderTest {
+    private static final String[] LEVELS = {"Recordar", "entender", "APLICAR", "Analizar", "Evaluar", "crear"};
+    private static final String[] TRUE_FALSE_ANSWERS = {"Verdadero", "falso", "V", "f", "true", "FALSE"};
+
+    @TempDir
+    File directory;
+
+    @Test
+    void loadsTheSameQuestionsAsTheBaselineLoader() throws IOException {
+        for (long seed = 1; seed <= 5; seed++) {
+            File file = write("banco" + seed + ".xml", generateQuestions(300, seed), "Banco " + seed);
+            backend.model.Test expected = new BaselineLoaders.Xml().loadTest(file);
+
+            for (boolean poolText : new boolean[]{true, false}) {
+                backend.model.Test actual = new XMLLoader(poolText).loadTest(file);
+                assertEquals(expected.getName(), actual.getName());
+                assertSameQuestions(expected.getQuestions(), actual.getQuestions());
+            }
+        }
+    }
+
+    @Test
+    void namesTheTestAfterTheFileWhenTheAttributeIsMissing() throws IOException {
+        File file = write("sin_nombre.xml", generateQuestions(3, 2), "");
+        assertEquals(new BaselineLoaders.Xml().loadTest(file).getName(), new XMLLoader().loadTest(file).getName());
+    }
+
+    @Test
+    void streamedQuestionsMatchTheLoadedTest() throws IOException {
+        File file = write("banco.xml", generateQuestions(500, 7), "Banco");
+        XMLLoader loader = new XMLLoader();
+        List<Question> streamed;
+        try (Stream<Question> questions = loader.streamQuestions(file)) {
+            streamed = questions.collect(Collectors.toList());
+        }
+        assertSameQuestions(loader.loadTest(file).getQuestions(), streamed);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "<question type=\"multiple_choice\" bloom_level=\"Memorizar\" estimated_time=\"30\"><statement>E</statement>"
+                    + "<options><option>A</option></options><correct_answer index=\"0\"/></question>",
+            "<question type=\"true_false\" bloom_level=\"Crear\" estimated_time=\"treinta\"><statement>E</statement>"
+                    + "<correct_answer>V</correct_answer></question>",
+            "<question type=\"true_false\" bloom_level=\"Crear\" estimated_time=\"-5\"><statement>E</statement>"
+                    + "<correct_answer>V</correct_answer></question>",
+            "<question type=\"true_false\" bloom_level=\"Crear\" estimated_time=\"30\"><statement> </statement>"
+                    + "<correct_answer>V</correct_answer></question>",
+            "<question type=\"true_false\" bloom_level=\"Crear\" estimated_time=\"30\"><statement>E</statement></question>",
+            "<question type=\"multiple_choice\" bloom_level=\"Crear\" estimated_time=\"30\"><statement>E</statement>"
+                    + "<correct_answer index=\"0\"/></question>",
+            "<question type=\"multiple_choice\" bloom_level=\"Crear\" estimated_time=\"30\"><statement>E</statement>"
+                    + "<options><option>A</option></options></question>",
+            "<question type=\"multiple_choice\" bloom_level=\"Crear\" estimated_time=\"30\"><statement>E</statement>"
+                    + "<options><option>A</option></options><correct_answer index=\"uno\"/></question>",
+            "<question type=\"multiple_choice\" bloom_level=\"Crear\" estimated_time=\"30\"><statement>E</statement>"
+                    + "<options><option>A</option></options><correct_answer>B</correct_answer></question>",
+            "<question type=\"open\" bloom_level=\"Crear\" estimated_time=\"30\"><statement>E</statement></question>"
+    })
+    void reportsTheFirstInvalidQuestionLikeTheBaselineLoader(String invalidQuestion) throws IOException {
+        List<String> questions = generateQuestions(200, 11);
+        questions.add(120, invalidQuestion);
+        File file = write("invalido.xml", questions, "Inválido");
+
+        IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                () -> new BaselineLoaders.Xml().loadTest(file));
+        IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                () -> new XMLLoader().loadTest(file));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void rejectsADocumentWithoutQuestions() throws IOException {
+        File file = write("vacio.xml", new ArrayList<>(), "Vacío");
+        IllegalArgumentException expected = assertThrows(IllegalArgumentException.class,
+                () -> new BaselineLoaders.Xml().loadTest(file));
+        IllegalArgumentException actual = assertThrows(IllegalArgumentException.class,
+                () -> new XMLLoader().loadTest(file));
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    @Test
+    void reportsMalformedDocumentsAsReadErrors() throws IOException {
+        File file = new File(directory, "roto.xml");
+        Files.write(file.toPath(), "<test name=\"Roto\"><question type=\"true_false\"".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> new BaselineLoaders.Xml().loadTest(file));
+        IOException actual = assertThrows(IOException.class, () -> new XMLLoader().loadTest(file));
+        assertTrue(actual.getMessage().startsWith("Error al parsear el archivo XML"));
+    }
+
+    /**
+     * Genera preguntas válidas con las variaciones que acepta el formato: espacios alrededor de los
+     * textos, entidades, secciones CDATA, comentarios, y respuestas por índice o por texto.
+     */
+    static List<String> generateQuestions(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> questions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder xml = new StringBuilder();
+            String level = LEVELS[random.nextInt(LEVELS.length)];
+            int time = 1 + random.nextInt(300);
+            String statement = random.nextBoolean()
+                    ? "¿La energía &amp; el núcleo de la célula " + i + " son &lt;iguales&gt;?"
+                    : "<![CDATA[¿La energía & el núcleo de la célula " + i + " son <iguales>?]]>";
+            if (random.nextInt(3) == 0) {
+                xml.append("<question type=\"true_false\" bloom_level=\"").append(level)
+                        .append("\" estimated_time=\"").append(time).append("\">\n")
+                        .append("  <statement>\n    ").append(statement).append("\n  </statement>\n")
+                        .append("  <!-- Respuesta -->\n")
+                        .append("  <correct_answer> ").append(TRUE_FALSE_ANSWERS[random.nextInt(TRUE_FALSE_ANSWERS.length)])
+                        .append(" </correct_answer>\n</question>");
+            } else {
+                int optionCount = 1 + random.nextInt(6);
+                int correct = random.nextInt(optionCount);
+                xml.append("<question type=\"").append(random.nextBoolean() ? "multiple_choice" : "MULTIPLE_CHOICE")
+                        .append("\" bloom_level=\"").append(level)
+                        .append("\" estimated_time=\"").append(time).append("\">\n")
+                        .append("  <statement>").append(statement).append("</statement>\n  <options>\n");
+                for (int option = 0; option < optionCount; option++) {
+                    xml.append("    <option> Opción ").append((char) ('A' + option)).append(", pregunta ").append(i)
+                            .append(" </option>\n");
+                }
+                xml.append("  </options>\n");
+                String correctText = "Opción " + (char) ('A' + correct) + ", pregunta " + i;
+                if (random.nextBoolean()) {
+                    xml.append("  <correct_answer index=\"").append(correct).append("\">").append(correctText);
+                } else {
+                    xml.append("  <correct_answer>").append(correctText.toLowerCase());
+                }
+                xml.append("</correct_answer>\n</question>");
+            }
+            questions.add(xml.toString());
+        }
+        return questions;
+    }
+
+    private File write(String name, List<String> questions, String testName) throws IOException {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append(testName.isEmpty() ? "<test>\n" : "<test name=\"" + testName + "\">\n");
+        for (String question : questions) {
+            xml.append(question).append('\n');
+        }
+        xml.append("</test>\n");
+        File file = new File(directory, name);
+        Files.write(file.toPath(), xml.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,165 @@
+// backend/grading/ResultExporterTest.java
+package backend.grading;
+
+import backend.model.BloomLevel;
+import backend.model.QuestionFixtures;
+import backend.model.QuestionType;
+import backend.model.TestResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResultExporterTest {
+    private final backend.model.Test test = QuestionFixtures.mixed("Prueba", 90, 1);
+
+    @TempDir
+    File directory;
+
+    @Test
+    void csvHasAHeaderAndOneLinePerCandidate() throws IOException {
+        List<TestResult> results = results(20);
+        String[] lines = export(ResultExporter.Format.CSV, results).split("\n");
+
+        StringBuilder header = new StringBuilder("candidato;porcentaje");
+        for (BloomLevel level : BloomLevel.values()) {
+            header.append(';').append(level.getName());
+        }
+        for (QuestionType type : QuestionType.values()) {
+            header.append(';').append(type.getName());
+        }
+        for (int i = 1; i <= test.getNumberOfItems(); i++) {
+            header.append(";P").append(i);
+        }
+        assertEquals(results.size() + 1, lines.length);
+        assertEquals(header.toString(), lines[0]);
+
+        for (int candidate = 0; candidate < results.size(); candidate++) {
+            TestResult result = results.get(candidate);
+            StringBuilder line = new StringBuilder("candidato-" + candidate).append(';').append(number(result.getPercentage()));
+            for (BloomLevel level : BloomLevel.values()) {
+                line.append(';').append(number(result.getBloomPercentage(level)));
+            }
+            for (QuestionType type : QuestionType.values()) {
+                line.append(';').append(number(result.getTypePercentage(type)));
+            }
+            for (int i = 0; i < test.getNumberOfItems(); i++) {
+                line.append(';').append(result.isCorrect(i) ? 1 : 0);
+            }
+            assertEquals(line.toString(), lines[candidate + 1]);
+        }
+    }
+
+    @Test
+    void jsonLinesHaveOneObjectPerCandidate() throws IOException {
+        List<TestResult> results = results(10);
+        String[] lines = export(ResultExporter.Format.JSON_LINES, results).split("\n");
+
+        assertEquals(results.size(), lines.length);
+        for (int candidate = 0; candidate < results.size(); candidate++) {
+            TestResult result = results.get(candidate);
+            StringBuilder line = new StringBuilder("{\"candidato\":\"candidato-" + candidate + "\",\"porcentaje\":")
+                    .append(number(result.getPercentage())).append(",\"bloom\":{");
+            for (BloomLevel level : BloomLevel.values()) {
+                line.append(level.ordinal() > 0 ? "," : "").append('"').append(level.getName()).append("\":")
+                        .append(number(result.getBloomPercentage(level)));
+            }
+            line.append("},\"tipos\":{");
+            for (QuestionType type : QuestionType.values()) {
+                line.append(type.ordinal() > 0 ? "," : "").append('"').append(type.getName()).append("\":")
+                        .append(number(result.getTypePercentage(type)));
+            }
+            line.append("},\"correctas\":[");
+            for (int i = 0; i < test.getNumberOfItems(); i++) {
+                line.append(i > 0 ? "," : "").append(result.isCorrect(i) ? 1 : 0);
+            }
+            assertEquals(line.append("]}").toString(), lines[candidate]);
+        }
+    }
+
+    @Test
+    void escapesCandidateIdentifiers() throws IOException {
+        TestResult result = results(1).get(0);
+        String id = "ana;\"x\"\\\nñ";
+
+        String csv = exportOne(ResultExporter.Format.CSV, id, result);
+        assertEquals("\"ana;\"\"x\"\"\\\nñ\";", csv.substring(csv.indexOf('\n') + 1, csv.indexOf("\";") + 2));
+        String json = exportOne(ResultExporter.Format.JSON_LINES, id, result);
+        assertEquals("{\"candidato\":\"ana;\\\"x\\\"\\\\\\u000añ\",", json.substring(0, json.indexOf(',') + 1));
+    }
+
+    @Test
+    void gzipFilesDecompressToTheSameText() throws IOException {
+        List<TestResult> results = results(3000); // Varias veces el búfer del exportador
+        for (ResultExporter.Format format : ResultExporter.Format.values()) {
+            File plain = new File(directory, "resultados." + format);
+            File compressed = new File(directory, "resultados." + format + ".gz");
+            for (File file : new File[]{plain, compressed}) {
+                try (ResultExporter exporter = ResultExporter.open(file, format, file == compressed, test.getNumberOfItems())) {
+                    for (int candidate = 0; candidate < results.size(); candidate++) {
+                        exporter.write("candidato-" + candidate, results.get(candidate));
+                    }
+                    assertEquals(results.size(), exporter.getWrittenCount());
+                }
+            }
+            byte[] expected = Files.readAllBytes(plain.toPath());
+            assertEquals(export(format, results), new String(expected, StandardCharsets.UTF_8));
+            try (InputStream in = new GZIPInputStream(new FileInputStream(compressed))) {
+                assertArrayEquals(expected, readAll(in), format.toString());
+            }
+        }
+    }
+
+    private List<TestResult> results(int count) {
+        List<TestResult> results = new ArrayList<>();
+        for (int candidate = 0; candidate < count; candidate++) {
+            results.add(TestResult.of(test, QuestionFixtures.randomSheet(test, candidate)));
+        }
+        return results;
+    }
+
+    private String export(ResultExporter.Format format, List<TestResult> results) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ResultExporter exporter = new ResultExporter(Channels.newChannel(out), format, test.getNumberOfItems())) {
+            for (int candidate = 0; candidate < results.size(); candidate++) {
+                exporter.write("candidato-" + candidate, results.get(candidate));
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String exportOne(ResultExporter.Format format, String candidateId, TestResult result) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ResultExporter exporter = new ResultExporter(Channels.newChannel(out), format, test.getNumberOfItems())) {
+            exporter.write(candidateId, result);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = in.read(buffer)) > 0; ) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
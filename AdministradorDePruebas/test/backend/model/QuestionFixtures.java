@@ -0,0 +1,115 @@
+// backend/model/QuestionFixtures.java
+package backend.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas y comparaciones compartidas por las pruebas unitarias.
+ */
+public final class QuestionFixtures {
+    private static final String[] WORDS = {
+            "célula", "energía", "función", "árbol", "número", "ecuación", "río", "montaña",
+            "teoría", "proceso", "sistema", "análisis", "página", "canción", "núcleo", "océano"
+    };
+
+    private QuestionFixtures() {
+    }
+
+    /**
+     * Crea una prueba con preguntas de ambos tipos, de todos los niveles y con enunciados acentuados.
+     * @param name El nombre de la prueba.
+     * @param size La cantidad de preguntas.
+     * @param seed La semilla; la misma semilla da la misma prueba.
+     * @return La prueba.
+     */
+    public static Test mixed(String name, int size, long seed) {
+        Random random = new Random(seed);
+        BloomLevel[] levels = BloomLevel.values();
+        Test test = new Test(name);
+        for (int i = 0; i < size; i++) {
+            BloomLevel level = levels[random.nextInt(levels.length)];
+            int time = 10 + random.nextInt(120);
+            String statement = "¿Pregunta " + i + " sobre " + WORDS[random.nextInt(WORDS.length)]
+                    + " y " + WORDS[random.nextInt(WORDS.length)] + "?";
+            if (random.nextInt(3) == 0) {
+                test.addQuestion(new TrueFalseQuestion(statement, level, time, random.nextBoolean()));
+            } else {
+                List<String> options = new ArrayList<>();
+                int count = 2 + random.nextInt(4);
+                for (int option = 0; option < count; option++) {
+                    options.add("Opción " + option + " " + WORDS[random.nextInt(WORDS.length)]);
+                }
+                test.addQuestion(new MultipleChoiceQuestion(statement, level, time, options, random.nextInt(count)));
+            }
+        }
+        return test;
+    }
+
+    /**
+     * Describe todo lo que un cargador debe conservar de una pregunta.
+     * @param question La pregunta.
+     * @return Una línea con el tipo, el enunciado, el nivel, el tiempo, la clave y las opciones.
+     */
+    public static String describe(Question question) {
+        String description = question.getQuestionType() + "|" + question.getStatement() + "|"
+                + question.getBloomLevel() + "|" + question.getEstimatedTime() + "|" + question.getAnswerKey();
+        if (question instanceof MultipleChoiceQuestion) {
+            MultipleChoiceQuestion multipleChoice = (MultipleChoiceQuestion) question;
+            description += "|" + multipleChoice.getOptions() + "|" + multipleChoice.getCorrectOptionIndex()
+                    + "|" + multipleChoice.getCorrectAnswerText();
+        } else {
+            description += "|" + ((TrueFalseQuestion) question).getCorrectAnswer();
+        }
+        return description;
+    }
+
+    /**
+     * Verifica que dos listas tienen las mismas preguntas en el mismo orden.
+     * @param expected Las preguntas esperadas.
+     * @param actual Las preguntas obtenidas.
+     */
+    public static void assertSameQuestions(List<Question> expected, List<Question> actual) {
+        assertEquals(expected.size(), actual.size(), "Cantidad de preguntas");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(describe(expected.get(i)), describe(actual.get(i)), "Pregunta " + i);
+        }
+    }
+
+    /**
+     * Crea una hoja con respuestas al azar: correctas, incorrectas y sin responder.
+     * @param test La prueba.
+     * @param seed La semilla.
+     * @return La hoja.
+     */
+    public static AnswerSheet randomSheet(Test test, long seed) {
+        Random random = new Random(seed);
+        AnswerSheet sheet = test.newAnswerSheet();
+        List<Question> questions = test.getQuestions();
+        for (int i = 0; i < questions.size(); i++) {
+            Question question = questions.get(i);
+            int choice = random.nextInt(4);
+            if (choice == 0) {
+                continue;
+            }
+            if (question instanceof MultipleChoiceQuestion) {
+                int options = ((MultipleChoiceQuestion) question).getOptions().size();
+                sheet.set(i, AnswerSheet.optionCode(random.nextInt(options)));
+            } else {
+                sheet.set(i, AnswerSheet.booleanCode(random.nextBoolean()));
+            }
+        }
+        return sheet;
+    }
+
+    /**
+     * Crea una pregunta de selección múltiple con opciones fijas.
+     */
+    public static MultipleChoiceQuestion multipleChoice(String statement, BloomLevel level, int time, int correct, String... options) {
+        return new MultipleChoiceQuestion(statement, level, time, new ArrayList<>(Arrays.asList(options)), correct);
+    }
+}
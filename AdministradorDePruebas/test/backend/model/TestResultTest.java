@@ -0,0 +1,134 @@
+// backend/model/TestResultTest.java
+package backend.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestResultTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 8, 63, 64, 65, 127, 128, 1000, 16383})
+    void bytesRoundTripToAnEqualResult(int size) {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", size, size);
+        TestResult result = TestResult.of(test, QuestionFixtures.randomSheet(test, 7));
+
+        TestResult copy = TestResult.fromBytes(result.toBytes());
+        assertEquals(result, copy);
+        assertEquals(result.hashCode(), copy.hashCode());
+        assertEquals(result.getNumberOfItems(), copy.getNumberOfItems());
+        assertEquals(result.getCorrectCount(), copy.getCorrectCount());
+        assertArrayEquals(result.getAnswers(), copy.getAnswers());
+        for (BloomLevel level : BloomLevel.values()) {
+            assertEquals(result.getTotalByBloom(level), copy.getTotalByBloom(level));
+            assertEquals(result.getCorrectByBloom(level), copy.getCorrectByBloom(level));
+        }
+        for (QuestionType type : QuestionType.values()) {
+            assertEquals(result.getTotalByType(type), copy.getTotalByType(type));
+            assertEquals(result.getCorrectByType(type), copy.getCorrectByType(type));
+        }
+        for (int i = 0; i < size; i++) {
+            assertEquals(result.isCorrect(i), copy.isCorrect(i), "Pregunta " + i);
+        }
+    }
+
+    @Test
+    void freezesTheSheetItWasCreatedFrom() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 50, 1);
+        AnswerSheet sheet = QuestionFixtures.randomSheet(test, 2);
+        TestResult result = TestResult.of(test, sheet);
+        byte[] before = result.toBytes();
+
+        for (int i = 0; i < sheet.size(); i++) {
+            sheet.set(i, AnswerSheet.UNANSWERED);
+        }
+        result.getAnswers()[0] = 42;
+        assertArrayEquals(before, result.toBytes());
+    }
+
+    @Test
+    void countsAgreeWithTheSheet() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 300, 3);
+        AnswerSheet sheet = QuestionFixtures.randomSheet(test, 4);
+        TestResult result = TestResult.of(test, sheet);
+
+        assertEquals(sheet.countCorrect(), result.getCorrectCount());
+        for (BloomLevel level : BloomLevel.values()) {
+            assertEquals(test.getTotalByBloom(level), result.getTotalByBloom(level));
+            assertEquals(sheet.getCorrectByBloom(level), result.getCorrectByBloom(level));
+        }
+        for (int i = 0; i < sheet.size(); i++) {
+            assertEquals(sheet.isCorrect(i), result.isCorrect(i));
+            assertEquals(sheet.get(i), result.getAnswerCode(i));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {128, 1000, 16383})
+    void staysWithinTheDocumentedSize(int size) {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", size, 5);
+        int length = TestResult.of(test, QuestionFixtures.randomSheet(test, 6)).toBytes().length;
+        int fixed = size + (size + 7) / 8;
+        assertTrue(length >= fixed + 23 && length <= fixed + 39, length + " bytes para " + size + " preguntas");
+    }
+
+    @Test
+    void rejectsEveryTruncatedCopyAndTrailingBytes() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 70, 8);
+        byte[] bytes = TestResult.of(test, QuestionFixtures.randomSheet(test, 9)).toBytes();
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(truncated), "Cortado en " + length);
+        }
+        assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(Arrays.copyOf(bytes, bytes.length + 1)));
+    }
+
+    @Test
+    void rejectsTamperedCounters() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 100, 10);
+        byte[] bytes = TestResult.of(test, QuestionFixtures.randomSheet(test, 11)).toBytes();
+
+        // Cabecera de 3 bytes, cantidad de niveles, y luego total y aciertos de cada nivel (1 byte cada uno)
+        byte[] moreCorrectThanTotal = bytes.clone();
+        moreCorrectThanTotal[5] = (byte) (moreCorrectThanTotal[4] + 1);
+        assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(moreCorrectThanTotal));
+
+        byte[] wrongTotal = bytes.clone();
+        wrongTotal[4]++;
+        assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(wrongTotal));
+
+        byte[] otherCategories = bytes.clone();
+        otherCategories[3]++;
+        assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(otherCategories));
+
+        byte[] otherFormat = bytes.clone();
+        otherFormat[0] = '{';
+        assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(otherFormat));
+    }
+
+    @Test
+    void rejectsACorrectBitOnAnUnansweredQuestion() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 16, 12);
+        AnswerSheet sheet = test.newAnswerSheet(); // Sin respuestas: ningún acierto
+        byte[] bytes = TestResult.of(test, sheet).toBytes();
+        bytes[bytes.length - 1] |= 1;
+        assertThrows(IllegalArgumentException.class, () -> TestResult.fromBytes(bytes));
+    }
+
+    @Test
+    void differentAnswersAreNotEqual() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 40, 13);
+        AnswerSheet sheet = QuestionFixtures.randomSheet(test, 14);
+        TestResult first = TestResult.of(test, sheet);
+        sheet.set(0, sheet.get(0) == AnswerSheet.UNANSWERED ? test.getQuestions().get(0).getAnswerKey() : AnswerSheet.UNANSWERED);
+        assertNotEquals(first, TestResult.of(test, sheet));
+    }
+}
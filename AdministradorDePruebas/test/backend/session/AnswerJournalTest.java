@@ -0,0 +1,281 @@
+// backend/session/AnswerJournalTest.java
+package backend.session;
+
+import backend.model.QuestionFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.CRC32;
+
+import static backend.session.SessionFixtures.BANK_HASH;
+import static backend.session.SessionFixtures.assertSameState;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerJournalTest {
+    private static final int MAGIC = 0x414A4E4C; // Cabecera del archivo, como en AnswerJournal
+    private static final int VERSION = 2;
+
+    private final backend.model.Test test = QuestionFixtures.mixed("Prueba", 120, 1);
+
+    @TempDir
+    File directory;
+
+    @Test
+    void resumesOnlyTheUnfinishedSessionsAfterARestart() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        TestSession shuffled = startedSession(journal, "ordenada-al-azar", 11L);
+        TestSession inOrder = startedSession(journal, "en-orden", null);
+        TestSession finished = startedSession(journal, "terminada", 12L);
+        TestSession closed = startedSession(journal, "cerrada", 13L);
+        SessionFixtures.play(shuffled, 300, 1);
+        SessionFixtures.play(inOrder, 300, 2);
+        SessionFixtures.play(finished, 50, 3);
+        SessionFixtures.play(closed, 50, 4);
+        finished.finish();
+        journal.detach(closed);
+        journal.close();
+
+        AnswerJournal reopened = AnswerJournal.open(file, t -> BANK_HASH);
+        assertEquals(new HashSet<>(Arrays.asList("ordenada-al-azar", "en-orden")),
+                new HashSet<>(reopened.getRecoveredSessionIds()));
+        assertSameState(shuffled, reopened.resume("ordenada-al-azar", test));
+        assertSameState(inOrder, reopened.resume("en-orden", test));
+        assertNull(reopened.resume("en-orden", test), "Cada sesión se reanuda una sola vez");
+        assertNull(reopened.resume("terminada", test));
+        assertNull(reopened.resume("cerrada", test));
+        reopened.close();
+    }
+
+    @Test
+    void aResumedSessionKeepsJournaling() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        SessionFixtures.play(startedSession(journal, "candidato", 5L), 100, 5);
+        journal.close();
+
+        journal = AnswerJournal.open(file, t -> BANK_HASH);
+        TestSession resumed = journal.resume("candidato", test);
+        SessionFixtures.play(resumed, 100, 6);
+        journal.close();
+
+        journal = AnswerJournal.open(file, t -> BANK_HASH);
+        assertSameState(resumed, journal.resume("candidato", test));
+        journal.close();
+    }
+
+    @Test
+    void discardsABatchTornByACrash() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        TestSession session = startedSession(journal, "candidato", 21L);
+        SessionFixtures.play(session, 200, 7);
+        byte[] durable = Files.readAllBytes(file.toPath());
+        TestSession expected = SessionSnapshot.of(session, BANK_HASH).restore(test);
+
+        // Cada operación de la sesión es un lote; el último se corta en cada byte posible
+        session.setFlagged(0, !session.isFlagged(0));
+        journal.close();
+        byte[] written = Files.readAllBytes(file.toPath());
+        assertTrue(written.length > durable.length);
+
+        File crashed = new File(directory, "cortado.journal");
+        for (int length = durable.length; length < written.length; length++) {
+            Files.write(crashed.toPath(), Arrays.copyOf(written, length));
+            AnswerJournal recovered = AnswerJournal.open(crashed, t -> BANK_HASH);
+            assertEquals(Arrays.asList("candidato"), recovered.getRecoveredSessionIds(), "Cortado en " + length);
+            assertSameState(expected, recovered.resume("candidato", test));
+            recovered.close();
+        }
+        Files.write(crashed.toPath(), written);
+        AnswerJournal recovered = AnswerJournal.open(crashed, t -> BANK_HASH);
+        assertSameState(session, recovered.resume("candidato", test));
+        recovered.close();
+    }
+
+    @Test
+    void ignoresABatchWithAWrongChecksum() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        TestSession session = startedSession(journal, "candidato", 22L);
+        SessionFixtures.play(session, 50, 8);
+        TestSession expected = SessionSnapshot.of(session, BANK_HASH).restore(test);
+        session.setFlagged(3, !session.isFlagged(3));
+        journal.close();
+
+        // El lote tiene su longitud completa pero no el contenido que se sincronizó
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[bytes.length - 1] ^= 0x01;
+        Files.write(file.toPath(), bytes);
+        AnswerJournal recovered = AnswerJournal.open(file, t -> BANK_HASH);
+        assertSameState(expected, recovered.resume("candidato", test));
+        recovered.close();
+    }
+
+    @Test
+    void compactsTheFileWhenItOpens() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        TestSession session = startedSession(journal, "candidato", 31L);
+        SessionFixtures.play(session, 2000, 9);
+        TestSession done = startedSession(journal, "terminada", 32L);
+        SessionFixtures.play(done, 500, 10);
+        done.finish();
+        journal.close();
+        long before = file.length();
+
+        journal = AnswerJournal.open(file, t -> BANK_HASH);
+        long compacted = file.length();
+        assertTrue(compacted < before / 4, before + " bytes compactados a " + compacted);
+        journal.close();
+
+        journal = AnswerJournal.open(file, t -> BANK_HASH);
+        assertEquals(compacted, file.length(), "Compactar un diario ya compactado no lo cambia");
+        assertSameState(session, journal.resume("candidato", test));
+        assertFalse(new File(directory, "respuestas.journal.tmp").exists());
+        journal.close();
+    }
+
+    @Test
+    void onlyOneInstanceCanUseTheJournal() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        assertThrows(IOException.class, () -> AnswerJournal.open(file, t -> BANK_HASH));
+        journal.close();
+        AnswerJournal.open(file, t -> BANK_HASH).close();
+    }
+
+    @Test
+    void resumesOnlyOnTheSameBank() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        SessionFixtures.play(startedSession(journal, "candidato", 41L), 100, 11);
+        journal.close();
+
+        journal = AnswerJournal.open(file, t -> "otra-huella");
+        assertNull(journal.resume("candidato", test), "Banco editado");
+        journal.close();
+        journal = AnswerJournal.open(file, t -> BANK_HASH);
+        assertNull(journal.resume("candidato", QuestionFixtures.mixed("Prueba", 121, 1)), "Otra cantidad de preguntas");
+        assertNotNull(journal.resume("candidato", test));
+        journal.close();
+    }
+
+    @Test
+    void writesTheEndOfASessionOnce() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        TestSession session = startedSession(journal, "candidato", 51L);
+        SessionFixtures.play(session, 20, 12);
+
+        long records = journal.getRecordCount();
+        session.finish();
+        session.finish();
+        assertEquals(records + 1, journal.getRecordCount());
+        session.startReview();
+        session.goToQuestion(5);
+        session.goToNextQuestion();
+        assertEquals(records + 1, journal.getRecordCount(), "La revisión no se registra");
+        journal.close();
+    }
+
+    @Test
+    void backgroundDurabilityPersistsEverythingOnClose() throws IOException {
+        File file = new File(directory, "respuestas.journal");
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH, AnswerJournal.Durability.BACKGROUND);
+        TestSession session = startedSession(journal, "candidato", 61L);
+        SessionFixtures.play(session, 1000, 13);
+        journal.close();
+
+        journal = AnswerJournal.open(file, t -> BANK_HASH);
+        assertSameState(session, journal.resume("candidato", test));
+        journal.close();
+    }
+
+    @Test
+    void rejectsRecordsOutsideTheSessionTest() throws IOException {
+        File file = new File(directory, "invalido.journal");
+        for (byte[] record : new byte[][]{
+                {AnswerJournal.POSITION, 0, 3}, // Posición 3 en una prueba de 3 preguntas
+                {AnswerJournal.ANSWER, 0, 5, 1},
+                {AnswerJournal.FLAG, 0, 9, 1},
+                {AnswerJournal.ANSWER, 1, 0, 1}, // Sesión sin apertura
+                {AnswerJournal.ANSWER, 0, 0}, // Registro cortado dentro de un lote válido
+                {42, 0}
+        }) {
+            writeJournal(file, openRecord("candidato", 3), record);
+            assertThrows(IllegalArgumentException.class, () -> AnswerJournal.open(file, t -> BANK_HASH),
+                    Arrays.toString(record));
+        }
+
+        writeJournal(file, openRecord("candidato", 3), new byte[]{AnswerJournal.POSITION, 0, 2});
+        AnswerJournal journal = AnswerJournal.open(file, t -> BANK_HASH);
+        assertEquals(2, journal.resume("candidato", QuestionFixtures.mixed("Tres", 3, 1)).getCurrentQuestionIndex());
+        journal.close();
+    }
+
+    @Test
+    void rejectsAFileThatIsNotAJournal() throws IOException {
+        File file = new File(directory, "otro.journal");
+        Files.write(file.toPath(), "tipo;enunciado;opciones".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> AnswerJournal.open(file, t -> BANK_HASH));
+        assertEquals("tipo;enunciado;opciones", new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+
+        Files.delete(file.toPath()); // La apertura fallida no se quedó con el candado
+        AnswerJournal.open(file, t -> BANK_HASH).close();
+    }
+
+    private TestSession startedSession(AnswerJournal journal, String sessionId, Long seed) {
+        TestSession session = new TestSession(sessionId, test);
+        journal.attach(session);
+        if (seed != null) {
+            session.start(seed);
+        } else {
+            session.startInOriginalOrder();
+        }
+        return session;
+    }
+
+    private static byte[] openRecord(String sessionId, int numberOfItems) {
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = BANK_HASH.getBytes(StandardCharsets.UTF_8);
+        record.write(AnswerJournal.OPEN);
+        record.write(0); // Número de sesión
+        record.write(id.length);
+        record.write(id, 0, id.length);
+        record.write(hash.length);
+        record.write(hash, 0, hash.length);
+        record.write(numberOfItems);
+        record.write(0); // Orden original
+        return record.toByteArray();
+    }
+
+    /**
+     * Escribe un diario con un lote válido (longitud y CRC32 correctos) por registro.
+     */
+    private static void writeJournal(File file, byte[]... records) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(ByteBuffer.allocate(8).putInt(MAGIC).putInt(VERSION).array());
+        for (byte[] record : records) {
+            CRC32 crc = new CRC32();
+            crc.update(record, 0, record.length);
+            out.write(ByteBuffer.allocate(8).putInt(record.length).putInt((int) crc.getValue()).array());
+            out.write(record);
+        }
+        Files.write(file.toPath(), out.toByteArray());
+    }
+}
@@ -0,0 +1,74 @@
+// backend/session/SessionFixtures.java
+package backend.session;
+
+import backend.model.AnswerSheet;
+import backend.model.MultipleChoiceQuestion;
+import backend.model.Question;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Operaciones de candidato al azar y comparación del estado de dos sesiones.
+ */
+final class SessionFixtures {
+    static final String BANK_HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    private SessionFixtures() {
+    }
+
+    /**
+     * Recorre una sesión empezada como lo haría un candidato: navega, responde, cambia respuestas y marca.
+     * @param session La sesión, ya empezada.
+     * @param steps La cantidad de operaciones.
+     * @param seed La semilla.
+     */
+    static void play(TestSession session, int steps, long seed) {
+        Random random = new Random(seed);
+        int size = session.getNumberOfItems();
+        for (int step = 0; step < steps; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 3) {
+                session.goToQuestion(random.nextInt(size));
+            } else if (operation < 4) {
+                session.goToNextQuestion();
+            } else if (operation < 5) {
+                session.setFlagged(random.nextInt(size), random.nextBoolean());
+            } else {
+                session.saveAnswerCode(randomAnswer(session.getCurrentQuestion(), random));
+            }
+        }
+    }
+
+    /**
+     * Elige una respuesta válida para una pregunta, o ninguna.
+     */
+    static byte randomAnswer(Question question, Random random) {
+        if (random.nextInt(8) == 0) {
+            return AnswerSheet.UNANSWERED;
+        }
+        if (question instanceof MultipleChoiceQuestion) {
+            return AnswerSheet.optionCode(random.nextInt(((MultipleChoiceQuestion) question).getOptions().size()));
+        }
+        return AnswerSheet.booleanCode(random.nextBoolean());
+    }
+
+    /**
+     * Verifica que dos sesiones tienen el mismo orden, la misma posición, las mismas respuestas y las mismas marcas.
+     */
+    static void assertSameState(TestSession expected, TestSession actual) {
+        assertEquals(expected.getSessionId(), actual.getSessionId());
+        assertEquals(expected.getNumberOfItems(), actual.getNumberOfItems());
+        assertEquals(expected.getOrder().isShuffled(), actual.getOrder().isShuffled());
+        assertEquals(expected.getOrder().getSeed(), actual.getOrder().getSeed());
+        assertEquals(expected.getCurrentQuestionIndex(), actual.getCurrentQuestionIndex());
+        assertEquals(expected.getAnsweredCount(), actual.getAnsweredCount());
+        assertEquals(expected.getFlaggedCount(), actual.getFlaggedCount());
+        for (int position = 0; position < expected.getNumberOfItems(); position++) {
+            assertEquals(expected.getOrder().getQuestionIndex(position), actual.getOrder().getQuestionIndex(position));
+            assertEquals(expected.getAnswerCode(position), actual.getAnswerCode(position), "Respuesta en " + position);
+            assertEquals(expected.isFlagged(position), actual.isFlagged(position), "Marca en " + position);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+// backend/session/SessionSnapshotTest.java
+package backend.session;
+
+import backend.model.AnswerSheet;
+import backend.model.BloomLevel;
+import backend.model.QuestionFixtures;
+import backend.model.TrueFalseQuestion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+
+import static backend.session.SessionFixtures.BANK_HASH;
+import static backend.session.SessionFixtures.assertSameState;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SessionSnapshotTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void restoresTheSessionFromItsBytes(boolean shuffled) {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 150, 1);
+        TestSession session = new TestSession("candidato-ñandú", test);
+        if (shuffled) {
+            session.start(42);
+        } else {
+            session.startInOriginalOrder();
+        }
+        SessionFixtures.play(session, 400, 2);
+
+        SessionSnapshot snapshot = SessionSnapshot.fromByteArray(SessionSnapshot.of(session, BANK_HASH).toByteArray());
+        assertEquals(BANK_HASH, snapshot.getBankHash());
+        assertEquals(session.getSessionId(), snapshot.getSessionId());
+        assertEquals(session.getNumberOfItems(), snapshot.getNumberOfItems());
+        assertEquals(session.getCurrentQuestionIndex(), snapshot.getCurrentQuestionIndex());
+        assertEquals(session.getAnsweredCount(), snapshot.getAnsweredCount());
+        assertSameState(session, snapshot.restore(test));
+    }
+
+    @Test
+    void restoresASessionThatHasNotStarted() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 10, 3);
+        TestSession session = new TestSession("sin-empezar", test);
+        TestSession restored = SessionSnapshot.fromByteArray(SessionSnapshot.of(session, BANK_HASH).toByteArray()).restore(test);
+        assertEquals(-1, restored.getCurrentQuestionIndex());
+        assertEquals(0, restored.getAnsweredCount());
+    }
+
+    @Test
+    void rejectsEveryDamagedOrTruncatedCopy() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 40, 4);
+        TestSession session = new TestSession("candidato", test);
+        session.start(7);
+        SessionFixtures.play(session, 100, 5);
+        byte[] bytes = SessionSnapshot.of(session, BANK_HASH).toByteArray();
+
+        for (int i = 0; i < bytes.length; i++) {
+            byte[] damaged = bytes.clone();
+            damaged[i] ^= 0x10;
+            assertThrows(IllegalArgumentException.class, () -> SessionSnapshot.fromByteArray(damaged), "Byte " + i);
+        }
+        for (int length = 0; length < bytes.length; length++) {
+            byte[] truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> SessionSnapshot.fromByteArray(truncated), "Cortado en " + length);
+        }
+    }
+
+    @Test
+    void rejectsATestWithAnotherNumberOfQuestions() {
+        backend.model.Test test = QuestionFixtures.mixed("Prueba", 20, 6);
+        TestSession session = new TestSession("candidato", test);
+        session.start();
+        SessionSnapshot snapshot = SessionSnapshot.of(session, BANK_HASH);
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(QuestionFixtures.mixed("Otra", 21, 6)));
+    }
+
+    @Test
+    void rejectsAnswersTheQuestionsCannotHave() {
+        backend.model.Test original = new backend.model.Test("Original");
+        original.addQuestion(QuestionFixtures.multipleChoice("¿Cuál?", BloomLevel.RECORDAR, 30, 0, "A", "B", "C", "D", "E"));
+        original.addQuestion(new TrueFalseQuestion("¿Es así?", BloomLevel.ENTENDER, 20, true));
+        TestSession session = new TestSession("candidato", original);
+        session.startInOriginalOrder();
+        session.saveAnswerCode(AnswerSheet.optionCode(4));
+        SessionSnapshot snapshot = SessionSnapshot.fromByteArray(SessionSnapshot.of(session, BANK_HASH).toByteArray());
+
+        // Mismo tamaño, pero la primera pregunta solo tiene dos opciones
+        backend.model.Test edited = new backend.model.Test("Editada");
+        edited.addQuestion(QuestionFixtures.multipleChoice("¿Cuál?", BloomLevel.RECORDAR, 30, 0, "A", "B"));
+        edited.addQuestion(new TrueFalseQuestion("¿Es así?", BloomLevel.ENTENDER, 20, true));
+        assertThrows(IllegalArgumentException.class, () -> snapshot.restore(edited));
+        assertEquals(AnswerSheet.optionCode(4), snapshot.restore(original).getAnswerCode(0));
+    }
+}